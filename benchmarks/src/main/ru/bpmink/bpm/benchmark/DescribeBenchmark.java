@@ -0,0 +1,57 @@
+package ru.bpmink.bpm.benchmark;
+
+import org.apache.http.Consts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.model.common.Describable;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ru.bpmink.bpm.model.common.Describable#describe()} of deserialized recorded responses, which is
+ * called by the clients' callers for logging.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DescribeBenchmark {
+
+    @Param({"TASK_DETAILS", "PROCESS_DETAILS", "QUERY_RESULT_SET", "EXPOSED_ITEMS"})
+    private Fixture fixture;
+
+    private Describable payload;
+
+    /**
+     * Deserializes the fixture once.
+     */
+    @Setup
+    public void setUp() {
+        RestRootEntity<?> entity = (RestRootEntity<?>) new SerializationEngine()
+                .fromJson(new String(fixture.getContent(), Consts.UTF_8), fixture.getTypeToken());
+        payload = entity.getPayload();
+    }
+
+    /**
+     * Describes the payload of the response.
+     */
+    @Benchmark
+    public String describe() {
+        return payload.describe();
+    }
+
+}
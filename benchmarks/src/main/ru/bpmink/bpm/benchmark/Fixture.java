@@ -0,0 +1,75 @@
+package ru.bpmink.bpm.benchmark;
+
+import com.google.common.io.ByteStreams;
+import com.google.gson.reflect.TypeToken;
+
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.other.exposed.ExposedItems;
+import ru.bpmink.bpm.model.process.ProcessDetails;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+import ru.bpmink.bpm.model.task.TaskDetails;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Recorded responses of bpm rest api, which are used as the payload of benchmarks.
+ * Each fixture knows the endpoint it's served from by {@link ru.bpmink.bpm.benchmark.StubBpmServer} and
+ * the response entity type.
+ */
+public enum Fixture {
+
+    TASK_DETAILS("task-details.json", "/rest/bpm/wle/v1/task/",
+            new TypeToken<RestRootEntity<TaskDetails>>() {}),
+    PROCESS_DETAILS("process-details.json", "/rest/bpm/wle/v1/process/",
+            new TypeToken<RestRootEntity<ProcessDetails>>() {}),
+    QUERY_RESULT_SET("query-result-set.json", "/rest/bpm/wle/v1/tasks/query/",
+            new TypeToken<RestRootEntity<QueryResultSet>>() {}),
+    EXPOSED_ITEMS("exposed-items.json", "/rest/bpm/wle/v1/exposed",
+            new TypeToken<RestRootEntity<ExposedItems>>() {});
+
+    private static final String FIXTURES_PATH = "/fixtures/";
+
+    private final String fileName;
+    private final String endpoint;
+    private final TypeToken<? extends RestRootEntity<?>> typeToken;
+    private byte[] content;
+
+    Fixture(String fileName, String endpoint, TypeToken<? extends RestRootEntity<?>> typeToken) {
+        this.fileName = fileName;
+        this.endpoint = endpoint;
+        this.typeToken = typeToken;
+    }
+
+    /**
+     * @return path prefix of the endpoint, which returns this fixture.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return type of the response entity.
+     */
+    public TypeToken<? extends RestRootEntity<?>> getTypeToken() {
+        return typeToken;
+    }
+
+    /**
+     * @return utf-8 encoded json of the response, loaded once from the classpath.
+     */
+    public synchronized byte[] getContent() {
+        if (content == null) {
+            try (InputStream stream = Fixture.class.getResourceAsStream(FIXTURES_PATH + fileName)) {
+                if (stream == null) {
+                    throw new IllegalStateException("Fixture not found: " + fileName);
+                }
+                content = ByteStreams.toByteArray(stream);
+            } catch (IOException e) {
+                throw new RuntimeException("Can't read fixture: " + fileName, e);
+            }
+        }
+        return content;
+    }
+
+}
@@ -0,0 +1,122 @@
+package ru.bpmink.bpm.benchmark;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.bpmink.bpm.api.client.BpmClient;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
+import ru.bpmink.bpm.api.impl.BpmClientFactory;
+import ru.bpmink.bpm.api.metrics.HistogramClientMetrics;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.other.exposed.ExposedItems;
+import ru.bpmink.bpm.model.process.ProcessDetails;
+import ru.bpmink.bpm.model.query.Query;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+import ru.bpmink.bpm.model.task.TaskDetails;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full calls of {@link ru.bpmink.bpm.api.client.BpmClient} against
+ * {@link ru.bpmink.bpm.benchmark.StubBpmServer}: uri building, request execution over loopback connection,
+ * which is kept alive in the pool, and deserialization of the response. Calls are made by several threads, so
+ * connection pool contention is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+    private static final int SERVER_THREADS = 4;
+    private static final int QUERY_SIZE = 100;
+
+    @Param({"false", "true"})
+    private boolean metrics;
+
+    private StubBpmServer server;
+    private BpmClient bpmClient;
+    private Query query;
+
+    /**
+     * Starts the stub server and creates the client. Client logging is reduced to warnings, otherwise it
+     * dominates the measurements.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Logger rootLogger = LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        if (rootLogger instanceof ch.qos.logback.classic.Logger) {
+            ((ch.qos.logback.classic.Logger) rootLogger).setLevel(Level.WARN);
+        }
+
+        server = new StubBpmServer(SERVER_THREADS);
+        BpmClientConfig.Builder config = BpmClientConfig.custom();
+        if (metrics) {
+            config.setMetrics(new HistogramClientMetrics());
+        }
+        bpmClient = BpmClientFactory.createClient(server.getUri(), "user", "password", config.build());
+
+        query = new Query();
+        query.setName(Query.QUERY_ALL_TASKS);
+    }
+
+    /**
+     * Closes the client and stops the server.
+     */
+    @TearDown
+    public void tearDown() throws Exception {
+        bpmClient.close();
+        server.close();
+    }
+
+    /**
+     * Small response: single task.
+     */
+    @Benchmark
+    public RestRootEntity<TaskDetails> getTask() {
+        return bpmClient.getTaskClient().getTask("2078");
+    }
+
+    /**
+     * Medium response: process instance with its tasks.
+     */
+    @Benchmark
+    public RestRootEntity<ProcessDetails> currentState() {
+        return bpmClient.getProcessClient().currentState("1053");
+    }
+
+    /**
+     * Large response: page of 100 query results.
+     */
+    @Benchmark
+    public RestRootEntity<QueryResultSet> queryEntities() {
+        return bpmClient.getTaskQueryClient().queryEntities(query, null, null, null, null, QUERY_SIZE, null);
+    }
+
+    /**
+     * Medium response: exposed items.
+     */
+    @Benchmark
+    public RestRootEntity<ExposedItems> listItems() {
+        return bpmClient.getExposedClient().listItems();
+    }
+
+}
@@ -0,0 +1,81 @@
+package ru.bpmink.bpm.benchmark;
+
+import com.google.common.base.Joiner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.bpmink.util.SafeUriBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures construction of endpoint uris by {@link ru.bpmink.util.SafeUriBuilder}, which is done by the clients
+ * before every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SafeUriBuilderBenchmark {
+
+    private static final int TASK_IDS = 50;
+
+    private URI rootUri;
+    private Date dueDate;
+    private String taskIds;
+
+    /**
+     * Prepares the root uri of the task endpoint and parameters.
+     */
+    @Setup
+    public void setUp() {
+        rootUri = URI.create("https://bpm.example.com:9443/rest/bpm/wle/v1/task");
+        dueDate = new Date();
+        List<String> ids = new ArrayList<>(TASK_IDS);
+        for (int i = 0; i < TASK_IDS; i++) {
+            ids.add(String.valueOf(2078 + i));
+        }
+        taskIds = Joiner.on(',').join(ids);
+    }
+
+    /**
+     * Builds uri with the path segment, like {@literal getTask} does.
+     */
+    @Benchmark
+    public URI path() {
+        return new SafeUriBuilder(rootUri).addPath("2078").build();
+    }
+
+    /**
+     * Builds uri with the path segment and action parameters, like {@literal updateDueTime} does.
+     */
+    @Benchmark
+    public URI pathAndParameters() {
+        return new SafeUriBuilder(rootUri).addPath("2078").addParameter("action", "update")
+                .addParameter("dueTime", dueDate).build();
+    }
+
+    /**
+     * Builds uri with the long list parameter, like {@literal getAvailableActions} does.
+     */
+    @Benchmark
+    public URI listParameter() {
+        return new SafeUriBuilder(rootUri).addPath("actions").addParameter("taskIDs", taskIds).build();
+    }
+
+}
@@ -0,0 +1,74 @@
+package ru.bpmink.bpm.benchmark;
+
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.http.Consts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.bpmink.adapters.SerializationEngine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deserialization of recorded responses in the same way, as it's done by the clients: streaming from
+ * the response content, or from the materialized {@link java.lang.String}, if debug logging is enabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"TASK_DETAILS", "PROCESS_DETAILS", "QUERY_RESULT_SET", "EXPOSED_ITEMS"})
+    private Fixture fixture;
+
+    private SerializationEngine serializationEngine;
+    private TypeToken<?> typeToken;
+    private byte[] content;
+
+    /**
+     * Loads the fixture and creates adapters of its type.
+     */
+    @Setup
+    public void setUp() {
+        typeToken = fixture.getTypeToken();
+        content = fixture.getContent();
+        serializationEngine = new SerializationEngine().warmUp(typeToken);
+    }
+
+    /**
+     * Deserializes the response body, read as stream, which is the default path of the clients.
+     */
+    @Benchmark
+    public Object fromReader() throws IOException {
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(content), Consts.UTF_8)) {
+            return serializationEngine.fromJson(reader, typeToken);
+        }
+    }
+
+    /**
+     * Decodes the response body to {@link java.lang.String} and deserializes it, which is the path of the clients
+     * with debug logging.
+     */
+    @Benchmark
+    public Object fromString() {
+        return serializationEngine.fromJson(new String(content, Consts.UTF_8), typeToken);
+    }
+
+}
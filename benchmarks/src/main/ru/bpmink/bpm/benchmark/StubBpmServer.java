@@ -0,0 +1,92 @@
+package ru.bpmink.bpm.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.http.HttpHeaders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process http server, which answers every bpm rest call with the recorded {@link Fixture}, chosen by
+ * the endpoint path. Server doesn't check credentials, so benchmarks measure the client only.
+ */
+public final class StubBpmServer implements Closeable {
+
+    private static final String JSON_CONTENT_TYPE = "application/json;charset=UTF-8";
+    private static final byte[] NOT_FOUND = "{\"status\":\"error\",\"Data\":{\"errorMessage\":\"Not found\"}}"
+            .getBytes();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Starts the server on the loopback interface and ephemeral port.
+     *
+     * @param threads number of threads, which serve requests.
+     * @throws IOException if server can't be started.
+     */
+    public StubBpmServer(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", new FixtureHandler());
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return root uri of the server, which should be passed to
+     *     {@link ru.bpmink.bpm.api.impl.BpmClientFactory}.
+     */
+    public URI getUri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static Fixture resolve(String path) {
+        for (Fixture fixture : Fixture.values()) {
+            if (path.startsWith(fixture.getEndpoint())) {
+                return fixture;
+            }
+        }
+        return null;
+    }
+
+    private static class FixtureHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try (InputStream request = exchange.getRequestBody()) {
+                //Request body must be consumed to keep the connection alive.
+                byte[] buffer = new byte[4096];
+                while (request.read(buffer) != -1) {
+                    //Skip.
+                }
+            }
+            Fixture fixture = resolve(exchange.getRequestURI().getPath());
+            byte[] body = fixture != null ? fixture.getContent() : NOT_FOUND;
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, JSON_CONTENT_TYPE);
+            exchange.sendResponseHeaders(fixture != null ? HttpURLConnection.HTTP_OK : HttpURLConnection.HTTP_NOT_FOUND,
+                    body.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(body);
+            }
+        }
+    }
+
+}
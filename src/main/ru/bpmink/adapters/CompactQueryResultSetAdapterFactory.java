@@ -0,0 +1,206 @@
+package ru.bpmink.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import ru.bpmink.bpm.model.query.CompactQueryResultSet;
+import ru.bpmink.bpm.model.query.EntityType;
+import ru.bpmink.bpm.model.query.QueryAttribute;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link com.google.gson.TypeAdapterFactory} of {@link ru.bpmink.bpm.model.query.CompactQueryResultSet}.
+ * Items of the query result set are read token by token directly in to the columns, without creating any
+ * {@link ru.bpmink.bpm.model.query.QueryResult} instances. Type of the column is defined by the type of the
+ * attribute in {@link ru.bpmink.bpm.model.query.QueryResult}: {@link java.util.Date} attributes are stored as
+ * timestamps, {@link java.lang.Integer} ones as integers, and all others as strings. Dates are parsed by the
+ * {@link com.google.gson.TypeAdapter} of enclosing {@link com.google.gson.Gson}, so its date format is respected.
+ */
+@ThreadSafe
+public final class CompactQueryResultSetAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        if (typeToken.getRawType() != CompactQueryResultSet.class) {
+            return null;
+        }
+        return (TypeAdapter<T>) new CompactQueryResultSetAdapter(gson);
+    }
+
+    private static final class CompactQueryResultSetAdapter extends TypeAdapter<CompactQueryResultSet> {
+
+        private final TypeAdapter<List<QueryAttribute>> attributesAdapter;
+        private final TypeAdapter<EntityType> entityTypeAdapter;
+        private final TypeAdapter<Integer> integerAdapter;
+        private final TypeAdapter<Boolean> booleanAdapter;
+        private final TypeAdapter<Date> dateAdapter;
+        private final TypeAdapter<JsonElement> elementAdapter;
+
+        private CompactQueryResultSetAdapter(Gson gson) {
+            this.attributesAdapter = gson.getAdapter(new TypeToken<List<QueryAttribute>>() {});
+            this.entityTypeAdapter = gson.getAdapter(EntityType.class);
+            this.integerAdapter = gson.getAdapter(Integer.class);
+            this.booleanAdapter = gson.getAdapter(Boolean.class);
+            this.dateAdapter = gson.getAdapter(Date.class);
+            this.elementAdapter = gson.getAdapter(JsonElement.class);
+        }
+
+        @Override
+        public CompactQueryResultSet read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            CompactQueryResultSet.Builder builder = CompactQueryResultSet.builder();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "identifier":
+                        builder.setIdentifier(readString(in));
+                        break;
+                    case "query":
+                        builder.setQuery(readString(in));
+                        break;
+                    case "entityTypeName":
+                        builder.setEntityType(entityTypeAdapter.read(in));
+                        break;
+                    case "attributeInfo":
+                        builder.setAttributes(attributesAdapter.read(in));
+                        break;
+                    case "offset":
+                        builder.setOffset(integerAdapter.read(in));
+                        break;
+                    case "size":
+                        builder.setSize(integerAdapter.read(in));
+                        break;
+                    case "requestedSize":
+                        builder.setRequestedSize(integerAdapter.read(in));
+                        break;
+                    case "totalCount":
+                        builder.setTotalCount(integerAdapter.read(in));
+                        break;
+                    case "countLimitExceeded":
+                        builder.setCountLimitExceeded(booleanAdapter.read(in));
+                        break;
+                    case "countLimit":
+                        builder.setCountLimit(integerAdapter.read(in));
+                        break;
+                    case "items":
+                        readItems(in, builder);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return builder.build();
+        }
+
+        private void readItems(JsonReader in, CompactQueryResultSet.Builder builder) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return;
+            }
+            in.beginArray();
+            while (in.hasNext()) {
+                builder.nextRow();
+                in.beginObject();
+                while (in.hasNext()) {
+                    String attribute = in.nextName();
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        continue;
+                    }
+                    Class<?> type = CompactQueryResultSet.getAttributeType(attribute);
+                    if (Date.class.equals(type)) {
+                        Date value = dateAdapter.read(in);
+                        if (value != null) {
+                            builder.putTimestamp(attribute, value.getTime());
+                        }
+                    } else if (Integer.class.equals(type)) {
+                        builder.putInteger(attribute, in.nextInt());
+                    } else {
+                        builder.putString(attribute, readValue(in));
+                    }
+                }
+                in.endObject();
+            }
+            in.endArray();
+        }
+
+        private static String readString(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return in.nextString();
+        }
+
+        private String readValue(JsonReader in) throws IOException {
+            switch (in.peek()) {
+                case BOOLEAN:
+                    return String.valueOf(in.nextBoolean());
+                case BEGIN_ARRAY:
+                case BEGIN_OBJECT:
+                    //Array attributes are kept as json.
+                    return elementAdapter.read(in).toString();
+                default:
+                    return in.nextString();
+            }
+        }
+
+        @Override
+        public void write(JsonWriter out, CompactQueryResultSet resultSet) throws IOException {
+            if (resultSet == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("identifier").value(resultSet.getIdentifier());
+            out.name("query").value(resultSet.getQuery());
+            out.name("entityTypeName");
+            entityTypeAdapter.write(out, resultSet.getEntityType());
+            out.name("attributeInfo");
+            attributesAdapter.write(out, resultSet.getAttributes());
+            out.name("offset").value(resultSet.getOffset());
+            out.name("size").value(resultSet.getSize());
+            out.name("requestedSize").value(resultSet.getRequestedSize());
+            out.name("totalCount").value(resultSet.getTotalCount());
+            out.name("countLimitExceeded").value(resultSet.isCountLimitExceeded());
+            out.name("countLimit").value(resultSet.getCountLimit());
+            out.name("items").beginArray();
+            for (CompactQueryResultSet.Row row : resultSet.getRows()) {
+                out.beginObject();
+                for (String attribute : resultSet.getColumnNames()) {
+                    if (row.isNull(attribute)) {
+                        continue;
+                    }
+                    out.name(attribute);
+                    Class<?> type = CompactQueryResultSet.getAttributeType(attribute);
+                    if (Date.class.equals(type)) {
+                        dateAdapter.write(out, row.getDate(attribute));
+                    } else if (Integer.class.equals(type)) {
+                        out.value(row.getInteger(attribute));
+                    } else {
+                        out.value(row.getString(attribute));
+                    }
+                }
+                out.endObject();
+            }
+            out.endArray();
+            out.endObject();
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package ru.bpmink.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import ru.bpmink.bpm.model.common.LazyValue;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * {@link com.google.gson.TypeAdapterFactory} of {@link ru.bpmink.bpm.model.common.LazyValue} fields.
+ * <p>In eager mode (default one) the value is deserialized immediately. In lazy mode json subtree is copied token
+ * by token as raw json fragment, without building any objects of the value, and is deserialized on the first
+ * access. Lazy mode is enabled by registering {@code new LazyValueAdapterFactory(true)} in
+ * {@link com.google.gson.GsonBuilder}, see {@link ru.bpmink.adapters.SerializationEngine#SerializationEngine(boolean)}.
+ * </p>
+ */
+@ThreadSafe
+public final class LazyValueAdapterFactory implements TypeAdapterFactory {
+
+    private final boolean lazy;
+
+    /**
+     * Creates factory in eager mode.
+     */
+    public LazyValueAdapterFactory() {
+        this(false);
+    }
+
+    /**
+     * @param lazy true to keep values as raw json fragments until the first access.
+     */
+    public LazyValueAdapterFactory(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        if (typeToken.getRawType() != LazyValue.class) {
+            return null;
+        }
+        Type type = typeToken.getType();
+        Type valueType = type instanceof ParameterizedType
+                ? ((ParameterizedType) type).getActualTypeArguments()[0]
+                : Object.class;
+        return (TypeAdapter<T>) new LazyValueAdapter<>(gson.getAdapter(TypeToken.get(valueType)), lazy);
+    }
+
+    private static final class LazyValueAdapter<V> extends TypeAdapter<LazyValue<V>> {
+
+        private final TypeAdapter<V> delegate;
+        private final boolean lazy;
+
+        private LazyValueAdapter(TypeAdapter<V> delegate, boolean lazy) {
+            this.delegate = delegate;
+            this.lazy = lazy;
+        }
+
+        @Override
+        public void write(JsonWriter out, LazyValue<V> lazyValue) throws IOException {
+            if (lazyValue == null) {
+                out.nullValue();
+                return;
+            }
+            String json = lazyValue.getRawJson();
+            if (json != null) {
+                out.jsonValue(json);
+            } else {
+                delegate.write(out, lazyValue.get());
+            }
+        }
+
+        @Override
+        public LazyValue<V> read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            if (!lazy) {
+                return LazyValue.of(delegate.read(in));
+            }
+            StringBuilderWriter json = new StringBuilderWriter();
+            copy(in, new JsonWriter(json));
+            return LazyValue.ofJson(json.toString(), delegate);
+        }
+
+        /**
+         * Copies the next value of the reader, including all nested values, to the writer.
+         */
+        private static void copy(JsonReader in, JsonWriter out) throws IOException {
+            int depth = 0;
+            do {
+                switch (in.peek()) {
+                    case BEGIN_ARRAY:
+                        in.beginArray();
+                        out.beginArray();
+                        depth++;
+                        break;
+                    case END_ARRAY:
+                        in.endArray();
+                        out.endArray();
+                        depth--;
+                        break;
+                    case BEGIN_OBJECT:
+                        in.beginObject();
+                        out.beginObject();
+                        depth++;
+                        break;
+                    case END_OBJECT:
+                        in.endObject();
+                        out.endObject();
+                        depth--;
+                        break;
+                    case NAME:
+                        out.name(in.nextName());
+                        break;
+                    case STRING:
+                        out.value(in.nextString());
+                        break;
+                    case NUMBER:
+                        //Number is copied as is, so its precision is kept.
+                        out.jsonValue(in.nextString());
+                        break;
+                    case BOOLEAN:
+                        out.value(in.nextBoolean());
+                        break;
+                    case NULL:
+                        in.nextNull();
+                        out.nullValue();
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected json token: " + in.peek());
+                }
+            } while (depth > 0);
+            out.flush();
+        }
+    }
+
+    /**
+     * Unsynchronized replacement of {@link java.io.StringWriter}, since fragment is written by single thread.
+     */
+    private static final class StringBuilderWriter extends Writer {
+
+        private final StringBuilder builder = new StringBuilder();
+
+        @Override
+        public void write(int character) {
+            builder.append((char) character);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String str, int offset, int length) {
+            builder.append(str, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+
+}
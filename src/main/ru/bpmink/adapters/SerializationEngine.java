@@ -0,0 +1,177 @@
+package ru.bpmink.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import org.apache.http.util.Args;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Shared json (de)serialization engine, which holds one configured {@link com.google.gson.Gson} instance.
+ * <p>{@link com.google.gson.Gson} is thread-safe and caches {@link com.google.gson.TypeAdapter} per
+ * {@link com.google.gson.reflect.TypeToken}, so one engine should be created per
+ * {@link ru.bpmink.bpm.api.client.BpmClient} and shared by all its api clients.
+ * Creating a new {@link com.google.gson.Gson} per call drops this cache and rebuilds all reflective adapters.</p>
+ */
+@ThreadSafe
+public final class SerializationEngine {
+
+    /**
+     * Date format used by bpm rest api for both requests and responses.
+     */
+    public static final String DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+
+    private final Gson gson;
+
+    /**
+     * Creates engine with default bpm rest api configuration.
+     */
+    public SerializationEngine() {
+        this(false);
+    }
+
+    /**
+     * Creates engine with default bpm rest api configuration.
+     *
+     * @param lazyValues true to keep {@link ru.bpmink.bpm.model.common.LazyValue} subtrees as raw json fragments,
+     *                   which are deserialized on the first access.
+     */
+    public SerializationEngine(boolean lazyValues) {
+        this(new GsonBuilder().setDateFormat(DATE_TIME_FORMAT)
+                .registerTypeAdapterFactory(new LazyValueAdapterFactory(lazyValues))
+                .create());
+    }
+
+    /**
+     * Creates engine around given {@link com.google.gson.Gson} instance.
+     * {@link ru.bpmink.bpm.model.common.LazyValue} subtrees are deserialized eagerly, unless
+     * {@link ru.bpmink.adapters.LazyValueAdapterFactory} in lazy mode is registered in given instance.
+     *
+     * @param gson configured {@link com.google.gson.Gson} instance.
+     * @throws IllegalArgumentException if gson is null.
+     */
+    public SerializationEngine(@Nonnull Gson gson) {
+        this.gson = Args.notNull(gson, "Gson instance (gson)");
+    }
+
+    /**
+     * Resolves and caches type adapters for given types in advance, so the first api call
+     * doesn't pay for reflective adapter creation.
+     *
+     * @param typeTokens types to be prepared.
+     * @return this instance of {@link ru.bpmink.adapters.SerializationEngine}.
+     */
+    public SerializationEngine warmUp(TypeToken<?>... typeTokens) {
+        for (TypeToken<?> typeToken : typeTokens) {
+            gson.getAdapter(typeToken);
+        }
+        return this;
+    }
+
+    /**
+     * Returns cached {@link com.google.gson.TypeAdapter} for given type.
+     *
+     * @param typeToken Represents a generic type of the adapter.
+     * @param <T>       type of the adapter.
+     * @return {@link com.google.gson.TypeAdapter} instance.
+     */
+    public <T> TypeAdapter<T> getAdapter(@Nonnull TypeToken<T> typeToken) {
+        return gson.getAdapter(typeToken);
+    }
+
+    /**
+     * Deserializes given json string in to the object of specified type.
+     *
+     * @param json      json string, can be null or empty.
+     * @param typeToken Represents a generic type of the result.
+     * @param <T>       type of the result.
+     * @return deserialized object or {@literal null} if json is null or empty.
+     */
+    public <T> T fromJson(@Nullable String json, @Nonnull TypeToken<T> typeToken) {
+        return gson.fromJson(json, typeToken.getType());
+    }
+
+    /**
+     * Deserializes json, read directly from given {@link java.io.Reader}, in to the object of specified type.
+     * The document is never materialized as a whole, so memory footprint is bounded by the result object.
+     *
+     * @param reader    source of json document, is not closed by this method.
+     * @param typeToken Represents a generic type of the result.
+     * @param <T>       type of the result.
+     * @return deserialized object or {@literal null} if source is empty.
+     * @throws IOException if source can't be read.
+     * @throws com.google.gson.JsonSyntaxException if source is not a valid json document for specified type.
+     */
+    public <T> T fromJson(@Nonnull Reader reader, @Nonnull TypeToken<T> typeToken) throws IOException {
+        JsonReader jsonReader = new JsonReader(reader);
+        //Same leniency, as Gson uses for its own fromJson methods.
+        jsonReader.setLenient(true);
+        try {
+            jsonReader.peek();
+        } catch (EOFException e) {
+            //Empty body (i.e. 401 - Unauthorized response) is not an error.
+            return null;
+        }
+        try {
+            return getAdapter(typeToken).read(jsonReader);
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Serializes given object in to json string.
+     *
+     * @param source object to serialize.
+     * @return json representation of source.
+     */
+    public String toJson(@Nullable Object source) {
+        return gson.toJson(source);
+    }
+
+    /**
+     * Serializes given object directly in to the given {@link java.lang.Appendable}, without building
+     * intermediate json string.
+     *
+     * @param source object to serialize.
+     * @param writer target of json representation, is not closed by this method.
+     * @throws com.google.gson.JsonIOException if there was a problem writing to the writer.
+     */
+    public void toJson(@Nullable Object source, @Nonnull Appendable writer) {
+        gson.toJson(source, writer);
+    }
+
+    /**
+     * Creates deep copy of given object through its json representation, so the copy shares no mutable state with
+     * the source. Object is serialized as specified type, so the copy has the same runtime type of generic fields.
+     *
+     * @param source    object to copy.
+     * @param typeToken Represents a generic type of the source.
+     * @param <T>       type of the source.
+     * @return deep copy of source or {@literal null} if source is null.
+     */
+    public <T> T copy(@Nullable T source, @Nonnull TypeToken<T> typeToken) {
+        if (source == null) {
+            return null;
+        }
+        return gson.fromJson(gson.toJson(source, typeToken.getType()), typeToken.getType());
+    }
+
+    /**
+     * @return underlying {@link com.google.gson.Gson} instance.
+     */
+    public Gson getGson() {
+        return gson;
+    }
+
+}
@@ -0,0 +1,69 @@
+package ru.bpmink.bpm.api.cache;
+
+import org.apache.http.util.Args;
+
+import ru.bpmink.bpm.model.common.RestRootEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Deserialized response entity with its validators: {@literal ETag} and {@literal Last-Modified} headers, which are
+ * sent back to the server as {@literal If-None-Match} and {@literal If-Modified-Since} headers of the next request.
+ * If server answers {@literal 304 - Not Modified}, the copy of the cached entity is returned to the caller.
+ * <p>Entity is owned by the cache, and must not be modified.</p>
+ */
+@Immutable
+public final class CachedResponse {
+
+    private final String entityTag;
+    private final String lastModified;
+    private final RestRootEntity<?> entity;
+
+    /**
+     * @param entityTag    value of {@literal ETag} header of the response.
+     * @param lastModified value of {@literal Last-Modified} header of the response.
+     * @param entity       deserialized response entity.
+     * @throws IllegalArgumentException if entity is null, or both validators are null.
+     */
+    public CachedResponse(@Nullable String entityTag, @Nullable String lastModified,
+                          @Nonnull RestRootEntity<?> entity) {
+        Args.check(entityTag != null || lastModified != null, "Response without validators can't be cached");
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+        this.entity = Args.notNull(entity, "Response entity (entity)");
+    }
+
+    /**
+     * @return value of {@literal ETag} header of the response, or null if server didn't send it.
+     */
+    @Nullable
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * @return value of {@literal Last-Modified} header of the response, or null if server didn't send it.
+     */
+    @Nullable
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return deserialized response entity.
+     */
+    public RestRootEntity<?> getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedResponse{"
+                + "entityTag=" + entityTag
+                + ", lastModified=" + lastModified
+                + '}';
+    }
+
+}
@@ -0,0 +1,108 @@
+package ru.bpmink.bpm.api.cache;
+
+import org.apache.http.util.Args;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory implementation of {@link ru.bpmink.bpm.api.cache.ResponseStore}, which holds limited number of responses,
+ * and evicts the least recently used one when the limit is exceeded.
+ */
+@ThreadSafe
+public final class LruResponseStore implements ResponseStore {
+
+    //Guarded by itself.
+    private final LruMap responses;
+
+    /**
+     * @param maxSize maximum number of stored responses.
+     * @throws IllegalArgumentException if maxSize is not positive.
+     */
+    public LruResponseStore(int maxSize) {
+        this.responses = new LruMap(Args.positive(maxSize, "Max number of responses (maxSize)"));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CachedResponse get(@Nonnull String key) {
+        synchronized (responses) {
+            return responses.get(key);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if key or response is null.
+     */
+    @Override
+    public void put(@Nonnull String key, @Nonnull CachedResponse response) {
+        Args.notNull(key, "Response key (key)");
+        Args.notNull(response, "Response (response)");
+        synchronized (responses) {
+            responses.put(key, response);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(@Nonnull String key) {
+        synchronized (responses) {
+            responses.remove(key);
+        }
+    }
+
+    /**
+     * @return number of stored responses.
+     */
+    public int size() {
+        synchronized (responses) {
+            return responses.size();
+        }
+    }
+
+    /**
+     * Removes all stored responses.
+     */
+    public void clear() {
+        synchronized (responses) {
+            responses.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LruResponseStore{"
+                + "size=" + size()
+                + ", maxSize=" + responses.maxSize
+                + '}';
+    }
+
+    /**
+     * Map in access order, which removes the eldest entry when its size exceeds the limit.
+     */
+    private static final class LruMap extends LinkedHashMap<String, CachedResponse> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package ru.bpmink.bpm.api.cache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Storage of the responses, which are cached by {@link ru.bpmink.bpm.api.client.BpmClient} with their validators.
+ * Is set by {@link ru.bpmink.bpm.api.client.BpmClientConfig.Builder#setResponseStore(ResponseStore)}.
+ * <p>Key of the response contains uri of the request and type of the response entity, but doesn't contain the user,
+ * so one store must not be shared by clients of different users. Implementation is called synchronously from the
+ * threads, which make the calls, so it must be thread-safe and fast.</p>
+ */
+public interface ResponseStore {
+
+    /**
+     * Doesn't store anything. Responses are not cached at all, if this instance is configured.
+     */
+    ResponseStore NONE = new ResponseStore() {
+
+        @Override
+        public CachedResponse get(@Nonnull String key) {
+            return null;
+        }
+
+        @Override
+        public void put(@Nonnull String key, @Nonnull CachedResponse response) {
+            //Nothing to store.
+        }
+
+        @Override
+        public void remove(@Nonnull String key) {
+            //Nothing to remove.
+        }
+    };
+
+    /**
+     * @param key key of the response.
+     * @return stored response, or null if there is no response for given key.
+     */
+    @Nullable
+    CachedResponse get(@Nonnull String key);
+
+    /**
+     * Stores the response, replacing the previous one with the same key.
+     *
+     * @param key      key of the response.
+     * @param response response with its validators.
+     */
+    void put(@Nonnull String key, @Nonnull CachedResponse response);
+
+    /**
+     * Removes the response, i.e. if server doesn't send validators for it anymore.
+     *
+     * @param key key of the response.
+     */
+    void remove(@Nonnull String key);
+
+}
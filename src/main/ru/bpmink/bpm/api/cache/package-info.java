@@ -0,0 +1,4 @@
+/**
+ * Contains storage SPI of the conditional response cache of bpm api clients, and its in-memory implementation.
+ */
+package ru.bpmink.bpm.api.cache;
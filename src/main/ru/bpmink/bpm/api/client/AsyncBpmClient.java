@@ -0,0 +1,71 @@
+package ru.bpmink.bpm.api.client;
+
+import java.io.Closeable;
+
+
+/**
+ * Public root asynchronous api client.
+ * You can obtain different asynchronous api client's through it.
+ * All calls are executed by non-blocking http engine, so the number of in-flight requests is not bound to
+ * the number of threads. Each call returns {@link com.google.common.util.concurrent.ListenableFuture},
+ * which is completed when the response is received and deserialized.
+ * {@link ru.bpmink.bpm.api.client.AsyncBpmClient} propagates all it's settings to another client's.
+ */
+public interface AsyncBpmClient extends Closeable {
+
+    /**
+     * Client for asynchronous actions on exposed bpm api.
+     *
+     * @return {@link ru.bpmink.bpm.api.client.AsyncExposedClient}
+     */
+    AsyncExposedClient getExposedClient();
+
+    /**
+     * Client for asynchronous actions on process bpm api.
+     *
+     * @return {@link ru.bpmink.bpm.api.client.AsyncProcessClient}
+     */
+    AsyncProcessClient getProcessClient();
+
+    /**
+     * Client for asynchronous actions on task bpm api.
+     *
+     * @return {@link ru.bpmink.bpm.api.client.AsyncTaskClient}
+     */
+    AsyncTaskClient getTaskClient();
+
+    /**
+     * Client for asynchronous actions on service bpm api.
+     *
+     * @return {@link ru.bpmink.bpm.api.client.AsyncServiceClient}
+     */
+    AsyncServiceClient getServiceClient();
+
+    /**
+     * Client for asynchronous actions on process apps bpm api.
+     *
+     * @return {@link ru.bpmink.bpm.api.client.AsyncProcessAppsClient}
+     */
+    AsyncProcessAppsClient getProcessAppsClient();
+
+    /**
+     * Client for asynchronous actions on task query bpm api;
+     *
+     * @return {@link ru.bpmink.bpm.api.client.AsyncQueryClient}
+     */
+    AsyncQueryClient getTaskQueryClient();
+
+    /**
+     * Client for asynchronous actions on task template query bpm api;
+     *
+     * @return {@link ru.bpmink.bpm.api.client.AsyncQueryClient}
+     */
+    AsyncQueryClient getTaskTemplateQueryClient();
+
+    /**
+     * Client for asynchronous actions on process query bpm api;
+     *
+     * @return {@link ru.bpmink.bpm.api.client.AsyncQueryClient}
+     */
+    AsyncQueryClient getProcessQueryClient();
+}
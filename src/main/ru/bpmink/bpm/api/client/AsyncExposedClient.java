@@ -0,0 +1,55 @@
+package ru.bpmink.bpm.api.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.other.exposed.ExposedItems;
+import ru.bpmink.bpm.model.other.exposed.Item;
+import ru.bpmink.bpm.model.other.exposed.ItemType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Asynchronous client for exposed api actions.
+ * Each method has the same semantic as corresponding method of {@link ru.bpmink.bpm.api.client.ExposedClient}.
+ */
+public interface AsyncExposedClient {
+
+    /**
+     * Asynchronous version of {@link ExposedClient#listItems()}.
+     *
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of all exposed items.
+     */
+    ListenableFuture<RestRootEntity<ExposedItems>> listItems();
+
+    /**
+     * Asynchronous version of {@link ExposedClient#listItems(ItemType)}.
+     *
+     * @param itemType is a filter of items (see {@link ru.bpmink.bpm.model.other.exposed.ItemType})
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of exposed items of given type.
+     */
+    ListenableFuture<RestRootEntity<ExposedItems>> listItems(@Nullable ItemType itemType);
+
+    /**
+     * Asynchronous version of {@link ExposedClient#getItemByName(String)}.
+     * If the api call was unsuccessful, future fails with {@link ru.bpmink.bpm.model.common.RestException}.
+     *
+     * @param itemName is a full name of item {@link ru.bpmink.bpm.model.other.exposed.Item#getName()}
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of found item.
+     * @throws IllegalArgumentException if itemName is null.
+     */
+    ListenableFuture<Item> getItemByName(@Nonnull String itemName);
+
+    /**
+     * Asynchronous version of {@link ExposedClient#getItemByName(ItemType, String)}.
+     * If the api call was unsuccessful, future fails with {@link ru.bpmink.bpm.model.common.RestException}.
+     *
+     * @param itemType is a filter of items {@link ru.bpmink.bpm.model.other.exposed.ItemType}
+     * @param itemName is a full name of item {@link ru.bpmink.bpm.model.other.exposed.Item#getName()}
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of found item.
+     * @throws IllegalArgumentException if itemName or itemType are null
+     */
+    ListenableFuture<Item> getItemByName(@Nonnull ItemType itemType, @Nonnull String itemName);
+
+}
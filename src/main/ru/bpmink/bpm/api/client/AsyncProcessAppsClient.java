@@ -0,0 +1,21 @@
+package ru.bpmink.bpm.api.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.other.processapp.ProcessApps;
+
+/**
+ * Asynchronous client for process apps api actions.
+ * Each method has the same semantic as corresponding method of {@link ru.bpmink.bpm.api.client.ProcessAppsClient}.
+ */
+public interface AsyncProcessAppsClient {
+
+    /**
+     * Asynchronous version of {@link ProcessAppsClient#listProcessApps()}.
+     *
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of process applications list.
+     */
+    ListenableFuture<RestRootEntity<ProcessApps>> listProcessApps();
+
+}
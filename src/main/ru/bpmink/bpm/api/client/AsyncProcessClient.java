@@ -0,0 +1,71 @@
+package ru.bpmink.bpm.api.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.process.ProcessDetails;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * Asynchronous client for process api actions.
+ * Each method has the same semantic as corresponding method of {@link ru.bpmink.bpm.api.client.ProcessClient}.
+ */
+public interface AsyncProcessClient {
+
+    /**
+     * Asynchronous version of {@link ProcessClient#startProcess(String, String, String, String, Map)}.
+     *
+     * @param bpdId        The id of the Business Process Definition to be used.
+     * @param processAppId The id of the process application containing the Business Process Definition.
+     * @param snapshotId   The id of the snapshot containing the Business Process Definition.
+     * @param branchId     The id of the branch containing the Business Process Definition.
+     * @param input        Input parameters of the process.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of started process details.
+     * @throws IllegalArgumentException if bpdId is null or if all of processAppId, snapshotId and branchId are null's
+     */
+    ListenableFuture<RestRootEntity<ProcessDetails>> startProcess(@Nonnull String bpdId,
+                                                                  @Nullable String processAppId,
+                                                                  @Nullable String snapshotId,
+                                                                  @Nullable String branchId,
+                                                                  @Nullable Map<String, Object> input);
+
+    /**
+     * Asynchronous version of {@link ProcessClient#suspendProcess(String)}.
+     *
+     * @param piid The id of the process instance to be suspended.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of process details.
+     * @throws IllegalArgumentException if piid is null
+     */
+    ListenableFuture<RestRootEntity<ProcessDetails>> suspendProcess(@Nonnull String piid);
+
+    /**
+     * Asynchronous version of {@link ProcessClient#resumeProcess(String)}.
+     *
+     * @param piid The id of the process instance to be resumed.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of process details.
+     * @throws IllegalArgumentException if piid is null
+     */
+    ListenableFuture<RestRootEntity<ProcessDetails>> resumeProcess(@Nonnull String piid);
+
+    /**
+     * Asynchronous version of {@link ProcessClient#terminateProcess(String)}.
+     *
+     * @param piid The id of the process instance to be terminated.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of process details.
+     * @throws IllegalArgumentException if piid is null
+     */
+    ListenableFuture<RestRootEntity<ProcessDetails>> terminateProcess(@Nonnull String piid);
+
+    /**
+     * Asynchronous version of {@link ProcessClient#currentState(String)}.
+     *
+     * @param piid The id of the process instance to be retrieved.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of process details.
+     * @throws IllegalArgumentException if piid is null
+     */
+    ListenableFuture<RestRootEntity<ProcessDetails>> currentState(@Nonnull String piid);
+
+}
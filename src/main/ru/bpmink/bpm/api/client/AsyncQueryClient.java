@@ -0,0 +1,117 @@
+package ru.bpmink.bpm.api.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.query.InteractionFilter;
+import ru.bpmink.bpm.model.query.Query;
+import ru.bpmink.bpm.model.query.QueryAttribute;
+import ru.bpmink.bpm.model.query.QueryAttributes;
+import ru.bpmink.bpm.model.query.QueryKind;
+import ru.bpmink.bpm.model.query.QueryList;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+import ru.bpmink.bpm.model.query.QueryResultSetCount;
+import ru.bpmink.bpm.model.query.SortAttribute;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Asynchronous client for query api actions.
+ * Each method has the same semantic as corresponding method of {@link ru.bpmink.bpm.api.client.QueryClient}.
+ */
+public interface AsyncQueryClient {
+
+    /**
+     * Asynchronous version of {@link QueryClient#listQueries()}.
+     *
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of available queries.
+     */
+    ListenableFuture<RestRootEntity<QueryList>> listQueries();
+
+    /**
+     * Asynchronous version of {@link QueryClient#listQueries(String, QueryKind, List)}.
+     *
+     * @param processAppName Name of the process application, used for additional filtering.
+     * @param kind           Specifies the type of queries to be returned.
+     * @param content        Specifies a list of content values.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of available queries.
+     */
+    ListenableFuture<RestRootEntity<QueryList>> listQueries(@Nullable String processAppName, @Nullable QueryKind kind,
+                                                            @Nullable List<QueryAttribute> content);
+
+    /**
+     * Asynchronous version of
+     * {@link QueryClient#queryEntities(Query, List, InteractionFilter, String, List, Integer, Boolean)}.
+     *
+     * @param query               Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param selectedAttributes  List of attributes, which specifies the attributes that are retrieved by the query.
+     * @param interactionFilter   Name of a predefined user interaction.
+     * @param processAppName      Name of the process application, used for additional filtering.
+     * @param sortAttributes      List of sort criteria.
+     * @param size                Specifies the maximum number of entities to be returned.
+     * @param filterByCurrentUser Indicates whether or not the search results should be restricted to those entities
+     *                            associated with the current user.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of query result set.
+     * @throws IllegalArgumentException if specified {@link ru.bpmink.bpm.model.query.Query} is null
+     */
+    ListenableFuture<RestRootEntity<QueryResultSet>> queryEntities(@Nonnull Query query,
+                                                                   @Nullable List<QueryAttribute> selectedAttributes,
+                                                                   @Nullable InteractionFilter interactionFilter,
+                                                                   @Nullable String processAppName,
+                                                                   @Nullable List<SortAttribute> sortAttributes,
+                                                                   @Nullable Integer size,
+                                                                   @Nullable Boolean filterByCurrentUser);
+
+    /**
+     * Asynchronous version of
+     * {@link QueryClient#queryEntities(Query, List, InteractionFilter, String, List, Integer, Integer, Boolean)}.
+     *
+     * @param query               Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param selectedAttributes  List of attributes, which specifies the attributes that are retrieved by the query.
+     * @param interactionFilter   Name of a predefined user interaction.
+     * @param processAppName      Name of the process application, used for additional filtering.
+     * @param sortAttributes      List of sort criteria.
+     * @param offset              Specifies the index of the first entity to be returned.
+     * @param size                Specifies the maximum number of entities to be returned.
+     * @param filterByCurrentUser Indicates whether or not the search results should be restricted to those entities
+     *                            associated with the current user.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of query result set.
+     * @throws IllegalArgumentException if specified {@link ru.bpmink.bpm.model.query.Query} is null
+     */
+    ListenableFuture<RestRootEntity<QueryResultSet>> queryEntities(@Nonnull Query query,
+                                                                   @Nullable List<QueryAttribute> selectedAttributes,
+                                                                   @Nullable InteractionFilter interactionFilter,
+                                                                   @Nullable String processAppName,
+                                                                   @Nullable List<SortAttribute> sortAttributes,
+                                                                   @Nullable Integer offset, @Nullable Integer size,
+                                                                   @Nullable Boolean filterByCurrentUser);
+
+    /**
+     * Asynchronous version of {@link QueryClient#queryEntitiesCount(Query, InteractionFilter, String, Boolean)}.
+     *
+     * @param query               Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param interactionFilter   Name of a predefined user interaction.
+     * @param processAppName      Name of the process application, used for additional filtering.
+     * @param filterByCurrentUser Indicates whether or not the search results should be restricted to those entities
+     *                            associated with the current user.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of query result set count.
+     * @throws IllegalArgumentException if specified {@link ru.bpmink.bpm.model.query.Query} is null
+     */
+    ListenableFuture<RestRootEntity<QueryResultSetCount>> queryEntitiesCount(
+            @Nonnull Query query, @Nullable InteractionFilter interactionFilter, @Nullable String processAppName,
+            @Nullable Boolean filterByCurrentUser);
+
+    /**
+     * Asynchronous version of {@link QueryClient#queryAttributes(Query, String)}.
+     *
+     * @param query          Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param processAppName Name of the process application, used for additional filtering.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of query attributes.
+     * @throws IllegalArgumentException if specified {@link ru.bpmink.bpm.model.query.Query} is null
+     */
+    ListenableFuture<RestRootEntity<QueryAttributes>> queryAttributes(@Nonnull Query query,
+                                                                      @Nullable String processAppName);
+
+}
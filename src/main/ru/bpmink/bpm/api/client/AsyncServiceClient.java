@@ -0,0 +1,52 @@
+package ru.bpmink.bpm.api.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.service.ServiceData;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * Asynchronous client for service api actions.
+ * Each method has the same semantic as corresponding method of {@link ru.bpmink.bpm.api.client.ServiceClient}.
+ */
+public interface AsyncServiceClient {
+
+    /**
+     * Asynchronous version of {@link ServiceClient#getServiceData(String, String...)}.
+     *
+     * @param instanceId The id of the service instance.
+     * @param fields     Fields names to fetch variables values.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of service data.
+     * @throws IllegalArgumentException if instanceId is null
+     */
+    ListenableFuture<RestRootEntity<ServiceData>> getServiceData(@Nonnull String instanceId,
+                                                                 @Nullable String... fields);
+
+    /**
+     * Asynchronous version of {@link ServiceClient#setServiceData(String, Map)}.
+     *
+     * @param instanceId The id of the service instance.
+     * @param parameters A {@link Map} that contains one or more variable settings.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of service data.
+     * @throws IllegalArgumentException if instanceId or parameters is null
+     */
+    ListenableFuture<RestRootEntity<ServiceData>> setServiceData(@Nonnull String instanceId,
+                                                                 @Nonnull Map<String, Object> parameters);
+
+    /**
+     * Asynchronous version of {@link ServiceClient#setServiceData(String, String, Object)}.
+     *
+     * @param instanceId The id of the service instance.
+     * @param field      The name of the variable.
+     * @param value      The value of the variable.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of service data.
+     * @throws IllegalArgumentException if any of parameters is null
+     */
+    ListenableFuture<RestRootEntity<ServiceData>> setServiceData(@Nonnull String instanceId, @Nonnull String field,
+                                                                 @Nonnull Object value);
+
+}
@@ -0,0 +1,174 @@
+package ru.bpmink.bpm.api.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import ru.bpmink.bpm.model.common.RestEntity;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.service.ServiceData;
+import ru.bpmink.bpm.model.task.TaskActions;
+import ru.bpmink.bpm.model.task.TaskClientSettings;
+import ru.bpmink.bpm.model.task.TaskDetails;
+import ru.bpmink.bpm.model.task.TaskPriority;
+import ru.bpmink.bpm.model.task.TaskStartData;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asynchronous client for task api actions.
+ * Each method has the same semantic as corresponding method of {@link ru.bpmink.bpm.api.client.TaskClient}.
+ */
+public interface AsyncTaskClient {
+
+    /**
+     * Asynchronous version of {@link TaskClient#getTask(String)}.
+     *
+     * @param tkiid The id of the task instance to be retrieved.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task details.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<TaskDetails>> getTask(@Nonnull String tkiid);
+
+    /**
+     * Asynchronous version of {@link TaskClient#startTask(String)}.
+     *
+     * @param tkiid The id of the task instance to start.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task start data.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<TaskStartData>> startTask(@Nonnull String tkiid);
+
+    /**
+     * Asynchronous version of {@link TaskClient#assignTaskToMe(String)}.
+     *
+     * @param tkiid The id of the task instance to be assigned.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task details.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<TaskDetails>> assignTaskToMe(@Nonnull String tkiid);
+
+    /**
+     * Asynchronous version of {@link TaskClient#assignTaskBack(String)}.
+     *
+     * @param tkiid The id of the task instance to be assigned.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task details.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<TaskDetails>> assignTaskBack(@Nonnull String tkiid);
+
+    /**
+     * Asynchronous version of {@link TaskClient#assignTaskToUser(String, String)}.
+     *
+     * @param tkiid    The id of the task instance to be assigned.
+     * @param userName The user to be assigned.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task details.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<TaskDetails>> assignTaskToUser(@Nonnull String tkiid, @Nullable String userName);
+
+    /**
+     * Asynchronous version of {@link TaskClient#assignTaskToGroup(String, String)}.
+     *
+     * @param tkiid     The id of the task instance to be assigned.
+     * @param groupName The group to be assigned.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task details.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<TaskDetails>> assignTaskToGroup(@Nonnull String tkiid,
+                                                                    @Nullable String groupName);
+
+    /**
+     * Asynchronous version of {@link TaskClient#completeTask(String, Map)}.
+     *
+     * @param tkiid      The id of the task instance to be finished.
+     * @param parameters Parameters to finish specified task/activity.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task details.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<TaskDetails>> completeTask(@Nonnull String tkiid,
+                                                               @Nullable Map<String, Object> parameters);
+
+    /**
+     * Asynchronous version of {@link TaskClient#cancelTask(String)}.
+     *
+     * @param tkiid The id of the task instance to be cancelled.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of empty response.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<RestEntity>> cancelTask(@Nonnull String tkiid);
+
+    /**
+     * Asynchronous version of {@link TaskClient#updateTaskPriority(String, TaskPriority)}.
+     *
+     * @param tkiid    The id of the task instance to be updated.
+     * @param priority Is new task priority {@link ru.bpmink.bpm.model.task.TaskPriority}
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task details.
+     * @throws IllegalArgumentException if tkiid or priority is null
+     */
+    ListenableFuture<RestRootEntity<TaskDetails>> updateTaskPriority(@Nonnull String tkiid,
+                                                                     @Nonnull TaskPriority priority);
+
+    /**
+     * Asynchronous version of {@link TaskClient#updateTaskDueTime(String, Date)}.
+     *
+     * @param tkiid   The id of the task instance to be updated.
+     * @param dueTime Is new task due time.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task details.
+     * @throws IllegalArgumentException if tkiid or dueTime is null
+     */
+    ListenableFuture<RestRootEntity<TaskDetails>> updateTaskDueTime(@Nonnull String tkiid, @Nonnull Date dueTime);
+
+    /**
+     * Asynchronous version of {@link TaskClient#getTaskClientSettings(String, Boolean)}.
+     *
+     * @param tkiid         The id of the task instance.
+     * @param isRelativeUrl If true, the URL returned is a relative URL.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task client settings.
+     * @throws IllegalArgumentException if tkiid or isRelativeUrl is null
+     */
+    ListenableFuture<RestRootEntity<TaskClientSettings>> getTaskClientSettings(@Nonnull String tkiid,
+                                                                               @Nonnull Boolean isRelativeUrl);
+
+    /**
+     * Asynchronous version of {@link TaskClient#getAvailableActions(List)}.
+     *
+     * @param tkiids A list of IDs of human tasks (tkiid list) for which available actions should be returned.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of available actions.
+     * @throws IllegalArgumentException if tkiids is null or empty.
+     */
+    ListenableFuture<RestRootEntity<TaskActions>> getAvailableActions(@Nonnull List<String> tkiids);
+
+    /**
+     * Asynchronous version of {@link TaskClient#getAvailableActions(String)}.
+     *
+     * @param tkiid The id of the task instance.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of available actions.
+     * @throws IllegalArgumentException if tkiid is null.
+     */
+    ListenableFuture<RestRootEntity<TaskActions>> getAvailableActions(@Nonnull String tkiid);
+
+    /**
+     * Asynchronous version of {@link TaskClient#getTaskData(String, String...)}.
+     *
+     * @param tkiid  The id of the task instance.
+     * @param fields Fields names to fetch variables values.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task data.
+     * @throws IllegalArgumentException if tkiid is null
+     */
+    ListenableFuture<RestRootEntity<ServiceData>> getTaskData(@Nonnull String tkiid, @Nullable String... fields);
+
+    /**
+     * Asynchronous version of {@link TaskClient#setTaskData(String, Map)}.
+     *
+     * @param tkiid      The id of the task instance.
+     * @param parameters A {@link Map} that contains one or more variable settings.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of task data.
+     * @throws IllegalArgumentException if tkiid or parameters is null.
+     */
+    ListenableFuture<RestRootEntity<ServiceData>> setTaskData(@Nonnull String tkiid,
+                                                              @Nonnull Map<String, Object> parameters);
+
+}
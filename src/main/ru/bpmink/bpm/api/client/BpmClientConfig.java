@@ -0,0 +1,586 @@
+package ru.bpmink.bpm.api.client;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import ru.bpmink.bpm.api.cache.ResponseStore;
+import ru.bpmink.bpm.api.metrics.ClientMetrics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.security.KeyStore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection management, tls, caching and metrics settings of {@link ru.bpmink.bpm.api.client.BpmClient} and
+ * {@link ru.bpmink.bpm.api.client.AsyncBpmClient}.
+ * <p>Use {@link #custom()} to create configured instance, or {@link #DEFAULT} to get the defaults:
+ * 20 connections in total, 10 connections per route, connections are kept alive as long as server allows,
+ * never expire and are not evicted by background thread.</p>
+ * <p>All durations are stored in milliseconds. Negative or zero duration means that the setting is disabled,
+ * see the documentation of particular builder method.</p>
+ */
+@Immutable
+public final class BpmClientConfig {
+
+    /**
+     * Configuration with all default values.
+     */
+    public static final BpmClientConfig DEFAULT = custom().build();
+
+    private static final int DEFAULT_MAX_TOTAL = 20;
+    private static final int DEFAULT_MAX_PER_ROUTE = 10;
+    private static final long DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000; // 2 seconds
+    private static final long DEFAULT_EVICTION_INTERVAL = 10000; // 10 seconds
+    private static final long UNDEFINED = -1;
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long connectionTimeToLive;
+    private final long validateAfterInactivity;
+    private final long keepAlive;
+    private final ConnectionKeepAliveStrategy keepAliveStrategy;
+    private final boolean evictExpiredConnections;
+    private final long maxIdleTime;
+    private final long exposedItemsCacheTtl;
+    private final long queryMetadataCacheTtl;
+    private final ClientMetrics metrics;
+    private final KeyStore trustStore;
+    private final int sslSessionCacheSize;
+    private final long sslSessionTimeout;
+    private final boolean contentCompression;
+    private final boolean lazyDeserialization;
+    private final boolean requestCoalescing;
+    private final ResponseStore responseStore;
+
+    private BpmClientConfig(Builder builder) {
+        this.maxTotal = builder.maxTotal;
+        this.maxPerRoute = builder.maxPerRoute;
+        this.connectionTimeToLive = builder.connectionTimeToLive;
+        this.validateAfterInactivity = builder.validateAfterInactivity;
+        this.keepAlive = builder.keepAlive;
+        this.keepAliveStrategy = builder.keepAliveStrategy != null
+                ? builder.keepAliveStrategy
+                : new ServerOrDefaultKeepAliveStrategy(builder.keepAlive);
+        this.evictExpiredConnections = builder.evictExpiredConnections;
+        this.maxIdleTime = builder.maxIdleTime;
+        this.exposedItemsCacheTtl = builder.exposedItemsCacheTtl;
+        this.queryMetadataCacheTtl = builder.queryMetadataCacheTtl;
+        this.metrics = builder.metrics;
+        this.trustStore = builder.trustStore;
+        this.sslSessionCacheSize = builder.sslSessionCacheSize;
+        this.sslSessionTimeout = builder.sslSessionTimeout;
+        this.contentCompression = builder.contentCompression;
+        this.lazyDeserialization = builder.lazyDeserialization;
+        this.requestCoalescing = builder.requestCoalescing;
+        this.responseStore = builder.responseStore;
+    }
+
+    /**
+     * Creates new {@link ru.bpmink.bpm.api.client.BpmClientConfig.Builder} initialized with default values.
+     *
+     * @return new {@link ru.bpmink.bpm.api.client.BpmClientConfig.Builder} instance.
+     */
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    /**
+     * @return maximum number of connections in the pool.
+     */
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    /**
+     * @return maximum number of connections per route (i.e. per bpm server host).
+     */
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    /**
+     * @return total time to live of the pooled connection in milliseconds, non-positive means infinite.
+     */
+    public long getConnectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    /**
+     * @return period of inactivity in milliseconds, after which pooled connection must be validated
+     *     before reuse, non-positive disables validation.
+     */
+    public long getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    /**
+     * @return keep-alive duration in milliseconds, which is used if server doesn't send {@literal Keep-Alive}
+     *     header, non-positive means infinite.
+     */
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @return {@link org.apache.http.conn.ConnectionKeepAliveStrategy}, which is used by the client.
+     */
+    public ConnectionKeepAliveStrategy getKeepAliveStrategy() {
+        return keepAliveStrategy;
+    }
+
+    /**
+     * @return {@literal true} if background thread should close expired connections.
+     */
+    public boolean isEvictExpiredConnections() {
+        return evictExpiredConnections;
+    }
+
+    /**
+     * @return idle time in milliseconds, after which background thread closes the connection,
+     *     non-positive disables idle connections eviction.
+     */
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * @return {@literal true} if background eviction thread is required by this configuration.
+     */
+    public boolean isEvictionEnabled() {
+        return evictExpiredConnections || maxIdleTime > 0;
+    }
+
+    /**
+     * @return sleep time of background eviction thread in milliseconds.
+     */
+    public long getEvictionInterval() {
+        return maxIdleTime > 0 ? maxIdleTime : DEFAULT_EVICTION_INTERVAL;
+    }
+
+    /**
+     * @return time to live of cached exposed items in milliseconds, non-positive disables the cache.
+     */
+    public long getExposedItemsCacheTtl() {
+        return exposedItemsCacheTtl;
+    }
+
+    /**
+     * @return time to live of cached query metadata in milliseconds, non-positive disables the cache.
+     */
+    public long getQueryMetadataCacheTtl() {
+        return queryMetadataCacheTtl;
+    }
+
+    /**
+     * @return receiver of rest calls measurements, {@link ru.bpmink.bpm.api.metrics.ClientMetrics#NOOP}
+     *     if calls are not measured.
+     */
+    public ClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return trust store, which is used to verify server certificate by
+     *     {@link ru.bpmink.bpm.api.impl.simple.SecuredBpmClient}, or null if any certificate is trusted.
+     */
+    @Nullable
+    public KeyStore getTrustStore() {
+        return trustStore;
+    }
+
+    /**
+     * @return maximal number of cached tls sessions, non-positive means JDK default size.
+     */
+    public int getSslSessionCacheSize() {
+        return sslSessionCacheSize;
+    }
+
+    /**
+     * @return time in milliseconds, during which cached tls session can be resumed, non-positive means JDK default
+     *     timeout.
+     */
+    public long getSslSessionTimeout() {
+        return sslSessionTimeout;
+    }
+
+    /**
+     * @return {@literal true} if blocking clients request compressed responses.
+     */
+    public boolean isContentCompression() {
+        return contentCompression;
+    }
+
+    /**
+     * @return {@literal true} if large subtrees of the responses are deserialized on the first access.
+     */
+    public boolean isLazyDeserialization() {
+        return lazyDeserialization;
+    }
+
+    /**
+     * @return {@literal true} if concurrent identical {@literal GET} requests share one call to the server.
+     */
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    /**
+     * @return storage of the conditionally cached responses, {@link ru.bpmink.bpm.api.cache.ResponseStore#NONE}
+     *     if responses are not cached.
+     */
+    public ResponseStore getResponseStore() {
+        return responseStore;
+    }
+
+    @Override
+    public String toString() {
+        return "BpmClientConfig{"
+                + "maxTotal=" + maxTotal
+                + ", maxPerRoute=" + maxPerRoute
+                + ", connectionTimeToLive=" + connectionTimeToLive
+                + ", validateAfterInactivity=" + validateAfterInactivity
+                + ", keepAlive=" + keepAlive
+                + ", evictExpiredConnections=" + evictExpiredConnections
+                + ", maxIdleTime=" + maxIdleTime
+                + ", exposedItemsCacheTtl=" + exposedItemsCacheTtl
+                + ", queryMetadataCacheTtl=" + queryMetadataCacheTtl
+                + ", metrics=" + metrics.getClass().getName()
+                + ", trustStore=" + (trustStore != null ? trustStore.getType() : null)
+                + ", sslSessionCacheSize=" + sslSessionCacheSize
+                + ", sslSessionTimeout=" + sslSessionTimeout
+                + ", contentCompression=" + contentCompression
+                + ", lazyDeserialization=" + lazyDeserialization
+                + ", requestCoalescing=" + requestCoalescing
+                + ", responseStore=" + responseStore.getClass().getName()
+                + '}';
+    }
+
+    /**
+     * Builder for {@link ru.bpmink.bpm.api.client.BpmClientConfig}.
+     */
+    public static final class Builder {
+
+        private int maxTotal = DEFAULT_MAX_TOTAL;
+        private int maxPerRoute = DEFAULT_MAX_PER_ROUTE;
+        private long connectionTimeToLive = UNDEFINED;
+        private long validateAfterInactivity = DEFAULT_VALIDATE_AFTER_INACTIVITY;
+        private long keepAlive = UNDEFINED;
+        private ConnectionKeepAliveStrategy keepAliveStrategy;
+        private boolean evictExpiredConnections;
+        private long maxIdleTime = UNDEFINED;
+        private long exposedItemsCacheTtl = UNDEFINED;
+        private long queryMetadataCacheTtl = UNDEFINED;
+        private ClientMetrics metrics = ClientMetrics.NOOP;
+        private KeyStore trustStore;
+        private int sslSessionCacheSize;
+        private long sslSessionTimeout = UNDEFINED;
+        private boolean contentCompression = true;
+        private boolean lazyDeserialization;
+        private boolean requestCoalescing;
+        private ResponseStore responseStore = ResponseStore.NONE;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets maximum number of connections in the pool.
+         *
+         * @param maxTotal positive number of connections.
+         * @return this builder.
+         * @throws IllegalArgumentException if maxTotal is not positive.
+         */
+        public Builder setMaxTotal(int maxTotal) {
+            this.maxTotal = Args.positive(maxTotal, "Max total connections (maxTotal)");
+            return this;
+        }
+
+        /**
+         * Sets maximum number of connections per route. Bpm client uses one route per server host, so this value
+         * limits the number of concurrent requests to the bpm server (or to the load balancer in front of it).
+         *
+         * @param maxPerRoute positive number of connections.
+         * @return this builder.
+         * @throws IllegalArgumentException if maxPerRoute is not positive.
+         */
+        public Builder setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = Args.positive(maxPerRoute, "Max connections per route (maxPerRoute)");
+            return this;
+        }
+
+        /**
+         * Sets total time to live of the pooled connection. Connection is never reused after it expires,
+         * which lets the load balancer redistribute connections between the cluster nodes.
+         *
+         * @param timeToLive time to live, non-positive means infinite.
+         * @param timeUnit   unit of timeToLive.
+         * @return this builder.
+         * @throws IllegalArgumentException if timeUnit is null.
+         */
+        public Builder setConnectionTimeToLive(long timeToLive, @Nonnull TimeUnit timeUnit) {
+            this.connectionTimeToLive = toMillis(timeToLive, timeUnit);
+            return this;
+        }
+
+        /**
+         * Sets period of inactivity, after which pooled connection must be validated (checked for being stale)
+         * before reuse. Is not applicable to {@link ru.bpmink.bpm.api.client.AsyncBpmClient}, because
+         * non-blocking connections detect closing by the server immediately.
+         *
+         * @param inactivity period of inactivity, non-positive disables validation.
+         * @param timeUnit   unit of inactivity.
+         * @return this builder.
+         * @throws IllegalArgumentException if timeUnit is null.
+         */
+        public Builder setValidateAfterInactivity(long inactivity, @Nonnull TimeUnit timeUnit) {
+            this.validateAfterInactivity = toMillis(inactivity, timeUnit);
+            return this;
+        }
+
+        /**
+         * Sets keep-alive duration of the connection, which is used if server response doesn't contain
+         * {@literal Keep-Alive} header. Is ignored if custom strategy is set by
+         * {@link #setKeepAliveStrategy(org.apache.http.conn.ConnectionKeepAliveStrategy)}.
+         *
+         * @param keepAlive keep-alive duration, non-positive means infinite.
+         * @param timeUnit  unit of keepAlive.
+         * @return this builder.
+         * @throws IllegalArgumentException if timeUnit is null.
+         */
+        public Builder setKeepAlive(long keepAlive, @Nonnull TimeUnit timeUnit) {
+            this.keepAlive = toMillis(keepAlive, timeUnit);
+            return this;
+        }
+
+        /**
+         * Sets custom {@link org.apache.http.conn.ConnectionKeepAliveStrategy}.
+         *
+         * @param keepAliveStrategy strategy, null restores default one.
+         * @return this builder.
+         */
+        public Builder setKeepAliveStrategy(@Nullable ConnectionKeepAliveStrategy keepAliveStrategy) {
+            this.keepAliveStrategy = keepAliveStrategy;
+            return this;
+        }
+
+        /**
+         * Enables or disables closing of expired connections by background thread.
+         * Connection expires, when it's time to live or keep-alive duration is over.
+         *
+         * @param evictExpiredConnections true to enable eviction.
+         * @return this builder.
+         */
+        public Builder setEvictExpiredConnections(boolean evictExpiredConnections) {
+            this.evictExpiredConnections = evictExpiredConnections;
+            return this;
+        }
+
+        /**
+         * Sets idle time, after which connection is closed by background thread.
+         *
+         * @param maxIdleTime idle time, non-positive disables idle connections eviction.
+         * @param timeUnit    unit of maxIdleTime.
+         * @return this builder.
+         * @throws IllegalArgumentException if timeUnit is null.
+         */
+        public Builder setMaxIdleTime(long maxIdleTime, @Nonnull TimeUnit timeUnit) {
+            this.maxIdleTime = toMillis(maxIdleTime, timeUnit);
+            return this;
+        }
+
+        /**
+         * Enables caching of exposed items, which are used by
+         * {@link ru.bpmink.bpm.api.client.ExposedClient#getItemByName(String)} and other lookups.
+         * Items are listed once per interval instead of once per lookup: cache is refreshed in background,
+         * when accessed after 3/4 of time to live, and is never served after time to live is over.
+         *
+         * @param timeToLive time to live of cached items, non-positive disables the cache.
+         * @param timeUnit   unit of timeToLive.
+         * @return this builder.
+         * @throws IllegalArgumentException if timeUnit is null.
+         */
+        public Builder setExposedItemsCacheTtl(long timeToLive, @Nonnull TimeUnit timeUnit) {
+            this.exposedItemsCacheTtl = toMillis(timeToLive, timeUnit);
+            return this;
+        }
+
+        /**
+         * Enables caching of query metadata, which is returned by
+         * {@link ru.bpmink.bpm.api.client.QueryClient#listQueries(String, ru.bpmink.bpm.model.query.QueryKind,
+         * java.util.List)} and
+         * {@link ru.bpmink.bpm.api.client.QueryClient#queryAttributes(ru.bpmink.bpm.model.query.Query, String)}.
+         * Metadata is cached per query name, process app name, query kind and content, concurrent calls with the same
+         * parameters share the single request, and unsuccessful responses are not cached. Every caller gets its own
+         * copy of cached metadata, and at most 256 entries are cached. Cached metadata is dropped by
+         * {@link ru.bpmink.bpm.api.client.QueryClient#invalidateMetadata()}.
+         *
+         * @param timeToLive time to live of cached metadata, non-positive disables the cache.
+         * @param timeUnit   unit of timeToLive.
+         * @return this builder.
+         * @throws IllegalArgumentException if timeUnit is null.
+         */
+        public Builder setQueryMetadataCacheTtl(long timeToLive, @Nonnull TimeUnit timeUnit) {
+            this.queryMetadataCacheTtl = toMillis(timeToLive, timeUnit);
+            return this;
+        }
+
+        /**
+         * Sets receiver of rest calls measurements, i.e. {@link ru.bpmink.bpm.api.metrics.HistogramClientMetrics}.
+         * Every call of the blocking clients is timed by phases: request build, connection lease, server time and
+         * deserialization, see {@link ru.bpmink.bpm.api.metrics.RequestMetrics}.
+         *
+         * @param metrics receiver of measurements, {@link ru.bpmink.bpm.api.metrics.ClientMetrics#NOOP} disables
+         *                measuring.
+         * @return this builder.
+         * @throws IllegalArgumentException if metrics is null.
+         */
+        public Builder setMetrics(@Nonnull ClientMetrics metrics) {
+            this.metrics = Args.notNull(metrics, "Client metrics (metrics)");
+            return this;
+        }
+
+        /**
+         * Sets trust store of {@link ru.bpmink.bpm.api.impl.simple.SecuredBpmClient}. Server certificate is verified
+         * against its certificates, and server host name is verified against the certificate.
+         *
+         * @param trustStore loaded trust store, null trusts any certificate and host name.
+         * @return this builder.
+         */
+        public Builder setTrustStore(@Nullable KeyStore trustStore) {
+            this.trustStore = trustStore;
+            return this;
+        }
+
+        /**
+         * Sets maximal number of cached tls sessions of {@link ru.bpmink.bpm.api.impl.simple.SecuredBpmClient}.
+         * New connection resumes cached session with abbreviated handshake, so it should be not less than
+         * max total connections.
+         *
+         * @param sslSessionCacheSize number of sessions, non-positive means JDK default size.
+         * @return this builder.
+         */
+        public Builder setSslSessionCacheSize(int sslSessionCacheSize) {
+            this.sslSessionCacheSize = Math.max(sslSessionCacheSize, 0);
+            return this;
+        }
+
+        /**
+         * Sets time, during which cached tls session of {@link ru.bpmink.bpm.api.impl.simple.SecuredBpmClient}
+         * can be resumed.
+         *
+         * @param timeout  session timeout, non-positive means JDK default timeout.
+         * @param timeUnit unit of timeout.
+         * @return this builder.
+         * @throws IllegalArgumentException if timeUnit is null.
+         */
+        public Builder setSslSessionTimeout(long timeout, @Nonnull TimeUnit timeUnit) {
+            this.sslSessionTimeout = toMillis(timeout, timeUnit);
+            return this;
+        }
+
+        /**
+         * Enables or disables compression of the responses of blocking clients. Requests are sent with
+         * {@literal Accept-Encoding: gzip, deflate} header, and compressed response is decompressed while it's
+         * deserialized. Large responses, i.e. process details with diagram, are compressed several times, which
+         * is worth the cpu time on slow networks. Compression ratio is reported by
+         * {@link ru.bpmink.bpm.api.metrics.RequestMetrics}.
+         *
+         * @param contentCompression true to request compressed responses, enabled by default.
+         * @return this builder.
+         */
+        public Builder setContentCompression(boolean contentCompression) {
+            this.contentCompression = contentCompression;
+            return this;
+        }
+
+        /**
+         * Enables or disables lazy deserialization of the large subtrees of the responses, i.e.
+         * {@link ru.bpmink.bpm.model.process.ProcessDetails#getDiagram()},
+         * {@link ru.bpmink.bpm.model.process.ProcessDetails#getTasks()} and
+         * {@link ru.bpmink.bpm.model.process.ProcessDetails#getVariables()}. Such subtree is kept as raw json
+         * fragment and is deserialized on the first call of its getter, so callers, which need only the state of
+         * the instance, don't pay for building the whole object graph.
+         *
+         * @param lazyDeserialization true to deserialize large subtrees on the first access, disabled by default.
+         * @return this builder.
+         */
+        public Builder setLazyDeserialization(boolean lazyDeserialization) {
+            this.lazyDeserialization = lazyDeserialization;
+            return this;
+        }
+
+        /**
+         * Enables or disables coalescing of concurrent identical {@literal GET} requests of blocking clients.
+         * Requests are identical if they have the same final uri and response type. The first caller sends the
+         * request, and callers, which come while it's in flight, wait for its response instead of sending their
+         * own. Every waiting caller receives its own deep copy of the response entity, so callers can't affect each
+         * other by modifying the result. Failure of the request is thrown to all callers. Useful when many threads
+         * load the same dashboard or the same task at once.
+         *
+         * @param requestCoalescing true to coalesce concurrent identical requests, disabled by default.
+         * @return this builder.
+         */
+        public Builder setRequestCoalescing(boolean requestCoalescing) {
+            this.requestCoalescing = requestCoalescing;
+            return this;
+        }
+
+        /**
+         * Sets storage of the conditionally cached responses, i.e. {@link ru.bpmink.bpm.api.cache.LruResponseStore}.
+         * Response of {@literal GET} request of blocking clients, which has {@literal ETag} or
+         * {@literal Last-Modified} header, is stored with its deserialized entity, and the next identical request
+         * is sent with {@literal If-None-Match} and {@literal If-Modified-Since} headers. If server answers
+         * {@literal 304 - Not Modified}, the copy of the stored entity is returned, so unchanged bodies, i.e. lists
+         * of process apps or exposed items, are neither downloaded nor parsed again.
+         *
+         * @param responseStore storage of the responses, {@link ru.bpmink.bpm.api.cache.ResponseStore#NONE}
+         *                      disables caching.
+         * @return this builder.
+         * @throws IllegalArgumentException if responseStore is null.
+         */
+        public Builder setResponseStore(@Nonnull ResponseStore responseStore) {
+            this.responseStore = Args.notNull(responseStore, "Response store (responseStore)");
+            return this;
+        }
+
+        /**
+         * Creates {@link ru.bpmink.bpm.api.client.BpmClientConfig} instance.
+         *
+         * @return new {@link ru.bpmink.bpm.api.client.BpmClientConfig}.
+         * @throws IllegalArgumentException if maxPerRoute is greater than maxTotal.
+         */
+        public BpmClientConfig build() {
+            Args.check(maxPerRoute <= maxTotal, "Max connections per route can't be greater than max total "
+                    + "connections");
+            return new BpmClientConfig(this);
+        }
+
+        private static long toMillis(long duration, TimeUnit timeUnit) {
+            timeUnit = Args.notNull(timeUnit, "Time unit (timeUnit)");
+            return duration > 0 ? timeUnit.toMillis(duration) : UNDEFINED;
+        }
+    }
+
+    /**
+     * Uses keep-alive duration, sent by server, or default one if server doesn't specify it.
+     */
+    private static class ServerOrDefaultKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        private final long keepAlive;
+
+        ServerOrDefaultKeepAliveStrategy(long keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : keepAlive;
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package ru.bpmink.bpm.api.client;
+
+import org.apache.http.util.Args;
+
+import ru.bpmink.bpm.model.common.Describable;
+import ru.bpmink.bpm.model.common.RestException;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Outcome of the single call within bulk operation, i.e.
+ * {@link ru.bpmink.bpm.api.client.TaskClient#completeTasks(java.util.Collection, java.util.Map, int)}.
+ * Call is either completed with {@link ru.bpmink.bpm.model.common.RestRootEntity}, which may hold server-side
+ * {@link ru.bpmink.bpm.model.common.RestException}, or failed before the response was received, i.e. because of
+ * connection error.
+ *
+ * @param <T> is one of {@link ru.bpmink.bpm.model.common.RestEntity} instances.
+ */
+@Immutable
+public final class BulkResult<T extends Describable> {
+
+    private final RestRootEntity<T> entity;
+    private final RuntimeException failure;
+
+    private BulkResult(RestRootEntity<T> entity, RuntimeException failure) {
+        this.entity = entity;
+        this.failure = failure;
+    }
+
+    /**
+     * Creates result of the completed call.
+     *
+     * @param entity received response.
+     * @param <T>    is one of {@link ru.bpmink.bpm.model.common.RestEntity} instances.
+     * @return new {@link ru.bpmink.bpm.api.client.BulkResult} instance.
+     * @throws IllegalArgumentException if entity is null.
+     */
+    public static <T extends Describable> BulkResult<T> completed(@Nonnull RestRootEntity<T> entity) {
+        return new BulkResult<>(Args.notNull(entity, "Response entity (entity)"), null);
+    }
+
+    /**
+     * Creates result of the call, which failed before the response was received.
+     *
+     * @param failure cause of the failure.
+     * @param <T>     is one of {@link ru.bpmink.bpm.model.common.RestEntity} instances.
+     * @return new {@link ru.bpmink.bpm.api.client.BulkResult} instance.
+     * @throws IllegalArgumentException if failure is null.
+     */
+    public static <T extends Describable> BulkResult<T> failed(@Nonnull RuntimeException failure) {
+        return new BulkResult<>(null, Args.notNull(failure, "Failure (failure)"));
+    }
+
+    /**
+     * @return true if response was received, and it doesn't contain exception information.
+     */
+    public boolean isSuccessful() {
+        return entity != null && !entity.isExceptional();
+    }
+
+    /**
+     * @return received response, or null if the call failed before the response was received.
+     */
+    @Nullable
+    public RestRootEntity<T> getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return {@link ru.bpmink.bpm.model.common.RestException} if the api call was unsuccessful, cause of
+     *     the failure if response wasn't received, or null if the call was successful.
+     */
+    @Nullable
+    public RuntimeException getException() {
+        if (failure != null) {
+            return failure;
+        }
+        try {
+            entity.getPayload();
+            return null;
+        } catch (RestException e) {
+            return e;
+        }
+    }
+
+    /**
+     * @return Success API call data.
+     * @throws ru.bpmink.bpm.model.common.RestException if the api call was unsuccessful.
+     * @throws RuntimeException                         if response wasn't received.
+     */
+    public T getPayload() {
+        if (failure != null) {
+            throw failure;
+        }
+        return entity.getPayload();
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{"
+                + (failure != null ? "failure=" + failure : "entity=" + entity)
+                + '}';
+    }
+
+}
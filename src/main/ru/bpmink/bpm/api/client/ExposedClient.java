@@ -8,6 +8,7 @@ import ru.bpmink.bpm.model.other.exposed.ItemType;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 
 //TODO: Add full api possibilities
 
@@ -71,4 +72,32 @@ public interface ExposedClient {
      */
     Item getItemByName(@Nonnull ItemType itemType, @Nonnull String itemName);
 
+    /**
+     * Retrieve item by the specified item id.
+     * <p>Note: filtering is performed on client side, so if api call was unsuccessful, there are
+     * possibility of throwing {@link ru.bpmink.bpm.model.common.RestException}.</p>
+     *
+     * @param itemId is an id of item {@link ru.bpmink.bpm.model.other.exposed.Item#getItemId()}
+     * @return {@link ru.bpmink.bpm.model.other.exposed.Item} instance with given {@literal itemId}.
+     *      If item with given {@literal itemId} not found, it implementation-dependent to return {@literal null} or
+     *      {@literal NULL_OBJECT}.
+     * @throws IllegalArgumentException                 if itemId is null.
+     * @throws ru.bpmink.bpm.model.common.RestException if the api call was unsuccessful.
+     */
+    Item getItemById(@Nonnull String itemId);
+
+    /**
+     * Retrieve all items of the process app with specified acronym.
+     * <p>Note: filtering is performed on client side, so if api call was unsuccessful, there are
+     * possibility of throwing {@link ru.bpmink.bpm.model.common.RestException}.</p>
+     *
+     * @param processAppAcronym is an acronym of process app
+     *                          {@link ru.bpmink.bpm.model.other.exposed.Item#getProcessAppAcronym()}
+     * @return list of {@link ru.bpmink.bpm.model.other.exposed.Item} instances in the listing order,
+     *      or empty list if nothing found.
+     * @throws IllegalArgumentException                 if processAppAcronym is null.
+     * @throws ru.bpmink.bpm.model.common.RestException if the api call was unsuccessful.
+     */
+    List<Item> getItemsByProcessAppAcronym(@Nonnull String processAppAcronym);
+
 }
@@ -3,6 +3,7 @@ package ru.bpmink.bpm.api.client;
 
 import ru.bpmink.bpm.model.common.RestRootEntity;
 import ru.bpmink.bpm.model.process.ProcessDetails;
+import ru.bpmink.bpm.model.process.ProcessStatus;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -80,4 +81,16 @@ public interface ProcessClient {
      */
     RestRootEntity<ProcessDetails> currentState(@Nonnull String piid);
 
+    /**
+     * Retrieves state of a process instance: lightweight alternative of {@link #currentState(String)} for
+     * monitoring. Server is asked to omit optional parts of the details (diagram, data, tasks, documents,
+     * execution tree), and the rest of the response, except state fields, is skipped while it's read.
+     *
+     * @param piid The id of the process instance to be retrieved.
+     * @return {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, that contains process state
+     *      as generic type: {@link ru.bpmink.bpm.model.process.ProcessStatus}
+     * @throws IllegalArgumentException if processId is null
+     */
+    RestRootEntity<ProcessStatus> currentStatus(@Nonnull String piid);
+
 }
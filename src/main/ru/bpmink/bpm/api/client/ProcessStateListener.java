@@ -0,0 +1,25 @@
+package ru.bpmink.bpm.api.client;
+
+import ru.bpmink.bpm.model.process.ProcessStatus;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Receiver of the state changes of process instances, detected by
+ * {@link ru.bpmink.bpm.api.impl.simple.ProcessStatePoller}. Changes of the same instance are passed in order and
+ * never concurrently, but changes of different instances are passed from several polling threads, so
+ * implementation must be thread-safe.
+ */
+public interface ProcessStateListener {
+
+    /**
+     * Receives the change of {@link ru.bpmink.bpm.model.process.ProcessState} or
+     * {@link ru.bpmink.bpm.model.process.ExecutionState} of the process instance.
+     *
+     * @param previous last known status of the instance, or null if the instance is polled for the first time.
+     * @param current  new status of the instance.
+     */
+    void stateChanged(@Nullable ProcessStatus previous, @Nonnull ProcessStatus current);
+
+}
@@ -1,19 +1,23 @@
 package ru.bpmink.bpm.api.client;
 
 import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.query.CompactQueryResultSet;
 import ru.bpmink.bpm.model.query.InteractionFilter;
 import ru.bpmink.bpm.model.query.Query;
 import ru.bpmink.bpm.model.query.QueryAttribute;
 import ru.bpmink.bpm.model.query.QueryAttributes;
 import ru.bpmink.bpm.model.query.QueryKind;
 import ru.bpmink.bpm.model.query.QueryList;
+import ru.bpmink.bpm.model.query.QueryResult;
 import ru.bpmink.bpm.model.query.QueryResultSet;
 import ru.bpmink.bpm.model.query.QueryResultSetCount;
 import ru.bpmink.bpm.model.query.SortAttribute;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Client for task query api actions.
@@ -111,6 +115,161 @@ public interface QueryClient {
                                                  @Nullable List<SortAttribute> sortAttributes, @Nullable Integer size,
                                                  @Nullable Boolean filterByCurrentUser);
 
+    /**
+     * Retrieves a page of entity instances via a query.
+     * This method similar to {@link #queryEntities(Query, List, InteractionFilter, String, List, Integer, Boolean)}
+     * but additionally accepts the index of the first entity to be returned.
+     *
+     * @param query               Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param selectedAttributes  List of attributes (see {@link ru.bpmink.bpm.model.query.QueryAttribute}), which
+     *                            specifies the attributes that are retrieved by the query.
+     * @param interactionFilter   Name of a predefined user interaction
+     *                            (see {@link ru.bpmink.bpm.model.query.InteractionFilter});
+     * @param processAppName      Name of the process application, used for additional filtering.
+     * @param sortAttributes      List of sort criteria (see {@link ru.bpmink.bpm.model.query.SortAttribute}) applied
+     *                            to the list of returned entities. Stable sort order is required to page through
+     *                            the result set consistently.
+     * @param offset              Specifies the index (within the overall query result set) of the first entity to be
+     *                            returned. If not specified, entities are returned from the beginning.
+     * @param size                Specifies the maximum number of entities to be returned. If not specified, then the
+     *                            default size, defined for the query will be used.
+     * @param filterByCurrentUser This parameter is a flag which indicates whether or not the search results should be
+     *                            restricted to those entities associated with the current user.
+     * @return {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, that contains detailed information
+     *      about entity instances: {@link ru.bpmink.bpm.model.query.QueryResultSet}
+     * @throws IllegalArgumentException if specified {@link ru.bpmink.bpm.model.query.Query} is null
+     */
+    RestRootEntity<QueryResultSet> queryEntities(@Nonnull Query query,
+                                                 @Nullable List<QueryAttribute> selectedAttributes,
+                                                 @Nullable InteractionFilter interactionFilter,
+                                                 @Nullable String processAppName,
+                                                 @Nullable List<SortAttribute> sortAttributes,
+                                                 @Nullable Integer offset, @Nullable Integer size,
+                                                 @Nullable Boolean filterByCurrentUser);
+
+    /**
+     * Retrieves a page of entity instances via a query in a memory-compact form.
+     * This method similar to
+     * {@link #queryEntities(Query, List, InteractionFilter, String, List, Integer, Integer, Boolean)}, but results
+     * are read directly in to columnar {@link ru.bpmink.bpm.model.query.CompactQueryResultSet}, which takes several
+     * times less memory for large result sets, especially if only few attributes are selected.
+     *
+     * @param query               Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param selectedAttributes  List of attributes (see {@link ru.bpmink.bpm.model.query.QueryAttribute}), which
+     *                            specifies the attributes that are retrieved by the query.
+     * @param interactionFilter   Name of a predefined user interaction
+     *                            (see {@link ru.bpmink.bpm.model.query.InteractionFilter});
+     * @param processAppName      Name of the process application, used for additional filtering.
+     * @param sortAttributes      List of sort criteria (see {@link ru.bpmink.bpm.model.query.SortAttribute}) applied
+     *                            to the list of returned entities.
+     * @param offset              Specifies the index (within the overall query result set) of the first entity to be
+     *                            returned. If not specified, entities are returned from the beginning.
+     * @param size                Specifies the maximum number of entities to be returned. If not specified, then the
+     *                            default size, defined for the query will be used.
+     * @param filterByCurrentUser This parameter is a flag which indicates whether or not the search results should be
+     *                            restricted to those entities associated with the current user.
+     * @return {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, that contains detailed information
+     *      about entity instances: {@link ru.bpmink.bpm.model.query.CompactQueryResultSet}
+     * @throws IllegalArgumentException if specified {@link ru.bpmink.bpm.model.query.Query} is null
+     */
+    RestRootEntity<CompactQueryResultSet> queryEntitiesCompact(@Nonnull Query query,
+                                                               @Nullable List<QueryAttribute> selectedAttributes,
+                                                               @Nullable InteractionFilter interactionFilter,
+                                                               @Nullable String processAppName,
+                                                               @Nullable List<SortAttribute> sortAttributes,
+                                                               @Nullable Integer offset, @Nullable Integer size,
+                                                               @Nullable Boolean filterByCurrentUser);
+
+    /**
+     * Lazily iterates over all entity instances of a query.
+     * This method similar to
+     * {@link #queryEntitiesIterator(Query, List, InteractionFilter, String, List, int, Boolean, Executor)}
+     * without prefetching.
+     *
+     * @param query               Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param selectedAttributes  List of attributes, which specifies the attributes that are retrieved by the query.
+     * @param interactionFilter   Name of a predefined user interaction.
+     * @param processAppName      Name of the process application, used for additional filtering.
+     * @param sortAttributes      List of sort criteria applied to the list of returned entities.
+     * @param pageSize            Number of entities requested by one api call.
+     * @param filterByCurrentUser Flag which indicates whether or not the search results should be
+     *                            restricted to those entities associated with the current user.
+     * @return {@link java.util.Iterator} over {@link ru.bpmink.bpm.model.query.QueryResult} entities.
+     * @throws IllegalArgumentException if specified {@link ru.bpmink.bpm.model.query.Query} is null or
+     *                                  pageSize is not positive.
+     */
+    Iterator<QueryResult> queryEntitiesIterator(@Nonnull Query query,
+                                                @Nullable List<QueryAttribute> selectedAttributes,
+                                                @Nullable InteractionFilter interactionFilter,
+                                                @Nullable String processAppName,
+                                                @Nullable List<SortAttribute> sortAttributes, int pageSize,
+                                                @Nullable Boolean filterByCurrentUser);
+
+    /**
+     * Lazily iterates over all entity instances of a query.
+     * Pages of {@literal pageSize} entities are requested on demand, so at most two pages (current and prefetched
+     * one) are held in memory regardless of the query result size. Iteration ends on the first page, which
+     * is not full or reaches {@link ru.bpmink.bpm.model.query.QueryResultSet#getTotalCount()}.
+     * <p>Unsuccessful api call is reported by {@link java.util.Iterator#hasNext()} with
+     * {@link ru.bpmink.bpm.model.common.RestException}. Returned iterator is not thread-safe.</p>
+     *
+     * @param query               Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param selectedAttributes  List of attributes, which specifies the attributes that are retrieved by the query.
+     * @param interactionFilter   Name of a predefined user interaction.
+     * @param processAppName      Name of the process application, used for additional filtering.
+     * @param sortAttributes      List of sort criteria applied to the list of returned entities. Stable sort order
+     *                            is required to page through the result set consistently.
+     * @param pageSize            Number of entities requested by one api call.
+     * @param filterByCurrentUser Flag which indicates whether or not the search results should be
+     *                            restricted to those entities associated with the current user.
+     * @param prefetchExecutor    If not null, next page is requested by this executor in background,
+     *                            while current page is consumed.
+     * @return {@link java.util.Iterator} over {@link ru.bpmink.bpm.model.query.QueryResult} entities.
+     * @throws IllegalArgumentException if specified {@link ru.bpmink.bpm.model.query.Query} is null or
+     *                                  pageSize is not positive.
+     */
+    Iterator<QueryResult> queryEntitiesIterator(@Nonnull Query query,
+                                                @Nullable List<QueryAttribute> selectedAttributes,
+                                                @Nullable InteractionFilter interactionFilter,
+                                                @Nullable String processAppName,
+                                                @Nullable List<SortAttribute> sortAttributes, int pageSize,
+                                                @Nullable Boolean filterByCurrentUser,
+                                                @Nullable Executor prefetchExecutor);
+
+    /**
+     * Exports all entity instances of a query to the given sink, fetching pages in parallel.
+     * The number of entities is obtained by
+     * {@link #queryEntitiesCount(Query, InteractionFilter, String, Boolean)} first, then the offset range is split
+     * into pages of {@literal pageSize} entities, which are requested concurrently, at most {@literal parallelism}
+     * requests at a time. Results are passed to the sink in offset order from the caller thread,
+     * so at most {@literal parallelism} pages are held in memory.
+     * <p>Entities created after the count was obtained may be not exported. Stable sort order is required to page
+     * through the result set consistently. If server returns less entities, than requested, the rest of the page
+     * is requested again, so every counted entity is passed to the sink with its actual offset.</p>
+     *
+     * @param query               Query for task instance data (see {@link ru.bpmink.bpm.model.query.Query});
+     * @param selectedAttributes  List of attributes, which specifies the attributes that are retrieved by the query.
+     * @param interactionFilter   Name of a predefined user interaction.
+     * @param processAppName      Name of the process application, used for additional filtering.
+     * @param sortAttributes      List of sort criteria applied to the list of returned entities.
+     * @param filterByCurrentUser Flag which indicates whether or not the search results should be
+     *                            restricted to those entities associated with the current user.
+     * @param pageSize            Number of entities requested by one api call.
+     * @param parallelism         Maximum number of concurrent api calls. Should not exceed connection pool
+     *                            per route limit (see {@link ru.bpmink.bpm.api.client.BpmClientConfig}).
+     * @param sink                Receiver of exported entities.
+     * @return the number of exported entities.
+     * @throws IllegalArgumentException                 if specified {@link ru.bpmink.bpm.model.query.Query} or sink
+     *                                                  is null, or pageSize or parallelism is not positive.
+     * @throws ru.bpmink.bpm.model.common.RestException if any of api calls was unsuccessful.
+     * @throws RuntimeException                         if the result set ends before all counted entities
+     *                                                  are exported.
+     */
+    int exportEntities(@Nonnull Query query, @Nullable List<QueryAttribute> selectedAttributes,
+                       @Nullable InteractionFilter interactionFilter, @Nullable String processAppName,
+                       @Nullable List<SortAttribute> sortAttributes, @Nullable Boolean filterByCurrentUser,
+                       int pageSize, int parallelism, @Nonnull QueryResultSink sink);
+
     /**
      * Retrieves the number of entity instances in a query matching specified criteria.
      *
@@ -158,20 +317,13 @@ public interface QueryClient {
      */
     RestRootEntity<QueryAttributes> queryAttributes(@Nonnull Query query, @Nullable String processAppName);
 
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
+    /**
+     * Drops cached results of {@link #listQueries(String, QueryKind, List)} and
+     * {@link #queryAttributes(Query, String)}, so the next calls retrieve fresh metadata, i.e. after deployment of
+     * new snapshot. Does nothing if the cache is disabled, see
+     * {@link ru.bpmink.bpm.api.client.BpmClientConfig.Builder#setQueryMetadataCacheTtl(long,
+     * java.util.concurrent.TimeUnit)}.
+     */
+    void invalidateMetadata();
 
+}
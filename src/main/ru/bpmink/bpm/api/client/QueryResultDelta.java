@@ -0,0 +1,109 @@
+package ru.bpmink.bpm.api.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import org.apache.http.util.Args;
+
+import ru.bpmink.bpm.model.query.QueryResult;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Difference between two consecutive results of the same query, detected by
+ * {@link ru.bpmink.bpm.api.impl.simple.QueryResultWatcher}. Results are matched by the value of the attribute,
+ * which is the {@link ru.bpmink.bpm.model.query.QueryResultSet#getIdentifier()} of the result set, i.e.
+ * {@literal TKIID} for tasks.
+ */
+@Immutable
+public final class QueryResultDelta {
+
+    private final QueryResultSet resultSet;
+    private final List<QueryResult> added;
+    private final List<QueryResult> removed;
+    private final List<QueryResult> changed;
+    private final Map<String, Set<String>> changedAttributes;
+
+    /**
+     * @param resultSet         current result set.
+     * @param added             results, which are absent in previous result set.
+     * @param removed           results of previous result set, which are absent in current one.
+     * @param changed           current versions of results, which have any attribute changed.
+     * @param changedAttributes names of changed attributes by identifier of changed result.
+     * @throws IllegalArgumentException if any of arguments is null.
+     */
+    public QueryResultDelta(@Nonnull QueryResultSet resultSet, @Nonnull List<QueryResult> added,
+                            @Nonnull List<QueryResult> removed, @Nonnull List<QueryResult> changed,
+                            @Nonnull Map<String, Set<String>> changedAttributes) {
+        this.resultSet = Args.notNull(resultSet, "Result set (resultSet)");
+        this.added = ImmutableList.copyOf(Args.notNull(added, "Added results (added)"));
+        this.removed = ImmutableList.copyOf(Args.notNull(removed, "Removed results (removed)"));
+        this.changed = ImmutableList.copyOf(Args.notNull(changed, "Changed results (changed)"));
+        ImmutableMap.Builder<String, Set<String>> attributes = ImmutableMap.builder();
+        for (Map.Entry<String, Set<String>> entry : Args.notNull(changedAttributes,
+                "Changed attributes (changedAttributes)").entrySet()) {
+            attributes.put(entry.getKey(), ImmutableSet.copyOf(entry.getValue()));
+        }
+        this.changedAttributes = attributes.build();
+    }
+
+    /**
+     * @return current result set, from which the delta is detected.
+     */
+    public QueryResultSet getResultSet() {
+        return resultSet;
+    }
+
+    /**
+     * @return results, which are absent in previous result set, in the order of current result set.
+     */
+    public List<QueryResult> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return results of previous result set, which are absent in current one, in the order of previous result set.
+     */
+    public List<QueryResult> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return current versions of results, which have any attribute changed, in the order of current result set.
+     */
+    public List<QueryResult> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @param identifier value of the identifier attribute of changed result.
+     * @return names of changed attributes, i.e. {@literal PRIORITY}, or empty set if result is not changed.
+     */
+    public Set<String> getChangedAttributes(String identifier) {
+        Set<String> attributes = changedAttributes.get(identifier);
+        return attributes != null ? attributes : ImmutableSet.<String>of();
+    }
+
+    /**
+     * @return true if nothing is added, removed or changed.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryResultDelta{"
+                + "added=" + added.size()
+                + ", removed=" + removed.size()
+                + ", changed=" + changed.size()
+                + '}';
+    }
+
+}
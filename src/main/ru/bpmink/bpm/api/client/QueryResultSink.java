@@ -0,0 +1,23 @@
+package ru.bpmink.bpm.api.client;
+
+import ru.bpmink.bpm.model.query.QueryResult;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receiver of query results, exported by
+ * {@link ru.bpmink.bpm.api.client.QueryClient#exportEntities(ru.bpmink.bpm.model.query.Query, java.util.List,
+ * ru.bpmink.bpm.model.query.InteractionFilter, String, java.util.List, Boolean, int, int, QueryResultSink)}.
+ * Results are passed in offset order from the single thread, so implementation doesn't need to be thread-safe.
+ */
+public interface QueryResultSink {
+
+    /**
+     * Receives next query result.
+     *
+     * @param offset      index of the result within the overall query result set.
+     * @param queryResult exported result.
+     */
+    void accept(int offset, @Nonnull QueryResult queryResult);
+
+}
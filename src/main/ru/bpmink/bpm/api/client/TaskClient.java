@@ -11,6 +11,7 @@ import ru.bpmink.bpm.model.task.TaskStartData;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -149,6 +150,9 @@ public interface TaskClient {
 
     /**
      * Retrieve available actions for human task instances.
+     * <p>Large list of ids is split into several requests, so the uri of every request is accepted by the server.
+     * Requests are executed concurrently, and their results are merged into the single response. If any of them
+     * is unsuccessful, its response is returned.</p>
      *
      * @param tkiids A list of IDs of human tasks (tkiid list) for which available actions should be returned.
      * @return {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, which holds an information about available
@@ -191,5 +195,77 @@ public interface TaskClient {
      */
     RestRootEntity<ServiceData> setTaskData(@Nonnull String tkiid, @Nonnull Map<String, Object> parameters);
 
+    /**
+     * Assign the specified tasks to another user, see {@link #assignTaskToUser(String, String)}.
+     * Tasks are assigned concurrently, and failure of one call doesn't stop the others.
+     * <p>Each call holds a pooled connection, so parallelism above
+     * {@link ru.bpmink.bpm.api.client.BpmClientConfig.Builder#setMaxPerRoute(int)} only makes calls wait
+     * for the connection.</p>
+     *
+     * @param tkiids      The ids of the task instances to be assigned. Duplicate ids are assigned once.
+     * @param userName    The user to be assigned.
+     * @param parallelism Maximal number of concurrent calls.
+     * @return Outcome of every call by task id, in the order of given ids:
+     *      {@link ru.bpmink.bpm.api.client.BulkResult} with {@link ru.bpmink.bpm.model.task.TaskDetails}
+     * @throws IllegalArgumentException if tkiids or any of its elements is null, or parallelism is not positive
+     */
+    Map<String, BulkResult<TaskDetails>> assignTasksToUser(@Nonnull Collection<String> tkiids,
+                                                           @Nullable String userName, int parallelism);
+
+    /**
+     * Assign the specified tasks to a group, see {@link #assignTaskToGroup(String, String)}.
+     * Tasks are assigned concurrently, and failure of one call doesn't stop the others.
+     *
+     * @param tkiids      The ids of the task instances to be assigned. Duplicate ids are assigned once.
+     * @param groupName   The group to be assigned.
+     * @param parallelism Maximal number of concurrent calls.
+     * @return Outcome of every call by task id, in the order of given ids:
+     *      {@link ru.bpmink.bpm.api.client.BulkResult} with {@link ru.bpmink.bpm.model.task.TaskDetails}
+     * @throws IllegalArgumentException if tkiids or any of its elements is null, or parallelism is not positive
+     */
+    Map<String, BulkResult<TaskDetails>> assignTasksToGroup(@Nonnull Collection<String> tkiids,
+                                                            @Nullable String groupName, int parallelism);
+
+    /**
+     * Finish the specified tasks with the same parameters, see {@link #completeTask(String, Map)}.
+     * Tasks are finished concurrently, and failure of one call doesn't stop the others.
+     *
+     * @param tkiids      The ids of the task instances to be finished. Duplicate ids are finished once.
+     * @param parameters  Parameters to finish specified tasks.
+     * @param parallelism Maximal number of concurrent calls.
+     * @return Outcome of every call by task id, in the order of given ids:
+     *      {@link ru.bpmink.bpm.api.client.BulkResult} with {@link ru.bpmink.bpm.model.task.TaskDetails}
+     * @throws IllegalArgumentException if tkiids or any of its elements is null, or parallelism is not positive
+     */
+    Map<String, BulkResult<TaskDetails>> completeTasks(@Nonnull Collection<String> tkiids,
+                                                       @Nullable Map<String, Object> parameters, int parallelism);
+
+    /**
+     * Cancel the specified tasks, see {@link #cancelTask(String)}.
+     * Tasks are cancelled concurrently, and failure of one call doesn't stop the others.
+     *
+     * @param tkiids      The ids of the task instances to be cancelled. Duplicate ids are cancelled once.
+     * @param parallelism Maximal number of concurrent calls.
+     * @return Outcome of every call by task id, in the order of given ids:
+     *      {@link ru.bpmink.bpm.api.client.BulkResult} with empty {@link ru.bpmink.bpm.model.common.RestEntity}
+     * @throws IllegalArgumentException if tkiids or any of its elements is null, or parallelism is not positive
+     */
+    Map<String, BulkResult<RestEntity>> cancelTasks(@Nonnull Collection<String> tkiids, int parallelism);
+
+    /**
+     * Update priority of the specified tasks, see {@link #updateTaskPriority(String, TaskPriority)}.
+     * Tasks are updated concurrently, and failure of one call doesn't stop the others.
+     *
+     * @param tkiids      The ids of the task instances to be updated. Duplicate ids are updated once.
+     * @param priority    Is new task priority {@link ru.bpmink.bpm.model.task.TaskPriority}
+     * @param parallelism Maximal number of concurrent calls.
+     * @return Outcome of every call by task id, in the order of given ids:
+     *      {@link ru.bpmink.bpm.api.client.BulkResult} with {@link ru.bpmink.bpm.model.task.TaskDetails}
+     * @throws IllegalArgumentException if tkiids, any of its elements or priority is null,
+     *      or parallelism is not positive
+     */
+    Map<String, BulkResult<TaskDetails>> updateTasksPriority(@Nonnull Collection<String> tkiids,
+                                                             @Nonnull TaskPriority priority, int parallelism);
+
 
 }
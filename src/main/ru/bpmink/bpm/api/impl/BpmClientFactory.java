@@ -3,7 +3,10 @@ package ru.bpmink.bpm.api.impl;
 
 import org.apache.http.util.Args;
 
+import ru.bpmink.bpm.api.client.AsyncBpmClient;
 import ru.bpmink.bpm.api.client.BpmClient;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
+import ru.bpmink.bpm.api.impl.async.SimpleAsyncBpmClient;
 import ru.bpmink.bpm.api.impl.simple.KerberosBpmClient;
 import ru.bpmink.bpm.api.impl.simple.SecuredBpmClient;
 import ru.bpmink.bpm.api.impl.simple.SimpleBpmClient;
@@ -35,11 +38,29 @@ public final class BpmClientFactory {
      */
     @SuppressWarnings("WeakerAccess")
     public static BpmClient createClient(URI serverUri, String user, String password) {
+        return createClient(serverUri, user, password, BpmClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates the Bpm client object with given parameters.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @param config    is a connection management settings.
+     * @return {@link ru.bpmink.bpm.api.client.BpmClient} instance.
+     * @throws IllegalArgumentException if {@literal serverUri} or {@literal config} is null,
+     *                                  or {@code serverUri.getScheme} returns null or value not in
+     *                                  [{@literal http}, {@literal https}].
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static BpmClient createClient(URI serverUri, String user, String password, BpmClientConfig config) {
         serverUri = Args.notNull(serverUri, "Server uri (serverUri)");
+        config = Args.notNull(config, "Client config (config)");
         if (HTTP_SCHEME.equals(serverUri.getScheme())) {
-            return new SimpleBpmClient(serverUri, user, password);
+            return new SimpleBpmClient(serverUri, user, password, config);
         } else if (HTTPS_SCHEME.equals(serverUri.getScheme())) {
-            return new SecuredBpmClient(serverUri, user, password);
+            return new SecuredBpmClient(serverUri, user, password, config);
         } else {
             throw new IllegalArgumentException("Unknown scheme: " + serverUri.getScheme());
         }
@@ -73,8 +94,79 @@ public final class BpmClientFactory {
      * @throws IllegalArgumentException if {@literal serverUri} is null.
      */
     public static BpmClient createClient(URI serverUri, String user, String password, String domain, String kdc) {
+        return createClient(serverUri, user, password, domain, kdc, BpmClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates the Bpm client object with given parameters.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @param domain    is an identification string that defines a realm of administrative autonomy, authority or
+     *                     control.
+     * @param kdc       key distribution center ({@literal KDC}) is part of a cryptosystem intended to reduce the risks
+     *                  inherent in exchanging keys.
+     * @param config    is a connection management settings.
+     * @return {@link ru.bpmink.bpm.api.client.BpmClient} instance.
+     * @throws IllegalArgumentException if {@literal serverUri} or {@literal config} is null.
+     */
+    public static BpmClient createClient(URI serverUri, String user, String password, String domain, String kdc,
+                                         BpmClientConfig config) {
+        serverUri = Args.notNull(serverUri, "Server uri (serverUri)");
+        config = Args.notNull(config, "Client config (config)");
+        return new KerberosBpmClient(serverUri, user, password, domain, kdc, config);
+    }
+
+    /**
+     * Creates the asynchronous Bpm client object with given parameters.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @return {@link ru.bpmink.bpm.api.client.AsyncBpmClient} instance.
+     * @throws IllegalArgumentException if {@literal serverUri} is null, or {@code serverUri.getScheme} returns
+     *                                  null or value not in [{@literal http}, {@literal https}].
+     */
+    public static AsyncBpmClient createAsyncClient(URI serverUri, String user, String password) {
+        return createAsyncClient(serverUri, user, password, BpmClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates the asynchronous Bpm client object with given parameters.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @param config    is a connection management settings.
+     * @return {@link ru.bpmink.bpm.api.client.AsyncBpmClient} instance.
+     * @throws IllegalArgumentException if {@literal serverUri} or {@literal config} is null,
+     *                                  or {@code serverUri.getScheme} returns null or value not in
+     *                                  [{@literal http}, {@literal https}].
+     */
+    public static AsyncBpmClient createAsyncClient(URI serverUri, String user, String password,
+                                                   BpmClientConfig config) {
+        serverUri = Args.notNull(serverUri, "Server uri (serverUri)");
+        config = Args.notNull(config, "Client config (config)");
+        if (HTTP_SCHEME.equals(serverUri.getScheme()) || HTTPS_SCHEME.equals(serverUri.getScheme())) {
+            return new SimpleAsyncBpmClient(serverUri, user, password, config);
+        } else {
+            throw new IllegalArgumentException("Unknown scheme: " + serverUri.getScheme());
+        }
+    }
+
+    /**
+     * Creates the asynchronous Bpm client object with given parameters.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @return {@link ru.bpmink.bpm.api.client.AsyncBpmClient} instance.
+     * @throws IllegalArgumentException if {@literal serverUri} is null.
+     */
+    public static AsyncBpmClient createAsyncClient(String serverUri, String user, String password) {
         serverUri = Args.notNull(serverUri, "Server uri (serverUri)");
-        return new KerberosBpmClient(serverUri, user, password, domain, kdc);
+        return createAsyncClient(URI.create(serverUri), user, password);
     }
 
 }
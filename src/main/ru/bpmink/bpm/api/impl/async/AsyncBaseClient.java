@@ -0,0 +1,282 @@
+package ru.bpmink.bpm.api.impl.async;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.http.Consts;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.AuthSchemes;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.model.common.Describable;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.util.Utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.concurrent.Future;
+
+/**
+ * Base parent class of asynchronous clients, which contains some configuration constants and common methods.
+ * Requests are executed by {@link org.apache.http.nio.client.HttpAsyncClient}, so no thread is blocked while
+ * request is in-flight. Response is deserialized by i/o dispatch thread, right after it was fully received.
+ */
+@SuppressWarnings("WeakerAccess")
+abstract class AsyncBaseClient {
+
+    private static Logger logger = LoggerFactory.getLogger(AsyncBaseClient.class.getName());
+
+    private static final RequestConfig DEFAULT_CONFIG = RequestConfig.custom().setCookieSpec(CookieSpecs.DEFAULT)
+            .setTargetPreferredAuthSchemes(Collections.singletonList(AuthSchemes.BASIC))
+            .setProxyPreferredAuthSchemes(Collections.singletonList(AuthSchemes.BASIC)).build();
+
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String FORM_URL_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    protected static final String DEFAULT_SEPARATOR = ",";
+    protected static final int DEFAULT_TIMEOUT = 120000; // 120 seconds
+
+    private final SerializationEngine serializationEngine;
+
+    /**
+     * @param serializationEngine shared {@link ru.bpmink.adapters.SerializationEngine}, owned by enclosing
+     *                            {@link ru.bpmink.bpm.api.client.AsyncBpmClient}.
+     */
+    protected AsyncBaseClient(SerializationEngine serializationEngine) {
+        this.serializationEngine = serializationEngine;
+    }
+
+    protected SerializationEngine getSerializationEngine() {
+        return serializationEngine;
+    }
+
+    protected void setRequestTimeOut(HttpRequestBase request, int timeOut) {
+        RequestConfig requestConfig = RequestConfig.copy(DEFAULT_CONFIG).setSocketTimeout(timeOut)
+                .setConnectTimeout(timeOut).setConnectionRequestTimeout(timeOut).build();
+        request.setConfig(requestConfig);
+    }
+
+    protected void setHeadersGet(HttpRequestBase request) {
+        request.addHeader(HttpHeaders.CONTENT_TYPE, JSON_CONTENT_TYPE);
+        request.setHeader(HttpHeaders.ACCEPT, JSON_CONTENT_TYPE);
+    }
+
+    protected void setHeadersPost(HttpRequestBase request) {
+        request.addHeader(HttpHeaders.CONTENT_TYPE, FORM_URL_CONTENT_TYPE);
+        request.setHeader(HttpHeaders.ACCEPT, JSON_CONTENT_TYPE);
+    }
+
+    protected void logRequest(HttpRequest request) {
+        //Request line and headers are copied on every access, so they're not touched if logging is disabled.
+        if (logger.isInfoEnabled()) {
+            logger.info("Prepared asynchronous Request for uri: {}", request.getRequestLine().getUri());
+            logger.info("HTTP Request headers: {}", (Object) request.getAllHeaders());
+        }
+    }
+
+    protected void logResponse(HttpResponse response, String body) {
+        if (logger.isInfoEnabled()) {
+            logger.info("HTTP Response had a {} status code.", response.getStatusLine().getStatusCode());
+            logger.info("Reason: {}", response.getStatusLine().getReasonPhrase());
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Response headers: {}", (Object) response.getAllHeaders());
+            logger.debug("Response: {}", response);
+            logger.debug("Response body: {}", body);
+        }
+    }
+
+    /**
+     * Process asynchronous {@literal GET} request for given endpoint with specified in {@literal httpClient} and
+     * {@literal httpContext} configuration. Given {@literal typeToken} determines the response entity generic type.
+     *
+     * @param httpClient  {@link org.apache.http.nio.client.HttpAsyncClient} instance, configured for request.
+     * @param httpContext {@link org.apache.http.protocol.HttpContext} instance, configured for request. It's optional
+     *                    parameter. Each request runs in it's own child context of given one.
+     * @param endpoint    Endpoint uri {@link java.net.URI}
+     * @param typeToken   Represents a generic type that will be returned as
+     *                    {@link ru.bpmink.bpm.model.common.RestRootEntity} generic parameter.
+     * @param <T>         {@link ru.bpmink.bpm.model.common.RestRootEntity} generic parameter class.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of
+     *      {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, which holds entity of specified
+     *      by {@literal <T>} type.
+     */
+    protected <T extends Describable> ListenableFuture<RestRootEntity<T>> makeGet(
+            @Nonnull HttpAsyncClient httpClient, @Nullable HttpContext httpContext, @Nonnull URI endpoint,
+            @Nonnull TypeToken<RestRootEntity<T>> typeToken) {
+
+        HttpGet request = new HttpGet(endpoint);
+        setRequestTimeOut(request, DEFAULT_TIMEOUT);
+        setHeadersGet(request);
+
+        return execute(httpClient, httpContext, request, typeToken);
+    }
+
+    /**
+     * Process asynchronous {@literal POST} request for given endpoint with specified in {@literal httpClient} and
+     * {@literal httpContext} configuration. Given {@literal typeToken} determines the response entity generic type.
+     *
+     * @param httpClient  {@link org.apache.http.nio.client.HttpAsyncClient} instance, configured for request.
+     * @param httpContext {@link org.apache.http.protocol.HttpContext} instance, configured for request. It's optional
+     *                    parameter. Each request runs in it's own child context of given one.
+     * @param endpoint    Endpoint uri {@link java.net.URI}
+     * @param typeToken   Represents a generic type that will be returned as
+     *                    {@link ru.bpmink.bpm.model.common.RestRootEntity} generic parameter.
+     * @param <T>         {@link ru.bpmink.bpm.model.common.RestRootEntity} generic parameter class.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of
+     *      {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, which holds entity of specified
+     *      by {@literal <T>} type.
+     */
+    protected <T extends Describable> ListenableFuture<RestRootEntity<T>> makePost(
+            @Nonnull HttpAsyncClient httpClient, @Nullable HttpContext httpContext, @Nonnull URI endpoint,
+            @Nonnull TypeToken<RestRootEntity<T>> typeToken) {
+        return makePost(httpClient, httpContext, endpoint, null, typeToken);
+    }
+
+    /**
+     * Asynchronously process {@literal POST} request with given body for given endpoint.
+     * Large parameters should be sent in the body instead of the uri, which length is limited by the server.
+     *
+     * @param httpClient  {@link org.apache.http.nio.client.HttpAsyncClient} instance, configured for request.
+     * @param httpContext {@link org.apache.http.protocol.HttpContext} instance, configured for request. It's optional
+     *                    parameter. Each request runs in it's own child context of given one.
+     * @param endpoint    Endpoint uri {@link java.net.URI}
+     * @param body        Request body {@link org.apache.http.HttpEntity}, i.e.
+     *                    {@link ru.bpmink.util.JsonFormEntity}. It's optional parameter.
+     * @param typeToken   Represents a generic type that will be returned as
+     *                    {@link ru.bpmink.bpm.model.common.RestRootEntity} generic parameter.
+     * @param <T>         {@link ru.bpmink.bpm.model.common.RestRootEntity} generic parameter class.
+     * @return {@link com.google.common.util.concurrent.ListenableFuture} of
+     *      {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, which holds entity of specified
+     *      by {@literal <T>} type.
+     */
+    protected <T extends Describable> ListenableFuture<RestRootEntity<T>> makePost(
+            @Nonnull HttpAsyncClient httpClient, @Nullable HttpContext httpContext, @Nonnull URI endpoint,
+            @Nullable HttpEntity body, @Nonnull TypeToken<RestRootEntity<T>> typeToken) {
+
+        HttpPost request = new HttpPost(endpoint);
+        setRequestTimeOut(request, DEFAULT_TIMEOUT);
+        setHeadersPost(request);
+        if (body != null) {
+            request.setEntity(body);
+            request.setHeader(body.getContentType());
+        }
+
+        return execute(httpClient, httpContext, request, typeToken);
+    }
+
+    private <T extends Describable> ListenableFuture<RestRootEntity<T>> execute(
+            @Nonnull HttpAsyncClient httpClient, @Nullable HttpContext httpContext,
+            @Nonnull final HttpRequestBase request, @Nonnull final TypeToken<RestRootEntity<T>> typeToken) {
+
+        logRequest(request);
+
+        final SettableFuture<RestRootEntity<T>> result = SettableFuture.create();
+        //Shared context holds credentials and auth cache, but request attributes must not be shared between
+        //concurrent requests.
+        final Future<HttpResponse> response = httpClient.execute(request, new BasicHttpContext(httpContext),
+                new FutureCallback<HttpResponse>() {
+
+                    @Override
+                    public void completed(HttpResponse response) {
+                        try {
+                            result.set(makeEntity(response, typeToken));
+                        } catch (RuntimeException e) {
+                            result.setException(e);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        logger.error("Can't get Entity object from Server with uri: " + request.getURI(), ex);
+                        result.setException(new RuntimeException("Can't get Entity object from Server with uri: "
+                                + request.getURI(), ex));
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.cancel(false);
+                    }
+                });
+
+        result.addListener(new Runnable() {
+
+            @Override
+            public void run() {
+                if (result.isCancelled()) {
+                    response.cancel(true);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+
+        return result;
+    }
+
+    /**
+     * Create {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, which holds entity of specified
+     * by {@literal typeToken} parameter.
+     */
+    private <T extends Describable> RestRootEntity<T> makeEntity(
+            @Nonnull HttpResponse response, @Nonnull TypeToken<RestRootEntity<T>> typeToken) {
+        try {
+            RestRootEntity<T> entity = readEntity(response.getEntity(), typeToken, response);
+
+            //In case of system / communication errors body will be empty.
+            //So we set correct status code in to the entity, and it's payload will be empty.
+            entity = MoreObjects.firstNonNull(entity, new RestRootEntity<T>());
+
+            //In error case status field updated by 'error' value. So just replace it by actual status code.
+            entity.setStatus(String.valueOf(response.getStatusLine().getStatusCode()));
+            return entity;
+        } catch (IOException e) {
+            logger.error("Can't create response Entity object with type: " + typeToken.getType(), e);
+            throw new RuntimeException("Can't create response Entity object with type: " + typeToken.getType(), e);
+        }
+    }
+
+    private <T extends Describable> RestRootEntity<T> readEntity(
+            @Nullable HttpEntity httpEntity, @Nonnull TypeToken<RestRootEntity<T>> typeToken,
+            @Nonnull HttpResponse response) throws IOException {
+
+        if (httpEntity == null) {
+            logResponse(response, null);
+            return null;
+        }
+
+        Charset charset = MoreObjects.firstNonNull(ContentType.getOrDefault(httpEntity).getCharset(), Consts.UTF_8);
+        if (logger.isDebugEnabled()) {
+            String body = Utils.inputStreamToString(httpEntity.getContent(), charset);
+            logResponse(response, body);
+            return serializationEngine.fromJson(body, typeToken);
+        }
+
+        logResponse(response, null);
+        try (Reader reader = new InputStreamReader(httpEntity.getContent(), charset)) {
+            return serializationEngine.fromJson(reader, typeToken);
+        }
+    }
+
+}
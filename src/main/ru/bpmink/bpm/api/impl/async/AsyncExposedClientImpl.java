@@ -0,0 +1,110 @@
+package ru.bpmink.bpm.api.impl.async;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.AsyncExposedClient;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.other.exposed.ExposedItems;
+import ru.bpmink.bpm.model.other.exposed.Item;
+import ru.bpmink.bpm.model.other.exposed.ItemType;
+import ru.bpmink.util.SafeUriBuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.net.URI;
+
+@Immutable
+final class AsyncExposedClientImpl extends AsyncBaseClient implements AsyncExposedClient {
+
+    private static final Item EMPTY_ITEM = new Item();
+
+    private final URI rootUri;
+    private final HttpAsyncClient httpClient;
+    private final HttpContext httpContext;
+
+    //Response entity types
+    private static final TypeToken<RestRootEntity<ExposedItems>> EXPOSED_ITEMS_TYPE =
+            new TypeToken<RestRootEntity<ExposedItems>>() {};
+
+    AsyncExposedClientImpl(URI rootUri, HttpAsyncClient httpClient, HttpContext httpContext,
+                           SerializationEngine serializationEngine) {
+        super(serializationEngine.warmUp(EXPOSED_ITEMS_TYPE));
+        this.httpClient = httpClient;
+        this.rootUri = rootUri;
+        this.httpContext = httpContext;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ExposedItems>> listItems() {
+        return listItems(rootUri);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ExposedItems>> listItems(ItemType itemType) {
+        if (itemType == null) {
+            return listItems(rootUri);
+        }
+        return listItems(new SafeUriBuilder(rootUri).addPath(itemType.name().toLowerCase()).build());
+    }
+
+    private ListenableFuture<RestRootEntity<ExposedItems>> listItems(URI uri) {
+        return makeGet(httpClient, httpContext, uri, EXPOSED_ITEMS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<Item> getItemByName(@Nonnull String itemName) {
+        itemName = Args.notNull(itemName, "Item name");
+        return getItem(null, itemName);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<Item> getItemByName(@Nonnull ItemType itemType, @Nonnull String itemName) {
+        itemType = Args.notNull(itemType, "Item type");
+        itemName = Args.notNull(itemName, "Item name");
+        return getItem(itemType, itemName);
+    }
+
+    private ListenableFuture<Item> getItem(ItemType itemType, final String itemName) {
+        return Futures.transform(listItems(itemType), new Function<RestRootEntity<ExposedItems>, Item>() {
+
+            @Override
+            public Item apply(RestRootEntity<ExposedItems> input) {
+                //Throws RestException, if the api call was unsuccessful, so the future will be failed with it.
+                for (Item item : input.getPayload().getExposedItems()) {
+                    ItemType type = item.getItemType();
+                    if ((type == ItemType.PROCESS || type == ItemType.SERVICE)
+                            && itemName.equalsIgnoreCase(item.getName())) {
+                        return item;
+                    }
+                }
+                return EMPTY_ITEM;
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+}
@@ -0,0 +1,44 @@
+package ru.bpmink.bpm.api.impl.async;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.protocol.HttpContext;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.AsyncProcessAppsClient;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.other.processapp.ProcessApps;
+
+import java.net.URI;
+import javax.annotation.concurrent.Immutable;
+
+@Immutable
+final class AsyncProcessAppsClientImpl extends AsyncBaseClient implements AsyncProcessAppsClient {
+
+    private final URI rootUri;
+    private final HttpAsyncClient httpClient;
+    private final HttpContext httpContext;
+
+    //Response entity types
+    private static final TypeToken<RestRootEntity<ProcessApps>> PROCESS_APPS_TYPE =
+            new TypeToken<RestRootEntity<ProcessApps>>() {};
+
+    AsyncProcessAppsClientImpl(URI rootUri, HttpAsyncClient httpClient, HttpContext httpContext,
+                               SerializationEngine serializationEngine) {
+        super(serializationEngine.warmUp(PROCESS_APPS_TYPE));
+        this.httpClient = httpClient;
+        this.rootUri = rootUri;
+        this.httpContext = httpContext;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ProcessApps>> listProcessApps() {
+        return makeGet(httpClient, httpContext, rootUri, PROCESS_APPS_TYPE);
+    }
+
+}
@@ -0,0 +1,145 @@
+package ru.bpmink.bpm.api.impl.async;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.AsyncProcessClient;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.process.ProcessDetails;
+import ru.bpmink.util.JsonFormEntity;
+import ru.bpmink.util.SafeUriBuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.net.URI;
+import java.util.Map;
+
+@Immutable
+final class AsyncProcessClientImpl extends AsyncBaseClient implements AsyncProcessClient {
+
+    private final URI rootUri;
+    private final HttpAsyncClient httpClient;
+    private final HttpContext httpContext;
+
+    //Response entity types
+    private static final TypeToken<RestRootEntity<ProcessDetails>> PROCESS_DETAILS_TYPE =
+            new TypeToken<RestRootEntity<ProcessDetails>>() {};
+
+    //Request parameters constants
+    private static final String ACTION = "action";
+    private static final String PROCESS_DEFINITION_ID = "bpdId";
+    private static final String SNAPSHOT_ID = "snapshotId";
+    private static final String BRANCH_ID = "branchId";
+    private static final String PROCESS_APP_ID = "processAppId";
+    private static final String PARAMS = "params";
+
+    //Methods for processes
+    private static final String ACTION_START = "start";
+    private static final String ACTION_SUSPEND = "suspend";
+    private static final String ACTION_RESUME = "resume";
+    private static final String ACTION_TERMINATE = "terminate";
+
+    AsyncProcessClientImpl(URI rootUri, HttpAsyncClient httpClient, HttpContext httpContext,
+                           SerializationEngine serializationEngine) {
+        super(serializationEngine.warmUp(PROCESS_DETAILS_TYPE));
+        this.httpClient = httpClient;
+        this.rootUri = rootUri;
+        this.httpContext = httpContext;
+    }
+
+    /**
+     * <p>Will use only one parameter of processAppId, snapshotId or branchId, checked in this order.</p>
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ProcessDetails>> startProcess(@Nonnull String bpdId,
+                                                                         @Nullable String processAppId,
+                                                                         @Nullable String snapshotId,
+                                                                         @Nullable String branchId,
+                                                                         @Nullable Map<String, Object> input) {
+        bpdId = Args.notNull(bpdId, "BusinessProcessDefinition (bpdId)");
+
+        SafeUriBuilder uri = new SafeUriBuilder(rootUri).addParameter(ACTION, ACTION_START)
+                .addParameter(PROCESS_DEFINITION_ID, bpdId);
+
+        if (processAppId != null) {
+            uri.addParameter(PROCESS_APP_ID, processAppId);
+        } else if (snapshotId != null) {
+            uri.addParameter(SNAPSHOT_ID, snapshotId);
+        } else if (branchId != null) {
+            uri.addParameter(BRANCH_ID, branchId);
+        } else {
+            throw new IllegalArgumentException("One of processAppId, snapshotId or branchId must be specified");
+        }
+
+        HttpEntity body = null;
+
+        if (input != null && input.size() > 0) {
+            body = new JsonFormEntity(PARAMS, input, getSerializationEngine());
+        }
+
+        return makePost(httpClient, httpContext, uri.build(), body, PROCESS_DETAILS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ProcessDetails>> suspendProcess(@Nonnull String piid) {
+        return changeProcessState(piid, ACTION_SUSPEND);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ProcessDetails>> resumeProcess(@Nonnull String piid) {
+        return changeProcessState(piid, ACTION_RESUME);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ProcessDetails>> terminateProcess(@Nonnull String piid) {
+        return changeProcessState(piid, ACTION_TERMINATE);
+    }
+
+    private ListenableFuture<RestRootEntity<ProcessDetails>> changeProcessState(String piid, String action) {
+        piid = Args.notNull(piid, "ProcessInstanceID (piid)");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(piid).addParameter(ACTION, action).build();
+
+        return makePost(httpClient, httpContext, uri, PROCESS_DETAILS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ProcessDetails>> currentState(@Nonnull String piid) {
+        piid = Args.notNull(piid, "ProcessInstanceID (piid)");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(piid).build();
+
+        return makeGet(httpClient, httpContext, uri, PROCESS_DETAILS_TYPE);
+    }
+
+}
@@ -0,0 +1,111 @@
+package ru.bpmink.bpm.api.impl.async;
+
+import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.AsyncServiceClient;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.service.ServiceData;
+import ru.bpmink.util.JsonFormEntity;
+import ru.bpmink.util.SafeUriBuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.net.URI;
+import java.util.Map;
+
+@Immutable
+final class AsyncServiceClientImpl extends AsyncBaseClient implements AsyncServiceClient {
+
+    private final URI rootUri;
+    private final HttpAsyncClient httpClient;
+    private final HttpContext httpContext;
+
+    //Response entity types
+    private static final TypeToken<RestRootEntity<ServiceData>> SERVICE_DATA_TYPE =
+            new TypeToken<RestRootEntity<ServiceData>>() {};
+
+    //Request parameters constants
+    private static final String FIELD = "field";
+    private static final String FIELDS = "fields";
+    private static final String VALUE = "value";
+    private static final String PARAMS = "params";
+    private static final String ACTION = "action";
+
+    private static final String ACTION_GET_DATA = "getData";
+    private static final String ACTION_SET_DATA = "setData";
+
+    AsyncServiceClientImpl(URI rootUri, HttpAsyncClient httpClient, HttpContext httpContext,
+                           SerializationEngine serializationEngine) {
+        super(serializationEngine.warmUp(SERVICE_DATA_TYPE));
+        this.httpClient = httpClient;
+        this.rootUri = rootUri;
+        this.httpContext = httpContext;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ServiceData>> getServiceData(@Nonnull String instanceId,
+                                                                        String... fields) {
+        instanceId = Args.notNull(instanceId, "Instance id (instanceId)");
+        SafeUriBuilder uri = new SafeUriBuilder(rootUri).addPath(instanceId).addParameter(ACTION, ACTION_GET_DATA);
+
+        if (fields != null && fields.length > 0) {
+            uri.addParameter(FIELDS, Joiner.on(DEFAULT_SEPARATOR).join(fields));
+        }
+
+        return makeGet(httpClient, httpContext, uri.build(), SERVICE_DATA_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ServiceData>> setServiceData(@Nonnull String instanceId,
+                                                                        @Nonnull Map<String, Object> parameters) {
+        instanceId = Args.notNull(instanceId, "Instance id (instanceId)");
+        parameters = Args.notNull(parameters, "Variables (parameters)");
+        Args.notEmpty(parameters.keySet(), "Parameters names");
+        Args.notEmpty(parameters.values(), "Parameters values");
+
+        HttpEntity body = new JsonFormEntity(PARAMS, parameters, getSerializationEngine());
+        URI uri = new SafeUriBuilder(rootUri).addPath(instanceId).addParameter(ACTION, ACTION_SET_DATA).build();
+
+        return makePost(httpClient, httpContext, uri, body, SERVICE_DATA_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ServiceData>> setServiceData(@Nonnull String instanceId,
+                                                                        @Nonnull String field,
+                                                                        @Nonnull Object value) {
+        instanceId = Args.notNull(instanceId, "Instance id (instanceId)");
+        field = Args.notNull(field, "Field name (field)");
+        value = Args.notNull(value, "Field value (value)");
+
+        HttpEntity body = new JsonFormEntity(VALUE, value, getSerializationEngine());
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(instanceId).addParameter(ACTION, ACTION_SET_DATA)
+                .addParameter(FIELD, field).build();
+
+        return makePost(httpClient, httpContext, uri, body, SERVICE_DATA_TYPE);
+    }
+
+}
@@ -0,0 +1,322 @@
+package ru.bpmink.bpm.api.impl.async;
+
+import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.reflect.TypeToken;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.Args;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.AsyncTaskClient;
+import ru.bpmink.bpm.model.common.RestEntity;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.service.ServiceData;
+import ru.bpmink.bpm.model.task.TaskActions;
+import ru.bpmink.bpm.model.task.TaskClientSettings;
+import ru.bpmink.bpm.model.task.TaskDetails;
+import ru.bpmink.bpm.model.task.TaskPriority;
+import ru.bpmink.bpm.model.task.TaskStartData;
+import ru.bpmink.util.JsonFormEntity;
+import ru.bpmink.util.SafeUriBuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+@Immutable
+final class AsyncTaskClientImpl extends AsyncBaseClient implements AsyncTaskClient {
+
+    private final URI rootUri;
+    private final HttpAsyncClient httpClient;
+    private final HttpContext httpContext;
+
+    //Response entity types
+    private static final TypeToken<RestRootEntity<TaskDetails>> TASK_DETAILS_TYPE =
+            new TypeToken<RestRootEntity<TaskDetails>>() {};
+    private static final TypeToken<RestRootEntity<TaskStartData>> TASK_START_DATA_TYPE =
+            new TypeToken<RestRootEntity<TaskStartData>>() {};
+    private static final TypeToken<RestRootEntity<RestEntity>> REST_ENTITY_TYPE =
+            new TypeToken<RestRootEntity<RestEntity>>() {};
+    private static final TypeToken<RestRootEntity<TaskClientSettings>> TASK_CLIENT_SETTINGS_TYPE =
+            new TypeToken<RestRootEntity<TaskClientSettings>>() {};
+    private static final TypeToken<RestRootEntity<TaskActions>> TASK_ACTIONS_TYPE =
+            new TypeToken<RestRootEntity<TaskActions>>() {};
+    private static final TypeToken<RestRootEntity<ServiceData>> SERVICE_DATA_TYPE =
+            new TypeToken<RestRootEntity<ServiceData>>() {};
+
+    //Request parameters constants
+    private static final String ACTION = "action";
+    private static final String ACTIONS = "actions";
+    private static final String PARAMS = "params";
+    private static final String FIELDS = "fields";
+    private static final String DUE_DATE = "dueDate";
+    private static final String PRIORITY = "priority";
+    private static final String RELATIVE_URL = "relativeURL";
+    private static final String SETTINGS_TYPE = "IBM_WLE_Coach";
+    private static final String TASK_ID_LIST = "taskIDs";
+
+    //Methods for tasks
+    private static final String ACTION_ASSIGN = "assign";
+    private static final String ACTION_COMPLETE = "finish";
+    private static final String ACTION_CANCEL = "cancel";
+    private static final String ACTION_START = "start";
+    private static final String ACTION_UPDATE = "update";
+    private static final String ACTION_SETTINGS = "clientSettings";
+    private static final String ACTION_GET_DATA = "getData";
+    private static final String ACTION_SET_DATA = "setData";
+
+    //Assign constants
+    private static final String ASSIGN_BACK = "back";
+    private static final String ASSIGN_TO_ME = "toMe";
+    private static final String ASSIGN_TO_USER = "toUser";
+    private static final String ASSIGN_TO_GROUP = "toGroup";
+
+    AsyncTaskClientImpl(URI rootUri, HttpAsyncClient httpClient, HttpContext httpContext,
+                        SerializationEngine serializationEngine) {
+        super(serializationEngine.warmUp(TASK_DETAILS_TYPE, TASK_START_DATA_TYPE, REST_ENTITY_TYPE,
+                TASK_CLIENT_SETTINGS_TYPE, TASK_ACTIONS_TYPE, SERVICE_DATA_TYPE));
+        this.httpClient = httpClient;
+        this.rootUri = rootUri;
+        this.httpContext = httpContext;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskDetails>> getTask(@Nonnull String tkiid) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).build();
+
+        return makeGet(httpClient, httpContext, uri, TASK_DETAILS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskStartData>> startTask(@Nonnull String tkiid) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_START).build();
+
+        return makePost(httpClient, httpContext, uri, TASK_START_DATA_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskDetails>> assignTaskToMe(@Nonnull String tkiid) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        return assignTask(tkiid, ASSIGN_TO_ME, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskDetails>> assignTaskBack(@Nonnull String tkiid) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        return assignTask(tkiid, ASSIGN_BACK, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskDetails>> assignTaskToUser(@Nonnull String tkiid, String userName) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        if (userName != null) {
+            return assignTask(tkiid, ASSIGN_TO_USER, userName);
+        }
+        return assignTask(tkiid, ASSIGN_BACK, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskDetails>> assignTaskToGroup(@Nonnull String tkiid, String groupName) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        if (groupName != null) {
+            return assignTask(tkiid, ASSIGN_TO_GROUP, groupName);
+        }
+        return assignTask(tkiid, ASSIGN_BACK, true);
+    }
+
+    private ListenableFuture<RestRootEntity<TaskDetails>> assignTask(String tkiid, String assignType, Object value) {
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_ASSIGN)
+                .addParameter(assignType, value).build();
+
+        return makePost(httpClient, httpContext, uri, TASK_DETAILS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskDetails>> completeTask(@Nonnull String tkiid,
+                                                                      Map<String, Object> parameters) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+
+        SafeUriBuilder uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_COMPLETE);
+        HttpEntity body = null;
+        if (parameters != null && parameters.size() > 0) {
+            body = new JsonFormEntity(PARAMS, parameters, getSerializationEngine());
+        }
+
+        return makePost(httpClient, httpContext, uri.build(), body, TASK_DETAILS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<RestEntity>> cancelTask(@Nonnull String tkiid) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_CANCEL).build();
+
+        return makePost(httpClient, httpContext, uri, REST_ENTITY_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskDetails>> updateTaskPriority(@Nonnull String tkiid,
+                                                                            @Nonnull TaskPriority priority) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        priority = Args.notNull(priority, "Task priority");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_UPDATE)
+                .addParameter(PRIORITY, priority).build();
+
+        return makePost(httpClient, httpContext, uri, TASK_DETAILS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskDetails>> updateTaskDueTime(@Nonnull String tkiid,
+                                                                           @Nonnull Date dueTime) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        dueTime = Args.notNull(dueTime, "Task dueTime");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_UPDATE)
+                .addParameter(DUE_DATE, dueTime).build();
+
+        return makePost(httpClient, httpContext, uri, TASK_DETAILS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskClientSettings>> getTaskClientSettings(@Nonnull String tkiid,
+                                                                                      @Nonnull Boolean isRelativeUrl) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        isRelativeUrl = Args.notNull(isRelativeUrl, "IsRelativeURL");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addPath(ACTION_SETTINGS).addPath(SETTINGS_TYPE)
+                .addParameter(RELATIVE_URL, isRelativeUrl).build();
+
+        return makeGet(httpClient, httpContext, uri, TASK_CLIENT_SETTINGS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskActions>> getAvailableActions(@Nonnull List<String> tkiids) {
+        tkiids = Args.notNull(tkiids, "Task ids (tkiids)");
+        Args.check(!tkiids.isEmpty(), "At least one tkiid must be specified for available actions retrieving");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(ACTIONS)
+                .addParameter(TASK_ID_LIST, Joiner.on(DEFAULT_SEPARATOR).join(tkiids)).build();
+
+        return makeGet(httpClient, httpContext, uri, TASK_ACTIONS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<TaskActions>> getAvailableActions(@Nonnull String tkiid) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        return getAvailableActions(Collections.singletonList(tkiid));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ServiceData>> getTaskData(@Nonnull String tkiid, String... fields) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        SafeUriBuilder uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_GET_DATA);
+
+        if (fields != null && fields.length > 0) {
+            uri.addParameter(FIELDS, Joiner.on(DEFAULT_SEPARATOR).join(fields));
+        }
+
+        return makeGet(httpClient, httpContext, uri.build(), SERVICE_DATA_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public ListenableFuture<RestRootEntity<ServiceData>> setTaskData(@Nonnull String tkiid,
+                                                                     @Nonnull Map<String, Object> parameters) {
+        tkiid = Args.notNull(tkiid, "Task id (tkiid)");
+        parameters = Args.notNull(parameters, "Variables (parameters)");
+        Args.notEmpty(parameters.keySet(), "Parameters names");
+        Args.notEmpty(parameters.values(), "Parameters values");
+
+        HttpEntity body = new JsonFormEntity(PARAMS, parameters, getSerializationEngine());
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_SET_DATA).build();
+
+        return makePost(httpClient, httpContext, uri, body, SERVICE_DATA_TYPE);
+    }
+
+}
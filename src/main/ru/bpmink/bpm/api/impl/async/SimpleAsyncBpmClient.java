@@ -0,0 +1,308 @@
+package ru.bpmink.bpm.api.impl.async;
+
+import com.google.common.io.Closeables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.ssl.TrustStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.AsyncBpmClient;
+import ru.bpmink.bpm.api.client.AsyncExposedClient;
+import ru.bpmink.bpm.api.client.AsyncProcessAppsClient;
+import ru.bpmink.bpm.api.client.AsyncProcessClient;
+import ru.bpmink.bpm.api.client.AsyncQueryClient;
+import ru.bpmink.bpm.api.client.AsyncServiceClient;
+import ru.bpmink.bpm.api.client.AsyncTaskClient;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
+import ru.bpmink.util.SafeUriBuilder;
+
+import javax.annotation.concurrent.Immutable;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simple implementation of {@link ru.bpmink.bpm.api.client.AsyncBpmClient} which supports
+ * {@link org.apache.http.impl.auth.BasicScheme} authentication.
+ * Both {@literal http} and {@literal https} schemes are supported, server certificates are not verified
+ * (same as {@link ru.bpmink.bpm.api.impl.simple.SecuredBpmClient} does).
+ */
+@Immutable
+@SuppressFBWarnings("JCIP_FIELD_ISNT_FINAL_IN_IMMUTABLE_CLASS")
+public final class SimpleAsyncBpmClient implements AsyncBpmClient {
+
+    private static final String ROOT_ENDPOINT = "rest/bpm/wle/v1";
+    private static final String EXPOSED_ENDPOINT = "exposed";
+    private static final String PROCESS_ENDPOINT = "process";
+    private static final String TASK_ENDPOINT = "task";
+    private static final String SERVICE_ENDPOINT = "service";
+    private static final String TASKS_QUERY_ENDPOINT = "tasks";
+    private static final String TASKS_TEMPLATE_QUERY_ENDPOINT = "taskTemplates";
+    private static final String PROCESS_QUERY_ENDPOINT = "processes";
+    private static final String PROCESS_APPS_ENDPOINT = "processApps";
+
+    private AsyncExposedClient exposedClient;
+    private AsyncProcessClient processClient;
+    private AsyncTaskClient taskClient;
+    private AsyncServiceClient serviceClient;
+    private AsyncProcessAppsClient processAppsClient;
+
+    private AsyncQueryClient taskQueryClient;
+    private AsyncQueryClient taskTemplateQueryClient;
+    private AsyncQueryClient processQueryClient;
+
+    private static Logger logger = LoggerFactory.getLogger(SimpleAsyncBpmClient.class.getName());
+    private final CloseableHttpAsyncClient httpClient;
+    private ScheduledExecutorService connectionEvictor;
+    private final SerializationEngine serializationEngine;
+    private final URI rootUri;
+    private HttpClientContext httpContext;
+
+    /**
+     * Creates instance of {@link ru.bpmink.bpm.api.impl.async.SimpleAsyncBpmClient}.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     */
+    public SimpleAsyncBpmClient(URI serverUri, String user, String password) {
+        this(serverUri, user, password, BpmClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates instance of {@link ru.bpmink.bpm.api.impl.async.SimpleAsyncBpmClient}.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @param config    is a connection management settings.
+     */
+    public SimpleAsyncBpmClient(URI serverUri, String user, String password, BpmClientConfig config) {
+        logger.info("Start creating async bpm client.");
+        this.rootUri = new SafeUriBuilder(serverUri).addPath(ROOT_ENDPOINT).build();
+        this.serializationEngine = new SerializationEngine(config.isLazyDeserialization());
+        this.httpClient = createClient(user, password, config);
+        this.httpClient.start();
+        logger.info("Async bpm client created.");
+    }
+
+    private CloseableHttpAsyncClient createClient(String user, String password, BpmClientConfig config) {
+        final PoolingNHttpClientConnectionManager cm;
+        try {
+            cm = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(), null, createRegistry(),
+                    null, null, config.getConnectionTimeToLive(), TimeUnit.MILLISECONDS);
+        } catch (IOReactorException e) {
+            logger.error("Can't create I/O reactor: " + e.getMessage());
+            throw new RuntimeException("Can't create I/O reactor", e);
+        }
+        cm.setMaxTotal(config.getMaxTotal());
+        cm.setDefaultMaxPerRoute(config.getMaxPerRoute());
+
+        logger.info("Pooling non-blocking connection manager created: " + config);
+
+        if (config.isEvictionEnabled()) {
+            connectionEvictor = startConnectionEvictor(cm, config);
+            logger.info("Connection evictor started.");
+        }
+
+        CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user, password));
+        logger.info("Default credentials provider created.");
+
+        AuthCache authCache = new BasicAuthCache();
+        BasicScheme basicAuth = new BasicScheme();
+
+        authCache.put(new HttpHost(rootUri.getHost(), rootUri.getPort(), rootUri.getScheme()), basicAuth);
+        logger.info("Auth cache created.");
+
+        httpContext = HttpClientContext.create();
+        httpContext.setCredentialsProvider(credentialsProvider);
+        httpContext.setAuthCache(authCache);
+        logger.info("HttpContext filled with Auth cache.");
+
+        return HttpAsyncClients.custom().setDefaultCredentialsProvider(credentialsProvider).setConnectionManager(cm)
+                .setKeepAliveStrategy(config.getKeepAliveStrategy()).build();
+    }
+
+    /**
+     * Non-blocking client has no built-in eviction, so expired and idle connections are closed by separate
+     * daemon thread, same as {@link org.apache.http.impl.client.IdleConnectionEvictor} does for blocking clients.
+     */
+    private static ScheduledExecutorService startConnectionEvictor(final PoolingNHttpClientConnectionManager cm,
+                                                                   final BpmClientConfig config) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("bpm-connection-evictor-%d").setDaemon(true).build());
+        executor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                if (config.isEvictExpiredConnections()) {
+                    cm.closeExpiredConnections();
+                }
+                if (config.getMaxIdleTime() > 0) {
+                    cm.closeIdleConnections(config.getMaxIdleTime(), TimeUnit.MILLISECONDS);
+                }
+            }
+        }, config.getEvictionInterval(), config.getEvictionInterval(), TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    private Registry<SchemeIOSessionStrategy> createRegistry() {
+        SSLContext sslContext;
+        try {
+            sslContext = SSLContexts.custom().loadTrustMaterial(null, new TrustAllStrategy()).build();
+        } catch (GeneralSecurityException e) {
+            logger.error("Can't create ssl context: " + e.getMessage());
+            throw new RuntimeException("Can't create ssl context", e);
+        }
+        return RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", new SSLIOSessionStrategy(sslContext, NoopHostnameVerifier.INSTANCE))
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncExposedClient getExposedClient() {
+        if (exposedClient == null) {
+            final URI uri = new SafeUriBuilder(rootUri).addPath(EXPOSED_ENDPOINT).build();
+            exposedClient = new AsyncExposedClientImpl(uri, httpClient, httpContext, serializationEngine);
+        }
+        return exposedClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncProcessClient getProcessClient() {
+        if (processClient == null) {
+            final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_ENDPOINT).build();
+            processClient = new AsyncProcessClientImpl(uri, httpClient, httpContext, serializationEngine);
+        }
+        return processClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncTaskClient getTaskClient() {
+        if (taskClient == null) {
+            final URI uri = new SafeUriBuilder(rootUri).addPath(TASK_ENDPOINT).build();
+            taskClient = new AsyncTaskClientImpl(uri, httpClient, httpContext, serializationEngine);
+        }
+        return taskClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncServiceClient getServiceClient() {
+        if (serviceClient == null) {
+            final URI uri = new SafeUriBuilder(rootUri).addPath(SERVICE_ENDPOINT).build();
+            serviceClient = new AsyncServiceClientImpl(uri, httpClient, httpContext, serializationEngine);
+        }
+        return serviceClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncProcessAppsClient getProcessAppsClient() {
+        if (processAppsClient == null) {
+            final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_APPS_ENDPOINT).build();
+            processAppsClient = new AsyncProcessAppsClientImpl(uri, httpClient, httpContext, serializationEngine);
+        }
+        return processAppsClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncQueryClient getTaskQueryClient() {
+        if (taskQueryClient == null) {
+            final URI uri = new SafeUriBuilder(rootUri).addPath(TASKS_QUERY_ENDPOINT).build();
+            taskQueryClient = new AsyncQueryClientImpl(uri, httpClient, httpContext, serializationEngine);
+        }
+        return taskQueryClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncQueryClient getTaskTemplateQueryClient() {
+        if (taskTemplateQueryClient == null) {
+            final URI uri = new SafeUriBuilder(rootUri).addPath(TASKS_TEMPLATE_QUERY_ENDPOINT).build();
+            taskTemplateQueryClient = new AsyncQueryClientImpl(uri, httpClient, httpContext, serializationEngine);
+        }
+        return taskTemplateQueryClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AsyncQueryClient getProcessQueryClient() {
+        if (processQueryClient == null) {
+            final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_QUERY_ENDPOINT).build();
+            processQueryClient = new AsyncQueryClientImpl(uri, httpClient, httpContext, serializationEngine);
+        }
+        return processQueryClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (connectionEvictor != null) {
+            connectionEvictor.shutdownNow();
+        }
+        Closeables.close(httpClient, true);
+    }
+
+    private static class TrustAllStrategy implements TrustStrategy {
+
+        @Override
+        public boolean isTrusted(X509Certificate[] chain, String authType) {
+            return true;
+        }
+    }
+
+}
@@ -1,4 +1,5 @@
 /**
- * This package reserved for future use.
+ * Contains asynchronous implementations of bpm api clients, built on non-blocking
+ * {@link org.apache.http.nio.client.HttpAsyncClient}.
  */
-package ru.bpmink.bpm.api.impl.async;
\ No newline at end of file
+package ru.bpmink.bpm.api.impl.async;
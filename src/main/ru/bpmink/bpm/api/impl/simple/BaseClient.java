@@ -1,24 +1,44 @@
 package ru.bpmink.bpm.api.impl.simple;
 
 import com.google.common.base.MoreObjects;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.gson.reflect.TypeToken;
 
+import org.apache.http.Consts;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.AuthSchemes;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.cache.CachedResponse;
+import ru.bpmink.bpm.api.cache.ResponseStore;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
+import ru.bpmink.bpm.api.metrics.ClientMetrics;
+import ru.bpmink.bpm.api.metrics.RequestMetrics;
 import ru.bpmink.bpm.model.common.Describable;
 import ru.bpmink.bpm.model.common.RestRootEntity;
 import ru.bpmink.util.Utils;
@@ -26,9 +46,17 @@ import ru.bpmink.util.Utils;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
-import java.util.Arrays;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
 import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Base parent class, which contains some configuration constants and common methods.
@@ -44,10 +72,58 @@ abstract class BaseClient {
 
     private static final String JSON_CONTENT_TYPE = "application/json";
     private static final String FORM_URL_CONTENT_TYPE = "application/x-www-form-urlencoded";
-    protected static final String DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss'Z'";
     protected static final String DEFAULT_SEPARATOR = ",";
     protected static final int DEFAULT_TIMEOUT = 120000; // 120 seconds
 
+    //Metrics endpoint template
+    private static final String ID_PLACEHOLDER = "{id}";
+    private static final String ACTION_PARAMETER = "action=";
+    private static final Splitter PATH_SPLITTER = Splitter.on('/').omitEmptyStrings();
+    private static final Splitter QUERY_SPLITTER = Splitter.on('&');
+
+    //Content codings
+    private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+    private static final String GZIP_ENCODING = "gzip";
+    private static final String X_GZIP_ENCODING = "x-gzip";
+    private static final String DEFLATE_ENCODING = "deflate";
+    private static final String IDENTITY_ENCODING = "identity";
+
+    private final SerializationEngine serializationEngine;
+    private final ClientMetrics metrics;
+    private final boolean contentCompression;
+    private final ResponseStore responseStore;
+    //In-flight GET requests by uri and response type, null if requests are not coalesced.
+    private final ConcurrentMap<Map.Entry<URI, TypeToken<?>>, SettableFuture<RestRootEntity<?>>> inFlightGets;
+
+    /**
+     * @param serializationEngine shared {@link ru.bpmink.adapters.SerializationEngine}, owned by enclosing
+     *                            {@link ru.bpmink.bpm.api.client.BpmClient}.
+     */
+    protected BaseClient(SerializationEngine serializationEngine) {
+        this(serializationEngine, BpmClientConfig.DEFAULT);
+    }
+
+    /**
+     * @param serializationEngine shared {@link ru.bpmink.adapters.SerializationEngine}, owned by enclosing
+     *                            {@link ru.bpmink.bpm.api.client.BpmClient}.
+     * @param config              settings of enclosing {@link ru.bpmink.bpm.api.client.BpmClient}: receiver of
+     *                            rest calls measurements, content compression, request coalescing and
+     *                            response caching.
+     */
+    protected BaseClient(SerializationEngine serializationEngine, BpmClientConfig config) {
+        this.serializationEngine = serializationEngine;
+        this.metrics = config.getMetrics();
+        this.contentCompression = config.isContentCompression();
+        this.responseStore = config.getResponseStore();
+        this.inFlightGets = config.isRequestCoalescing()
+                ? Maps.<Map.Entry<URI, TypeToken<?>>, SettableFuture<RestRootEntity<?>>>newConcurrentMap()
+                : null;
+    }
+
+    protected SerializationEngine getSerializationEngine() {
+        return serializationEngine;
+    }
+
     protected void setRequestTimeOut(HttpRequestBase request, int timeOut) {
         RequestConfig requestConfig = RequestConfig.copy(DEFAULT_CONFIG).setSocketTimeout(timeOut)
                 .setConnectTimeout(timeOut).setConnectionRequestTimeout(timeOut).build();
@@ -57,6 +133,7 @@ abstract class BaseClient {
     protected void setHeadersGet(HttpRequestBase request) {
         request.addHeader(HttpHeaders.CONTENT_TYPE, JSON_CONTENT_TYPE);
         request.setHeader(HttpHeaders.ACCEPT, JSON_CONTENT_TYPE);
+        setHeaderAcceptEncoding(request);
     }
 
     protected void setHeadersPut(HttpRequestBase request) {
@@ -68,30 +145,51 @@ abstract class BaseClient {
     protected void setHeadersPost(HttpRequestBase request) {
         request.addHeader(HttpHeaders.CONTENT_TYPE, FORM_URL_CONTENT_TYPE);
         request.setHeader(HttpHeaders.ACCEPT, JSON_CONTENT_TYPE);
+        setHeaderAcceptEncoding(request);
+    }
+
+    private static void setHeadersConditional(HttpRequestBase request, CachedResponse cached) {
+        if (cached.getEntityTag() != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEntityTag());
+        }
+        if (cached.getLastModified() != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+    }
+
+    private void setHeaderAcceptEncoding(HttpRequestBase request) {
+        if (contentCompression) {
+            request.setHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+        }
     }
 
     @SuppressWarnings("SameParameterValue")
     protected void logRequest(HttpRequest request, String body) {
-        logger.info("Prepared Request for uri: " + request.getRequestLine().getUri());
-        logger.info("HTTP Request headers: " + Arrays.toString(request.getAllHeaders()));
-        if (logger.isDebugEnabled()) {
-            logger.debug("Request body: " + body);
+        //Request line and headers are copied on every access, so they're not touched if logging is disabled.
+        if (logger.isInfoEnabled()) {
+            logger.info("Prepared Request for uri: {}", request.getRequestLine().getUri());
+            logger.info("HTTP Request headers: {}", (Object) request.getAllHeaders());
         }
+        logger.debug("Request body: {}", body);
     }
 
     protected void logResponse(HttpResponse response, String body) {
-        logger.info("HTTP Response had a " + response.getStatusLine().getStatusCode() + " status code.");
-        logger.info("Reason: " + response.getStatusLine().getReasonPhrase());
+        if (logger.isInfoEnabled()) {
+            logger.info("HTTP Response had a {} status code.", response.getStatusLine().getStatusCode());
+            logger.info("Reason: {}", response.getStatusLine().getReasonPhrase());
+        }
         if (logger.isDebugEnabled()) {
-            logger.debug("Response headers: " + Arrays.toString(response.getAllHeaders()));
-            logger.debug("Response: " + response);
-            logger.debug("Response body: " + body);
+            logger.debug("Response headers: {}", (Object) response.getAllHeaders());
+            logger.debug("Response: {}", response);
+            logger.debug("Response body: {}", body);
         }
     }
 
     /**
      * Process {@literal GET} request for given endpoint with specified in {@literal httpClient} and
      * {@literal httpContext} configuration. Given {@literal typeToken} determines the response entity generic type.
+     * If request coalescing is enabled, and the same request is already in flight, waits for its response instead
+     * of sending a new request, see {@link ru.bpmink.bpm.api.client.BpmClientConfig#isRequestCoalescing()}.
      *
      * @param httpClient  {@link org.apache.http.client.HttpClient} instance, configured for request.
      * @param httpContext {@link org.apache.http.protocol.HttpContext} instance, configured for request. It's optional
@@ -107,19 +205,70 @@ abstract class BaseClient {
     protected <T extends Describable> RestRootEntity<T> makeGet(
             @Nonnull HttpClient httpClient, @Nullable HttpContext httpContext, @Nonnull URI endpoint,
             @Nonnull TypeToken<RestRootEntity<T>> typeToken) {
+        if (inFlightGets == null) {
+            return doGet(httpClient, httpContext, endpoint, typeToken);
+        }
+
+        Map.Entry<URI, TypeToken<?>> key = new AbstractMap.SimpleImmutableEntry<URI, TypeToken<?>>(endpoint,
+                typeToken);
+        SettableFuture<RestRootEntity<?>> response = SettableFuture.create();
+        SettableFuture<RestRootEntity<?>> inFlight = inFlightGets.putIfAbsent(key, response);
+        if (inFlight != null) {
+            return awaitGet(inFlight, endpoint, typeToken);
+        }
+        try {
+            RestRootEntity<T> entity = doGet(httpClient, httpContext, endpoint, typeToken);
+            //Waiters copy the snapshot, which is never exposed, so the caller may modify returned entity at once.
+            response.set(serializationEngine.copy(entity, typeToken));
+            return entity;
+        } catch (RuntimeException | Error e) {
+            response.setException(e);
+            throw e;
+        } finally {
+            inFlightGets.remove(key, response);
+        }
+    }
+
+    /**
+     * Waits for the response of the same request, sent by another caller, and returns deep copy of its entity
+     * snapshot, so callers don't share mutable entities. Failure of the request is thrown as is, like it would be
+     * thrown to the caller, which sent the request itself.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Describable> RestRootEntity<T> awaitGet(
+            SettableFuture<RestRootEntity<?>> inFlight, URI endpoint, TypeToken<RestRootEntity<T>> typeToken) {
+        logger.debug("Request for uri {} is already in flight, waiting for its response", endpoint);
+        try {
+            RestRootEntity<T> entity = (RestRootEntity<T>) Uninterruptibles.getUninterruptibly(inFlight);
+            return serializationEngine.copy(entity, typeToken);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Can't get Entity object from Server with uri: " + endpoint, cause);
+        }
+    }
+
+    private <T extends Describable> RestRootEntity<T> doGet(
+            HttpClient httpClient, HttpContext httpContext, URI endpoint, TypeToken<RestRootEntity<T>> typeToken) {
+        long started = System.nanoTime();
         try {
             HttpGet request = new HttpGet(endpoint);
             setRequestTimeOut(request, DEFAULT_TIMEOUT);
             setHeadersGet(request);
+            String cacheKey = responseStore != ResponseStore.NONE ? endpoint + " " + typeToken : null;
+            CachedResponse cached = cacheKey != null ? responseStore.get(cacheKey) : null;
+            if (cached != null) {
+                setHeadersConditional(request, cached);
+            }
 
             logRequest(request, null);
 
-            HttpResponse response = httpClient.execute(request, httpContext);
-            RestRootEntity<T> entity = makeEntity(response, typeToken);
-
-            request.releaseConnection();
-
-            return entity;
+            return execute(httpClient, httpContext, request, typeToken, started, cacheKey, cached);
         } catch (IOException e) {
             logger.error("Can't get Entity object from Server with uri: " + endpoint, e);
             e.printStackTrace();
@@ -145,19 +294,43 @@ abstract class BaseClient {
     protected <T extends Describable> RestRootEntity<T> makePost(
             @Nonnull HttpClient httpClient, @Nullable HttpContext httpContext, @Nonnull URI endpoint,
             @Nonnull TypeToken<RestRootEntity<T>> typeToken) {
+        return makePost(httpClient, httpContext, endpoint, null, typeToken);
+    }
+
+    /**
+     * Process {@literal POST} request with given body for given endpoint with specified in {@literal httpClient} and
+     * {@literal httpContext} configuration. Given {@literal typeToken} determines the response entity generic type.
+     * Large parameters should be sent in the body instead of the uri, which length is limited by the server.
+     *
+     * @param httpClient  {@link org.apache.http.client.HttpClient} instance, configured for request.
+     * @param httpContext {@link org.apache.http.protocol.HttpContext} instance, configured for request. It's optional
+     *                    parameter. If {@literal null} passed as {@literal httpContext}, default instance of
+     *                    {@link org.apache.http.protocol.BasicHttpContext} will be created.
+     * @param endpoint    Endpoint uri {@link java.net.URI}
+     * @param body        Request body {@link org.apache.http.HttpEntity}, i.e.
+     *                    {@link ru.bpmink.util.JsonFormEntity}. It's optional parameter.
+     * @param typeToken   Represents a generic type that will be returned as
+     *                    {@link ru.bpmink.bpm.model.common.RestRootEntity} generic parameter.
+     * @param <T>         {@link ru.bpmink.bpm.model.common.RestRootEntity} generic parameter class.
+     * @return {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, which holds entity of specified
+     *      by {@literal <T>} type.
+     */
+    protected <T extends Describable> RestRootEntity<T> makePost(
+            @Nonnull HttpClient httpClient, @Nullable HttpContext httpContext, @Nonnull URI endpoint,
+            @Nullable HttpEntity body, @Nonnull TypeToken<RestRootEntity<T>> typeToken) {
+        long started = System.nanoTime();
         try {
             HttpPost request = new HttpPost(endpoint);
             setRequestTimeOut(request, DEFAULT_TIMEOUT);
             setHeadersPost(request);
+            if (body != null) {
+                request.setEntity(body);
+                request.setHeader(body.getContentType());
+            }
 
-            logRequest(request, null);
-
-            HttpResponse response = httpClient.execute(request, httpContext);
-            RestRootEntity<T> entity = makeEntity(response, typeToken);
-
-            request.releaseConnection();
+            logRequest(request, body != null && logger.isDebugEnabled() ? EntityUtils.toString(body) : null);
 
-            return entity;
+            return execute(httpClient, httpContext, request, typeToken, started, null, null);
         } catch (IOException e) {
             logger.error("Can't update Entity object from Server with uri " + endpoint, e);
             e.printStackTrace();
@@ -165,6 +338,139 @@ abstract class BaseClient {
         }
     }
 
+    /**
+     * Executes prepared request and creates response entity. Request is always executed in its own child context,
+     * so concurrent requests don't overwrite each other's attributes in the shared context of the client. If metrics
+     * are enabled, child context also collects marks of {@link ru.bpmink.bpm.api.impl.simple.MeteredRequestExecutor}.
+     *
+     * @param started  {@link System#nanoTime()} at the beginning of the call.
+     * @param cacheKey key of the response in {@link ru.bpmink.bpm.api.cache.ResponseStore}, or null if response
+     *                 is not cached.
+     * @param cached   response, which validators are sent with the request, or null if there is no such response.
+     */
+    private <T extends Describable> RestRootEntity<T> execute(
+            @Nonnull HttpClient httpClient, @Nullable HttpContext httpContext, @Nonnull HttpRequestBase request,
+            @Nonnull TypeToken<RestRootEntity<T>> typeToken, long started, @Nullable String cacheKey,
+            @Nullable CachedResponse cached) throws IOException {
+
+        //Request attributes must not be shared between concurrent requests, shared ones are read from parent.
+        HttpContext requestContext = new BasicHttpContext(httpContext);
+        if (metrics == ClientMetrics.NOOP) {
+            HttpResponse response = httpClient.execute(request, requestContext);
+            decodeEntity(response);
+            RestRootEntity<T> entity = cacheKey != null
+                    ? makeCachedEntity(response, typeToken, cacheKey, cached)
+                    : makeEntity(response, typeToken);
+
+            request.releaseConnection();
+
+            return entity;
+        }
+
+        RequestMetrics.Builder requestMetrics = RequestMetrics.builder(request.getMethod(),
+                endpointTemplate(request.getURI()));
+        MeteredRequestExecutor.Timings timings = new MeteredRequestExecutor.Timings();
+        requestContext.setAttribute(MeteredRequestExecutor.TIMINGS_ATTRIBUTE, timings);
+
+        long executed = System.nanoTime();
+        requestMetrics.setRequestBuildNanos(executed - started);
+        CountingEntity receivedEntity = null;
+        CountingEntity decodedEntity = null;
+        try {
+            HttpResponse response = httpClient.execute(request, requestContext);
+            requestMetrics.setStatusCode(response.getStatusLine().getStatusCode());
+            if (response.getEntity() != null) {
+                receivedEntity = new CountingEntity(response.getEntity());
+                response.setEntity(receivedEntity);
+                requestMetrics.setContentEncoding(decodeEntity(response));
+                decodedEntity = new CountingEntity(response.getEntity());
+                response.setEntity(decodedEntity);
+            }
+            RestRootEntity<T> entity = cacheKey != null
+                    ? makeCachedEntity(response, typeToken, cacheKey, cached)
+                    : makeEntity(response, typeToken);
+
+            request.releaseConnection();
+
+            return entity;
+        } catch (IOException | RuntimeException e) {
+            requestMetrics.setFailure(e);
+            throw e;
+        } finally {
+            long completed = System.nanoTime();
+            if (timings.getLeasedAt() != 0) {
+                requestMetrics.setConnectionLeaseNanos(timings.getLeasedAt() - executed)
+                        .setPoolStats(timings.getPoolStats())
+                        .setRequestBytes(timings.getSentBytes());
+            }
+            if (timings.getRespondedAt() != 0) {
+                requestMetrics.setServerNanos(timings.getRespondedAt() - timings.getLeasedAt())
+                        .setDeserializationNanos(completed - timings.getRespondedAt());
+            }
+            requestMetrics.setResponseBytes(receivedEntity != null ? receivedEntity.getCount() : 0)
+                    .setDecodedResponseBytes(decodedEntity != null ? decodedEntity.getCount() : 0);
+            recordMetrics(requestMetrics.build());
+        }
+    }
+
+    private void recordMetrics(RequestMetrics requestMetrics) {
+        try {
+            metrics.requestCompleted(requestMetrics);
+        } catch (RuntimeException e) {
+            logger.warn("Can't record metrics of the request: " + requestMetrics, e);
+        }
+    }
+
+    /**
+     * Creates low-cardinality name of the endpoint: path segments, which start with a digit, are replaced by
+     * placeholder, and of all query parameters only {@literal action} is kept, i.e.
+     * {@literal /rest/bpm/wle/v1/task/{id}?action=assign}.
+     */
+    private static String endpointTemplate(URI endpoint) {
+        StringBuilder template = new StringBuilder();
+        for (String segment : PATH_SPLITTER.split(Strings.nullToEmpty(endpoint.getRawPath()))) {
+            template.append('/').append(Character.isDigit(segment.charAt(0)) ? ID_PLACEHOLDER : segment);
+        }
+        for (String parameter : QUERY_SPLITTER.split(Strings.nullToEmpty(endpoint.getRawQuery()))) {
+            if (parameter.startsWith(ACTION_PARAMETER)) {
+                template.append('?').append(parameter);
+                break;
+            }
+        }
+        return template.toString();
+    }
+
+    /**
+     * Replaces compressed response entity by decompressing one, which decodes the content while it's read
+     * by deserializer, so decompressed body is never held in memory.
+     *
+     * @return content coding of the response, or null if response isn't encoded.
+     * @throws IOException if content coding is not supported.
+     */
+    @Nullable
+    private static String decodeEntity(@Nonnull HttpResponse response) throws IOException {
+        HttpEntity httpEntity = response.getEntity();
+        Header contentEncoding = httpEntity != null ? httpEntity.getContentEncoding() : null;
+        if (contentEncoding == null) {
+            return null;
+        }
+        String encoding = contentEncoding.getValue().trim().toLowerCase(Locale.ROOT);
+        if (GZIP_ENCODING.equals(encoding) || X_GZIP_ENCODING.equals(encoding)) {
+            response.setEntity(new GzipDecompressingEntity(httpEntity));
+        } else if (DEFLATE_ENCODING.equals(encoding)) {
+            response.setEntity(new DeflateDecompressingEntity(httpEntity));
+        } else if (IDENTITY_ENCODING.equals(encoding) || encoding.isEmpty()) {
+            return null;
+        } else {
+            throw new IOException("Unsupported Content-Encoding: " + contentEncoding.getValue());
+        }
+        //Headers describe encoded body.
+        response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+        response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+        response.removeHeaders(HttpHeaders.CONTENT_MD5);
+        return encoding;
+    }
+
     /**
      * Create {@link ru.bpmink.bpm.model.common.RestRootEntity} instance, which holds entity of specified
      * by {@literal typeToken} parameter.
@@ -180,11 +486,8 @@ abstract class BaseClient {
     private <T extends Describable> RestRootEntity<T> makeEntity(
             @Nonnull HttpResponse response, @Nonnull TypeToken<RestRootEntity<T>> typeToken) {
         try {
-            Gson gson = new GsonBuilder().setDateFormat(DATE_TIME_FORMAT).create();
-            String body = Utils.inputStreamToString(response.getEntity().getContent());
-            logResponse(response, body);
+            RestRootEntity<T> entity = readEntity(response.getEntity(), typeToken, response);
 
-            RestRootEntity<T> entity = gson.fromJson(body, typeToken.getType());
             //In case of system / communication errors body will be empty.
             //I.e. if provided credentials was wrong we will receive 401 code - Unauthorized.
             //So we set correct status code in to the entity, and it's payload will be empty.
@@ -200,4 +503,82 @@ abstract class BaseClient {
         }
     }
 
+    /**
+     * Creates {@link ru.bpmink.bpm.model.common.RestRootEntity} instance of the response, which can be cached.
+     * If server answers {@literal 304 - Not Modified}, the copy of the cached entity is returned. Otherwise the
+     * response is deserialized, and stored if it's successful and has validators, so caller and cache never share
+     * the same entity.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Describable> RestRootEntity<T> makeCachedEntity(
+            @Nonnull HttpResponse response, @Nonnull TypeToken<RestRootEntity<T>> typeToken,
+            @Nonnull String cacheKey, @Nullable CachedResponse cached) {
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+            logResponse(response, null);
+            EntityUtils.consumeQuietly(response.getEntity());
+            return serializationEngine.copy((RestRootEntity<T>) cached.getEntity(), typeToken);
+        }
+
+        RestRootEntity<T> entity = makeEntity(response, typeToken);
+        Header entityTag = response.getFirstHeader(HttpHeaders.ETAG);
+        Header lastModified = response.getFirstHeader(HttpHeaders.LAST_MODIFIED);
+        if (statusCode == HttpStatus.SC_OK && !entity.isExceptional() && (entityTag != null || lastModified != null)) {
+            responseStore.put(cacheKey, new CachedResponse(entityTag != null ? entityTag.getValue() : null,
+                    lastModified != null ? lastModified.getValue() : null,
+                    serializationEngine.copy(entity, typeToken)));
+        } else if (cached != null) {
+            responseStore.remove(cacheKey);
+        }
+        return entity;
+    }
+
+    /**
+     * Deserializes response body. Body is decoded directly from the content stream, and materialized as
+     * {@link java.lang.String} only if debug logging needs it.
+     */
+    private <T extends Describable> RestRootEntity<T> readEntity(
+            @Nullable HttpEntity httpEntity, @Nonnull TypeToken<RestRootEntity<T>> typeToken,
+            @Nonnull HttpResponse response) throws IOException {
+
+        if (httpEntity == null) {
+            logResponse(response, null);
+            return null;
+        }
+
+        Charset charset = MoreObjects.firstNonNull(ContentType.getOrDefault(httpEntity).getCharset(), Consts.UTF_8);
+        if (logger.isDebugEnabled()) {
+            String body = Utils.inputStreamToString(httpEntity.getContent(), charset);
+            logResponse(response, body);
+            return serializationEngine.fromJson(body, typeToken);
+        }
+
+        logResponse(response, null);
+        try (Reader reader = new InputStreamReader(httpEntity.getContent(), charset)) {
+            return serializationEngine.fromJson(reader, typeToken);
+        }
+    }
+
+    /**
+     * Counts bytes of the response body, which are read by deserializer.
+     */
+    private static final class CountingEntity extends HttpEntityWrapper {
+
+        private CountingInputStream content;
+
+        CountingEntity(HttpEntity wrappedEntity) {
+            super(wrappedEntity);
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            content = new CountingInputStream(super.getContent());
+            return content;
+        }
+
+        long getCount() {
+            return content != null ? content.getCount() : 0;
+        }
+    }
+
 }
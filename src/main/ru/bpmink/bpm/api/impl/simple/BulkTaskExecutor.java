@@ -0,0 +1,133 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.http.util.Args;
+
+import ru.bpmink.bpm.api.client.BulkResult;
+import ru.bpmink.bpm.model.common.Describable;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executes the same operation for every task by fixed number of threads, and collects the outcome of every call,
+ * so failure of one call never stops the others. Number of concurrent calls never exceeds parallelism level, and
+ * calls are made in the order of task ids. Threads are either created for every execution, or taken from the shared
+ * executor, which is not shut down.
+ */
+final class BulkTaskExecutor {
+
+    private final ExecutorService sharedExecutor;
+    private final int parallelism;
+
+    BulkTaskExecutor(int parallelism) {
+        this.sharedExecutor = null;
+        this.parallelism = Args.positive(parallelism, "Parallelism level (parallelism)");
+    }
+
+    BulkTaskExecutor(ExecutorService sharedExecutor, int parallelism) {
+        this.sharedExecutor = Args.notNull(sharedExecutor, "Shared executor (sharedExecutor)");
+        this.parallelism = Args.positive(parallelism, "Parallelism level (parallelism)");
+    }
+
+    /**
+     * Operation on the single task.
+     *
+     * @param <T> is one of {@link ru.bpmink.bpm.model.common.RestEntity} instances.
+     */
+    interface TaskOperation<T extends Describable> {
+
+        RestRootEntity<T> execute(String tkiid);
+    }
+
+    /**
+     * Executes the operation for all tasks.
+     *
+     * @param tkiids    ids of the task instances, duplicates are processed once.
+     * @param operation operation on the single task.
+     * @return outcome of every call by task id, in the order of given ids.
+     */
+    <T extends Describable> Map<String, BulkResult<T>> execute(Collection<String> tkiids,
+                                                             TaskOperation<T> operation) {
+        Args.notNull(tkiids, "Task ids (tkiids)");
+        Set<String> uniqueIds = Sets.newLinkedHashSet();
+        for (String tkiid : tkiids) {
+            uniqueIds.add(Args.notNull(tkiid, "Task id (tkiid)"));
+        }
+
+        ImmutableMap.Builder<String, BulkResult<T>> results = ImmutableMap.builder();
+        if (parallelism == 1 || uniqueIds.size() <= 1) {
+            //Thread pool is not needed for sequential calls.
+            for (String tkiid : uniqueIds) {
+                results.put(tkiid, call(operation, tkiid));
+            }
+            return results.build();
+        }
+
+        ExecutorService executor = sharedExecutor;
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.min(parallelism, uniqueIds.size()),
+                    new ThreadFactoryBuilder().setNameFormat("bpm-task-bulk-%d").setDaemon(true).build());
+        }
+        try {
+            Map<String, Future<BulkResult<T>>> futures = Maps.newLinkedHashMap();
+            for (String tkiid : uniqueIds) {
+                futures.put(tkiid, executor.submit(callTask(operation, tkiid)));
+            }
+            for (Map.Entry<String, Future<BulkResult<T>>> future : futures.entrySet()) {
+                results.put(future.getKey(), getResult(future.getValue()));
+            }
+            return results.build();
+        } finally {
+            if (executor != sharedExecutor) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static <T extends Describable> Callable<BulkResult<T>> callTask(final TaskOperation<T> operation,
+                                                                           final String tkiid) {
+        return new Callable<BulkResult<T>>() {
+
+            @Override
+            public BulkResult<T> call() {
+                return BulkTaskExecutor.call(operation, tkiid);
+            }
+        };
+    }
+
+    private static <T extends Describable> BulkResult<T> call(TaskOperation<T> operation, String tkiid) {
+        try {
+            return BulkResult.completed(operation.execute(tkiid));
+        } catch (RuntimeException e) {
+            return BulkResult.failed(e);
+        }
+    }
+
+    private static <T extends Describable> BulkResult<T> getResult(Future<BulkResult<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for bulk task operation", e);
+        } catch (ExecutionException e) {
+            //Only errors are not caught by the task.
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException("Can't execute bulk task operation", e.getCause());
+        }
+    }
+
+}
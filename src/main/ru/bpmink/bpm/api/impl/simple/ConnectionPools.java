@@ -0,0 +1,86 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import ru.bpmink.bpm.api.client.BpmClientConfig;
+import ru.bpmink.bpm.api.metrics.ClientMetrics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link ru.bpmink.bpm.api.client.BpmClientConfig} to the connection pool and
+ * {@link org.apache.http.impl.client.HttpClientBuilder}, so all blocking bpm clients manage connections
+ * in the same way.
+ */
+final class ConnectionPools {
+
+    private static final String HTTP_SCHEME = "http";
+    private static final String HTTPS_SCHEME = "https";
+
+    private ConnectionPools() {
+    }
+
+    /**
+     * Creates {@link org.apache.http.impl.conn.PoolingHttpClientConnectionManager} configured by given config.
+     *
+     * @param socketFactory factory of {@literal https} connections, or null to use system default one.
+     * @param config        connection management settings.
+     * @return new connection manager.
+     */
+    static PoolingHttpClientConnectionManager createConnectionManager(
+            @Nullable ConnectionSocketFactory socketFactory, @Nonnull BpmClientConfig config) {
+
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register(HTTP_SCHEME, PlainConnectionSocketFactory.getSocketFactory())
+                .register(HTTPS_SCHEME, socketFactory != null
+                        ? socketFactory
+                        : SSLConnectionSocketFactory.getSocketFactory())
+                .build();
+
+        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager(registry, null, null, null,
+                config.getConnectionTimeToLive(), TimeUnit.MILLISECONDS);
+        cm.setMaxTotal(config.getMaxTotal());
+        cm.setDefaultMaxPerRoute(config.getMaxPerRoute());
+        cm.setValidateAfterInactivity((int) Math.min(config.getValidateAfterInactivity(), Integer.MAX_VALUE));
+        return cm;
+    }
+
+    /**
+     * Applies connection manager, keep-alive, eviction and metrics settings to the given builder.
+     * Built-in content compression of the client is disabled, see
+     * {@link ru.bpmink.bpm.api.client.BpmClientConfig#isContentCompression()}.
+     *
+     * @param builder builder of the client.
+     * @param cm      connection manager, created by {@link #createConnectionManager(ConnectionSocketFactory,
+     *                BpmClientConfig)}.
+     * @param config  connection management settings.
+     * @return given builder.
+     */
+    static HttpClientBuilder configure(@Nonnull HttpClientBuilder builder,
+                                       @Nonnull PoolingHttpClientConnectionManager cm,
+                                       @Nonnull BpmClientConfig config) {
+        builder.setConnectionManager(cm);
+        //Responses are decompressed by BaseClient, which counts both compressed and decompressed bytes.
+        builder.disableContentCompression();
+        builder.setKeepAliveStrategy(config.getKeepAliveStrategy());
+        if (config.isEvictExpiredConnections()) {
+            builder.evictExpiredConnections();
+        }
+        if (config.getMaxIdleTime() > 0) {
+            builder.evictIdleConnections(config.getMaxIdleTime(), TimeUnit.MILLISECONDS);
+        }
+        if (config.getMetrics() != ClientMetrics.NOOP) {
+            builder.setRequestExecutor(new MeteredRequestExecutor(cm));
+        }
+        return builder;
+    }
+
+}
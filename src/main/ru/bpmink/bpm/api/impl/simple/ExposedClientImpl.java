@@ -1,11 +1,19 @@
 package ru.bpmink.bpm.api.impl.simple;
 
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.reflect.TypeToken;
 
 import org.apache.http.client.HttpClient;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.Args;
 
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
 import ru.bpmink.bpm.api.client.ExposedClient;
 import ru.bpmink.bpm.model.common.RestRootEntity;
 import ru.bpmink.bpm.model.other.exposed.ExposedItems;
@@ -17,6 +25,9 @@ import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Immutable
 final class ExposedClientImpl extends BaseClient implements ExposedClient {
@@ -27,14 +38,34 @@ final class ExposedClientImpl extends BaseClient implements ExposedClient {
     private final HttpClient httpClient;
     private final HttpContext httpContext;
 
-    ExposedClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext) {
+    //Response entity types
+    private static final TypeToken<RestRootEntity<ExposedItems>> EXPOSED_ITEMS_TYPE =
+            new TypeToken<RestRootEntity<ExposedItems>>() {};
+
+    //Exposed items cache
+    private static final String CATALOG_KEY = "exposedItems";
+    private static final long REFRESH_AHEAD_NUMERATOR = 3;
+    private static final long REFRESH_AHEAD_DENOMINATOR = 4;
+    private static final long REFRESH_THREAD_KEEP_ALIVE = 60; // seconds
+
+    private final LoadingCache<String, ExposedItemsCatalog> catalogCache;
+
+    ExposedClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                      SerializationEngine serializationEngine, BpmClientConfig config) {
+        super(serializationEngine.warmUp(EXPOSED_ITEMS_TYPE), config);
         this.httpClient = httpClient;
         this.rootUri = rootUri;
         this.httpContext = httpContext;
+        this.catalogCache = createCatalogCache(config.getExposedItemsCacheTtl());
     }
 
-    ExposedClientImpl(URI rootUri, HttpClient httpClient) {
-        this(rootUri, httpClient, null);
+    ExposedClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                      SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, httpContext, serializationEngine, BpmClientConfig.DEFAULT);
+    }
+
+    ExposedClientImpl(URI rootUri, HttpClient httpClient, SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, null, serializationEngine);
     }
 
     /**
@@ -57,7 +88,7 @@ final class ExposedClientImpl extends BaseClient implements ExposedClient {
     }
 
     private RestRootEntity<ExposedItems> listItems(URI uri) {
-        return makeGet(httpClient, httpContext, uri, new TypeToken<RestRootEntity<ExposedItems>>() {});
+        return makeGet(httpClient, httpContext, uri, EXPOSED_ITEMS_TYPE);
     }
 
     /**
@@ -85,7 +116,34 @@ final class ExposedClientImpl extends BaseClient implements ExposedClient {
         return getItem(itemType, itemName);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException                 {@inheritDoc}
+     * @throws ru.bpmink.bpm.model.common.RestException {@inheritDoc}
+     */
+    @Override
+    public Item getItemById(@Nonnull String itemId) {
+        itemId = Args.notNull(itemId, "Item id (itemId)");
+        return MoreObjects.firstNonNull(getCatalog().getById(itemId), EMPTY_ITEM);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException                 {@inheritDoc}
+     * @throws ru.bpmink.bpm.model.common.RestException {@inheritDoc}
+     */
+    @Override
+    public List<Item> getItemsByProcessAppAcronym(@Nonnull String processAppAcronym) {
+        processAppAcronym = Args.notNull(processAppAcronym, "Process app acronym (processAppAcronym)");
+        return getCatalog().getByProcessAppAcronym(processAppAcronym);
+    }
+
     private Item getItem(ItemType itemType, String itemName) {
+        if (catalogCache != null) {
+            return MoreObjects.firstNonNull(getCatalog().getByName(itemType, itemName), EMPTY_ITEM);
+        }
         List<Item> items = listItems(itemType).getPayload().getExposedItems();
         for (Item item : items) {
             ItemType type = item.getItemType();
@@ -112,4 +170,59 @@ final class ExposedClientImpl extends BaseClient implements ExposedClient {
         return EMPTY_ITEM;
     }
 
+    /**
+     * Returns cached catalog of all exposed items, or fresh one, if cache is disabled.
+     */
+    private ExposedItemsCatalog getCatalog() {
+        if (catalogCache == null) {
+            return loadCatalog();
+        }
+        try {
+            return catalogCache.getUnchecked(CATALOG_KEY);
+        } catch (UncheckedExecutionException e) {
+            //Keep contract of uncached calls: RestException is thrown as is.
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private ExposedItemsCatalog loadCatalog() {
+        //Throws RestException, if the api call was unsuccessful.
+        ExposedItems exposedItems = listItems().getPayload();
+        if (exposedItems == null) {
+            throw new RuntimeException("Can't get exposed items from Server with uri: " + rootUri);
+        }
+        return new ExposedItemsCatalog(exposedItems.getExposedItems());
+    }
+
+    /**
+     * Creates single-entry cache, which is refreshed in background when accessed after 3/4 of ttl, so lookups
+     * don't wait for the listing, and expires after ttl, so stale items are never served.
+     * Refresh thread is started on demand and stops after a minute of inactivity.
+     */
+    private LoadingCache<String, ExposedItemsCatalog> createCatalogCache(long ttl) {
+        if (ttl <= 0) {
+            return null;
+        }
+        ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 1, REFRESH_THREAD_KEEP_ALIVE,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("bpm-exposed-items-refresh-%d").setDaemon(true).build());
+        refreshExecutor.allowCoreThreadTimeOut(true);
+
+        CacheLoader<String, ExposedItemsCatalog> loader = new CacheLoader<String, ExposedItemsCatalog>() {
+
+            @Override
+            public ExposedItemsCatalog load(@Nonnull String key) {
+                return loadCatalog();
+            }
+        };
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .refreshAfterWrite(Math.max(1, ttl * REFRESH_AHEAD_NUMERATOR / REFRESH_AHEAD_DENOMINATOR),
+                        TimeUnit.MILLISECONDS)
+                .build(CacheLoader.asyncReloading(loader, refreshExecutor));
+    }
+
 }
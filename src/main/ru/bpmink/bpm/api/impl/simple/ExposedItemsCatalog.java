@@ -0,0 +1,110 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+
+import ru.bpmink.bpm.model.other.exposed.Item;
+import ru.bpmink.bpm.model.other.exposed.ItemType;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of exposed items, indexed by name, item id and process app acronym.
+ * Lookups by name follow the rules of linear search in {@link ru.bpmink.bpm.api.impl.simple.ExposedClientImpl}:
+ * only {@link ru.bpmink.bpm.model.other.exposed.ItemType#PROCESS} and
+ * {@link ru.bpmink.bpm.model.other.exposed.ItemType#SERVICE} items are searchable, names are compared
+ * case-insensitive and the first item in the listing order wins.
+ */
+@Immutable
+final class ExposedItemsCatalog {
+
+    private final List<Item> items;
+    private final Map<String, Item> itemsByName;
+    private final Map<ItemType, Map<String, Item>> itemsByTypeAndName;
+    private final Map<String, Item> itemsById;
+    private final ListMultimap<String, Item> itemsByAcronym;
+
+    ExposedItemsCatalog(List<Item> source) {
+        Map<String, Item> byName = Maps.newHashMap();
+        Map<ItemType, Map<String, Item>> byTypeAndName = new EnumMap<>(ItemType.class);
+        Map<String, Item> byId = Maps.newHashMap();
+        ImmutableListMultimap.Builder<String, Item> byAcronym = ImmutableListMultimap.builder();
+
+        for (Item item : source) {
+            ItemType type = item.getItemType();
+            if ((type == ItemType.PROCESS || type == ItemType.SERVICE) && item.getName() != null) {
+                String key = normalize(item.getName());
+                putIfAbsent(byName, key, item);
+                if (!byTypeAndName.containsKey(type)) {
+                    byTypeAndName.put(type, Maps.<String, Item>newHashMap());
+                }
+                putIfAbsent(byTypeAndName.get(type), key, item);
+            }
+            if (item.getItemId() != null) {
+                putIfAbsent(byId, item.getItemId(), item);
+            }
+            if (item.getProcessAppAcronym() != null) {
+                byAcronym.put(item.getProcessAppAcronym(), item);
+            }
+        }
+
+        this.items = ImmutableList.copyOf(source);
+        this.itemsByName = byName;
+        this.itemsByTypeAndName = byTypeAndName;
+        this.itemsById = byId;
+        this.itemsByAcronym = byAcronym.build();
+    }
+
+    /**
+     * @return all items in the listing order.
+     */
+    List<Item> getItems() {
+        return items;
+    }
+
+    /**
+     * @param itemType type of the item, or null to search through all types.
+     * @param itemName name of the item, compared case-insensitive.
+     * @return found item or null.
+     */
+    @Nullable
+    Item getByName(@Nullable ItemType itemType, String itemName) {
+        Map<String, Item> index = itemType == null ? itemsByName : itemsByTypeAndName.get(itemType);
+        return index == null ? null : index.get(normalize(itemName));
+    }
+
+    /**
+     * @param itemId id of the item.
+     * @return found item or null.
+     */
+    @Nullable
+    Item getById(String itemId) {
+        return itemsById.get(itemId);
+    }
+
+    /**
+     * @param acronym acronym of the process app.
+     * @return items of the process app, or empty list.
+     */
+    List<Item> getByProcessAppAcronym(String acronym) {
+        return itemsByAcronym.get(acronym);
+    }
+
+    private static void putIfAbsent(Map<String, Item> index, String key, Item item) {
+        if (!index.containsKey(key)) {
+            index.put(key, item);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+}
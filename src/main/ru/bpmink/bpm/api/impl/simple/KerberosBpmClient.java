@@ -1,6 +1,5 @@
 package ru.bpmink.bpm.api.impl.simple;
 
-import com.google.common.collect.Lists;
 import com.google.common.io.Closeables;
 
 import org.apache.http.HttpHost;
@@ -8,28 +7,28 @@ import org.apache.http.HttpRequest;
 import org.apache.http.auth.AuthSchemeProvider;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.Credentials;
+import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.config.AuthSchemes;
 import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.config.Lookup;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.ClientConnectionManager;
-import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.impl.auth.SPNegoSchemeFactory;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.params.HttpParams;
 import org.apache.http.protocol.HttpContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import ru.bpmink.adapters.SerializationEngine;
 import ru.bpmink.bpm.api.client.BpmClient;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
 import ru.bpmink.bpm.api.client.ExposedClient;
 import ru.bpmink.bpm.api.client.ProcessAppsClient;
 import ru.bpmink.bpm.api.client.ProcessClient;
@@ -39,38 +38,23 @@ import ru.bpmink.bpm.api.client.TaskClient;
 import ru.bpmink.util.SafeUriBuilder;
 
 import javax.annotation.concurrent.Immutable;
-import javax.security.auth.Subject;
-import javax.security.auth.callback.Callback;
-import javax.security.auth.callback.CallbackHandler;
-import javax.security.auth.callback.NameCallback;
-import javax.security.auth.callback.PasswordCallback;
-import javax.security.auth.callback.UnsupportedCallbackException;
-import javax.security.auth.login.LoginContext;
-import javax.security.auth.login.LoginException;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.io.Writer;
 import java.net.URI;
 import java.security.Principal;
-import java.security.PrivilegedAction;
-import java.util.ArrayList;
+import java.security.PrivilegedExceptionAction;
 
 /**
  * Simple implementation of {@link ru.bpmink.bpm.api.client.BpmClient} which supports
  * {@link org.apache.http.impl.auth.KerberosScheme} authentication.
+ * <p>Kerberos session is kept by {@link ru.bpmink.bpm.api.impl.simple.KerberosSessionManager}, which renews the ticket
+ * in background, and every request is executed under its subject.</p>
  */
-//TODO: Broken implementation. Rewrite and retest needed.
+//TODO: Retest against real KDC needed.
 @Immutable
 @SuppressWarnings("deprecation")
 @SuppressFBWarnings("JCIP_FIELD_ISNT_FINAL_IN_IMMUTABLE_CLASS")
 public final class KerberosBpmClient implements BpmClient {
 
-    private static final int TOTAL_CONN = 20;
-    private static final int ROUTE_CONN = 10;
-
     private static final String ROOT_ENDPOINT = "rest/bpm/wle/v1";
     private static final String EXPOSED_ENDPOINT = "exposed";
     private static final String PROCESS_ENDPOINT = "process";
@@ -93,7 +77,9 @@ public final class KerberosBpmClient implements BpmClient {
 
     private static Logger logger = LoggerFactory.getLogger(KerberosBpmClient.class.getName());
     private final CloseableHttpClient httpClient;
+    private final SerializationEngine serializationEngine;
     private final URI rootUri;
+    private final BpmClientConfig config;
 
     /**
      * Creates instance of {@link ru.bpmink.bpm.api.impl.simple.KerberosBpmClient}.
@@ -106,14 +92,33 @@ public final class KerberosBpmClient implements BpmClient {
      * @param kdc       key distribution center ({@literal KDC}) is part of a cryptosystem intended to reduce the risks
      */
     public KerberosBpmClient(URI serverUri, String user, String password, String domain, String kdc) {
+        this(serverUri, user, password, domain, kdc, BpmClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates instance of {@link ru.bpmink.bpm.api.impl.simple.KerberosBpmClient}.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @param domain    is an identification string that defines a realm of administrative autonomy, authority or
+     *                  control.
+     * @param kdc       key distribution center ({@literal KDC}) is part of a cryptosystem intended to reduce the risks
+     * @param config    is a connection management settings.
+     */
+    public KerberosBpmClient(URI serverUri, String user, String password, String domain, String kdc,
+                             BpmClientConfig config) {
         logger.info("Start creating bpm client.");
         this.rootUri = new SafeUriBuilder(serverUri).addPath(ROOT_ENDPOINT).build();
-        this.httpClient = createClient(user, password, domain, kdc);
+        this.config = config;
+        this.serializationEngine = new SerializationEngine(config.isLazyDeserialization());
+        this.httpClient = createClient(user, password, domain, kdc, config);
         logger.info("Bpm client created.");
     }
 
-    private CloseableHttpClient createClient(String user, String password, String domain, String kdc) {
-        return new KerberosHttpClient(user, password, domain, kdc);
+    private CloseableHttpClient createClient(String user, String password, String domain, String kdc,
+                                             BpmClientConfig config) {
+        return new KerberosHttpClient(user, password, domain, kdc, config);
     }
 
     /**
@@ -123,7 +128,7 @@ public final class KerberosBpmClient implements BpmClient {
     public ExposedClient getExposedClient() {
         if (exposedClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(EXPOSED_ENDPOINT).build();
-            exposedClient = new ExposedClientImpl(uri, httpClient);
+            exposedClient = new ExposedClientImpl(uri, httpClient, null, serializationEngine, config);
         }
         return exposedClient;
     }
@@ -135,7 +140,7 @@ public final class KerberosBpmClient implements BpmClient {
     public ProcessClient getProcessClient() {
         if (processClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_ENDPOINT).build();
-            processClient = new ProcessClientImpl(uri, httpClient);
+            processClient = new ProcessClientImpl(uri, httpClient, null, serializationEngine, config);
         }
         return processClient;
     }
@@ -147,7 +152,7 @@ public final class KerberosBpmClient implements BpmClient {
     public TaskClient getTaskClient() {
         if (taskClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASK_ENDPOINT).build();
-            taskClient = new TaskClientImpl(uri, httpClient);
+            taskClient = new TaskClientImpl(uri, httpClient, null, serializationEngine, config);
         }
         return taskClient;
     }
@@ -159,7 +164,7 @@ public final class KerberosBpmClient implements BpmClient {
     public ServiceClient getServiceClient() {
         if (serviceClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(SERVICE_ENDPOINT).build();
-            serviceClient = new ServiceClientImpl(uri, httpClient);
+            serviceClient = new ServiceClientImpl(uri, httpClient, null, serializationEngine, config);
         }
         return serviceClient;
     }
@@ -172,7 +177,7 @@ public final class KerberosBpmClient implements BpmClient {
     public ProcessAppsClient getProcessAppsClient() {
         if (processAppsClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_APPS_ENDPOINT).build();
-            processAppsClient = new ProcessAppsClientImpl(uri, httpClient);
+            processAppsClient = new ProcessAppsClientImpl(uri, httpClient, null, serializationEngine, config);
         }
         return processAppsClient;
     }
@@ -184,7 +189,7 @@ public final class KerberosBpmClient implements BpmClient {
     public QueryClient getTaskQueryClient() {
         if (taskQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASKS_QUERY_ENDPOINT).build();
-            taskQueryClient = new QueryClientImpl(uri, httpClient);
+            taskQueryClient = new QueryClientImpl(uri, httpClient, null, serializationEngine, config);
         }
         return taskQueryClient;
     }
@@ -196,7 +201,7 @@ public final class KerberosBpmClient implements BpmClient {
     public QueryClient getTaskTemplateQueryClient() {
         if (taskTemplateQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASKS_TEMPLATE_QUERY_ENDPOINT).build();
-            taskTemplateQueryClient = new QueryClientImpl(uri, httpClient);
+            taskTemplateQueryClient = new QueryClientImpl(uri, httpClient, null, serializationEngine, config);
         }
         return taskTemplateQueryClient;
     }
@@ -208,7 +213,7 @@ public final class KerberosBpmClient implements BpmClient {
     public QueryClient getProcessQueryClient() {
         if (processQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_QUERY_ENDPOINT).build();
-            processQueryClient = new QueryClientImpl(uri, httpClient);
+            processQueryClient = new QueryClientImpl(uri, httpClient, null, serializationEngine, config);
         }
         return processQueryClient;
     }
@@ -222,127 +227,32 @@ public final class KerberosBpmClient implements BpmClient {
     }
 
     /**
-     * Creates a temporary configuration.
-     * {@code
-     * krb5.conf [libdefaults] default_realm = <domain>
-     * [realms] snb.ch = {kdc = <kdc> admin_server = <kdc>}
-     * }
+     * {@link org.apache.http.impl.client.CloseableHttpClient}, which executes every request under the subject of
+     * {@link ru.bpmink.bpm.api.impl.simple.KerberosSessionManager}, so SPNEGO authentication reuses cached tickets.
      */
-    private static File createKrb5Configuration(String domain, String kdc) throws IOException {
-        File tempFile = File.createTempFile("krb5", "kdc");
-        ArrayList<String> lines = Lists.newArrayList();
-        lines.add("[libdefaults]");
-        lines.add("\tdefault_realm = " + domain);
-        lines.add("[realms]");
-        lines.add("\t" + domain + " = {");
-        lines.add("\t\tkdc = " + kdc);
-        lines.add("\t\tadmin_server = " + kdc);
-        lines.add("\t}");
-
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8");
-             PrintWriter printWriter = new PrintWriter(writer)) {
-
-            for (String line : lines) {
-                printWriter.println(line);
-            }
-        }
-        return tempFile;
-    }
-
-    private static File createLoginConfiguration() throws IOException {
-        File tempFile = File.createTempFile("krb5", "login");
-        ArrayList<String> lines = Lists.newArrayList();
-        lines.add("krb5.login { com.sun.security.auth.module.Krb5LoginModule required doNotPrompt=false debug=true "
-                + "useTicketCache=false; };");
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8");
-             PrintWriter printWriter = new PrintWriter(writer)) {
-
-            for (String line : lines) {
-                printWriter.println(line);
-            }
-        }
-        return tempFile;
-    }
-
-    private static class KerberosCallBackHandler implements CallbackHandler {
-
-        private final String user;
-        private final String password;
-
-        KerberosCallBackHandler(String user, String password) {
-            this.user = user;
-            this.password = password;
-        }
-
-        public void handle(Callback[] callbacks) throws IOException, UnsupportedCallbackException {
-            for (Callback callback : callbacks) {
-                if (callback instanceof NameCallback) {
-                    NameCallback nc = (NameCallback) callback;
-                    nc.setName(user);
-                } else if (callback instanceof PasswordCallback) {
-                    PasswordCallback pc = (PasswordCallback) callback;
-                    pc.setPassword(password.toCharArray());
-                } else {
-                    throw new UnsupportedCallbackException(callback, "Unknown Callback");
-                }
-            }
-        }
-    }
+    private static final class KerberosHttpClient extends CloseableHttpClient {
 
-    private class KerberosHttpClient extends CloseableHttpClient {
-
-        private final CloseableHttpClient client;
-        private final LoginContext loginContext;
-        private final HttpClientContext httpContext;
         private static final boolean SKIP_PORT_AT_KERBEROS_DATABASE_LOOKUP = true;
 
-        private KerberosHttpClient(String user, String password, String domain, String kdc) {
-            try {
-                File krb5Config = createKrb5Configuration(domain, kdc);
-                File loginConfig = createLoginConfiguration();
-
-                System.setProperty("java.security.auth.login.config", loginConfig.toURI().toString());
-                System.setProperty("java.security.krb5.conf", krb5Config.toURI().toString());
-                System.setProperty("sun.security.krb5.debug", "false");
-                //Change this property to true, if you want debug output.
-                System.setProperty("javax.security.auth.useSubjectCredsOnly", "false");
-
-                RegistryBuilder<AuthSchemeProvider> registryBuilder = RegistryBuilder.create();
-                String id = AuthSchemes.SPNEGO;
-                SPNegoSchemeFactory schemeFactory = new SPNegoSchemeFactory(SKIP_PORT_AT_KERBEROS_DATABASE_LOOKUP);
-                Lookup<AuthSchemeProvider> authSchemeRegistry = registryBuilder.register(id, schemeFactory).build();
-
-                client = HttpClients.custom().setDefaultAuthSchemeRegistry(authSchemeRegistry)
-                        .setConnectionManager(createConnectionManager()).build();
-                httpContext = getHttpContext();
-                loginContext = getLoginContext(user, password);
-
-                //without it, authentication will be failed.
-                final Subject subject = loginContext.getSubject();
-                final HttpGet get = new HttpGet(KerberosBpmClient.this.rootUri);
-                Subject.doAs(subject, this.privilegedExecute(get, httpContext));
-            } catch (Exception e) {
-                logger.error("Can't create Kerberos client!");
-                e.printStackTrace();
-                throw new RuntimeException(e);
-            }
-        }
-
-        private HttpClientConnectionManager createConnectionManager() {
-            PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
-            cm.setMaxTotal(TOTAL_CONN);
-            cm.setDefaultMaxPerRoute(ROUTE_CONN);
-            return cm;
-        }
-
-        private LoginContext getLoginContext(String user, String password) throws LoginException {
-            LoginContext context = new LoginContext("krb5.login", new KerberosCallBackHandler(user, password));
-            context.login();
-            return context;
+        private final CloseableHttpClient client;
+        private final KerberosSessionManager session;
+
+        private KerberosHttpClient(String user, String password, String domain, String kdc,
+                                   BpmClientConfig config) {
+            RegistryBuilder<AuthSchemeProvider> registryBuilder = RegistryBuilder.create();
+            String id = AuthSchemes.SPNEGO;
+            SPNegoSchemeFactory schemeFactory = new SPNegoSchemeFactory(SKIP_PORT_AT_KERBEROS_DATABASE_LOOKUP);
+            Lookup<AuthSchemeProvider> authSchemeRegistry = registryBuilder.register(id, schemeFactory).build();
+
+            //Credentials are taken from the subject, but SPNEGO scheme is chosen only if any credentials are set.
+            HttpClientBuilder builder = HttpClients.custom().setDefaultAuthSchemeRegistry(authSchemeRegistry)
+                    .setDefaultCredentialsProvider(createCredentialsProvider());
+            this.session = new KerberosSessionManager(user, password, domain, kdc);
+            this.client = ConnectionPools.configure(builder, ConnectionPools.createConnectionManager(null, config),
+                    config).build();
         }
 
-        private HttpClientContext getHttpContext() {
-            HttpClientContext context = HttpClientContext.create();
+        private static CredentialsProvider createCredentialsProvider() {
             BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
             Credentials credentials = new Credentials() {
 
@@ -355,8 +265,7 @@ public final class KerberosBpmClient implements BpmClient {
                 }
             };
             credentialsProvider.setCredentials(new AuthScope(null, -1, null), credentials);
-            context.setCredentialsProvider(credentialsProvider);
-            return context;
+            return credentialsProvider;
         }
 
         @Override
@@ -373,7 +282,11 @@ public final class KerberosBpmClient implements BpmClient {
 
         @Override
         public void close() throws IOException {
-            client.close();
+            try {
+                client.close();
+            } finally {
+                session.close();
+            }
         }
 
         @Override
@@ -383,67 +296,74 @@ public final class KerberosBpmClient implements BpmClient {
         }
 
         @Override
-        public CloseableHttpResponse execute(HttpHost target, HttpRequest request, HttpContext context)
-                throws IOException {
-            return client.execute(target, request, context);
+        public CloseableHttpResponse execute(final HttpHost target, final HttpRequest request,
+                                             final HttpContext context) throws IOException {
+            return session.execute(new PrivilegedExceptionAction<CloseableHttpResponse>() {
+
+                @Override
+                public CloseableHttpResponse run() throws IOException {
+                    return client.execute(target, request, context);
+                }
+            });
         }
 
         @Override
-        public CloseableHttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
-            return client.execute(request, context);
+        public CloseableHttpResponse execute(final HttpUriRequest request, final HttpContext context)
+                throws IOException {
+            return session.execute(new PrivilegedExceptionAction<CloseableHttpResponse>() {
+
+                @Override
+                public CloseableHttpResponse run() throws IOException {
+                    return client.execute(request, context);
+                }
+            });
         }
 
         @Override
-        public CloseableHttpResponse execute(final HttpUriRequest request) throws IOException {
-            return client.execute(request);
+        public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+            return execute(request, (HttpContext) null);
         }
 
         @Override
         public CloseableHttpResponse execute(HttpHost target, HttpRequest request) throws IOException {
-            return client.execute(target, request);
+            return execute(target, request, (HttpContext) null);
         }
 
         @Override
         public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) throws IOException {
-            return client.execute(request, responseHandler);
+            return execute(request, responseHandler, null);
         }
 
         @Override
-        public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler, HttpContext context)
-                throws IOException {
-            return client.execute(request, responseHandler, context);
+        public <T> T execute(final HttpUriRequest request, final ResponseHandler<? extends T> responseHandler,
+                             final HttpContext context) throws IOException {
+            return session.execute(new PrivilegedExceptionAction<T>() {
+
+                @Override
+                public T run() throws IOException {
+                    return client.execute(request, responseHandler, context);
+                }
+            });
         }
 
         @Override
         public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler)
                 throws IOException {
-            return client.execute(target, request, responseHandler);
+            return execute(target, request, responseHandler, null);
         }
 
         @Override
         public <T> T execute(
-                HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler, HttpContext context)
-                throws IOException {
-            return client.execute(target, request, responseHandler, context);
-        }
-
-
-        private PrivilegedAction<CloseableHttpResponse> privilegedExecute(
-                final HttpUriRequest request, final HttpContext context) {
-            return new PrivilegedAction<CloseableHttpResponse>() {
+                final HttpHost target, final HttpRequest request, final ResponseHandler<? extends T> responseHandler,
+                final HttpContext context) throws IOException {
+            return session.execute(new PrivilegedExceptionAction<T>() {
 
                 @Override
-                public CloseableHttpResponse run() {
-                    try {
-                        return client.execute(request, context);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                        return null;
-                    }
+                public T run() throws IOException {
+                    return client.execute(target, request, responseHandler, context);
                 }
-            };
+            });
         }
     }
 
-
 }
@@ -0,0 +1,304 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.security.auth.RefreshFailedException;
+import javax.security.auth.Subject;
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+import javax.security.auth.callback.UnsupportedCallbackException;
+import javax.security.auth.kerberos.KerberosPrincipal;
+import javax.security.auth.kerberos.KerberosTicket;
+import javax.security.auth.login.AppConfigurationEntry;
+import javax.security.auth.login.Configuration;
+import javax.security.auth.login.LoginContext;
+import javax.security.auth.login.LoginException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the Kerberos session of the single user: logs in by user name and password, keeps authenticated
+ * {@link javax.security.auth.Subject}, and renews its ticket granting ticket in background before it expires.
+ * <p>Actions are executed under the cached subject, so service tickets, obtained by SPNEGO authentication, are
+ * stored in the subject and reused by the next requests, instead of requesting them from {@literal KDC} for every
+ * connection.</p>
+ * <p>Login module is configured programmatically, so no login configuration file is required. Kerberos realm
+ * and {@literal KDC} are set by {@literal java.security.krb5.realm} and {@literal java.security.krb5.kdc}
+ * system properties, since JDK reads them only from system properties or krb5.conf file.</p>
+ */
+@ThreadSafe
+final class KerberosSessionManager implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(KerberosSessionManager.class.getName());
+
+    private static final String LOGIN_CONTEXT_NAME = "ru.bpmink.bpm.krb5.login";
+    private static final String KRB5_LOGIN_MODULE = "com.sun.security.auth.module.Krb5LoginModule";
+    private static final String REALM_PROPERTY = "java.security.krb5.realm";
+    private static final String KDC_PROPERTY = "java.security.krb5.kdc";
+    private static final String TGT_SERVICE = "krbtgt";
+
+    //Ticket is renewed after this part of its lifetime, and never later than the minimal delay before it expires.
+    private static final double RENEW_LIFETIME_PART = 0.8;
+    private static final long MIN_RENEW_DELAY = TimeUnit.SECONDS.toMillis(30);
+    private static final long RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    private final String user;
+    private final char[] password;
+    private final Configuration loginConfiguration;
+    private final ScheduledExecutorService renewer;
+
+    private volatile LoginContext loginContext;
+    private ScheduledFuture<?> scheduledRenewal;
+    private boolean closed;
+
+    /**
+     * Logs in and schedules renewal of the ticket.
+     *
+     * @param user     is a login of the Kerberos principal.
+     * @param password is a user password.
+     * @param domain   is a Kerberos realm, or null if it's configured by krb5.conf file.
+     * @param kdc      is a key distribution center host, or null if it's configured by krb5.conf file.
+     * @throws RuntimeException if login is failed.
+     */
+    KerberosSessionManager(String user, String password, String domain, String kdc) {
+        this.user = user;
+        this.password = password.toCharArray();
+        this.loginConfiguration = new LoginConfiguration(logger.isTraceEnabled());
+        configureRealm(domain, kdc);
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("bpm-kerberos-renewal-%d").setDaemon(true).build());
+        executor.setRemoveOnCancelPolicy(true);
+        this.renewer = executor;
+
+        synchronized (this) {
+            try {
+                loginContext = login();
+            } catch (LoginException e) {
+                renewer.shutdownNow();
+                throw new RuntimeException("Can't login to Kerberos realm as " + user, e);
+            }
+            scheduleRenewal();
+        }
+    }
+
+    private static void configureRealm(String domain, String kdc) {
+        if (domain == null || kdc == null) {
+            return;
+        }
+        String realm = System.getProperty(REALM_PROPERTY);
+        if (realm != null && !realm.equals(domain)) {
+            logger.warn("Kerberos realm " + realm + " is replaced by " + domain + " for the whole JVM.");
+        }
+        System.setProperty(REALM_PROPERTY, domain);
+        System.setProperty(KDC_PROPERTY, kdc);
+    }
+
+    /**
+     * Executes the action under the subject of the current session. If the ticket has already expired, i.e.
+     * because renewal was failed, logs in again before the action.
+     *
+     * @param action action to execute, i.e. http request.
+     * @return result of the action.
+     * @throws IOException if action throws it, or login is failed.
+     */
+    <T> T execute(PrivilegedExceptionAction<T> action) throws IOException {
+        try {
+            return Subject.doAs(getSubject(), action);
+        } catch (PrivilegedActionException e) {
+            Throwable cause = e.getException();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private Subject getSubject() throws IOException {
+        LoginContext context = loginContext;
+        KerberosTicket ticket = getTicketGrantingTicket(context.getSubject());
+        if (ticket == null || ticket.isCurrent()) {
+            return context.getSubject();
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Kerberos session is closed");
+            }
+            if (context == loginContext) {
+                try {
+                    relogin();
+                } catch (LoginException e) {
+                    throw new IOException("Can't login to Kerberos realm as " + user, e);
+                }
+                scheduleRenewal();
+            }
+            return loginContext.getSubject();
+        }
+    }
+
+    private synchronized void renew() {
+        if (closed) {
+            return;
+        }
+        try {
+            KerberosTicket ticket = getTicketGrantingTicket(loginContext.getSubject());
+            if (ticket != null && ticket.isRenewable() && isAfter(ticket.getRenewTill(), ticket.getEndTime())) {
+                ticket.refresh();
+                logger.debug("Kerberos ticket of " + user + " is renewed till " + ticket.getEndTime());
+            } else {
+                relogin();
+            }
+            scheduleRenewal();
+        } catch (LoginException | RefreshFailedException e) {
+            logger.warn("Can't renew Kerberos ticket of " + user + ", retry in " + RETRY_DELAY + " ms", e);
+            scheduleRenewal(RETRY_DELAY);
+        }
+    }
+
+    private static boolean isAfter(Date date, Date other) {
+        return date != null && other != null && date.after(other);
+    }
+
+    private void relogin() throws LoginException {
+        LoginContext previous = loginContext;
+        loginContext = login();
+        logger.debug("Kerberos session of " + user + " is recreated");
+        try {
+            previous.logout();
+        } catch (LoginException e) {
+            logger.debug("Can't logout previous Kerberos session of " + user, e);
+        }
+    }
+
+    private LoginContext login() throws LoginException {
+        LoginContext context = new LoginContext(LOGIN_CONTEXT_NAME, new Subject(),
+                new CredentialsCallbackHandler(user, password), loginConfiguration);
+        context.login();
+        return context;
+    }
+
+    private void scheduleRenewal() {
+        KerberosTicket ticket = getTicketGrantingTicket(loginContext.getSubject());
+        if (ticket == null || ticket.getEndTime() == null) {
+            logger.warn("Ticket granting ticket of " + user + " is not found, so it won't be renewed.");
+            return;
+        }
+        long start = ticket.getStartTime() != null ? ticket.getStartTime().getTime() : ticket.getAuthTime().getTime();
+        long end = ticket.getEndTime().getTime();
+        long renewAt = Math.min(start + (long) ((end - start) * RENEW_LIFETIME_PART), end - MIN_RENEW_DELAY);
+        scheduleRenewal(Math.max(renewAt - System.currentTimeMillis(), 0));
+    }
+
+    private void scheduleRenewal(long delay) {
+        if (scheduledRenewal != null) {
+            scheduledRenewal.cancel(false);
+        }
+        scheduledRenewal = renewer.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                renew();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static KerberosTicket getTicketGrantingTicket(Subject subject) {
+        for (KerberosTicket ticket : subject.getPrivateCredentials(KerberosTicket.class)) {
+            KerberosPrincipal server = ticket.getServer();
+            if (server != null && server.getName().startsWith(TGT_SERVICE + "/")) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stops renewal of the ticket, and logs out.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        renewer.shutdownNow();
+        Arrays.fill(password, ' ');
+        try {
+            loginContext.logout();
+        } catch (LoginException e) {
+            logger.debug("Can't logout Kerberos session of " + user, e);
+        }
+    }
+
+    /**
+     * Configuration of the single {@literal Krb5LoginModule}, which requests the ticket by user name and password,
+     * and doesn't use any ticket cache or keytab.
+     */
+    private static final class LoginConfiguration extends Configuration {
+
+        private final AppConfigurationEntry[] entries;
+
+        private LoginConfiguration(boolean debug) {
+            Map<String, String> options = ImmutableMap.<String, String>builder()
+                    .put("useTicketCache", "false")
+                    .put("useKeyTab", "false")
+                    .put("doNotPrompt", "false")
+                    .put("storeKey", "false")
+                    .put("isInitiator", "true")
+                    .put("refreshKrb5Config", "true")
+                    .put("debug", String.valueOf(debug))
+                    .build();
+            this.entries = new AppConfigurationEntry[] {new AppConfigurationEntry(KRB5_LOGIN_MODULE,
+                    AppConfigurationEntry.LoginModuleControlFlag.REQUIRED, options)};
+        }
+
+        @Override
+        public AppConfigurationEntry[] getAppConfigurationEntry(String name) {
+            return LOGIN_CONTEXT_NAME.equals(name) ? entries.clone() : null;
+        }
+    }
+
+    private static final class CredentialsCallbackHandler implements CallbackHandler {
+
+        private final String user;
+        private final char[] password;
+
+        private CredentialsCallbackHandler(String user, char[] password) {
+            this.user = user;
+            this.password = password;
+        }
+
+        @Override
+        public void handle(Callback[] callbacks) throws IOException, UnsupportedCallbackException {
+            for (Callback callback : callbacks) {
+                if (callback instanceof NameCallback) {
+                    ((NameCallback) callback).setName(user);
+                } else if (callback instanceof PasswordCallback) {
+                    ((PasswordCallback) callback).setPassword(password);
+                } else {
+                    throw new UnsupportedCallbackException(callback, "Unknown Callback");
+                }
+            }
+        }
+    }
+
+}
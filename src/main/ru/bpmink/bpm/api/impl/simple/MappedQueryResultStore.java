@@ -0,0 +1,525 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.Lists;
+import com.google.gson.annotations.SerializedName;
+
+import org.apache.http.Consts;
+import org.apache.http.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.bpmink.bpm.api.client.QueryResultSink;
+import ru.bpmink.bpm.model.query.QueryResult;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.Date;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Stores query results in memory-mapped temporary files instead of the heap, so random access to the query
+ * result set of millions of rows doesn't need the heap proportional to its size. Store is filled as
+ * {@link ru.bpmink.bpm.api.client.QueryResultSink} of
+ * {@link ru.bpmink.bpm.api.client.QueryClient#exportEntities(ru.bpmink.bpm.model.query.Query, List,
+ * ru.bpmink.bpm.model.query.InteractionFilter, String, List, Boolean, int, int, QueryResultSink)}, so only pages,
+ * which are in flight, are held in the heap while the result set is exported.
+ * <p>Every result is encoded in compact binary row: bit mask of non-null attributes, followed by their values.
+ * Strings are stored as {@literal UTF-8} bytes, dates as timestamps and enums as ordinals. Results are decoded on
+ * every access, see {@link #getResults()}. Results are indexed by the identifier attribute, i.e. {@literal TKIID}
+ * for tasks or {@literal PI_PIID} for processes. The index is an open addressing hash table, which is mapped from
+ * the file too, and is updated on the first lookup after new results are added.</p>
+ * <p>Temporary files are deleted by {@link #close()}. Pages of the files are loaded and evicted by operating system,
+ * so the store is limited by the disk space, not by the heap.</p>
+ */
+@ThreadSafe
+public final class MappedQueryResultStore implements QueryResultSink, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedQueryResultStore.class.getName());
+
+    //Attributes of the query result in the order of bits of the row mask.
+    private static final Field[] ATTRIBUTES = getAttributes();
+    private static final Object[][] ENUM_CONSTANTS = getEnumConstants();
+
+    //Default sizes of the file segments, which are mapped at once.
+    private static final int DATA_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int OFFSETS_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int INDEX_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    //Index capacity, which is kept at least twice as large as the number of results.
+    private static final int MIN_INDEX_CAPACITY = 1024;
+    private static final int MAX_INDEX_CAPACITY = 1 << 30;
+    private static final int INITIAL_ROW_SIZE = 1024;
+
+    private final int identifier;
+    private final int dataSegmentSize;
+    private final int offsetsPerSegment;
+    private final int slotsPerSegment;
+    private final MappedRegion data;
+    private final MappedRegion offsets;
+    private final MappedRegion slots;
+
+    //Guarded by this.
+    private ByteBuffer rowBuffer = ByteBuffer.allocate(INITIAL_ROW_SIZE);
+    private long dataSize;
+    private int size;
+    private int indexCapacity;
+    private int indexedSize;
+    private boolean closed;
+
+    /**
+     * Creates empty store with temporary files in given directory.
+     *
+     * @param directory  directory of the temporary files, i.e. {@literal java.io.tmpdir}.
+     * @param identifier name of the attribute, by which results are indexed, i.e. {@literal TKIID}.
+     * @throws IllegalArgumentException if directory or identifier is null, or identifier is not a string attribute
+     *                                  of {@link ru.bpmink.bpm.model.query.QueryResult}.
+     * @throws RuntimeException         if temporary files can't be created.
+     */
+    public MappedQueryResultStore(@Nonnull File directory, @Nonnull String identifier) {
+        this(directory, identifier, DATA_SEGMENT_SIZE, OFFSETS_SEGMENT_SIZE, INDEX_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates empty store with given sizes of the file segments in bytes. Sizes of offsets and index segments must
+     * be multiples of {@literal 8} and {@literal 4} bytes respectively.
+     */
+    MappedQueryResultStore(File directory, String identifier, int dataSegmentSize, int offsetsSegmentSize,
+                           int indexSegmentSize) {
+        Args.notNull(directory, "Directory of temporary files (directory)");
+        this.identifier = getAttributeIndex(Args.notNull(identifier, "Identifier attribute (identifier)"));
+        Args.check(this.identifier >= 0, "Identifier " + identifier + " is not an attribute of query result");
+        Args.check(String.class.equals(ATTRIBUTES[this.identifier].getType()),
+                "Identifier " + identifier + " is not a string attribute of query result");
+        Args.check(offsetsSegmentSize % 8 == 0 && indexSegmentSize % 4 == 0,
+                "Offsets and index segment sizes must be multiples of 8 and 4 bytes");
+        this.dataSegmentSize = Args.positive(dataSegmentSize, "Data segment size (dataSegmentSize)");
+        this.offsetsPerSegment = Args.positive(offsetsSegmentSize, "Offsets segment size (offsetsSegmentSize)") / 8;
+        this.slotsPerSegment = Args.positive(indexSegmentSize, "Index segment size (indexSegmentSize)") / 4;
+
+        MappedRegion data = null;
+        MappedRegion offsets = null;
+        try {
+            data = new MappedRegion(directory, "bpm-query-data", dataSegmentSize);
+            offsets = new MappedRegion(directory, "bpm-query-offsets", offsetsSegmentSize);
+            this.slots = new MappedRegion(directory, "bpm-query-index", indexSegmentSize);
+        } catch (IOException e) {
+            release(data);
+            release(offsets);
+            throw new RuntimeException("Can't create temporary files of query result store in " + directory, e);
+        }
+        this.data = data;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Appends the query result to the store. Results must be received in offset order without gaps, so index of
+     * the stored result is equal to its offset.
+     *
+     * @param offset      index of the result within the overall query result set.
+     * @param queryResult exported result.
+     * @throws IllegalArgumentException if queryResult is null.
+     * @throws IllegalStateException    if the store is closed, offset is not equal to the number of stored results,
+     *                                  or encoded result is larger than the file segment.
+     * @throws RuntimeException         if result can't be written to the file.
+     */
+    @Override
+    public synchronized void accept(int offset, @Nonnull QueryResult queryResult) {
+        Args.notNull(queryResult, "Query result (queryResult)");
+        checkOpen();
+        if (offset != size) {
+            throw new IllegalStateException("Query result with offset " + offset + " is received, while " + size
+                    + " results are stored");
+        }
+        ByteBuffer row = encode(queryResult);
+        int length = row.remaining();
+        if (length > dataSegmentSize) {
+            throw new IllegalStateException("Query result of " + length + " bytes is too large to be stored");
+        }
+        //Rows never cross the segment boundary.
+        if (dataSize % dataSegmentSize + length > dataSegmentSize) {
+            dataSize = (dataSize / dataSegmentSize + 1) * dataSegmentSize;
+        }
+        try {
+            ByteBuffer segment = data.segment((int) (dataSize / dataSegmentSize));
+            segment.position((int) (dataSize % dataSegmentSize));
+            segment.put(row);
+            offsets.segment(size / offsetsPerSegment).putLong(size % offsetsPerSegment * 8, dataSize);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't write query result to the store", e);
+        }
+        dataSize += length;
+        size++;
+    }
+
+    /**
+     * @return number of stored results.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Decodes stored result.
+     *
+     * @param index index of the result, which is equal to its offset.
+     * @return new {@link ru.bpmink.bpm.model.query.QueryResult} instance.
+     * @throws IndexOutOfBoundsException if index is out of range.
+     * @throws IllegalStateException     if the store is closed.
+     */
+    public synchronized QueryResult get(int index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return decode(row(index));
+    }
+
+    /**
+     * Returns list view of stored results. Every access to the element of the list decodes new
+     * {@link ru.bpmink.bpm.model.query.QueryResult} instance, so the view holds nothing in the heap. View reflects
+     * results, added after it's created, and is not usable after the store is closed.
+     *
+     * @return random access list view of stored results.
+     */
+    public List<QueryResult> getResults() {
+        return new ResultList();
+    }
+
+    /**
+     * Looks up the result by the value of identifier attribute. If there are several results with the same
+     * identifier, the first of them is found.
+     *
+     * @param id value of identifier attribute, i.e. {@literal TKIID} of the task.
+     * @return index of the result, or {@literal -1} if there is no such result.
+     * @throws IllegalStateException if the store is closed.
+     */
+    public synchronized int indexOf(@Nullable String id) {
+        checkOpen();
+        if (id == null || size == 0) {
+            return -1;
+        }
+        updateIndex();
+        int mask = indexCapacity - 1;
+        for (int slot = mix(id.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int row = getSlot(slot) - 1;
+            if (row < 0) {
+                return -1;
+            }
+            if (id.equals(readIdentifier(row(row)))) {
+                return row;
+            }
+        }
+    }
+
+    /**
+     * Looks up the result by the value of identifier attribute, see {@link #indexOf(String)}.
+     *
+     * @param id value of identifier attribute, i.e. {@literal TKIID} of the task.
+     * @return new {@link ru.bpmink.bpm.model.query.QueryResult} instance, or null if there is no such result.
+     * @throws IllegalStateException if the store is closed.
+     */
+    @Nullable
+    public synchronized QueryResult getById(@Nullable String id) {
+        int row = indexOf(id);
+        return row >= 0 ? get(row) : null;
+    }
+
+    /**
+     * Deletes temporary files. Store is not usable anymore.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        release(data);
+        release(offsets);
+        release(slots);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "MappedQueryResultStore{"
+                + "size=" + size
+                + ", dataSize=" + dataSize
+                + ", indexCapacity=" + indexCapacity
+                + ", closed=" + closed
+                + '}';
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Query result store is closed");
+        }
+    }
+
+    /**
+     * @return duplicate of the data segment, positioned at the beginning of the row.
+     */
+    private ByteBuffer row(int row) {
+        try {
+            long offset = offsets.segment(row / offsetsPerSegment).getLong(row % offsetsPerSegment * 8);
+            ByteBuffer segment = data.segment((int) (offset / dataSegmentSize)).duplicate();
+            segment.position((int) (offset % dataSegmentSize));
+            return segment;
+        } catch (IOException e) {
+            throw new RuntimeException("Can't read query result from the store", e);
+        }
+    }
+
+    private ByteBuffer encode(QueryResult queryResult) {
+        ByteBuffer row = rowBuffer;
+        row.clear();
+        row.putLong(0);
+        long mask = 0;
+        for (int attribute = 0; attribute < ATTRIBUTES.length; attribute++) {
+            Object value = getValue(ATTRIBUTES[attribute], queryResult);
+            if (value == null) {
+                continue;
+            }
+            mask |= 1L << attribute;
+            if (value instanceof String) {
+                byte[] bytes = ((String) value).getBytes(Consts.UTF_8);
+                row = ensureRemaining(row, 4 + bytes.length);
+                row.putInt(bytes.length).put(bytes);
+            } else if (value instanceof Integer) {
+                row = ensureRemaining(row, 4);
+                row.putInt((Integer) value);
+            } else if (value instanceof Date) {
+                row = ensureRemaining(row, 8);
+                row.putLong(((Date) value).getTime());
+            } else {
+                row = ensureRemaining(row, 2);
+                row.putShort((short) ((Enum<?>) value).ordinal());
+            }
+        }
+        row.putLong(0, mask);
+        row.flip();
+        rowBuffer = row;
+        return row;
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer row, int length) {
+        if (row.remaining() >= length) {
+            return row;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(row.capacity() * 2, row.position() + length));
+        row.flip();
+        return grown.put(row);
+    }
+
+    private static QueryResult decode(ByteBuffer row) {
+        QueryResult queryResult = new QueryResult();
+        long mask = row.getLong();
+        for (int attribute = 0; attribute < ATTRIBUTES.length; attribute++) {
+            if ((mask & 1L << attribute) != 0) {
+                setValue(ATTRIBUTES[attribute], queryResult, readValue(row, attribute));
+            }
+        }
+        return queryResult;
+    }
+
+    private String readIdentifier(ByteBuffer row) {
+        long mask = row.getLong();
+        if ((mask & 1L << identifier) == 0) {
+            return null;
+        }
+        for (int attribute = 0; attribute < identifier; attribute++) {
+            if ((mask & 1L << attribute) != 0) {
+                readValue(row, attribute);
+            }
+        }
+        return (String) readValue(row, identifier);
+    }
+
+    private static Object readValue(ByteBuffer row, int attribute) {
+        Class<?> type = ATTRIBUTES[attribute].getType();
+        if (Integer.class.equals(type)) {
+            return row.getInt();
+        }
+        if (Date.class.equals(type)) {
+            return new Date(row.getLong());
+        }
+        if (type.isEnum()) {
+            return ENUM_CONSTANTS[attribute][row.getShort()];
+        }
+        byte[] bytes = new byte[row.getInt()];
+        row.get(bytes);
+        return new String(bytes, Consts.UTF_8);
+    }
+
+    /**
+     * Adds results, which are not indexed yet, to the index. Index is rebuilt with larger capacity, if it's filled
+     * more than by half.
+     */
+    private void updateIndex() {
+        if ((long) size * 2 > indexCapacity) {
+            long capacity = Long.highestOneBit(Math.max((long) size * 4 - 1, MIN_INDEX_CAPACITY));
+            indexCapacity = (int) Math.min(capacity, MAX_INDEX_CAPACITY);
+            for (int slot = 0; slot < indexCapacity; slot++) {
+                setSlot(slot, 0);
+            }
+            indexedSize = 0;
+        }
+        int mask = indexCapacity - 1;
+        for (; indexedSize < size; indexedSize++) {
+            String id = readIdentifier(row(indexedSize));
+            if (id == null) {
+                continue;
+            }
+            int slot = mix(id.hashCode()) & mask;
+            while (getSlot(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            setSlot(slot, indexedSize + 1);
+        }
+    }
+
+    private int getSlot(int slot) {
+        try {
+            return slots.segment(slot / slotsPerSegment).getInt(slot % slotsPerSegment * 4);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't read index of query result store", e);
+        }
+    }
+
+    private void setSlot(int slot, int value) {
+        try {
+            slots.segment(slot / slotsPerSegment).putInt(slot % slotsPerSegment * 4, value);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't write index of query result store", e);
+        }
+    }
+
+    /**
+     * Spreads bits of the hash code, so sequential identifiers don't form long probe chains.
+     */
+    private static int mix(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    private static void release(@Nullable MappedRegion region) {
+        if (region != null) {
+            region.close();
+        }
+    }
+
+    private static Field[] getAttributes() {
+        List<Field> attributes = Lists.newArrayList();
+        for (Field field : QueryResult.class.getDeclaredFields()) {
+            if (field.getAnnotation(SerializedName.class) != null && !Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                attributes.add(field);
+            }
+        }
+        if (attributes.size() > Long.SIZE) {
+            throw new IllegalStateException("Query result has more than " + Long.SIZE + " attributes");
+        }
+        return attributes.toArray(new Field[attributes.size()]);
+    }
+
+    private static Object[][] getEnumConstants() {
+        Object[][] constants = new Object[ATTRIBUTES.length][];
+        for (int attribute = 0; attribute < ATTRIBUTES.length; attribute++) {
+            constants[attribute] = ATTRIBUTES[attribute].getType().getEnumConstants();
+        }
+        return constants;
+    }
+
+    private static int getAttributeIndex(String name) {
+        for (int attribute = 0; attribute < ATTRIBUTES.length; attribute++) {
+            if (name.equals(ATTRIBUTES[attribute].getAnnotation(SerializedName.class).value())) {
+                return attribute;
+            }
+        }
+        return -1;
+    }
+
+    private static Object getValue(Field field, QueryResult queryResult) {
+        try {
+            return field.get(queryResult);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't read attribute " + field.getName() + " of query result", e);
+        }
+    }
+
+    private static void setValue(Field field, QueryResult queryResult, Object value) {
+        try {
+            field.set(queryResult, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't write attribute " + field.getName() + " of query result", e);
+        }
+    }
+
+    /**
+     * List view of stored results.
+     */
+    private final class ResultList extends AbstractList<QueryResult> implements RandomAccess {
+
+        @Override
+        public QueryResult get(int index) {
+            return MappedQueryResultStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return MappedQueryResultStore.this.size();
+        }
+    }
+
+    /**
+     * Temporary file, which is mapped by segments of fixed size. Segments are mapped on the first access, and file
+     * grows as new segments are mapped.
+     */
+    private static final class MappedRegion {
+
+        private final File file;
+        private final RandomAccessFile randomAccessFile;
+        private final int segmentSize;
+        private final List<MappedByteBuffer> segments = Lists.newArrayList();
+
+        private MappedRegion(File directory, String prefix, int segmentSize) throws IOException {
+            this.file = File.createTempFile(prefix, ".bin", directory);
+            this.randomAccessFile = new RandomAccessFile(file, "rw");
+            this.segmentSize = segmentSize;
+        }
+
+        private ByteBuffer segment(int index) throws IOException {
+            while (segments.size() <= index) {
+                segments.add(randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE,
+                        (long) segments.size() * segmentSize, segmentSize));
+            }
+            return segments.get(index);
+        }
+
+        private void close() {
+            segments.clear();
+            try {
+                randomAccessFile.close();
+            } catch (IOException e) {
+                logger.warn("Can't close temporary file {}", file, e);
+            }
+            //Mapped segments are released by garbage collector, so on some platforms file can be deleted only on
+            //exit. It's not registered for deletion beforehand, as registered files are held until exit.
+            if (!file.delete()) {
+                file.deleteOnExit();
+                logger.debug("Temporary file {} will be deleted on exit", file);
+            }
+        }
+    }
+
+}
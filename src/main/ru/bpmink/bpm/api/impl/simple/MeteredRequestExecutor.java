@@ -0,0 +1,79 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+
+/**
+ * {@link org.apache.http.protocol.HttpRequestExecutor}, which is called on the leased connection, so it marks the end
+ * of connection lease and the end of server processing for {@link ru.bpmink.bpm.api.impl.simple.BaseClient} metrics.
+ * Marks are stored in {@link ru.bpmink.bpm.api.impl.simple.MeteredRequestExecutor.Timings}, if it's present in the
+ * request context.
+ */
+final class MeteredRequestExecutor extends HttpRequestExecutor {
+
+    static final String TIMINGS_ATTRIBUTE = "ru.bpmink.bpm.metrics.timings";
+
+    private final ConnPoolControl<HttpRoute> connectionPool;
+
+    MeteredRequestExecutor(ConnPoolControl<HttpRoute> connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+            throws IOException, HttpException {
+        Object attribute = context.getAttribute(TIMINGS_ATTRIBUTE);
+        if (!(attribute instanceof Timings)) {
+            return super.execute(request, conn, context);
+        }
+        Timings timings = (Timings) attribute;
+        //Authentication challenge and redirects are executed on the same or another connection, so only the first
+        //lease is counted, and server time covers all exchanges.
+        if (timings.leasedAt == 0) {
+            timings.leasedAt = System.nanoTime();
+            timings.poolStats = connectionPool.getTotalStats();
+        }
+        long sentBefore = conn.getMetrics().getSentBytesCount();
+        HttpResponse response = super.execute(request, conn, context);
+        timings.sentBytes += conn.getMetrics().getSentBytesCount() - sentBefore;
+        timings.respondedAt = System.nanoTime();
+        return response;
+    }
+
+    /**
+     * Mutable holder of marks of the single request, which is executed in the single thread.
+     */
+    static final class Timings {
+
+        private long leasedAt;
+        private long respondedAt;
+        private long sentBytes;
+        private PoolStats poolStats;
+
+        long getLeasedAt() {
+            return leasedAt;
+        }
+
+        long getRespondedAt() {
+            return respondedAt;
+        }
+
+        long getSentBytes() {
+            return sentBytes;
+        }
+
+        PoolStats getPoolStats() {
+            return poolStats;
+        }
+    }
+
+}
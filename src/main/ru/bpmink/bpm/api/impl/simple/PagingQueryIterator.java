@@ -0,0 +1,128 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.ListenableFutureTask;
+
+import ru.bpmink.bpm.api.client.QueryClient;
+import ru.bpmink.bpm.model.query.InteractionFilter;
+import ru.bpmink.bpm.model.query.Query;
+import ru.bpmink.bpm.model.query.QueryAttribute;
+import ru.bpmink.bpm.model.query.QueryResult;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+import ru.bpmink.bpm.model.query.SortAttribute;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Lazy {@link java.util.Iterator} over query result, which requests pages from
+ * {@link ru.bpmink.bpm.api.client.QueryClient} on demand.
+ * Holds only current page and, if prefetch executor is specified, the next one.
+ */
+@NotThreadSafe
+final class PagingQueryIterator extends AbstractIterator<QueryResult> {
+
+    private final QueryClient queryClient;
+    private final Query query;
+    private final List<QueryAttribute> selectedAttributes;
+    private final InteractionFilter interactionFilter;
+    private final String processAppName;
+    private final List<SortAttribute> sortAttributes;
+    private final int pageSize;
+    private final Boolean filterByCurrentUser;
+    private final Executor prefetchExecutor;
+
+    private Iterator<QueryResult> page = Collections.emptyIterator();
+    private ListenableFutureTask<QueryResultSet> nextPage;
+    private int nextOffset;
+
+    PagingQueryIterator(QueryClient queryClient, Query query, @Nullable List<QueryAttribute> selectedAttributes,
+                        @Nullable InteractionFilter interactionFilter, @Nullable String processAppName,
+                        @Nullable List<SortAttribute> sortAttributes, int pageSize,
+                        @Nullable Boolean filterByCurrentUser, @Nullable Executor prefetchExecutor) {
+        this.queryClient = queryClient;
+        this.query = query;
+        this.selectedAttributes = selectedAttributes;
+        this.interactionFilter = interactionFilter;
+        this.processAppName = processAppName;
+        this.sortAttributes = sortAttributes;
+        this.pageSize = pageSize;
+        this.filterByCurrentUser = filterByCurrentUser;
+        this.prefetchExecutor = prefetchExecutor;
+        this.nextPage = requestPage(0);
+    }
+
+    @Override
+    protected QueryResult computeNext() {
+        while (!page.hasNext()) {
+            if (nextPage == null) {
+                return endOfData();
+            }
+            QueryResultSet resultSet = getPage(nextPage);
+            List<QueryResult> results = resultSet.getQueryResults();
+            int offset = nextOffset;
+            nextOffset = offset + results.size();
+            nextPage = hasMore(resultSet, offset, results.size()) ? requestPage(nextOffset) : null;
+            page = results.iterator();
+        }
+        return page.next();
+    }
+
+    private boolean hasMore(QueryResultSet resultSet, int offset, int size) {
+        if (size == 0) {
+            return false;
+        }
+        Integer totalCount = resultSet.getTotalCount();
+        //Total count is unknown, if it exceeds server search limit, so only not full page means the end of data.
+        if (totalCount == null || Boolean.TRUE.equals(resultSet.isCountLimitExceeded())) {
+            return size >= pageSize;
+        }
+        //Known total count is trusted, since server can return less results, than requested, before the end of data.
+        return offset + size < totalCount;
+    }
+
+    private ListenableFutureTask<QueryResultSet> requestPage(final int offset) {
+        ListenableFutureTask<QueryResultSet> task = ListenableFutureTask.create(new Callable<QueryResultSet>() {
+
+            @Override
+            public QueryResultSet call() {
+                //Throws RestException, if the api call was unsuccessful.
+                QueryResultSet resultSet = queryClient.queryEntities(query, selectedAttributes, interactionFilter,
+                        processAppName, sortAttributes, offset, pageSize, filterByCurrentUser).getPayload();
+                if (resultSet == null) {
+                    throw new RuntimeException("Can't get query result page with offset: " + offset);
+                }
+                return resultSet;
+            }
+        });
+        if (prefetchExecutor != null) {
+            prefetchExecutor.execute(task);
+        }
+        return task;
+    }
+
+    private QueryResultSet getPage(ListenableFutureTask<QueryResultSet> task) {
+        if (prefetchExecutor == null) {
+            //Without prefetching page is loaded in the caller thread.
+            task.run();
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for query result page", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Can't get query result page", e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import ru.bpmink.bpm.api.client.QueryClient;
+import ru.bpmink.bpm.api.client.QueryResultSink;
+import ru.bpmink.bpm.model.query.InteractionFilter;
+import ru.bpmink.bpm.model.query.Query;
+import ru.bpmink.bpm.model.query.QueryAttribute;
+import ru.bpmink.bpm.model.query.QueryResult;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+import ru.bpmink.bpm.model.query.QueryResultSetCount;
+import ru.bpmink.bpm.model.query.SortAttribute;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exports query result by pages, which are fetched concurrently by fixed number of threads.
+ * Pages are requested in offset order and consumed in the same order, so next page is requested as soon as the
+ * oldest in-flight page is consumed, and the number of in-flight or unconsumed pages never exceeds parallelism
+ * level. Pages are requested through the api client, so every request runs in its own child http context.
+ */
+final class ParallelQueryExporter {
+
+    private final QueryClient queryClient;
+    private final Query query;
+    private final List<QueryAttribute> selectedAttributes;
+    private final InteractionFilter interactionFilter;
+    private final String processAppName;
+    private final List<SortAttribute> sortAttributes;
+    private final Boolean filterByCurrentUser;
+    private final int pageSize;
+    private final int parallelism;
+
+    ParallelQueryExporter(QueryClient queryClient, Query query, @Nullable List<QueryAttribute> selectedAttributes,
+                          @Nullable InteractionFilter interactionFilter, @Nullable String processAppName,
+                          @Nullable List<SortAttribute> sortAttributes, @Nullable Boolean filterByCurrentUser,
+                          int pageSize, int parallelism) {
+        this.queryClient = queryClient;
+        this.query = query;
+        this.selectedAttributes = selectedAttributes;
+        this.interactionFilter = interactionFilter;
+        this.processAppName = processAppName;
+        this.sortAttributes = sortAttributes;
+        this.filterByCurrentUser = filterByCurrentUser;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Exports all query results to the given sink.
+     * Server may return less results, than requested, e.g. if its page size limit is lower, than {@link #pageSize}.
+     * Then the rest of the page is requested again, before any later page is consumed, so every counted result
+     * is passed to the sink with its actual offset.
+     *
+     * @param sink receiver of query results, is called from the caller thread only.
+     * @return the number of exported results.
+     * @throws RuntimeException if the query result set ends before the counted number of results is exported.
+     */
+    int export(QueryResultSink sink) {
+        int count = countEntities();
+        int pages = (count + pageSize - 1) / pageSize;
+        if (pages == 0) {
+            return 0;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, pages),
+                new ThreadFactoryBuilder().setNameFormat("bpm-query-export-%d").setDaemon(true).build());
+        Deque<PageRequest> inFlight = new ArrayDeque<>();
+        try {
+            int nextOffset = 0;
+            while (nextOffset < count && inFlight.size() < parallelism) {
+                inFlight.add(requestPage(executor, nextOffset, Math.min(nextOffset + pageSize, count)));
+                nextOffset += pageSize;
+            }
+
+            int exported = 0;
+            while (!inFlight.isEmpty()) {
+                PageRequest request = inFlight.poll();
+                int offset = request.offset;
+                for (QueryResult queryResult : getPage(request.future).getQueryResults()) {
+                    if (offset == request.end) {
+                        break;
+                    }
+                    sink.accept(offset++, queryResult);
+                    exported++;
+                }
+
+                if (offset < request.end) {
+                    if (offset == request.offset) {
+                        throw new RuntimeException("Query result set of query: " + query.getName()
+                                + " ended at offset: " + offset + ", while " + count + " results were counted");
+                    }
+                    //Page is short, so the rest of it must be consumed before the later pages.
+                    inFlight.addFirst(requestPage(executor, offset, request.end));
+                } else if (nextOffset < count) {
+                    //Next page is requested only after the current one is consumed, so at most parallelism pages
+                    //are held in memory.
+                    inFlight.add(requestPage(executor, nextOffset, Math.min(nextOffset + pageSize, count)));
+                    nextOffset += pageSize;
+                }
+            }
+            return exported;
+        } finally {
+            for (PageRequest request : inFlight) {
+                request.future.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private int countEntities() {
+        //Throws RestException, if the api call was unsuccessful.
+        QueryResultSetCount resultSetCount = queryClient.queryEntitiesCount(query, interactionFilter, processAppName,
+                filterByCurrentUser).getPayload();
+        if (resultSetCount == null || resultSetCount.getCount() == null) {
+            throw new RuntimeException("Can't get query result count for query: " + query.getName());
+        }
+        return resultSetCount.getCount();
+    }
+
+    private PageRequest requestPage(ExecutorService executor, int offset, int end) {
+        return new PageRequest(offset, end, executor.submit(pageTask(offset, end - offset)));
+    }
+
+    private Callable<QueryResultSet> pageTask(final int offset, final int size) {
+        return new Callable<QueryResultSet>() {
+
+            @Override
+            public QueryResultSet call() {
+                //Throws RestException, if the api call was unsuccessful.
+                QueryResultSet resultSet = queryClient.queryEntities(query, selectedAttributes, interactionFilter,
+                        processAppName, sortAttributes, offset, size, filterByCurrentUser).getPayload();
+                if (resultSet == null) {
+                    throw new RuntimeException("Can't get query result page with offset: " + offset);
+                }
+                return resultSet;
+            }
+        };
+    }
+
+    private static QueryResultSet getPage(Future<QueryResultSet> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for query result page", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Can't get query result page", e.getCause());
+        }
+    }
+
+    /**
+     * Pending request of query results in the range from offset (inclusive) to end (exclusive).
+     */
+    private static final class PageRequest {
+
+        private final int offset;
+        private final int end;
+        private final Future<QueryResultSet> future;
+
+        private PageRequest(int offset, int end, Future<QueryResultSet> future) {
+            this.offset = offset;
+            this.end = end;
+            this.future = future;
+        }
+
+    }
+
+}
@@ -5,6 +5,8 @@ import com.google.gson.reflect.TypeToken;
 import org.apache.http.client.HttpClient;
 import org.apache.http.protocol.HttpContext;
 
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
 import ru.bpmink.bpm.api.client.ProcessAppsClient;
 import ru.bpmink.bpm.model.common.RestRootEntity;
 import ru.bpmink.bpm.model.other.processapp.ProcessApps;
@@ -19,14 +21,25 @@ final class ProcessAppsClientImpl extends BaseClient implements ProcessAppsClien
     private final HttpClient httpClient;
     private final HttpContext httpContext;
 
-    ProcessAppsClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext) {
+    //Response entity types
+    private static final TypeToken<RestRootEntity<ProcessApps>> PROCESS_APPS_TYPE =
+            new TypeToken<RestRootEntity<ProcessApps>>() {};
+
+    ProcessAppsClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                          SerializationEngine serializationEngine, BpmClientConfig config) {
+        super(serializationEngine.warmUp(PROCESS_APPS_TYPE), config);
         this.httpClient = httpClient;
         this.rootUri = rootUri;
         this.httpContext = httpContext;
     }
 
-    ProcessAppsClientImpl(URI rootUri, HttpClient httpClient) {
-        this(rootUri, httpClient, null);
+    ProcessAppsClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                          SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, httpContext, serializationEngine, BpmClientConfig.DEFAULT);
+    }
+
+    ProcessAppsClientImpl(URI rootUri, HttpClient httpClient, SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, null, serializationEngine);
     }
 
     /**
@@ -34,7 +47,7 @@ final class ProcessAppsClientImpl extends BaseClient implements ProcessAppsClien
      */
     @Override
     public RestRootEntity<ProcessApps> listProcessApps() {
-        return makeGet(httpClient, httpContext, rootUri, new TypeToken<RestRootEntity<ProcessApps>>() {});
+        return makeGet(httpClient, httpContext, rootUri, PROCESS_APPS_TYPE);
     }
 
 }
@@ -1,17 +1,20 @@
 package ru.bpmink.bpm.api.impl.simple;
 
 import com.google.common.collect.Maps;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
+import org.apache.http.HttpEntity;
 import org.apache.http.client.HttpClient;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.Args;
 
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
 import ru.bpmink.bpm.api.client.ProcessClient;
 import ru.bpmink.bpm.model.common.RestRootEntity;
 import ru.bpmink.bpm.model.process.ProcessDetails;
+import ru.bpmink.bpm.model.process.ProcessStatus;
+import ru.bpmink.util.JsonFormEntity;
 import ru.bpmink.util.SafeUriBuilder;
 
 import javax.annotation.Nonnull;
@@ -27,6 +30,12 @@ final class ProcessClientImpl extends BaseClient implements ProcessClient {
     private final HttpClient httpClient;
     private final HttpContext httpContext;
 
+    //Response entity types
+    private static final TypeToken<RestRootEntity<ProcessDetails>> PROCESS_DETAILS_TYPE =
+            new TypeToken<RestRootEntity<ProcessDetails>>() {};
+    private static final TypeToken<RestRootEntity<ProcessStatus>> PROCESS_STATUS_TYPE =
+            new TypeToken<RestRootEntity<ProcessStatus>>() {};
+
     //Request parameters constants
     private static final String ACTION = "action";
     private static final String PROCESS_DEFINITION_ID = "bpdId";
@@ -34,6 +43,10 @@ final class ProcessClientImpl extends BaseClient implements ProcessClient {
     private static final String BRANCH_ID = "branchId";
     private static final String PROCESS_APP_ID = "processAppId";
     private static final String PARAMS = "params";
+    private static final String PARTS = "parts";
+
+    //Parts of the process details
+    private static final String PARTS_NONE = "none";
 
     //Methods for processes
     private static final String ACTION_START = "start";
@@ -42,14 +55,21 @@ final class ProcessClientImpl extends BaseClient implements ProcessClient {
     private static final String ACTION_TERMINATE = "terminate";
 
 
-    ProcessClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext) {
+    ProcessClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                      SerializationEngine serializationEngine, BpmClientConfig config) {
+        super(serializationEngine.warmUp(PROCESS_DETAILS_TYPE, PROCESS_STATUS_TYPE), config);
         this.httpClient = httpClient;
         this.rootUri = rootUri;
         this.httpContext = httpContext;
     }
 
-    ProcessClientImpl(URI rootUri, HttpClient httpClient) {
-        this(rootUri, httpClient, null);
+    ProcessClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                      SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, httpContext, serializationEngine, BpmClientConfig.DEFAULT);
+    }
+
+    ProcessClientImpl(URI rootUri, HttpClient httpClient, SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, null, serializationEngine);
     }
 
 
@@ -65,7 +85,6 @@ final class ProcessClientImpl extends BaseClient implements ProcessClient {
                                                        @Nullable Map<String, Object> input) {
 
         bpdId = Args.notNull(bpdId, "BusinessProcessDefinition (bpdId)");
-        Gson gson = new GsonBuilder().setDateFormat(DATE_TIME_FORMAT).create();
 
         Map<String, String> choice = Maps.newHashMap();
         choice.put(SNAPSHOT_ID, snapshotId);
@@ -76,11 +95,13 @@ final class ProcessClientImpl extends BaseClient implements ProcessClient {
         SafeUriBuilder uri = new SafeUriBuilder(rootUri).addParameter(ACTION, ACTION_START)
                 .addParameter(PROCESS_DEFINITION_ID, bpdId).addParameter(entry.getKey(), entry.getValue());
 
+        HttpEntity body = null;
+
         if (input != null && input.size() > 0) {
-            uri.addParameter(PARAMS, gson.toJson(input));
+            body = new JsonFormEntity(PARAMS, input, getSerializationEngine());
         }
 
-        return makePost(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<ProcessDetails>>() {});
+        return makePost(httpClient, httpContext, uri.build(), body, PROCESS_DETAILS_TYPE);
     }
 
     private Map.Entry<String, String> reduce(Map<String, String> map) {
@@ -128,7 +149,7 @@ final class ProcessClientImpl extends BaseClient implements ProcessClient {
 
         URI uri = new SafeUriBuilder(rootUri).addPath(piid).addParameter(ACTION, action).build();
 
-        return makePost(httpClient, httpContext, uri, new TypeToken<RestRootEntity<ProcessDetails>>() {});
+        return makePost(httpClient, httpContext, uri, PROCESS_DETAILS_TYPE);
     }
 
     /**
@@ -142,7 +163,21 @@ final class ProcessClientImpl extends BaseClient implements ProcessClient {
 
         URI uri = new SafeUriBuilder(rootUri).addPath(piid).build();
 
-        return makeGet(httpClient, httpContext, uri, new TypeToken<RestRootEntity<ProcessDetails>>() {});
+        return makeGet(httpClient, httpContext, uri, PROCESS_DETAILS_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public RestRootEntity<ProcessStatus> currentStatus(@Nonnull String piid) {
+        piid = Args.notNull(piid, "ProcessInstanceID (piid)");
+
+        URI uri = new SafeUriBuilder(rootUri).addPath(piid).addParameter(PARTS, PARTS_NONE).build();
+
+        return makeGet(httpClient, httpContext, uri, PROCESS_STATUS_TYPE);
     }
 
 }
@@ -0,0 +1,294 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.http.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.bpmink.bpm.api.client.ProcessClient;
+import ru.bpmink.bpm.api.client.ProcessStateListener;
+import ru.bpmink.bpm.model.process.ProcessState;
+import ru.bpmink.bpm.model.process.ProcessStatus;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the state of many process instances by {@link ru.bpmink.bpm.api.client.ProcessClient#currentStatus(String)},
+ * and passes only the changes of the state to {@link ru.bpmink.bpm.api.client.ProcessStateListener}s, so consumers
+ * do work proportional to the number of changes instead of the number of instances.
+ * <p>Every instance is polled once per interval. The first poll of the instance is delayed randomly within the
+ * interval, and every next poll is shifted randomly by {@literal 10%} of the interval, so instances, watched at the
+ * same time, are spread over the interval instead of being polled in bursts. Number of concurrent requests never
+ * exceeds parallelism level, and there is never more than one request for the same instance. Instance is not polled
+ * anymore after it reaches one of the final states: finished, terminated, compensated or deleted.</p>
+ * <p>Failed requests are logged and retried in the next interval.</p>
+ */
+@ThreadSafe
+public final class ProcessStatePoller implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessStatePoller.class.getName());
+
+    //Part of the interval, by which every poll is randomly shifted.
+    private static final double JITTER = 0.1;
+    private static final Set<ProcessState> FINAL_STATES = Sets.immutableEnumSet(ProcessState.STATE_FINISHED,
+            ProcessState.STATE_TERMINATED, ProcessState.STATE_COMPENSATED, ProcessState.STATE_DELETED);
+
+    private final ProcessClient processClient;
+    private final long interval;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ConcurrentMap<String, Watch> watches = Maps.newConcurrentMap();
+    private final List<ProcessStateListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates poller, which doesn't watch any instance yet.
+     *
+     * @param processClient client, by which the state is polled.
+     * @param interval      interval between two polls of the same instance.
+     * @param timeUnit      time unit of the interval.
+     * @param parallelism   maximum number of concurrent requests.
+     * @throws IllegalArgumentException if processClient or timeUnit is null, or interval or parallelism
+     *                                  is not positive.
+     */
+    public ProcessStatePoller(@Nonnull ProcessClient processClient, long interval, @Nonnull TimeUnit timeUnit,
+                              int parallelism) {
+        this.processClient = Args.notNull(processClient, "Process client (processClient)");
+        Args.positive(interval, "Poll interval (interval)");
+        this.interval = Args.notNull(timeUnit, "Time unit (timeUnit)").toMillis(interval);
+        Args.positive(parallelism, "Parallelism level (parallelism)");
+
+        this.executor = new ScheduledThreadPoolExecutor(parallelism,
+                new ThreadFactoryBuilder().setNameFormat("bpm-process-poller-%d").setDaemon(true).build());
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @param listener receiver of the state changes.
+     * @throws IllegalArgumentException if listener is null.
+     */
+    public void addListener(@Nonnull ProcessStateListener listener) {
+        listeners.add(Args.notNull(listener, "Listener (listener)"));
+    }
+
+    /**
+     * @param listener receiver of the state changes, which was added before.
+     */
+    public void removeListener(@Nullable ProcessStateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts polling of given instances. Instances, which are already watched, are ignored.
+     *
+     * @param piids ids of the process instances.
+     * @throws IllegalArgumentException if piids or any of its elements is null.
+     */
+    public void watch(@Nonnull Collection<String> piids) {
+        Args.notNull(piids, "Process instance ids (piids)");
+        for (String piid : piids) {
+            Watch watch = new Watch(Args.notNull(piid, "Process instance id (piid)"));
+            if (watches.putIfAbsent(piid, watch) == null) {
+                watch.schedule(ThreadLocalRandom.current().nextLong(interval));
+            }
+        }
+    }
+
+    /**
+     * Stops polling of given instances. Request, which is already in progress, is completed, and its result
+     * can still be passed to listeners.
+     *
+     * @param piids ids of the process instances.
+     * @throws IllegalArgumentException if piids is null.
+     */
+    public void unwatch(@Nonnull Collection<String> piids) {
+        Args.notNull(piids, "Process instance ids (piids)");
+        for (String piid : piids) {
+            Watch watch = piid != null ? watches.remove(piid) : null;
+            if (watch != null) {
+                watch.cancel();
+            }
+        }
+    }
+
+    /**
+     * Polls given watched instances as soon as possible, instead of waiting for the next interval. Instances, which
+     * are being polled right now, are polled again right after the current poll is completed. Instances, which are
+     * not watched, are ignored.
+     *
+     * @param piids ids of the process instances.
+     * @throws IllegalArgumentException if piids is null.
+     */
+    public void pollNow(@Nonnull Collection<String> piids) {
+        Args.notNull(piids, "Process instance ids (piids)");
+        for (String piid : piids) {
+            Watch watch = piid != null ? watches.get(piid) : null;
+            if (watch != null) {
+                watch.reschedule();
+            }
+        }
+    }
+
+    /**
+     * @return ids of the instances, which are being polled.
+     */
+    public Set<String> getWatched() {
+        return ImmutableSet.copyOf(watches.keySet());
+    }
+
+    /**
+     * @param piid id of the process instance.
+     * @return last known status of the watched instance, or null if it's not watched, or is not polled yet.
+     */
+    @Nullable
+    public ProcessStatus getLastStatus(@Nullable String piid) {
+        Watch watch = piid != null ? watches.get(piid) : null;
+        return watch != null ? watch.status : null;
+    }
+
+    /**
+     * Stops polling of all instances.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (Watch watch : watches.values()) {
+            watch.cancel();
+        }
+        watches.clear();
+    }
+
+    private long nextDelay() {
+        double shift = (ThreadLocalRandom.current().nextDouble() * 2 - 1) * JITTER;
+        return interval + (long) (interval * shift);
+    }
+
+    private static boolean isChanged(ProcessStatus previous, ProcessStatus current) {
+        return previous == null
+                || previous.getState() != current.getState()
+                || previous.getExecutionState() != current.getExecutionState();
+    }
+
+    private void fireStateChanged(ProcessStatus previous, ProcessStatus current) {
+        for (ProcessStateListener listener : listeners) {
+            try {
+                listener.stateChanged(previous, current);
+            } catch (RuntimeException e) {
+                logger.error("Listener {} failed on state change of {}", listener, current.getPiid(), e);
+            }
+        }
+    }
+
+    /**
+     * Polling of the single instance. Next poll is scheduled only after the current one is completed, so there is
+     * never more than one request for the same instance. Every scheduled poll is identified by the generation,
+     * so the poll, which has already started when it was rescheduled, is skipped instead of starting another chain.
+     * Poll, which is requested while the instance is being polled, is scheduled without delay after the current one.
+     */
+    private final class Watch {
+
+        private final String piid;
+        private volatile ProcessStatus status;
+        //Guarded by this.
+        private ScheduledFuture<?> next;
+        private long generation;
+        private boolean polling;
+        private boolean pollRequested;
+        private boolean cancelled;
+
+        private Watch(String piid) {
+            this.piid = piid;
+        }
+
+        private void poll(long scheduled) {
+            synchronized (this) {
+                if (cancelled || scheduled != generation) {
+                    return;
+                }
+                polling = true;
+                pollRequested = false;
+            }
+            ProcessStatus current = null;
+            try {
+                current = processClient.currentStatus(piid).getPayload();
+            } catch (RuntimeException e) {
+                logger.warn("Can't poll state of the process instance {}: {}", piid, e.getMessage());
+                logger.debug("Poll of the process instance {} failed", piid, e);
+            }
+            boolean requested;
+            synchronized (this) {
+                polling = false;
+                if (cancelled) {
+                    return;
+                }
+                requested = pollRequested;
+            }
+            if (current != null) {
+                ProcessStatus previous = status;
+                status = current;
+                if (isChanged(previous, current)) {
+                    fireStateChanged(previous, current);
+                }
+                if (FINAL_STATES.contains(current.getState())) {
+                    logger.debug("Process instance {} is in final state {}, so it's not polled anymore", piid,
+                            current.getState());
+                    watches.remove(piid, this);
+                    return;
+                }
+            }
+            schedule(requested ? 0 : nextDelay());
+        }
+
+        private synchronized void schedule(long delay) {
+            if (cancelled) {
+                return;
+            }
+            final long scheduled = ++generation;
+            try {
+                next = executor.schedule(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        poll(scheduled);
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                //Poller is closed.
+                cancelled = true;
+            }
+        }
+
+        private synchronized void reschedule() {
+            if (polling) {
+                //Request may have been sent before the change, which caused this call, so the instance is polled
+                //again once the current poll is completed.
+                pollRequested = true;
+            } else if (next != null && next.cancel(false)) {
+                schedule(0);
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+    }
+
+}
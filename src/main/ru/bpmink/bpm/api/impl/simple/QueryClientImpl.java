@@ -2,21 +2,31 @@ package ru.bpmink.bpm.api.impl.simple;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Collections2;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.reflect.TypeToken;
 
 import org.apache.http.client.HttpClient;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.Args;
 
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
 import ru.bpmink.bpm.api.client.QueryClient;
+import ru.bpmink.bpm.api.client.QueryResultSink;
+import ru.bpmink.bpm.model.common.Describable;
 import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.query.CompactQueryResultSet;
 import ru.bpmink.bpm.model.query.InteractionFilter;
 import ru.bpmink.bpm.model.query.Query;
 import ru.bpmink.bpm.model.query.QueryAttribute;
 import ru.bpmink.bpm.model.query.QueryAttributes;
 import ru.bpmink.bpm.model.query.QueryKind;
 import ru.bpmink.bpm.model.query.QueryList;
+import ru.bpmink.bpm.model.query.QueryResult;
 import ru.bpmink.bpm.model.query.QueryResultSet;
 import ru.bpmink.bpm.model.query.QueryResultSetCount;
 import ru.bpmink.bpm.model.query.SortAttribute;
@@ -26,7 +36,12 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.net.URI;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Immutable
 final class QueryClientImpl extends BaseClient implements QueryClient {
@@ -35,6 +50,18 @@ final class QueryClientImpl extends BaseClient implements QueryClient {
     private final HttpClient httpClient;
     private final HttpContext httpContext;
 
+    //Response entity types
+    private static final TypeToken<RestRootEntity<QueryList>> QUERY_LIST_TYPE =
+            new TypeToken<RestRootEntity<QueryList>>() {};
+    private static final TypeToken<RestRootEntity<QueryResultSet>> QUERY_RESULT_SET_TYPE =
+            new TypeToken<RestRootEntity<QueryResultSet>>() {};
+    private static final TypeToken<RestRootEntity<CompactQueryResultSet>> COMPACT_QUERY_RESULT_SET_TYPE =
+            new TypeToken<RestRootEntity<CompactQueryResultSet>>() {};
+    private static final TypeToken<RestRootEntity<QueryResultSetCount>> QUERY_RESULT_SET_COUNT_TYPE =
+            new TypeToken<RestRootEntity<QueryResultSetCount>>() {};
+    private static final TypeToken<RestRootEntity<QueryAttributes>> QUERY_ATTRIBUTES_TYPE =
+            new TypeToken<RestRootEntity<QueryAttributes>>() {};
+
     //Endpoint additional paths
     private static final String QUERIES = "queries";
     private static final String QUERY = "query";
@@ -49,16 +76,32 @@ final class QueryClientImpl extends BaseClient implements QueryClient {
     private static final String SORT_ATTRIBUTES = "sortAttributes";
     private static final String INTERACTION_FILTER = "interactionFilter";
     private static final String FILTER_BY_CURRENT_USER = "filterByCurrentUser";
+    private static final String OFFSET = "offset";
     private static final String SIZE = "size";
 
-    QueryClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext) {
+    //Uri includes requested content, so number of cached entries is bounded as well.
+    private static final int MAX_CACHED_METADATA = 256;
+
+    //Cached query metadata by request uri, which holds all parameters of the request.
+    private final Cache<URI, RestRootEntity<?>> metadataCache;
+
+    QueryClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                    SerializationEngine serializationEngine, BpmClientConfig config) {
+        super(serializationEngine.warmUp(QUERY_LIST_TYPE, QUERY_RESULT_SET_TYPE, QUERY_RESULT_SET_COUNT_TYPE,
+                QUERY_ATTRIBUTES_TYPE, COMPACT_QUERY_RESULT_SET_TYPE), config);
         this.httpClient = httpClient;
         this.rootUri = rootUri;
         this.httpContext = httpContext;
+        this.metadataCache = createMetadataCache(config.getQueryMetadataCacheTtl());
+    }
+
+    QueryClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                    SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, httpContext, serializationEngine, BpmClientConfig.DEFAULT);
     }
 
-    QueryClientImpl(URI rootUri, HttpClient httpClient) {
-        this(rootUri, httpClient, null);
+    QueryClientImpl(URI rootUri, HttpClient httpClient, SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, null, serializationEngine);
     }
 
     /**
@@ -89,7 +132,7 @@ final class QueryClientImpl extends BaseClient implements QueryClient {
                     new ContentFunction())));
         }
 
-        return makeGet(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<QueryList>>() {});
+        return getMetadata(uri.build(), QUERY_LIST_TYPE);
     }
 
     /**
@@ -104,7 +147,49 @@ final class QueryClientImpl extends BaseClient implements QueryClient {
                                                         @Nullable String processAppName,
                                                         @Nullable List<SortAttribute> sortAttributes,
                                                         @Nullable Integer size, @Nullable Boolean filterByCurrentUser) {
+        return queryEntities(query, selectedAttributes, interactionFilter, processAppName, sortAttributes, null, size,
+                filterByCurrentUser);
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public RestRootEntity<QueryResultSet> queryEntities(@Nonnull Query query,
+                                                        @Nullable List<QueryAttribute> selectedAttributes,
+                                                        @Nullable InteractionFilter interactionFilter,
+                                                        @Nullable String processAppName,
+                                                        @Nullable List<SortAttribute> sortAttributes,
+                                                        @Nullable Integer offset, @Nullable Integer size,
+                                                        @Nullable Boolean filterByCurrentUser) {
+        URI uri = getQueryUri(query, selectedAttributes, interactionFilter, processAppName, sortAttributes, offset,
+                size, filterByCurrentUser);
+        return makeGet(httpClient, httpContext, uri, QUERY_RESULT_SET_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public RestRootEntity<CompactQueryResultSet> queryEntitiesCompact(@Nonnull Query query,
+                                                                      @Nullable List<QueryAttribute> selectedAttributes,
+                                                                      @Nullable InteractionFilter interactionFilter,
+                                                                      @Nullable String processAppName,
+                                                                      @Nullable List<SortAttribute> sortAttributes,
+                                                                      @Nullable Integer offset, @Nullable Integer size,
+                                                                      @Nullable Boolean filterByCurrentUser) {
+        URI uri = getQueryUri(query, selectedAttributes, interactionFilter, processAppName, sortAttributes, offset,
+                size, filterByCurrentUser);
+        return makeGet(httpClient, httpContext, uri, COMPACT_QUERY_RESULT_SET_TYPE);
+    }
+
+    private URI getQueryUri(Query query, List<QueryAttribute> selectedAttributes, InteractionFilter interactionFilter,
+                            String processAppName, List<SortAttribute> sortAttributes, Integer offset, Integer size,
+                            Boolean filterByCurrentUser) {
         query = Args.notNull(query, "Search query");
         String querySearch = Args.notNull(query.getName(), "Search query name");
 
@@ -124,14 +209,74 @@ final class QueryClientImpl extends BaseClient implements QueryClient {
             uri.addParameter(SORT_ATTRIBUTES, Joiner.on(DEFAULT_SEPARATOR).skipNulls()
                     .join(Collections2.transform(sortAttributes, new SortFunction())));
         }
+        if (offset != null) {
+            uri.addParameter(OFFSET, offset);
+        }
         if (size != null) {
             uri.addParameter(SIZE, size);
         }
         if (filterByCurrentUser != null) {
             uri.addParameter(FILTER_BY_CURRENT_USER, filterByCurrentUser);
         }
+        return uri.build();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public Iterator<QueryResult> queryEntitiesIterator(@Nonnull Query query,
+                                                       @Nullable List<QueryAttribute> selectedAttributes,
+                                                       @Nullable InteractionFilter interactionFilter,
+                                                       @Nullable String processAppName,
+                                                       @Nullable List<SortAttribute> sortAttributes, int pageSize,
+                                                       @Nullable Boolean filterByCurrentUser) {
+        return queryEntitiesIterator(query, selectedAttributes, interactionFilter, processAppName, sortAttributes,
+                pageSize, filterByCurrentUser, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public Iterator<QueryResult> queryEntitiesIterator(@Nonnull Query query,
+                                                       @Nullable List<QueryAttribute> selectedAttributes,
+                                                       @Nullable InteractionFilter interactionFilter,
+                                                       @Nullable String processAppName,
+                                                       @Nullable List<SortAttribute> sortAttributes, int pageSize,
+                                                       @Nullable Boolean filterByCurrentUser,
+                                                       @Nullable Executor prefetchExecutor) {
+        query = Args.notNull(query, "Search query");
+        Args.notNull(query.getName(), "Search query name");
+        pageSize = Args.positive(pageSize, "Page size");
 
-        return makeGet(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<QueryResultSet>>() {});
+        return new PagingQueryIterator(this, query, selectedAttributes, interactionFilter, processAppName,
+                sortAttributes, pageSize, filterByCurrentUser, prefetchExecutor);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException                 {@inheritDoc}
+     * @throws ru.bpmink.bpm.model.common.RestException {@inheritDoc}
+     */
+    @Override
+    public int exportEntities(@Nonnull Query query, @Nullable List<QueryAttribute> selectedAttributes,
+                              @Nullable InteractionFilter interactionFilter, @Nullable String processAppName,
+                              @Nullable List<SortAttribute> sortAttributes, @Nullable Boolean filterByCurrentUser,
+                              int pageSize, int parallelism, @Nonnull QueryResultSink sink) {
+        query = Args.notNull(query, "Search query");
+        Args.notNull(query.getName(), "Search query name");
+        pageSize = Args.positive(pageSize, "Page size");
+        parallelism = Args.positive(parallelism, "Parallelism level");
+        sink = Args.notNull(sink, "Query result sink");
+
+        return new ParallelQueryExporter(this, query, selectedAttributes, interactionFilter, processAppName,
+                sortAttributes, filterByCurrentUser, pageSize, parallelism).export(sink);
     }
 
     /**
@@ -160,7 +305,7 @@ final class QueryClientImpl extends BaseClient implements QueryClient {
             uri.addParameter(FILTER_BY_CURRENT_USER, filterByCurrentUser);
         }
 
-        return makeGet(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<QueryResultSetCount>>() {});
+        return makeGet(httpClient, httpContext, uri.build(), QUERY_RESULT_SET_COUNT_TYPE);
     }
 
     /**
@@ -179,7 +324,64 @@ final class QueryClientImpl extends BaseClient implements QueryClient {
             uri.addParameter(PROCESS_APP_NAME, processAppName);
         }
 
-        return makeGet(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<QueryAttributes>>() {});
+        return getMetadata(uri.build(), QUERY_ATTRIBUTES_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidateMetadata() {
+        if (metadataCache != null) {
+            metadataCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Returns copy of cached metadata, or retrieves it, if it's not cached or the cache is disabled. Concurrent calls
+     * with the same uri wait for the single request. Every caller gets its own copy, so changes of the returned
+     * entity never affect the cached one.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Describable> RestRootEntity<T> getMetadata(final URI uri,
+                                                                  final TypeToken<RestRootEntity<T>> typeToken) {
+        if (metadataCache == null) {
+            return makeGet(httpClient, httpContext, uri, typeToken);
+        }
+        try {
+            RestRootEntity<T> metadata = (RestRootEntity<T>) metadataCache.get(uri, new Callable<RestRootEntity<?>>() {
+
+                @Override
+                public RestRootEntity<?> call() {
+                    return makeGet(httpClient, httpContext, uri, typeToken);
+                }
+            });
+            if (metadata.isExceptional()) {
+                //Unsuccessful response is returned to the callers, which have waited for it, but is not cached.
+                metadataCache.asMap().remove(uri, metadata);
+            }
+            return getSerializationEngine().copy(metadata, typeToken);
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            //Keep contract of uncached calls: exceptions are thrown as is.
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Can't get query metadata from Server with uri: " + uri, cause);
+        }
+    }
+
+    private static Cache<URI, RestRootEntity<?>> createMetadataCache(long ttl) {
+        if (ttl <= 0) {
+            return null;
+        }
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .maximumSize(MAX_CACHED_METADATA)
+                .build();
     }
 
 
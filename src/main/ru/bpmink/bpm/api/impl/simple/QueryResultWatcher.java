@@ -0,0 +1,225 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.annotations.SerializedName;
+
+import org.apache.http.util.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.bpmink.bpm.api.client.QueryClient;
+import ru.bpmink.bpm.api.client.QueryResultDelta;
+import ru.bpmink.bpm.model.query.InteractionFilter;
+import ru.bpmink.bpm.model.query.Query;
+import ru.bpmink.bpm.model.query.QueryAttribute;
+import ru.bpmink.bpm.model.query.QueryResult;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+import ru.bpmink.bpm.model.query.SortAttribute;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs the same query again and again, and detects which results are added, removed or changed since the previous
+ * run, so consumers, i.e. caches or user interfaces, are updated by delta instead of reloading the whole result.
+ * <p>Results are matched by the value of the attribute, which is the identifier of the result set, i.e.
+ * {@literal TKIID} for tasks. Hash code of every attribute is computed once per result, so changed attributes are
+ * detected by comparing hash codes, and only attributes with equal hash codes are compared by value.</p>
+ * <p>Watcher holds results of the last run only, and is not scheduled by itself: caller decides when to
+ * {@link #refresh()} it.</p>
+ */
+@ThreadSafe
+public final class QueryResultWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryResultWatcher.class.getName());
+
+    //Attributes of the query result by their names in the query api.
+    private static final Map<String, Field> ATTRIBUTES = getAttributes();
+
+    private final QueryClient queryClient;
+    private final Query query;
+    private final List<QueryAttribute> selectedAttributes;
+    private final InteractionFilter interactionFilter;
+    private final String processAppName;
+    private final List<SortAttribute> sortAttributes;
+    private final Integer size;
+    private final Boolean filterByCurrentUser;
+
+    //Guarded by this.
+    private Map<String, Row> snapshot = ImmutableMap.of();
+
+    /**
+     * Creates watcher of the query, see
+     * {@link ru.bpmink.bpm.api.client.QueryClient#queryEntities(Query, List, InteractionFilter, String, List,
+     * Integer, Boolean)} for parameters description.
+     *
+     * @param queryClient         client, by which the query is run.
+     * @param query               query for entity instances.
+     * @param selectedAttributes  attributes, which are retrieved by the query.
+     * @param interactionFilter   name of a predefined user interaction.
+     * @param processAppName      name of the process application, used for additional filtering.
+     * @param sortAttributes      sort criteria applied to the list of returned entities.
+     * @param size                maximum number of entities to be returned.
+     * @param filterByCurrentUser flag, which indicates whether results are restricted to the current user.
+     * @throws IllegalArgumentException if queryClient or query is null.
+     */
+    public QueryResultWatcher(@Nonnull QueryClient queryClient, @Nonnull Query query,
+                              @Nullable List<QueryAttribute> selectedAttributes,
+                              @Nullable InteractionFilter interactionFilter, @Nullable String processAppName,
+                              @Nullable List<SortAttribute> sortAttributes, @Nullable Integer size,
+                              @Nullable Boolean filterByCurrentUser) {
+        this.queryClient = Args.notNull(queryClient, "Query client (queryClient)");
+        this.query = Args.notNull(query, "Query (query)");
+        this.selectedAttributes = selectedAttributes;
+        this.interactionFilter = interactionFilter;
+        this.processAppName = processAppName;
+        this.sortAttributes = sortAttributes;
+        this.size = size;
+        this.filterByCurrentUser = filterByCurrentUser;
+    }
+
+    /**
+     * Runs the query, and detects the delta since the previous run. The first run reports all results as added.
+     *
+     * @return delta since the previous run.
+     * @throws ru.bpmink.bpm.model.common.RestException if api call was unsuccessful.
+     * @throws IllegalStateException                    if identifier of the result set is not a known attribute.
+     */
+    public QueryResultDelta refresh() {
+        QueryResultSet resultSet = queryClient.queryEntities(query, selectedAttributes, interactionFilter,
+                processAppName, sortAttributes, size, filterByCurrentUser).getPayload();
+        return update(resultSet);
+    }
+
+    /**
+     * Detects the delta between given result set and the previous one, and keeps given result set for the next
+     * call. Useful if the query is run by caller itself.
+     *
+     * @param resultSet current result of the query.
+     * @return delta since the previous result set.
+     * @throws IllegalArgumentException if resultSet is null.
+     * @throws IllegalStateException    if identifier of the result set is not a known attribute.
+     */
+    public synchronized QueryResultDelta update(@Nonnull QueryResultSet resultSet) {
+        Args.notNull(resultSet, "Result set (resultSet)");
+        Field identifier = ATTRIBUTES.get(resultSet.getIdentifier());
+        if (identifier == null) {
+            throw new IllegalStateException("Identifier " + resultSet.getIdentifier() + " of the result set "
+                    + "is not an attribute of query result");
+        }
+
+        Map<String, Row> current = Maps.newLinkedHashMap();
+        List<QueryResult> added = Lists.newArrayList();
+        List<QueryResult> changed = Lists.newArrayList();
+        Map<String, Set<String>> changedAttributes = Maps.newHashMap();
+        for (QueryResult result : resultSet.getQueryResults()) {
+            Object id = get(identifier, result);
+            if (id == null) {
+                logger.debug("Query result without identifier " + resultSet.getIdentifier() + " is ignored");
+                continue;
+            }
+            String key = id.toString();
+            if (current.containsKey(key)) {
+                //Result may be duplicated if the underlying data is changed while the query is being run.
+                continue;
+            }
+            Row row = new Row(result);
+            current.put(key, row);
+            Row previous = snapshot.get(key);
+            if (previous == null) {
+                added.add(result);
+                continue;
+            }
+            Set<String> attributes = row.diff(previous);
+            if (!attributes.isEmpty()) {
+                changed.add(result);
+                changedAttributes.put(key, attributes);
+            }
+        }
+
+        List<QueryResult> removed = Lists.newArrayList();
+        for (Map.Entry<String, Row> entry : snapshot.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                removed.add(entry.getValue().result);
+            }
+        }
+        snapshot = current;
+        return new QueryResultDelta(resultSet, added, removed, changed, changedAttributes);
+    }
+
+    /**
+     * Forgets the previous result set, so the next run reports all results as added.
+     */
+    public synchronized void reset() {
+        snapshot = ImmutableMap.of();
+    }
+
+    private static Map<String, Field> getAttributes() {
+        ImmutableMap.Builder<String, Field> attributes = ImmutableMap.builder();
+        for (Field field : QueryResult.class.getDeclaredFields()) {
+            SerializedName name = field.getAnnotation(SerializedName.class);
+            if (name != null && !Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                attributes.put(name.value(), field);
+            }
+        }
+        return attributes.build();
+    }
+
+    private static Object get(Field field, QueryResult result) {
+        try {
+            return field.get(result);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't read attribute " + field.getName() + " of query result", e);
+        }
+    }
+
+    /**
+     * Query result with hash codes of its attributes, in the order of {@link #ATTRIBUTES}.
+     */
+    private static final class Row {
+
+        private final QueryResult result;
+        private final Object[] values;
+        private final int[] hashes;
+
+        private Row(QueryResult result) {
+            this.result = result;
+            this.values = new Object[ATTRIBUTES.size()];
+            this.hashes = new int[values.length];
+            int index = 0;
+            for (Field field : ATTRIBUTES.values()) {
+                values[index] = get(field, result);
+                hashes[index] = Objects.hashCode(values[index]);
+                index++;
+            }
+        }
+
+        private Set<String> diff(Row previous) {
+            Set<String> attributes = null;
+            int index = 0;
+            for (String name : ATTRIBUTES.keySet()) {
+                if (hashes[index] != previous.hashes[index] || !Objects.equal(values[index], previous.values[index])) {
+                    if (attributes == null) {
+                        attributes = Sets.newLinkedHashSet();
+                    }
+                    attributes.add(name);
+                }
+                index++;
+            }
+            return attributes != null ? attributes : ImmutableSet.<String>of();
+        }
+    }
+
+}
@@ -2,28 +2,29 @@ package ru.bpmink.bpm.api.impl.simple;
 
 import com.google.common.io.Closeables;
 
-import org.apache.http.HttpVersion;
+import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.AuthCache;
 import org.apache.http.client.CredentialsProvider;
-import org.apache.http.conn.ClientConnectionManager;
-import org.apache.http.conn.scheme.PlainSocketFactory;
-import org.apache.http.conn.scheme.Scheme;
-import org.apache.http.conn.scheme.SchemeRegistry;
-import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.auth.BasicScheme;
+import org.apache.http.impl.client.BasicAuthCache;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
-import org.apache.http.params.BasicHttpParams;
-import org.apache.http.params.HttpParams;
-import org.apache.http.params.HttpProtocolParams;
-import org.apache.http.protocol.HTTP;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.ssl.TrustStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import ru.bpmink.adapters.SerializationEngine;
 import ru.bpmink.bpm.api.client.BpmClient;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
 import ru.bpmink.bpm.api.client.ExposedClient;
 import ru.bpmink.bpm.api.client.ProcessAppsClient;
 import ru.bpmink.bpm.api.client.ProcessClient;
@@ -33,20 +34,22 @@ import ru.bpmink.bpm.api.client.TaskClient;
 import ru.bpmink.util.SafeUriBuilder;
 
 import javax.annotation.concurrent.Immutable;
+import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
+import javax.net.ssl.SSLSessionContext;
 import java.io.IOException;
-import java.net.Socket;
 import java.net.URI;
-import java.security.KeyStore;
-import java.security.cert.CertificateException;
+import java.security.GeneralSecurityException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Default (Secure-all) implementation of {@link ru.bpmink.bpm.api.client.BpmClient} which
- * supports {@link org.apache.http.impl.auth.BasicScheme} authentication.
- * Need to be carefully rewrite.
+ * Implementation of {@link ru.bpmink.bpm.api.client.BpmClient} over {@literal https}, which supports preemptive
+ * {@link org.apache.http.impl.auth.BasicScheme} authentication.
+ * <p>Server certificate is verified against {@link ru.bpmink.bpm.api.client.BpmClientConfig#getTrustStore()}.
+ * If trust store is not configured, any certificate and host name is trusted (secure-all).</p>
+ * <p>Pooled connections are reused by all requests, and tls sessions are cached, so new connection resumes
+ * the session instead of making full handshake.</p>
  */
 @Immutable
 @SuppressFBWarnings("JCIP_FIELD_ISNT_FINAL_IN_IMMUTABLE_CLASS")
@@ -74,51 +77,92 @@ public final class SecuredBpmClient implements BpmClient {
 
     private static Logger logger = LoggerFactory.getLogger(SimpleBpmClient.class.getName());
     private final CloseableHttpClient httpClient;
+    private final SerializationEngine serializationEngine;
     private final URI rootUri;
+    private final BpmClientConfig config;
+    private HttpClientContext httpContext;
 
     /**
-     * Creates instance of {@link ru.bpmink.bpm.api.impl.simple.KerberosBpmClient}.
+     * Creates instance of {@link ru.bpmink.bpm.api.impl.simple.SecuredBpmClient}.
      *
      * @param serverUri is a absolute server host/port path.
      * @param user      is a login by which the actions will be performed.
      * @param password  is a user password.
      */
     public SecuredBpmClient(URI serverUri, String user, String password) {
+        this(serverUri, user, password, BpmClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates instance of {@link ru.bpmink.bpm.api.impl.simple.SecuredBpmClient}.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @param config    is a connection management settings.
+     */
+    public SecuredBpmClient(URI serverUri, String user, String password, BpmClientConfig config) {
         logger.info("Start creating bpm client.");
         this.rootUri = new SafeUriBuilder(serverUri).addPath(ROOT_ENDPOINT).build();
-        this.httpClient = createClient(user, password);
+        this.config = config;
+        this.serializationEngine = new SerializationEngine(config.isLazyDeserialization());
+        this.httpClient = createClient(user, password, config);
         logger.info("Bpm client created.");
     }
 
-    @SuppressWarnings("deprecation")
-    private CloseableHttpClient createClient(String user, String password) {
-        try {
-            KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
-            trustStore.load(null, null);
-
-            NoSslSocketFactory socketFactory = new NoSslSocketFactory(trustStore);
-            socketFactory.setHostnameVerifier(SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
-
-            HttpParams params = new BasicHttpParams();
-            HttpProtocolParams.setVersion(params, HttpVersion.HTTP_1_1);
-            HttpProtocolParams.setContentCharset(params, HTTP.UTF_8);
-
-            SchemeRegistry registry = new SchemeRegistry();
-            registry.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
-            registry.register(new Scheme("https", socketFactory, 443));
-
-            ClientConnectionManager ccm = new ThreadSafeClientConnManager(params, registry);
-            DefaultHttpClient client = new DefaultHttpClient(ccm, params);
-            CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user, password));
-
-            client.setCredentialsProvider(credentialsProvider);
+    private CloseableHttpClient createClient(String user, String password, BpmClientConfig config) {
+        HostnameVerifier hostnameVerifier = config.getTrustStore() != null
+                ? SSLConnectionSocketFactory.getDefaultHostnameVerifier()
+                : NoopHostnameVerifier.INSTANCE;
+        SSLConnectionSocketFactory socketFactory = new SSLConnectionSocketFactory(createSslContext(config),
+                hostnameVerifier);
+        final PoolingHttpClientConnectionManager cm = ConnectionPools.createConnectionManager(socketFactory, config);
+
+        logger.info("Pooling connection manager created: " + config);
+
+        CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user, password));
+        logger.info("Default credentials provider created.");
+
+        //Credentials are sent with the first request, without waiting for 401 challenge.
+        AuthCache authCache = new BasicAuthCache();
+        BasicScheme basicAuth = new BasicScheme();
+
+        authCache.put(new HttpHost(rootUri.getHost(), rootUri.getPort(), rootUri.getScheme()), basicAuth);
+        logger.info("Auth cache created.");
+
+        httpContext = HttpClientContext.create();
+        httpContext.setCredentialsProvider(credentialsProvider);
+        httpContext.setAuthCache(authCache);
+        logger.info("HttpContext filled with Auth cache.");
+
+        //All requests are made by the same user, so pooled tls connections are not bound to the user principal,
+        //and are reused by any request.
+        HttpClientBuilder builder = HttpClientBuilder.create().setDefaultCredentialsProvider(credentialsProvider)
+                .disableConnectionState();
+        return ConnectionPools.configure(builder, cm, config).build();
+    }
 
-            return client;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new DefaultHttpClient();
+    private static SSLContext createSslContext(BpmClientConfig config) {
+        SSLContext sslContext;
+        try {
+            sslContext = config.getTrustStore() != null
+                    ? SSLContexts.custom().loadTrustMaterial(config.getTrustStore(), null).build()
+                    : SSLContexts.custom().loadTrustMaterial(null, new TrustAllStrategy()).build();
+        } catch (GeneralSecurityException e) {
+            logger.error("Can't create ssl context: " + e.getMessage());
+            throw new RuntimeException("Can't create ssl context", e);
+        }
+        //Cached sessions are resumed by new connections to the same host and port with abbreviated handshake.
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        if (config.getSslSessionCacheSize() > 0) {
+            sessionContext.setSessionCacheSize(config.getSslSessionCacheSize());
         }
+        if (config.getSslSessionTimeout() > 0) {
+            sessionContext.setSessionTimeout((int) Math.min(TimeUnit.MILLISECONDS.toSeconds(
+                    config.getSslSessionTimeout()), Integer.MAX_VALUE));
+        }
+        return sslContext;
     }
 
     /**
@@ -128,7 +172,7 @@ public final class SecuredBpmClient implements BpmClient {
     public ExposedClient getExposedClient() {
         if (exposedClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(EXPOSED_ENDPOINT).build();
-            exposedClient = new ExposedClientImpl(uri, httpClient, null);
+            exposedClient = new ExposedClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return exposedClient;
     }
@@ -140,7 +184,7 @@ public final class SecuredBpmClient implements BpmClient {
     public ProcessClient getProcessClient() {
         if (processClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_ENDPOINT).build();
-            processClient = new ProcessClientImpl(uri, httpClient, null);
+            processClient = new ProcessClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return processClient;
     }
@@ -152,7 +196,7 @@ public final class SecuredBpmClient implements BpmClient {
     public TaskClient getTaskClient() {
         if (taskClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASK_ENDPOINT).build();
-            taskClient = new TaskClientImpl(uri, httpClient, null);
+            taskClient = new TaskClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return taskClient;
     }
@@ -164,7 +208,7 @@ public final class SecuredBpmClient implements BpmClient {
     public ServiceClient getServiceClient() {
         if (serviceClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(SERVICE_ENDPOINT).build();
-            serviceClient = new ServiceClientImpl(uri, httpClient, null);
+            serviceClient = new ServiceClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return serviceClient;
     }
@@ -176,7 +220,7 @@ public final class SecuredBpmClient implements BpmClient {
     public ProcessAppsClient getProcessAppsClient() {
         if (processAppsClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_APPS_ENDPOINT).build();
-            processAppsClient = new ProcessAppsClientImpl(uri, httpClient, null);
+            processAppsClient = new ProcessAppsClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return processAppsClient;
     }
@@ -188,7 +232,7 @@ public final class SecuredBpmClient implements BpmClient {
     public QueryClient getTaskQueryClient() {
         if (taskQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASKS_QUERY_ENDPOINT).build();
-            taskQueryClient = new QueryClientImpl(uri, httpClient, null);
+            taskQueryClient = new QueryClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return taskQueryClient;
     }
@@ -200,7 +244,7 @@ public final class SecuredBpmClient implements BpmClient {
     public QueryClient getTaskTemplateQueryClient() {
         if (taskTemplateQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASKS_TEMPLATE_QUERY_ENDPOINT).build();
-            taskTemplateQueryClient = new QueryClientImpl(uri, httpClient, null);
+            taskTemplateQueryClient = new QueryClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return taskTemplateQueryClient;
     }
@@ -212,7 +256,7 @@ public final class SecuredBpmClient implements BpmClient {
     public QueryClient getProcessQueryClient() {
         if (processQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_QUERY_ENDPOINT).build();
-            processQueryClient = new QueryClientImpl(uri, httpClient, null);
+            processQueryClient = new QueryClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return processQueryClient;
     }
@@ -225,43 +269,14 @@ public final class SecuredBpmClient implements BpmClient {
         Closeables.close(httpClient, true);
     }
 
-    @SuppressWarnings("deprecation")
-    public class NoSslSocketFactory extends SSLSocketFactory {
-
-        private final SSLContext sslContext = SSLContext.getInstance("TLS");
-
-        /**
-         * Layered socket factory for TLS/SSL connections with disabled certificate check.
-         *
-         * @param trustStore Storage facility for cryptographic keys and certificates {@link java.security.KeyStore}.
-         * @throws Exception if there was an exception during initialization.
-         */
-        NoSslSocketFactory(KeyStore trustStore) throws Exception {
-
-            super(trustStore);
-            TrustManager trustManager = new X509TrustManager() {
-
-                public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
-                }
-
-                public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
-                }
-
-                public X509Certificate[] getAcceptedIssuers() {
-                    return null;
-                }
-            };
-            sslContext.init(null, new TrustManager[]{trustManager}, null);
-        }
-
-        @Override
-        public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
-            return sslContext.getSocketFactory().createSocket(socket, host, port, autoClose);
-        }
+    /**
+     * Trusts any server certificate, so certificate check is disabled.
+     */
+    private static class TrustAllStrategy implements TrustStrategy {
 
         @Override
-        public Socket createSocket() throws IOException {
-            return sslContext.getSocketFactory().createSocket();
+        public boolean isTrusted(X509Certificate[] chain, String authType) {
+            return true;
         }
     }
 }
@@ -1,17 +1,19 @@
 package ru.bpmink.bpm.api.impl.simple;
 
 import com.google.common.base.Joiner;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 
+import org.apache.http.HttpEntity;
 import org.apache.http.client.HttpClient;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.Args;
 
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
 import ru.bpmink.bpm.api.client.ServiceClient;
 import ru.bpmink.bpm.model.common.RestRootEntity;
 import ru.bpmink.bpm.model.service.ServiceData;
+import ru.bpmink.util.JsonFormEntity;
 import ru.bpmink.util.SafeUriBuilder;
 
 import javax.annotation.Nonnull;
@@ -26,6 +28,10 @@ final class ServiceClientImpl extends BaseClient implements ServiceClient {
     private final HttpClient httpClient;
     private final HttpContext httpContext;
 
+    //Response entity types
+    private static final TypeToken<RestRootEntity<ServiceData>> SERVICE_DATA_TYPE =
+            new TypeToken<RestRootEntity<ServiceData>>() {};
+
     //Request parameters constants
     private static final String FIELD = "field";
     private static final String VALUE = "value";
@@ -36,14 +42,21 @@ final class ServiceClientImpl extends BaseClient implements ServiceClient {
     private static final String ACTION_SET_DATA = "setData";
 
 
-    ServiceClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext) {
+    ServiceClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                      SerializationEngine serializationEngine, BpmClientConfig config) {
+        super(serializationEngine.warmUp(SERVICE_DATA_TYPE), config);
         this.httpClient = httpClient;
         this.rootUri = rootUri;
         this.httpContext = httpContext;
     }
 
-    ServiceClientImpl(URI rootUri, HttpClient httpClient) {
-        this(rootUri, httpClient, null);
+    ServiceClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                      SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, httpContext, serializationEngine, BpmClientConfig.DEFAULT);
+    }
+
+    ServiceClientImpl(URI rootUri, HttpClient httpClient, SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, null, serializationEngine);
     }
 
     /**
@@ -60,7 +73,7 @@ final class ServiceClientImpl extends BaseClient implements ServiceClient {
             uri.addParameter("fields", Joiner.on(DEFAULT_SEPARATOR).join(fields));
         }
 
-        return makeGet(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<ServiceData>>() {});
+        return makeGet(httpClient, httpContext, uri.build(), SERVICE_DATA_TYPE);
     }
 
     /**
@@ -76,14 +89,11 @@ final class ServiceClientImpl extends BaseClient implements ServiceClient {
         Args.notEmpty(parameters.keySet(), "Parameters names");
         Args.notEmpty(parameters.values(), "Parameters values");
 
-        Gson gson = new GsonBuilder().setDateFormat(DATE_TIME_FORMAT).create();
-        String params = gson.toJson(parameters);
+        HttpEntity body = new JsonFormEntity(PARAMS, parameters, getSerializationEngine());
 
+        URI uri = new SafeUriBuilder(rootUri).addPath(instanceId).addParameter(ACTION, ACTION_SET_DATA).build();
 
-        URI uri = new SafeUriBuilder(rootUri).addPath(instanceId).addParameter(ACTION, ACTION_SET_DATA)
-                .addParameter(PARAMS, params).build();
-
-        return makePost(httpClient, httpContext, uri, new TypeToken<RestRootEntity<ServiceData>>() {});
+        return makePost(httpClient, httpContext, uri, body, SERVICE_DATA_TYPE);
     }
 
     /**
@@ -97,13 +107,12 @@ final class ServiceClientImpl extends BaseClient implements ServiceClient {
         instanceId = Args.notNull(instanceId, "Instance id (instanceId)");
         field = Args.notNull(field, "Field name (field)");
         value = Args.notNull(value, "Field value (value)");
-        Gson gson = new GsonBuilder().setDateFormat(DATE_TIME_FORMAT).create();
-        value = gson.toJson(value);
+        HttpEntity body = new JsonFormEntity(VALUE, value, getSerializationEngine());
 
         URI uri = new SafeUriBuilder(rootUri).addPath(instanceId).addParameter(ACTION, ACTION_SET_DATA)
-                .addParameter(FIELD, field).addParameter(VALUE, value).build();
+                .addParameter(FIELD, field).build();
 
-        return makePost(httpClient, httpContext, uri, new TypeToken<RestRootEntity<ServiceData>>() {});
+        return makePost(httpClient, httpContext, uri, body, SERVICE_DATA_TYPE);
     }
 
 
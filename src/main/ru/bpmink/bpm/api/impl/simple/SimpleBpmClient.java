@@ -18,7 +18,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import ru.bpmink.adapters.SerializationEngine;
 import ru.bpmink.bpm.api.client.BpmClient;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
 import ru.bpmink.bpm.api.client.ExposedClient;
 import ru.bpmink.bpm.api.client.ProcessAppsClient;
 import ru.bpmink.bpm.api.client.ProcessClient;
@@ -39,9 +41,6 @@ import javax.annotation.concurrent.Immutable;
 @SuppressFBWarnings("JCIP_FIELD_ISNT_FINAL_IN_IMMUTABLE_CLASS")
 public final class SimpleBpmClient implements BpmClient {
 
-    private static final int TOTAL_CONN = 20;
-    private static final int ROUTE_CONN = 10;
-
     private static final String ROOT_ENDPOINT = "rest/bpm/wle/v1";
     private static final String EXPOSED_ENDPOINT = "exposed";
     private static final String PROCESS_ENDPOINT = "process";
@@ -64,7 +63,9 @@ public final class SimpleBpmClient implements BpmClient {
 
     private static Logger logger = LoggerFactory.getLogger(SimpleBpmClient.class.getName());
     private final CloseableHttpClient httpClient;
+    private final SerializationEngine serializationEngine;
     private final URI rootUri;
+    private final BpmClientConfig config;
     private HttpClientContext httpContext;
 
     /**
@@ -75,18 +76,30 @@ public final class SimpleBpmClient implements BpmClient {
      * @param password  is a user password.
      */
     public SimpleBpmClient(URI serverUri, String user, String password) {
+        this(serverUri, user, password, BpmClientConfig.DEFAULT);
+    }
+
+    /**
+     * Creates instance of {@link ru.bpmink.bpm.api.impl.simple.SimpleBpmClient}.
+     *
+     * @param serverUri is a absolute server host/port path.
+     * @param user      is a login by which the actions will be performed.
+     * @param password  is a user password.
+     * @param config    is a connection management settings.
+     */
+    public SimpleBpmClient(URI serverUri, String user, String password, BpmClientConfig config) {
         logger.info("Start creating bpm client.");
         this.rootUri = new SafeUriBuilder(serverUri).addPath(ROOT_ENDPOINT).build();
-        this.httpClient = createClient(user, password);
+        this.config = config;
+        this.serializationEngine = new SerializationEngine(config.isLazyDeserialization());
+        this.httpClient = createClient(user, password, config);
         logger.info("Bpm client created.");
     }
 
-    private CloseableHttpClient createClient(String user, String password) {
-        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
-        cm.setMaxTotal(TOTAL_CONN);
-        cm.setDefaultMaxPerRoute(ROUTE_CONN);
+    private CloseableHttpClient createClient(String user, String password, BpmClientConfig config) {
+        final PoolingHttpClientConnectionManager cm = ConnectionPools.createConnectionManager(null, config);
 
-        logger.info("Pooling connection manager created.");
+        logger.info("Pooling connection manager created: " + config);
 
         CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
         credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user, password));
@@ -103,8 +116,8 @@ public final class SimpleBpmClient implements BpmClient {
         httpContext.setAuthCache(authCache);
         logger.info("HttpContext filled with Auth cache.");
 
-        return HttpClientBuilder.create().setDefaultCredentialsProvider(credentialsProvider).setConnectionManager(cm)
-                .build();
+        HttpClientBuilder builder = HttpClientBuilder.create().setDefaultCredentialsProvider(credentialsProvider);
+        return ConnectionPools.configure(builder, cm, config).build();
     }
 
     /**
@@ -114,7 +127,7 @@ public final class SimpleBpmClient implements BpmClient {
     public ExposedClient getExposedClient() {
         if (exposedClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(EXPOSED_ENDPOINT).build();
-            exposedClient = new ExposedClientImpl(uri, httpClient, httpContext);
+            exposedClient = new ExposedClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return exposedClient;
     }
@@ -126,7 +139,7 @@ public final class SimpleBpmClient implements BpmClient {
     public ProcessClient getProcessClient() {
         if (processClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_ENDPOINT).build();
-            processClient = new ProcessClientImpl(uri, httpClient, httpContext);
+            processClient = new ProcessClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return processClient;
     }
@@ -138,7 +151,7 @@ public final class SimpleBpmClient implements BpmClient {
     public TaskClient getTaskClient() {
         if (taskClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASK_ENDPOINT).build();
-            taskClient = new TaskClientImpl(uri, httpClient, httpContext);
+            taskClient = new TaskClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return taskClient;
     }
@@ -150,7 +163,7 @@ public final class SimpleBpmClient implements BpmClient {
     public ServiceClient getServiceClient() {
         if (serviceClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(SERVICE_ENDPOINT).build();
-            serviceClient = new ServiceClientImpl(uri, httpClient, httpContext);
+            serviceClient = new ServiceClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return serviceClient;
     }
@@ -162,7 +175,7 @@ public final class SimpleBpmClient implements BpmClient {
     public ProcessAppsClient getProcessAppsClient() {
         if (processAppsClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_APPS_ENDPOINT).build();
-            processAppsClient = new ProcessAppsClientImpl(uri, httpClient, httpContext);
+            processAppsClient = new ProcessAppsClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return processAppsClient;
     }
@@ -174,7 +187,7 @@ public final class SimpleBpmClient implements BpmClient {
     public QueryClient getTaskQueryClient() {
         if (taskQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASKS_QUERY_ENDPOINT).build();
-            taskQueryClient = new QueryClientImpl(uri, httpClient, httpContext);
+            taskQueryClient = new QueryClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return taskQueryClient;
     }
@@ -186,7 +199,7 @@ public final class SimpleBpmClient implements BpmClient {
     public QueryClient getTaskTemplateQueryClient() {
         if (taskTemplateQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(TASKS_TEMPLATE_QUERY_ENDPOINT).build();
-            taskTemplateQueryClient = new QueryClientImpl(uri, httpClient, httpContext);
+            taskTemplateQueryClient = new QueryClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return taskTemplateQueryClient;
     }
@@ -198,7 +211,7 @@ public final class SimpleBpmClient implements BpmClient {
     public QueryClient getProcessQueryClient() {
         if (processQueryClient == null) {
             final URI uri = new SafeUriBuilder(rootUri).addPath(PROCESS_QUERY_ENDPOINT).build();
-            processQueryClient = new QueryClientImpl(uri, httpClient, httpContext);
+            processQueryClient = new QueryClientImpl(uri, httpClient, httpContext, serializationEngine, config);
         }
         return processQueryClient;
     }
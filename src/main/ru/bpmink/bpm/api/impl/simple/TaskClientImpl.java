@@ -1,33 +1,49 @@
 package ru.bpmink.bpm.api.impl.simple;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.common.collect.Sets;
+import com.google.common.escape.Escaper;
+import com.google.common.net.UrlEscapers;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.reflect.TypeToken;
 
+import org.apache.http.HttpEntity;
 import org.apache.http.client.HttpClient;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.Args;
 
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
+import ru.bpmink.bpm.api.client.BulkResult;
 import ru.bpmink.bpm.api.client.TaskClient;
 import ru.bpmink.bpm.model.common.RestEntity;
 import ru.bpmink.bpm.model.common.RestRootEntity;
 import ru.bpmink.bpm.model.service.ServiceData;
+import ru.bpmink.bpm.model.task.TaskAction;
 import ru.bpmink.bpm.model.task.TaskActions;
 import ru.bpmink.bpm.model.task.TaskClientSettings;
 import ru.bpmink.bpm.model.task.TaskDetails;
 import ru.bpmink.bpm.model.task.TaskPriority;
 import ru.bpmink.bpm.model.task.TaskStartData;
+import ru.bpmink.util.JsonFormEntity;
 import ru.bpmink.util.SafeUriBuilder;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 import java.net.URI;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static ru.bpmink.util.Constants.EMPTY_STRING;
 
 @Immutable
 final class TaskClientImpl extends BaseClient implements TaskClient {
@@ -35,6 +51,24 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
     private final URI rootUri;
     private final HttpClient httpClient;
     private final HttpContext httpContext;
+    //Threads of available actions retrieving are shared by all calls, and terminate while idle.
+    private final ExecutorService actionsExecutor;
+    //Length of the task ids list, which keeps uri of available actions retrieving in the limit.
+    private final int maxTaskIdListLength;
+
+    //Response entity types
+    private static final TypeToken<RestRootEntity<TaskDetails>> TASK_DETAILS_TYPE =
+            new TypeToken<RestRootEntity<TaskDetails>>() {};
+    private static final TypeToken<RestRootEntity<TaskStartData>> TASK_START_DATA_TYPE =
+            new TypeToken<RestRootEntity<TaskStartData>>() {};
+    private static final TypeToken<RestRootEntity<RestEntity>> REST_ENTITY_TYPE =
+            new TypeToken<RestRootEntity<RestEntity>>() {};
+    private static final TypeToken<RestRootEntity<TaskClientSettings>> TASK_CLIENT_SETTINGS_TYPE =
+            new TypeToken<RestRootEntity<TaskClientSettings>>() {};
+    private static final TypeToken<RestRootEntity<TaskActions>> TASK_ACTIONS_TYPE =
+            new TypeToken<RestRootEntity<TaskActions>>() {};
+    private static final TypeToken<RestRootEntity<ServiceData>> SERVICE_DATA_TYPE =
+            new TypeToken<RestRootEntity<ServiceData>>() {};
 
     //Request parameters constants
     private static final String ACTION = "action";
@@ -46,6 +80,13 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
     private static final String SETTINGS_TYPE = "IBM_WLE_Coach";
     private static final String TASK_ID_LIST = "taskIDs";
 
+    //Limits of available actions retrieving: uri length of every request, and number of concurrent requests
+    private static final int MAX_ACTIONS_URI_LENGTH = 2000;
+    private static final int ACTIONS_PARALLELISM = 4;
+    private static final long ACTIONS_KEEP_ALIVE_SECONDS = 60L;
+    private static final Escaper TASK_ID_ESCAPER = UrlEscapers.urlFormParameterEscaper();
+    private static final int ESCAPED_SEPARATOR_LENGTH = TASK_ID_ESCAPER.escape(DEFAULT_SEPARATOR).length();
+
     //Methods for tasks
     private static final String ACTION_ASSIGN = "assign";
     private static final String ACTION_COMPLETE = "finish";
@@ -62,14 +103,25 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
     private static final String ASSIGN_TO_USER = "toUser";
     private static final String ASSIGN_TO_GROUP = "toGroup";
 
-    TaskClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext) {
+    TaskClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                   SerializationEngine serializationEngine, BpmClientConfig config) {
+        super(serializationEngine.warmUp(TASK_DETAILS_TYPE, TASK_START_DATA_TYPE, REST_ENTITY_TYPE,
+                TASK_CLIENT_SETTINGS_TYPE, TASK_ACTIONS_TYPE, SERVICE_DATA_TYPE), config);
         this.httpClient = httpClient;
         this.rootUri = rootUri;
         this.httpContext = httpContext;
+        this.actionsExecutor = newActionsExecutor();
+        this.maxTaskIdListLength = MAX_ACTIONS_URI_LENGTH - new SafeUriBuilder(rootUri).addPath(ACTIONS)
+                .addParameter(TASK_ID_LIST, EMPTY_STRING).build().toString().length();
     }
 
-    TaskClientImpl(URI rootUri, HttpClient httpClient) {
-        this(rootUri, httpClient, null);
+    TaskClientImpl(URI rootUri, HttpClient httpClient, HttpContext httpContext,
+                   SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, httpContext, serializationEngine, BpmClientConfig.DEFAULT);
+    }
+
+    TaskClientImpl(URI rootUri, HttpClient httpClient, SerializationEngine serializationEngine) {
+        this(rootUri, httpClient, null, serializationEngine);
     }
 
     /**
@@ -83,7 +135,7 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
 
         URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).build();
 
-        return makeGet(httpClient, httpContext, uri, new TypeToken<RestRootEntity<TaskDetails>>() {});
+        return makeGet(httpClient, httpContext, uri, TASK_DETAILS_TYPE);
     }
 
     /**
@@ -97,7 +149,7 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
 
         URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_START).build();
 
-        return makePost(httpClient, httpContext, uri, new TypeToken<RestRootEntity<TaskStartData>>() {});
+        return makePost(httpClient, httpContext, uri, TASK_START_DATA_TYPE);
     }
 
     /**
@@ -172,7 +224,7 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
             uri.addParameter(entry.getKey(), String.valueOf(entry.getValue()));
         }
 
-        return makePost(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<TaskDetails>>() {});
+        return makePost(httpClient, httpContext, uri.build(), TASK_DETAILS_TYPE);
     }
 
     /**
@@ -183,14 +235,14 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
     @Override
     public RestRootEntity<TaskDetails> completeTask(@Nonnull String tkiid, Map<String, Object> parameters) {
         tkiid = Args.notNull(tkiid, "Task id (tkiid)");
-        Gson gson = new GsonBuilder().setDateFormat(DATE_TIME_FORMAT).create();
 
         SafeUriBuilder uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_COMPLETE);
+        HttpEntity body = null;
         if (parameters != null && parameters.size() > 0) {
-            uri.addParameter(PARAMS, gson.toJson(parameters));
+            body = new JsonFormEntity(PARAMS, parameters, getSerializationEngine());
         }
 
-        return makePost(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<TaskDetails>>() {});
+        return makePost(httpClient, httpContext, uri.build(), body, TASK_DETAILS_TYPE);
     }
 
     /**
@@ -204,7 +256,7 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
 
         URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_CANCEL).build();
 
-        return makePost(httpClient, httpContext, uri, new TypeToken<RestRootEntity<RestEntity>>() {});
+        return makePost(httpClient, httpContext, uri, REST_ENTITY_TYPE);
     }
 
     /**
@@ -220,7 +272,7 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
         URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_UPDATE)
                 .addParameter(DUE_DATE, dueTime).build();
 
-        return makePost(httpClient, httpContext, uri, new TypeToken<RestRootEntity<TaskDetails>>() {});
+        return makePost(httpClient, httpContext, uri, TASK_DETAILS_TYPE);
     }
 
     /**
@@ -236,7 +288,7 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
         URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_UPDATE)
                 .addParameter(PRIORITY, priority).build();
 
-        return makePost(httpClient, httpContext, uri, new TypeToken<RestRootEntity<TaskDetails>>() {});
+        return makePost(httpClient, httpContext, uri, TASK_DETAILS_TYPE);
     }
 
 
@@ -255,7 +307,7 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
         URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addPath(ACTION_SETTINGS).addPath(SETTINGS_TYPE)
                 .addParameter(RELATIVE_URL, isRelativeUrl).build();
 
-        return makeGet(httpClient, httpContext, uri, new TypeToken<RestRootEntity<TaskClientSettings>>() {});
+        return makeGet(httpClient, httpContext, uri, TASK_CLIENT_SETTINGS_TYPE);
     }
 
     /**
@@ -268,10 +320,21 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
         tkiids = Args.notNull(tkiids, "Task ids (tkiids)");
         Args.check(!tkiids.isEmpty(), "At least one tkiid must be specified for available actions retrieving");
 
-        URI uri = new SafeUriBuilder(rootUri).addPath(ACTIONS)
-                .addParameter(TASK_ID_LIST, Joiner.on(DEFAULT_SEPARATOR).join(tkiids)).build();
+        List<String> taskIdLists = splitTaskIds(tkiids, maxTaskIdListLength);
+        if (taskIdLists.size() == 1) {
+            return getActions(taskIdLists.get(0));
+        }
+
+        Map<String, BulkResult<TaskActions>> results = new BulkTaskExecutor(actionsExecutor, ACTIONS_PARALLELISM)
+                .execute(taskIdLists,
+                new BulkTaskExecutor.TaskOperation<TaskActions>() {
 
-        return makeGet(httpClient, httpContext, uri, new TypeToken<RestRootEntity<TaskActions>>() {});
+                    @Override
+                    public RestRootEntity<TaskActions> execute(String taskIdList) {
+                        return getActions(taskIdList);
+                    }
+                });
+        return mergeActions(results.values());
     }
 
     /**
@@ -285,6 +348,76 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
         return getAvailableActions(Collections.singletonList(tkiid));
     }
 
+    private RestRootEntity<TaskActions> getActions(String taskIdList) {
+        URI uri = new SafeUriBuilder(rootUri).addPath(ACTIONS).addParameter(TASK_ID_LIST, taskIdList).build();
+
+        return makeGet(httpClient, httpContext, uri, TASK_ACTIONS_TYPE);
+    }
+
+    /**
+     * Daemon threads are created on demand up to {@link #ACTIONS_PARALLELISM} and terminate after
+     * {@link #ACTIONS_KEEP_ALIVE_SECONDS} of idle time, so the client doesn't need to be closed.
+     */
+    private static ExecutorService newActionsExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(ACTIONS_PARALLELISM, ACTIONS_PARALLELISM,
+                ACTIONS_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("bpm-task-actions-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Joins task ids into lists, which encoded length doesn't exceed given length, so the whole uri of every
+     * request, i.e. root uri, path and parameter name, doesn't exceed {@link #MAX_ACTIONS_URI_LENGTH} and is
+     * accepted by the server. Single id, which is longer, is requested alone. Duplicate ids are requested once.
+     */
+    private static List<String> splitTaskIds(List<String> tkiids, int maxLength) {
+        List<String> taskIdLists = Lists.newArrayList();
+        List<String> chunk = Lists.newArrayList();
+        int chunkLength = 0;
+        for (String tkiid : Sets.newLinkedHashSet(tkiids)) {
+            int length = TASK_ID_ESCAPER.escape(Args.notNull(tkiid, "Task id (tkiid)")).length();
+            if (!chunk.isEmpty() && chunkLength + ESCAPED_SEPARATOR_LENGTH + length > maxLength) {
+                taskIdLists.add(Joiner.on(DEFAULT_SEPARATOR).join(chunk));
+                chunk.clear();
+                chunkLength = 0;
+            }
+            chunkLength += chunk.isEmpty() ? length : ESCAPED_SEPARATOR_LENGTH + length;
+            chunk.add(tkiid);
+        }
+        taskIdLists.add(Joiner.on(DEFAULT_SEPARATOR).join(chunk));
+        return taskIdLists;
+    }
+
+    /**
+     * Merges actions of all chunks into the response of the first one.
+     * Unsuccessful response is returned as is, and failure of the call is rethrown.
+     */
+    private static RestRootEntity<TaskActions> mergeActions(Collection<BulkResult<TaskActions>> results) {
+        RestRootEntity<TaskActions> merged = null;
+        List<TaskAction> taskActions = Lists.newArrayList();
+        for (BulkResult<TaskActions> result : results) {
+            RestRootEntity<TaskActions> entity = result.getEntity();
+            if (entity == null) {
+                throw result.getException();
+            }
+            if (entity.isExceptional()) {
+                return entity;
+            }
+            if (merged == null) {
+                merged = entity;
+            }
+            TaskActions payload = entity.getPayload();
+            if (payload != null && payload.getTaskActions() != null) {
+                taskActions.addAll(payload.getTaskActions());
+            }
+        }
+        if (merged != null && merged.getPayload() != null) {
+            merged.getPayload().setTaskActions(taskActions);
+        }
+        return merged;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -299,7 +432,7 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
             uri.addParameter("fields", Joiner.on(DEFAULT_SEPARATOR).join(fields));
         }
 
-        return makeGet(httpClient, httpContext, uri.build(), new TypeToken<RestRootEntity<ServiceData>>() {});
+        return makeGet(httpClient, httpContext, uri.build(), SERVICE_DATA_TYPE);
     }
 
     /**
@@ -314,38 +447,97 @@ final class TaskClientImpl extends BaseClient implements TaskClient {
         Args.notEmpty(parameters.keySet(), "Parameters names");
         Args.notEmpty(parameters.values(), "Parameters values");
 
-        Gson gson = new GsonBuilder().setDateFormat(DATE_TIME_FORMAT).create();
-        String params = gson.toJson(parameters);
+        HttpEntity body = new JsonFormEntity(PARAMS, parameters, getSerializationEngine());
 
-        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_SET_DATA)
-                .addParameter(PARAMS, params).build();
+        URI uri = new SafeUriBuilder(rootUri).addPath(tkiid).addParameter(ACTION, ACTION_SET_DATA).build();
 
-        return makePost(httpClient, httpContext, uri, new TypeToken<RestRootEntity<ServiceData>>() {});
+        return makePost(httpClient, httpContext, uri, body, SERVICE_DATA_TYPE);
     }
 
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public Map<String, BulkResult<TaskDetails>> assignTasksToUser(@Nonnull Collection<String> tkiids,
+                                                                  final String userName, int parallelism) {
+        return new BulkTaskExecutor(parallelism).execute(tkiids, new BulkTaskExecutor.TaskOperation<TaskDetails>() {
+
+            @Override
+            public RestRootEntity<TaskDetails> execute(String tkiid) {
+                return assignTaskToUser(tkiid, userName);
+            }
+        });
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public Map<String, BulkResult<TaskDetails>> assignTasksToGroup(@Nonnull Collection<String> tkiids,
+                                                                   final String groupName, int parallelism) {
+        return new BulkTaskExecutor(parallelism).execute(tkiids, new BulkTaskExecutor.TaskOperation<TaskDetails>() {
+
+            @Override
+            public RestRootEntity<TaskDetails> execute(String tkiid) {
+                return assignTaskToGroup(tkiid, groupName);
+            }
+        });
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public Map<String, BulkResult<TaskDetails>> completeTasks(@Nonnull Collection<String> tkiids,
+                                                              final Map<String, Object> parameters, int parallelism) {
+        return new BulkTaskExecutor(parallelism).execute(tkiids, new BulkTaskExecutor.TaskOperation<TaskDetails>() {
+
+            @Override
+            public RestRootEntity<TaskDetails> execute(String tkiid) {
+                return completeTask(tkiid, parameters);
+            }
+        });
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public Map<String, BulkResult<RestEntity>> cancelTasks(@Nonnull Collection<String> tkiids, int parallelism) {
+        return new BulkTaskExecutor(parallelism).execute(tkiids, new BulkTaskExecutor.TaskOperation<RestEntity>() {
+
+            @Override
+            public RestRootEntity<RestEntity> execute(String tkiid) {
+                return cancelTask(tkiid);
+            }
+        });
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public Map<String, BulkResult<TaskDetails>> updateTasksPriority(@Nonnull Collection<String> tkiids,
+                                                                    @Nonnull TaskPriority priority, int parallelism) {
+        final TaskPriority taskPriority = Args.notNull(priority, "Task priority");
 
+        return new BulkTaskExecutor(parallelism).execute(tkiids, new BulkTaskExecutor.TaskOperation<TaskDetails>() {
 
+            @Override
+            public RestRootEntity<TaskDetails> execute(String tkiid) {
+                return updateTaskPriority(tkiid, taskPriority);
+            }
+        });
+    }
 
+}
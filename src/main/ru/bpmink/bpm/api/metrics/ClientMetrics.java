@@ -0,0 +1,31 @@
+package ru.bpmink.bpm.api.metrics;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receiver of measurements of the rest calls, made by {@link ru.bpmink.bpm.api.client.BpmClient}.
+ * Is set by {@link ru.bpmink.bpm.api.client.BpmClientConfig.Builder#setMetrics(ClientMetrics)}.
+ * <p>Implementation is called synchronously from the threads, which make the calls, so it must be thread-safe
+ * and fast. Exceptions, thrown by implementation, are logged and don't affect the call.</p>
+ */
+public interface ClientMetrics {
+
+    /**
+     * Doesn't record anything. Calls are not measured at all, if this instance is configured.
+     */
+    ClientMetrics NOOP = new ClientMetrics() {
+
+        @Override
+        public void requestCompleted(@Nonnull RequestMetrics requestMetrics) {
+            //Nothing to record.
+        }
+    };
+
+    /**
+     * Receives measurements of the completed (either successfully or not) rest call.
+     *
+     * @param requestMetrics measurements of the call.
+     */
+    void requestCompleted(@Nonnull RequestMetrics requestMetrics);
+
+}
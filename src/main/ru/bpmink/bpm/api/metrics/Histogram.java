@@ -0,0 +1,162 @@
+package ru.bpmink.bpm.api.metrics;
+
+import org.apache.http.util.Args;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative long values, i.e. durations in nanoseconds or sizes in bytes.
+ * Values are counted in log-linear buckets: every power of two is divided into 8 buckets, so percentiles
+ * are estimated with relative error below 12.5% and memory footprint doesn't depend on the number of values.
+ */
+@ThreadSafe
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the value. Negative values mean that the value is unknown, so they are ignored.
+     *
+     * @param value recorded value.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        buckets.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        updateMin(value);
+        updateMax(value);
+    }
+
+    /**
+     * @return number of recorded values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return sum of recorded values.
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * @return minimal recorded value, or 0 if histogram is empty.
+     */
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value;
+    }
+
+    /**
+     * @return maximal recorded value, or 0 if histogram is empty.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return arithmetic mean of recorded values, or 0 if histogram is empty.
+     */
+    public double getMean() {
+        long values = count.get();
+        return values == 0 ? 0 : (double) sum.get() / values;
+    }
+
+    /**
+     * Estimates the value at the given percentile.
+     *
+     * @param percentile percentile in range [0, 100], i.e. 99.9 for 99.9th percentile.
+     * @return upper bound of the bucket, which contains the percentile, or 0 if histogram is empty.
+     * @throws IllegalArgumentException if percentile is out of range.
+     */
+    public long getPercentile(double percentile) {
+        Args.check(percentile >= 0 && percentile <= 100, "Percentile must be in range [0, 100]");
+        long values = count.get();
+        if (values == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(values * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Removes all recorded values. Values, which are recorded concurrently with reset, may be partially lost.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            buckets.set(bucket, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram{"
+                + "count=" + getCount()
+                + ", min=" + getMin()
+                + ", mean=" + (long) getMean()
+                + ", p50=" + getPercentile(50)
+                + ", p99=" + getPercentile(99)
+                + ", max=" + getMax()
+                + '}';
+    }
+
+    private void updateMin(long value) {
+        long current = min.get();
+        while (value < current && !min.compareAndSet(current, value)) {
+            current = min.get();
+        }
+    }
+
+    private void updateMax(long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long lowerBound = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+}
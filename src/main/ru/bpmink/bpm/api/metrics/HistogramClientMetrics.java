@@ -0,0 +1,320 @@
+package ru.bpmink.bpm.api.metrics;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.util.concurrent.AtomicLongMap;
+
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.pool.PoolStats;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory implementation of {@link ru.bpmink.bpm.api.metrics.ClientMetrics}, which aggregates measurements
+ * into {@link ru.bpmink.bpm.api.metrics.Histogram}s per operation, i.e. per http method and endpoint template.
+ * Also tracks the peaks of leased connections and of requests waiting for the connection, which show
+ * connection pool starvation.
+ * <p>{@link #toString()} returns human-readable report with latency percentiles of every phase of the calls.</p>
+ */
+@ThreadSafe
+public final class HistogramClientMetrics implements ClientMetrics {
+
+    private final ConcurrentMap<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final AtomicReference<PoolStats> lastPoolStats = new AtomicReference<>();
+    private final AtomicInteger maxLeased = new AtomicInteger();
+    private final AtomicInteger maxPending = new AtomicInteger();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void requestCompleted(@Nonnull RequestMetrics requestMetrics) {
+        String operation = requestMetrics.getMethod() + " " + requestMetrics.getEndpointTemplate();
+        OperationStats stats = operations.get(operation);
+        if (stats == null) {
+            OperationStats created = new OperationStats();
+            stats = operations.putIfAbsent(operation, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        stats.record(requestMetrics);
+
+        PoolStats poolStats = requestMetrics.getPoolStats();
+        if (poolStats != null) {
+            lastPoolStats.set(poolStats);
+            updateMax(maxLeased, poolStats.getLeased());
+            updateMax(maxPending, poolStats.getPending());
+        }
+    }
+
+    /**
+     * @return statistics of all measured operations, sorted by operation name, which consists of http method
+     *     and endpoint template, i.e. {@literal GET /rest/bpm/wle/v1/task/{id}}.
+     */
+    public Map<String, OperationStats> getOperations() {
+        return ImmutableSortedMap.copyOf(operations);
+    }
+
+    /**
+     * @param method           http method, i.e. {@literal GET}.
+     * @param endpointTemplate endpoint template, see {@link RequestMetrics#getEndpointTemplate()}.
+     * @return statistics of the operation, or null if operation wasn't measured.
+     */
+    @Nullable
+    public OperationStats getOperation(String method, String endpointTemplate) {
+        return operations.get(method + " " + endpointTemplate);
+    }
+
+    /**
+     * @return connection pool statistics, taken by the last measured call, or null if no connection was leased.
+     */
+    @Nullable
+    public PoolStats getLastPoolStats() {
+        return lastPoolStats.get();
+    }
+
+    /**
+     * @return maximal number of leased connections, observed by measured calls.
+     */
+    public int getMaxLeased() {
+        return maxLeased.get();
+    }
+
+    /**
+     * @return maximal number of calls waiting for the connection, observed by measured calls.
+     */
+    public int getMaxPending() {
+        return maxPending.get();
+    }
+
+    /**
+     * @return ratio of decoded to received response bytes of all measured operations, i.e. {@literal 4.0} means
+     *     that compression saved 3/4 of the traffic, {@literal 1.0} if no response was measured.
+     */
+    public double getCompressionRatio() {
+        long received = 0;
+        long decoded = 0;
+        for (OperationStats stats : operations.values()) {
+            received += stats.receivedBytes.get();
+            decoded += stats.decodedBytes.get();
+        }
+        return ratio(decoded, received);
+    }
+
+    private static double ratio(long decoded, long received) {
+        return received > 0 ? (double) decoded / received : 1.0;
+    }
+
+    /**
+     * Removes all recorded measurements.
+     */
+    public void reset() {
+        operations.clear();
+        lastPoolStats.set(null);
+        maxLeased.set(0);
+        maxPending.set(0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("HistogramClientMetrics{pool: last=").append(lastPoolStats.get())
+                .append(", maxLeased=").append(maxLeased.get())
+                .append(", maxPending=").append(maxPending.get())
+                .append(String.format(", compressionRatio=%.2f", getCompressionRatio()));
+        for (Map.Entry<String, OperationStats> entry : getOperations().entrySet()) {
+            report.append(System.lineSeparator()).append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return report.append('}').toString();
+    }
+
+    private static void updateMax(AtomicInteger max, int value) {
+        int current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Aggregated measurements of the single operation.
+     */
+    @ThreadSafe
+    public static final class OperationStats {
+
+        private final Histogram requestBuild = new Histogram();
+        private final Histogram connectionLease = new Histogram();
+        private final Histogram server = new Histogram();
+        private final Histogram deserialization = new Histogram();
+        private final Histogram total = new Histogram();
+        private final Histogram requestSize = new Histogram();
+        private final Histogram responseSize = new Histogram();
+        private final AtomicLongMap<Integer> statusCodes = AtomicLongMap.create();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong poolTimeouts = new AtomicLong();
+        private final AtomicLong receivedBytes = new AtomicLong();
+        private final AtomicLong decodedBytes = new AtomicLong();
+        private final AtomicLong encodedResponses = new AtomicLong();
+
+        private OperationStats() {
+        }
+
+        private void record(RequestMetrics requestMetrics) {
+            requestBuild.record(requestMetrics.getRequestBuildNanos());
+            connectionLease.record(requestMetrics.getConnectionLeaseNanos());
+            server.record(requestMetrics.getServerNanos());
+            deserialization.record(requestMetrics.getDeserializationNanos());
+            total.record(requestMetrics.getTotalNanos());
+            requestSize.record(requestMetrics.getRequestBytes());
+            responseSize.record(requestMetrics.getResponseBytes());
+            if (requestMetrics.getResponseBytes() >= 0 && requestMetrics.getDecodedResponseBytes() >= 0) {
+                receivedBytes.addAndGet(requestMetrics.getResponseBytes());
+                decodedBytes.addAndGet(requestMetrics.getDecodedResponseBytes());
+            }
+            if (requestMetrics.getContentEncoding() != null) {
+                encodedResponses.incrementAndGet();
+            }
+            if (requestMetrics.getStatusCode() > 0) {
+                statusCodes.incrementAndGet(requestMetrics.getStatusCode());
+            }
+            if (requestMetrics.getFailure() != null) {
+                failures.incrementAndGet();
+                if (requestMetrics.getFailure() instanceof ConnectionPoolTimeoutException) {
+                    poolTimeouts.incrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * @return histogram of request build time in nanoseconds.
+         */
+        public Histogram getRequestBuild() {
+            return requestBuild;
+        }
+
+        /**
+         * @return histogram of connection lease time in nanoseconds.
+         */
+        public Histogram getConnectionLease() {
+            return connectionLease;
+        }
+
+        /**
+         * @return histogram of server time in nanoseconds.
+         */
+        public Histogram getServer() {
+            return server;
+        }
+
+        /**
+         * @return histogram of response deserialization time in nanoseconds.
+         */
+        public Histogram getDeserialization() {
+            return deserialization;
+        }
+
+        /**
+         * @return histogram of total call time in nanoseconds.
+         */
+        public Histogram getTotal() {
+            return total;
+        }
+
+        /**
+         * @return histogram of request sizes in bytes.
+         */
+        public Histogram getRequestSize() {
+            return requestSize;
+        }
+
+        /**
+         * @return histogram of received (compressed, if response is encoded) response body sizes in bytes.
+         */
+        public Histogram getResponseSize() {
+            return responseSize;
+        }
+
+        /**
+         * @return total number of response body bytes, received from the server.
+         */
+        public long getReceivedBytes() {
+            return receivedBytes.get();
+        }
+
+        /**
+         * @return total number of response body bytes after decompression.
+         */
+        public long getDecodedBytes() {
+            return decodedBytes.get();
+        }
+
+        /**
+         * @return number of compressed responses.
+         */
+        public long getEncodedResponses() {
+            return encodedResponses.get();
+        }
+
+        /**
+         * @return ratio of decoded to received response bytes, {@literal 1.0} if no response was measured.
+         */
+        public double getCompressionRatio() {
+            return ratio(decodedBytes.get(), receivedBytes.get());
+        }
+
+        /**
+         * @return number of responses by http status code.
+         */
+        public Map<Integer, Long> getStatusCodes() {
+            return ImmutableSortedMap.copyOf(statusCodes.asMap());
+        }
+
+        /**
+         * @return number of calls, failed with exception.
+         */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /**
+         * @return number of calls, failed because connection wasn't leased from the pool in time.
+         */
+        public long getPoolTimeouts() {
+            return poolTimeouts.get();
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + total.getCount()
+                    + ", statusCodes=" + getStatusCodes()
+                    + ", failures=" + failures.get()
+                    + ", poolTimeouts=" + poolTimeouts.get()
+                    + ", total=" + millis(total)
+                    + ", build=" + millis(requestBuild)
+                    + ", lease=" + millis(connectionLease)
+                    + ", server=" + millis(server)
+                    + ", deserialization=" + millis(deserialization)
+                    + ", requestBytes(p50/max)=" + requestSize.getPercentile(50) + "/" + requestSize.getMax()
+                    + ", responseBytes(p50/max)=" + responseSize.getPercentile(50) + "/" + responseSize.getMax()
+                    + ", encodedResponses=" + encodedResponses.get()
+                    + String.format(", compressionRatio=%.2f", getCompressionRatio());
+        }
+
+        private static String millis(Histogram histogram) {
+            return String.format("%.3f/%.3f/%.3fms(p50/p99/max)", toMillis(histogram.getPercentile(50)),
+                    toMillis(histogram.getPercentile(99)), toMillis(histogram.getMax()));
+        }
+
+        private static double toMillis(long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+}
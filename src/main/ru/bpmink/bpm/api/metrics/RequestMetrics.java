@@ -0,0 +1,327 @@
+package ru.bpmink.bpm.api.metrics;
+
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.Args;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Measurements of the single rest call, which are passed to
+ * {@link ru.bpmink.bpm.api.metrics.ClientMetrics#requestCompleted(RequestMetrics)}.
+ * <p>Request time is split into phases, so it's possible to find out where the time is spent:</p>
+ * <ul>
+ * <li>request build - from the start of the call till the request is passed to the http client;</li>
+ * <li>connection lease - waiting for the pooled connection, including connecting of the new one;</li>
+ * <li>server - sending of the request and waiting for the response headers;</li>
+ * <li>deserialization - reading of the response body and parsing it, which are done simultaneously.</li>
+ * </ul>
+ * <p>All durations are in nanoseconds. Negative duration or size means that the value is unknown, i.e. if call
+ * failed before the phase was started.</p>
+ */
+@Immutable
+public final class RequestMetrics {
+
+    private static final long UNKNOWN = -1;
+
+    private final String method;
+    private final String endpointTemplate;
+    private final int statusCode;
+    private final Throwable failure;
+    private final long requestBuildNanos;
+    private final long connectionLeaseNanos;
+    private final long serverNanos;
+    private final long deserializationNanos;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long decodedResponseBytes;
+    private final String contentEncoding;
+    private final PoolStats poolStats;
+
+    private RequestMetrics(Builder builder) {
+        this.method = builder.method;
+        this.endpointTemplate = builder.endpointTemplate;
+        this.statusCode = builder.statusCode;
+        this.failure = builder.failure;
+        this.requestBuildNanos = builder.requestBuildNanos;
+        this.connectionLeaseNanos = builder.connectionLeaseNanos;
+        this.serverNanos = builder.serverNanos;
+        this.deserializationNanos = builder.deserializationNanos;
+        this.requestBytes = builder.requestBytes;
+        this.responseBytes = builder.responseBytes;
+        this.decodedResponseBytes = builder.decodedResponseBytes;
+        this.contentEncoding = builder.contentEncoding;
+        this.poolStats = builder.poolStats;
+    }
+
+    /**
+     * Creates new {@link ru.bpmink.bpm.api.metrics.RequestMetrics.Builder}.
+     *
+     * @param method           http method, i.e. {@literal GET}.
+     * @param endpointTemplate endpoint path, where identifiers are replaced by {@literal {id}} placeholder.
+     * @return new {@link ru.bpmink.bpm.api.metrics.RequestMetrics.Builder} instance.
+     * @throws IllegalArgumentException if method or endpointTemplate is null.
+     */
+    public static Builder builder(@Nonnull String method, @Nonnull String endpointTemplate) {
+        return new Builder(method, endpointTemplate);
+    }
+
+    /**
+     * @return http method, i.e. {@literal GET}.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return endpoint path, where identifiers are replaced by {@literal {id}} placeholder,
+     *     i.e. {@literal /rest/bpm/wle/v1/task/{id}?action=assign}.
+     */
+    public String getEndpointTemplate() {
+        return endpointTemplate;
+    }
+
+    /**
+     * @return http status code of the response, or -1 if response wasn't received.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return exception, which caused the call to fail, or null if the response was successfully read.
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return time of request building in nanoseconds.
+     */
+    public long getRequestBuildNanos() {
+        return requestBuildNanos;
+    }
+
+    /**
+     * @return time of waiting for the connection in nanoseconds.
+     */
+    public long getConnectionLeaseNanos() {
+        return connectionLeaseNanos;
+    }
+
+    /**
+     * @return time from sending the request till receiving the response headers in nanoseconds.
+     */
+    public long getServerNanos() {
+        return serverNanos;
+    }
+
+    /**
+     * @return time of reading and parsing the response body in nanoseconds.
+     */
+    public long getDeserializationNanos() {
+        return deserializationNanos;
+    }
+
+    /**
+     * @return number of bytes sent to the server, including request line and headers.
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return number of response body bytes, received from the server, compressed ones if response is encoded.
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return number of response body bytes after decompression, equals to {@link #getResponseBytes()} if response
+     *     isn't encoded.
+     */
+    public long getDecodedResponseBytes() {
+        return decodedResponseBytes;
+    }
+
+    /**
+     * @return {@literal Content-Encoding} of the response, i.e. {@literal gzip}, or null if response isn't encoded.
+     */
+    @Nullable
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * @return statistics of the connection pool, taken when the connection was leased, or null if connection
+     *     wasn't leased.
+     */
+    @Nullable
+    public PoolStats getPoolStats() {
+        return poolStats;
+    }
+
+    /**
+     * @return total time of the call in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return Math.max(0, requestBuildNanos) + Math.max(0, connectionLeaseNanos) + Math.max(0, serverNanos)
+                + Math.max(0, deserializationNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics{"
+                + "method=" + method
+                + ", endpointTemplate=" + endpointTemplate
+                + ", statusCode=" + statusCode
+                + ", failure=" + failure
+                + ", requestBuildNanos=" + requestBuildNanos
+                + ", connectionLeaseNanos=" + connectionLeaseNanos
+                + ", serverNanos=" + serverNanos
+                + ", deserializationNanos=" + deserializationNanos
+                + ", requestBytes=" + requestBytes
+                + ", responseBytes=" + responseBytes
+                + ", decodedResponseBytes=" + decodedResponseBytes
+                + ", contentEncoding=" + contentEncoding
+                + ", poolStats=" + poolStats
+                + '}';
+    }
+
+    /**
+     * Builder for {@link ru.bpmink.bpm.api.metrics.RequestMetrics}. All measurements are unknown by default.
+     */
+    public static final class Builder {
+
+        private final String method;
+        private final String endpointTemplate;
+        private int statusCode = (int) UNKNOWN;
+        private Throwable failure;
+        private long requestBuildNanos = UNKNOWN;
+        private long connectionLeaseNanos = UNKNOWN;
+        private long serverNanos = UNKNOWN;
+        private long deserializationNanos = UNKNOWN;
+        private long requestBytes = UNKNOWN;
+        private long responseBytes = UNKNOWN;
+        private long decodedResponseBytes = UNKNOWN;
+        private String contentEncoding;
+        private PoolStats poolStats;
+
+        private Builder(String method, String endpointTemplate) {
+            this.method = Args.notNull(method, "Http method (method)");
+            this.endpointTemplate = Args.notNull(endpointTemplate, "Endpoint template (endpointTemplate)");
+        }
+
+        /**
+         * @param statusCode http status code of the response.
+         * @return this builder.
+         */
+        public Builder setStatusCode(int statusCode) {
+            this.statusCode = statusCode;
+            return this;
+        }
+
+        /**
+         * @param failure exception, which caused the call to fail.
+         * @return this builder.
+         */
+        public Builder setFailure(@Nullable Throwable failure) {
+            this.failure = failure;
+            return this;
+        }
+
+        /**
+         * @param requestBuildNanos time of request building in nanoseconds.
+         * @return this builder.
+         */
+        public Builder setRequestBuildNanos(long requestBuildNanos) {
+            this.requestBuildNanos = requestBuildNanos;
+            return this;
+        }
+
+        /**
+         * @param connectionLeaseNanos time of waiting for the connection in nanoseconds.
+         * @return this builder.
+         */
+        public Builder setConnectionLeaseNanos(long connectionLeaseNanos) {
+            this.connectionLeaseNanos = connectionLeaseNanos;
+            return this;
+        }
+
+        /**
+         * @param serverNanos time from sending the request till receiving the response headers in nanoseconds.
+         * @return this builder.
+         */
+        public Builder setServerNanos(long serverNanos) {
+            this.serverNanos = serverNanos;
+            return this;
+        }
+
+        /**
+         * @param deserializationNanos time of reading and parsing the response body in nanoseconds.
+         * @return this builder.
+         */
+        public Builder setDeserializationNanos(long deserializationNanos) {
+            this.deserializationNanos = deserializationNanos;
+            return this;
+        }
+
+        /**
+         * @param requestBytes number of bytes sent to the server.
+         * @return this builder.
+         */
+        public Builder setRequestBytes(long requestBytes) {
+            this.requestBytes = requestBytes;
+            return this;
+        }
+
+        /**
+         * @param responseBytes number of response body bytes, received from the server.
+         * @return this builder.
+         */
+        public Builder setResponseBytes(long responseBytes) {
+            this.responseBytes = responseBytes;
+            return this;
+        }
+
+        /**
+         * @param decodedResponseBytes number of response body bytes after decompression.
+         * @return this builder.
+         */
+        public Builder setDecodedResponseBytes(long decodedResponseBytes) {
+            this.decodedResponseBytes = decodedResponseBytes;
+            return this;
+        }
+
+        /**
+         * @param contentEncoding {@literal Content-Encoding} of the response, null if response isn't encoded.
+         * @return this builder.
+         */
+        public Builder setContentEncoding(@Nullable String contentEncoding) {
+            this.contentEncoding = contentEncoding;
+            return this;
+        }
+
+        /**
+         * @param poolStats statistics of the connection pool.
+         * @return this builder.
+         */
+        public Builder setPoolStats(@Nullable PoolStats poolStats) {
+            this.poolStats = poolStats;
+            return this;
+        }
+
+        /**
+         * Creates {@link ru.bpmink.bpm.api.metrics.RequestMetrics} instance.
+         *
+         * @return new {@link ru.bpmink.bpm.api.metrics.RequestMetrics}.
+         */
+        public RequestMetrics build() {
+            return new RequestMetrics(this);
+        }
+    }
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains metrics SPI of bpm api clients, which measures every rest call, and its in-memory implementation.
+ */
+package ru.bpmink.bpm.api.metrics;
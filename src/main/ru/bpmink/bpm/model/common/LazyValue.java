@@ -0,0 +1,115 @@
+package ru.bpmink.bpm.model.common;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+
+import org.apache.http.util.Args;
+
+import ru.bpmink.adapters.LazyValueAdapterFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+
+import static ru.bpmink.util.Constants.LAZY_STRING;
+
+/**
+ * Holder of the large response subtree, i.e. {@link ru.bpmink.bpm.model.process.ProcessDetails#getDiagram()}.
+ * The subtree is either deserialized eagerly, or kept as raw json fragment and deserialized on the first access,
+ * so it costs nothing if it's never accessed. See {@link ru.bpmink.adapters.LazyValueAdapterFactory}.
+ *
+ * @param <T> type of the value.
+ */
+@ThreadSafe
+@JsonAdapter(LazyValueAdapterFactory.class)
+public final class LazyValue<T> {
+
+    private final TypeAdapter<T> adapter;
+    private volatile String json;
+    private volatile T value;
+
+    private LazyValue(TypeAdapter<T> adapter, String json, T value) {
+        this.adapter = adapter;
+        this.json = json;
+        this.value = value;
+    }
+
+    /**
+     * Creates holder of already deserialized value.
+     *
+     * @param value value, can be null.
+     * @param <T>   type of the value.
+     * @return new {@link ru.bpmink.bpm.model.common.LazyValue} instance.
+     */
+    public static <T> LazyValue<T> of(@Nullable T value) {
+        return new LazyValue<>(null, null, value);
+    }
+
+    /**
+     * Creates holder of the raw json fragment, which is deserialized on the first access.
+     *
+     * @param json    raw json fragment.
+     * @param adapter {@link com.google.gson.TypeAdapter} of the value.
+     * @param <T>     type of the value.
+     * @return new {@link ru.bpmink.bpm.model.common.LazyValue} instance.
+     * @throws IllegalArgumentException if json or adapter is null.
+     */
+    public static <T> LazyValue<T> ofJson(@Nonnull String json, @Nonnull TypeAdapter<T> adapter) {
+        return new LazyValue<>(Args.notNull(adapter, "Type adapter (adapter)"), Args.notNull(json, "Json (json)"),
+                null);
+    }
+
+    /**
+     * Null-safe access to the value of given holder.
+     *
+     * @param lazyValue holder, can be null.
+     * @param <T>       type of the value.
+     * @return value of the holder, or null if holder is null.
+     * @throws com.google.gson.JsonParseException if raw json fragment can't be deserialized.
+     */
+    @Nullable
+    public static <T> T valueOf(@Nullable LazyValue<T> lazyValue) {
+        return lazyValue != null ? lazyValue.get() : null;
+    }
+
+    /**
+     * @return value, which is deserialized from raw json fragment on the first call.
+     * @throws com.google.gson.JsonParseException if raw json fragment can't be deserialized.
+     */
+    @Nullable
+    public T get() {
+        if (json != null) {
+            synchronized (this) {
+                if (json != null) {
+                    try {
+                        value = adapter.fromJson(json);
+                    } catch (IOException | RuntimeException e) {
+                        throw new JsonParseException("Can't deserialize lazy value: " + e.getMessage(), e);
+                    }
+                    json = null;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return raw json fragment, or null if value is already deserialized.
+     */
+    @Nullable
+    public String getRawJson() {
+        return json;
+    }
+
+    /**
+     * @return string representation of the value, or {@literal <lazy>} if it's not deserialized yet, so the value
+     *      is never deserialized just to be logged.
+     */
+    @Override
+    public String toString() {
+        return json != null ? LAZY_STRING : String.valueOf(value);
+    }
+
+}
@@ -1,21 +1,16 @@
 package ru.bpmink.bpm.model.common;
 
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
-
-import ru.bpmink.util.Styles;
+import ru.bpmink.util.Describer;
 
 public class RestEntity implements Describable {
 
     @Override
     public String describe() {
-        ToStringStyle stringStyle = Styles.SHORT_CLASS_WITH_LINE_BREAK;
-        return new ReflectionToStringBuilder(this, stringStyle).build();
+        return Describer.describe(this);
     }
 
     @Override
     public String describe(String linePrefix) {
-        ToStringStyle stringStyle = new Styles.NoClassNameWithLineBreakToStringStyle(linePrefix);
-        return new ReflectionToStringBuilder(this, stringStyle).build();
+        return Describer.describe(this, linePrefix);
     }
 }
@@ -5,6 +5,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.gson.annotations.SerializedName;
 
+import ru.bpmink.bpm.model.common.LazyValue;
 import ru.bpmink.bpm.model.common.RestEntity;
 import ru.bpmink.bpm.model.process.definition.Diagram;
 import ru.bpmink.bpm.model.task.TaskDetails;
@@ -27,11 +28,11 @@ public class ProcessDetails extends RestEntity {
 
     //Details of the action performed if applicable.
     @SerializedName("actionDetails")
-    private Object actionDetails;
+    private LazyValue<Object> actionDetails;
 
     //Business data defined for the instance, including name, alias, type and value.
     @SerializedName("businessData")
-    private Object businessData;
+    private LazyValue<Object> businessData;
 
     //Creation time of the process instance.
     @SerializedName("creationTime")
@@ -51,11 +52,11 @@ public class ProcessDetails extends RestEntity {
 
     //BPD diagram of this instance, including existing tokens and associated task for the instance.
     @SerializedName("diagram")
-    private Diagram diagram;
+    private LazyValue<Diagram> diagram;
 
     //List of documents on this instance.
     @SerializedName("documents")
-    private List<Object> documents;
+    private LazyValue<List<Object>> documents;
 
     //Execution state of the process instance.
     @SerializedName("executionState")
@@ -63,7 +64,7 @@ public class ProcessDetails extends RestEntity {
 
     //Execution tree associated with the process.
     @SerializedName("executionTree")
-    private Object executionTree;
+    private LazyValue<Object> executionTree;
 
     //Error message for failed instances.
     @SerializedName("instanceError")
@@ -115,11 +116,12 @@ public class ProcessDetails extends RestEntity {
 
     //List of tasks with the same data model.
     @SerializedName("tasks")
-    private List<TaskDetails> tasks;
+    private LazyValue<List<TaskDetails>> tasks;
 
     //Variable values in a json object.
     @SerializedName("variables")
-    private Map<String, Object> variables = Maps.newHashMap();
+    private LazyValue<Map<String, Object>> variables =
+            LazyValue.<Map<String, Object>>of(Maps.<String, Object>newHashMap());
 
     //State of the process instance.
     @SerializedName("state")
@@ -129,14 +131,14 @@ public class ProcessDetails extends RestEntity {
      * @return Details of the action performed if applicable.
      */
     public Object getActionDetails() {
-        return actionDetails;
+        return LazyValue.valueOf(actionDetails);
     }
 
     /**
      * @return Business data defined for the instance, including name, alias, type and value.
      */
     public Object getBusinessData() {
-        return businessData;
+        return LazyValue.valueOf(businessData);
     }
 
     /**
@@ -174,14 +176,14 @@ public class ProcessDetails extends RestEntity {
      * @return BPD diagram of this instance, including existing tokens and associated task for the instance.
      */
     public Diagram getDiagram() {
-        return MoreObjects.firstNonNull(diagram, EMPTY_DIAGRAM);
+        return MoreObjects.firstNonNull(LazyValue.valueOf(diagram), EMPTY_DIAGRAM);
     }
 
     /**
      * @return List of documents on this instance.
      */
     public List<Object> getDocuments() {
-        return MoreObjects.firstNonNull(documents, EMPTY_DOCUMENTS);
+        return MoreObjects.firstNonNull(LazyValue.valueOf(documents), EMPTY_DOCUMENTS);
     }
 
     /**
@@ -195,7 +197,7 @@ public class ProcessDetails extends RestEntity {
      * @return Execution tree associated with the process.
      */
     public Object getExecutionTree() {
-        return executionTree;
+        return LazyValue.valueOf(executionTree);
     }
 
     /**
@@ -292,14 +294,14 @@ public class ProcessDetails extends RestEntity {
      * @return List of tasks with the same data model.
      */
     public List<TaskDetails> getTasks() {
-        return MoreObjects.firstNonNull(tasks, EMPTY_TASKS);
+        return MoreObjects.firstNonNull(LazyValue.valueOf(tasks), EMPTY_TASKS);
     }
 
     /**
      * @return Variable values in a json object.
      */
     public Map<String, Object> getVariables() {
-        return MoreObjects.firstNonNull(variables, EMPTY_VARIABLES);
+        return MoreObjects.firstNonNull(LazyValue.valueOf(variables), EMPTY_VARIABLES);
     }
 
     /**
@@ -310,11 +312,11 @@ public class ProcessDetails extends RestEntity {
     }
 
     public void setActionDetails(Object actionDetails) {
-        this.actionDetails = actionDetails;
+        this.actionDetails = LazyValue.of(actionDetails);
     }
 
     public void setBusinessData(Object businessData) {
-        this.businessData = businessData;
+        this.businessData = LazyValue.of(businessData);
     }
 
     /**
@@ -337,11 +339,11 @@ public class ProcessDetails extends RestEntity {
     }
 
     public void setDiagram(Diagram diagram) {
-        this.diagram = diagram;
+        this.diagram = LazyValue.of(diagram);
     }
 
     public void setDocuments(List<Object> documents) {
-        this.documents = documents;
+        this.documents = LazyValue.of(documents);
     }
 
     public void setExecutionState(ExecutionState executionState) {
@@ -349,7 +351,7 @@ public class ProcessDetails extends RestEntity {
     }
 
     public void setExecutionTree(Object executionTree) {
-        this.executionTree = executionTree;
+        this.executionTree = LazyValue.of(executionTree);
     }
 
     public void setInstanceError(String instanceError) {
@@ -416,11 +418,11 @@ public class ProcessDetails extends RestEntity {
     }
 
     public void setTasks(List<TaskDetails> tasks) {
-        this.tasks = tasks;
+        this.tasks = LazyValue.of(tasks);
     }
 
     public void setVariables(Map<String, Object> variables) {
-        this.variables = variables;
+        this.variables = LazyValue.of(variables);
     }
 
     public void setState(ProcessState state) {
@@ -0,0 +1,99 @@
+package ru.bpmink.bpm.model.process;
+
+import com.google.gson.annotations.SerializedName;
+
+import ru.bpmink.bpm.model.common.RestEntity;
+
+import java.util.Date;
+
+/**
+ * Lightweight projection of {@link ru.bpmink.bpm.model.process.ProcessDetails}, which holds only state of the process
+ * instance. Subtrees of the response, which are not declared here (i.e. {@literal diagram}, {@literal tasks},
+ * {@literal variables}), are skipped by the json reader without being built.
+ */
+public class ProcessStatus extends RestEntity {
+
+    //ID of the process instance.
+    @SerializedName("piid")
+    private String piid;
+
+    //Name of the process instance.
+    @SerializedName("name")
+    private String name;
+
+    //State of the process instance.
+    @SerializedName("state")
+    private ProcessState state;
+
+    //Execution state of the process instance.
+    @SerializedName("executionState")
+    private ExecutionState executionState;
+
+    //Creation time of the process instance.
+    @SerializedName("creationTime")
+    private Date creationTime;
+
+    //Last time a property of the process instance changed.
+    @SerializedName("lastModificationTime")
+    private Date lastModificationTime;
+
+    //Error message for failed instances.
+    @SerializedName("instanceError")
+    private String instanceError;
+
+    /**
+     * @return ID of the process instance.
+     */
+    public String getPiid() {
+        return piid;
+    }
+
+    /**
+     * @return Name of the process instance.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return State of the process instance.
+     */
+    public ProcessState getState() {
+        return state;
+    }
+
+    /**
+     * @return Execution state of the process instance.
+     */
+    public ExecutionState getExecutionState() {
+        return executionState;
+    }
+
+    /**
+     * @return Creation time of the process instance.
+     */
+    public Date getCreationTime() {
+        if (creationTime != null) {
+            return new Date(creationTime.getTime());
+        }
+        return null;
+    }
+
+    /**
+     * @return Last time a property of the process instance changed.
+     */
+    public Date getLastModificationTime() {
+        if (lastModificationTime != null) {
+            return new Date(lastModificationTime.getTime());
+        }
+        return null;
+    }
+
+    /**
+     * @return Error message for failed instances.
+     */
+    public String getInstanceError() {
+        return instanceError;
+    }
+
+}
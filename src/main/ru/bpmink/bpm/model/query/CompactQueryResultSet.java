@@ -0,0 +1,848 @@
+package ru.bpmink.bpm.model.query;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+
+import org.apache.http.util.Args;
+
+import ru.bpmink.adapters.CompactQueryResultSetAdapterFactory;
+import ru.bpmink.bpm.model.common.RestEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Memory-compact alternative of {@link ru.bpmink.bpm.model.query.QueryResultSet} for large result sets.
+ * <p>Results are stored by columns, one per attribute which is present in the response, instead of one
+ * {@link ru.bpmink.bpm.model.query.QueryResult} per row. String values are dictionary-encoded, so repeated values,
+ * i.e. {@literal PROCESS_APP_ACRONYM} or {@literal SNAPSHOT_NAME}, are stored once per column, and every row holds
+ * only the code of the value. Timestamps are stored as epoch milliseconds, and numbers as primitive integers.
+ * Attributes, which are not requested, take no memory at all.</p>
+ * <p>Result set is built while the response is read, see
+ * {@link ru.bpmink.adapters.CompactQueryResultSetAdapterFactory}, and rows are decoded only when they're accessed.
+ * </p>
+ */
+@Immutable
+@JsonAdapter(CompactQueryResultSetAdapterFactory.class)
+public final class CompactQueryResultSet extends RestEntity {
+
+    //Attributes of the query result by their names in the query api.
+    private static final Map<String, Field> RESULT_FIELDS = getResultFields();
+    //Enum constants by their names in the query api, resolved on the first use of the enum.
+    private static final ClassValue<Map<String, Object>> ENUM_CONSTANTS = new ClassValue<Map<String, Object>>() {
+
+        @Override
+        protected Map<String, Object> computeValue(Class<?> type) {
+            return getEnumConstants(type);
+        }
+    };
+
+    private final String identifier;
+    private final String query;
+    private final EntityType entityType;
+    private final List<QueryAttribute> attributes;
+    private final Integer offset;
+    private final Integer size;
+    private final Integer requestedSize;
+    private final Integer totalCount;
+    private final Boolean countLimitExceeded;
+    private final Integer countLimit;
+    private final int rowCount;
+    private final Map<String, Column> columns;
+
+    private CompactQueryResultSet(Builder builder) {
+        this.identifier = builder.identifier;
+        this.query = builder.query;
+        this.entityType = builder.entityType;
+        this.attributes = builder.attributes != null
+                ? ImmutableList.copyOf(builder.attributes)
+                : ImmutableList.<QueryAttribute>of();
+        this.offset = builder.offset;
+        this.size = builder.size;
+        this.requestedSize = builder.requestedSize;
+        this.totalCount = builder.totalCount;
+        this.countLimitExceeded = builder.countLimitExceeded;
+        this.countLimit = builder.countLimit;
+        this.rowCount = builder.rowCount;
+        ImmutableMap.Builder<String, Column> frozen = ImmutableMap.builder();
+        for (Map.Entry<String, ColumnBuilder> column : builder.columns.entrySet()) {
+            frozen.put(column.getKey(), column.getValue().build(rowCount));
+        }
+        this.columns = frozen.build();
+    }
+
+    /**
+     * @return new {@link ru.bpmink.bpm.model.query.CompactQueryResultSet.Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param attribute name of the attribute, i.e. {@literal TKIID}.
+     * @return type of the values of the attribute: {@link java.lang.String}, {@link java.lang.Integer},
+     *      {@link java.util.Date} or one of enums, as it's declared by {@link ru.bpmink.bpm.model.query.QueryResult},
+     *      or {@link java.lang.String} for unknown attributes.
+     */
+    public static Class<?> getAttributeType(@Nullable String attribute) {
+        Field field = attribute != null ? RESULT_FIELDS.get(attribute) : null;
+        return field != null ? field.getType() : String.class;
+    }
+
+    /**
+     * @return Query results identifier.
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * @return Name of the query.
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * @return Entity type of the query.
+     */
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * @return List of attributes in query results.
+     */
+    public List<QueryAttribute> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return The offset of the first query result.
+     */
+    public Integer getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The number of query results.
+     */
+    public Integer getSize() {
+        return size;
+    }
+
+    /**
+     * @return The requested size of the query results.
+     */
+    public Integer getRequestedSize() {
+        return requestedSize;
+    }
+
+    /**
+     * @return The total number of query results.
+     */
+    public Integer getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return Indicates whether the count limit was exceeded.
+     */
+    public Boolean isCountLimitExceeded() {
+        return countLimitExceeded;
+    }
+
+    /**
+     * @return The count limit.
+     */
+    public Integer getCountLimit() {
+        return countLimit;
+    }
+
+    /**
+     * @return number of rows in the result set.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return names of the attributes, which have value in any row, in the order of their first appearance.
+     */
+    public Set<String> getColumnNames() {
+        return columns.keySet();
+    }
+
+    /**
+     * @param index index of the row, starting from zero.
+     * @return view of the row.
+     * @throws IndexOutOfBoundsException if index is out of row range.
+     */
+    public Row getRow(int index) {
+        if (index < 0 || index >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + index + " is out of range [0, " + rowCount + ")");
+        }
+        return new Row(this, index);
+    }
+
+    /**
+     * @return list view of the rows.
+     */
+    public List<Row> getRows() {
+        return new AbstractList<Row>() {
+
+            @Override
+            public Row get(int index) {
+                return getRow(index);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    /**
+     * Returns list view of the rows as {@link ru.bpmink.bpm.model.query.QueryResult}s. Every access to the element
+     * of the list decodes new {@link ru.bpmink.bpm.model.query.QueryResult} instance, so it's better to iterate
+     * the list once, or to copy it, if results are accessed many times.
+     *
+     * @return list view of decoded query results.
+     */
+    public List<QueryResult> getQueryResults() {
+        return new AbstractList<QueryResult>() {
+
+            @Override
+            public QueryResult get(int index) {
+                return getRow(index).toQueryResult();
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "CompactQueryResultSet{"
+                + "query=" + query
+                + ", identifier=" + identifier
+                + ", rows=" + rowCount
+                + ", columns=" + columns.values()
+                + '}';
+    }
+
+    private static Map<String, Field> getResultFields() {
+        ImmutableMap.Builder<String, Field> fields = ImmutableMap.builder();
+        for (Field field : QueryResult.class.getDeclaredFields()) {
+            SerializedName name = field.getAnnotation(SerializedName.class);
+            if (name != null && !Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                fields.put(name.value(), field);
+            }
+        }
+        return fields.build();
+    }
+
+    /**
+     * Maps constants by their {@link com.google.gson.annotations.SerializedName} names and alternates, or by their
+     * own names, if they're not annotated, as Gson does.
+     */
+    private static Map<String, Object> getEnumConstants(Class<?> type) {
+        Map<String, Object> constants = Maps.newHashMap();
+        for (Object constant : type.getEnumConstants()) {
+            String name = ((Enum<?>) constant).name();
+            SerializedName serializedName;
+            try {
+                serializedName = type.getField(name).getAnnotation(SerializedName.class);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException("Can't find constant " + name + " of " + type, e);
+            }
+            if (serializedName == null) {
+                constants.put(name, constant);
+                continue;
+            }
+            constants.put(serializedName.value(), constant);
+            for (String alternate : serializedName.alternate()) {
+                constants.put(alternate, constant);
+            }
+        }
+        return ImmutableMap.copyOf(constants);
+    }
+
+    private static Object decode(Class<?> type, Object value) {
+        if (value instanceof String && type.isEnum()) {
+            //Unknown constant is deserialized as null, as Gson does.
+            return ENUM_CONSTANTS.get(type).get(value);
+        }
+        if (value instanceof Long && Date.class.equals(type)) {
+            return new Date((Long) value);
+        }
+        return value;
+    }
+
+    /**
+     * View of the single row of {@link ru.bpmink.bpm.model.query.CompactQueryResultSet}. Values are decoded on every
+     * access.
+     */
+    @Immutable
+    public static final class Row {
+
+        private final CompactQueryResultSet resultSet;
+        private final int index;
+
+        private Row(CompactQueryResultSet resultSet, int index) {
+            this.resultSet = resultSet;
+            this.index = index;
+        }
+
+        /**
+         * @return index of the row, starting from zero.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @param attribute name of the attribute, i.e. {@literal TKIID}.
+         * @return true if attribute has no value in this row.
+         */
+        public boolean isNull(@Nonnull String attribute) {
+            Column column = resultSet.columns.get(attribute);
+            return column == null || column.isNull(index);
+        }
+
+        /**
+         * Returns value of the attribute, decoded to the type, which is declared by
+         * {@link ru.bpmink.bpm.model.query.QueryResult}, see {@link #getAttributeType(String)}.
+         *
+         * @param attribute name of the attribute, i.e. {@literal TKIID}.
+         * @return decoded value, or null if attribute has no value in this row.
+         */
+        @Nullable
+        public Object get(@Nonnull String attribute) {
+            Column column = resultSet.columns.get(attribute);
+            return column != null ? decode(getAttributeType(attribute), column.get(index)) : null;
+        }
+
+        /**
+         * @param attribute name of the string attribute, i.e. {@literal NAME}.
+         * @return raw value of the attribute, or null if attribute has no value in this row.
+         */
+        @Nullable
+        public String getString(@Nonnull String attribute) {
+            Column column = resultSet.columns.get(attribute);
+            Object value = column != null ? column.get(index) : null;
+            return value != null ? value.toString() : null;
+        }
+
+        /**
+         * @param attribute name of the numeric attribute, i.e. {@literal PRIORITY}.
+         * @return value of the attribute, or null if attribute has no value in this row.
+         * @throws ClassCastException if attribute is not numeric.
+         */
+        @Nullable
+        public Integer getInteger(@Nonnull String attribute) {
+            Column column = resultSet.columns.get(attribute);
+            return column != null ? (Integer) column.get(index) : null;
+        }
+
+        /**
+         * Returns value of the timestamp attribute without creating {@link java.util.Date} instance.
+         *
+         * @param attribute    name of the timestamp attribute, i.e. {@literal DUE}.
+         * @param defaultValue value, which is returned if attribute has no value in this row.
+         * @return value of the attribute in milliseconds since epoch.
+         * @throws ClassCastException if attribute is not a timestamp.
+         */
+        public long getTimestamp(@Nonnull String attribute, long defaultValue) {
+            Column column = resultSet.columns.get(attribute);
+            if (column == null || column.isNull(index)) {
+                return defaultValue;
+            }
+            return ((TimestampColumn) column).values[index];
+        }
+
+        /**
+         * @param attribute name of the timestamp attribute, i.e. {@literal DUE}.
+         * @return value of the attribute, or null if attribute has no value in this row.
+         * @throws ClassCastException if attribute is not a timestamp.
+         */
+        @Nullable
+        public Date getDate(@Nonnull String attribute) {
+            Column column = resultSet.columns.get(attribute);
+            Long value = column != null ? (Long) column.get(index) : null;
+            return value != null ? new Date(value) : null;
+        }
+
+        /**
+         * Decodes the row in to new {@link ru.bpmink.bpm.model.query.QueryResult} instance. Attributes, which are not
+         * declared by {@link ru.bpmink.bpm.model.query.QueryResult}, are ignored.
+         *
+         * @return decoded query result.
+         */
+        public QueryResult toQueryResult() {
+            QueryResult result = new QueryResult();
+            for (Map.Entry<String, Column> column : resultSet.columns.entrySet()) {
+                Field field = RESULT_FIELDS.get(column.getKey());
+                Object value = column.getValue().get(index);
+                if (field == null || value == null) {
+                    continue;
+                }
+                try {
+                    field.set(result, decode(field.getType(), value));
+                } catch (IllegalAccessException | IllegalArgumentException e) {
+                    throw new IllegalStateException("Can't decode attribute " + column.getKey() + " of row " + index,
+                            e);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            Map<String, Object> values = Maps.newLinkedHashMap();
+            for (String attribute : resultSet.columns.keySet()) {
+                values.put(attribute, get(attribute));
+            }
+            return "Row{index=" + index + ", values=" + values + '}';
+        }
+    }
+
+    /**
+     * Builder of {@link ru.bpmink.bpm.model.query.CompactQueryResultSet}, which receives values row by row, while the
+     * response is read. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Map<String, ColumnBuilder> columns = Maps.newLinkedHashMap();
+        private String identifier;
+        private String query;
+        private EntityType entityType;
+        private List<QueryAttribute> attributes;
+        private Integer offset;
+        private Integer size;
+        private Integer requestedSize;
+        private Integer totalCount;
+        private Boolean countLimitExceeded;
+        private Integer countLimit;
+        private int rowCount;
+
+        private Builder() {
+        }
+
+        /**
+         * @param identifier Query results identifier.
+         * @return this builder.
+         */
+        public Builder setIdentifier(String identifier) {
+            this.identifier = identifier;
+            return this;
+        }
+
+        /**
+         * @param query Name of the query.
+         * @return this builder.
+         */
+        public Builder setQuery(String query) {
+            this.query = query;
+            return this;
+        }
+
+        /**
+         * @param entityType Entity type of the query.
+         * @return this builder.
+         */
+        public Builder setEntityType(EntityType entityType) {
+            this.entityType = entityType;
+            return this;
+        }
+
+        /**
+         * @param attributes List of attributes in query results.
+         * @return this builder.
+         */
+        public Builder setAttributes(List<QueryAttribute> attributes) {
+            this.attributes = attributes;
+            return this;
+        }
+
+        /**
+         * @param offset The offset of the first query result.
+         * @return this builder.
+         */
+        public Builder setOffset(Integer offset) {
+            this.offset = offset;
+            return this;
+        }
+
+        /**
+         * @param size The number of query results.
+         * @return this builder.
+         */
+        public Builder setSize(Integer size) {
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * @param requestedSize The requested size of the query results.
+         * @return this builder.
+         */
+        public Builder setRequestedSize(Integer requestedSize) {
+            this.requestedSize = requestedSize;
+            return this;
+        }
+
+        /**
+         * @param totalCount The total number of query results.
+         * @return this builder.
+         */
+        public Builder setTotalCount(Integer totalCount) {
+            this.totalCount = totalCount;
+            return this;
+        }
+
+        /**
+         * @param countLimitExceeded Indicates whether the count limit was exceeded.
+         * @return this builder.
+         */
+        public Builder setCountLimitExceeded(Boolean countLimitExceeded) {
+            this.countLimitExceeded = countLimitExceeded;
+            return this;
+        }
+
+        /**
+         * @param countLimit The count limit.
+         * @return this builder.
+         */
+        public Builder setCountLimit(Integer countLimit) {
+            this.countLimit = countLimit;
+            return this;
+        }
+
+        /**
+         * Starts next row, so the values are put in to it.
+         *
+         * @return this builder.
+         */
+        public Builder nextRow() {
+            rowCount++;
+            return this;
+        }
+
+        /**
+         * @param attribute name of the attribute.
+         * @param value     value of the attribute in the current row.
+         * @return this builder.
+         * @throws IllegalArgumentException if attribute or value is null.
+         * @throws IllegalStateException    if row is not started, or attribute has values of other type.
+         */
+        public Builder putString(@Nonnull String attribute, @Nonnull String value) {
+            ((StringColumnBuilder) column(attribute, StringColumnBuilder.class)).put(currentRow(),
+                    Args.notNull(value, "Value (value)"));
+            return this;
+        }
+
+        /**
+         * @param attribute name of the attribute.
+         * @param value     value of the attribute in the current row.
+         * @return this builder.
+         * @throws IllegalArgumentException if attribute is null.
+         * @throws IllegalStateException    if row is not started, or attribute has values of other type.
+         */
+        public Builder putInteger(@Nonnull String attribute, int value) {
+            ((IntegerColumnBuilder) column(attribute, IntegerColumnBuilder.class)).put(currentRow(), value);
+            return this;
+        }
+
+        /**
+         * @param attribute name of the attribute.
+         * @param value     value of the attribute in the current row, in milliseconds since epoch.
+         * @return this builder.
+         * @throws IllegalArgumentException if attribute is null.
+         * @throws IllegalStateException    if row is not started, or attribute has values of other type.
+         */
+        public Builder putTimestamp(@Nonnull String attribute, long value) {
+            ((TimestampColumnBuilder) column(attribute, TimestampColumnBuilder.class)).put(currentRow(), value);
+            return this;
+        }
+
+        /**
+         * @return new {@link ru.bpmink.bpm.model.query.CompactQueryResultSet} instance.
+         */
+        public CompactQueryResultSet build() {
+            return new CompactQueryResultSet(this);
+        }
+
+        private int currentRow() {
+            if (rowCount == 0) {
+                throw new IllegalStateException("Row is not started");
+            }
+            return rowCount - 1;
+        }
+
+        private ColumnBuilder column(String attribute, Class<? extends ColumnBuilder> type) {
+            ColumnBuilder column = columns.get(Args.notNull(attribute, "Attribute (attribute)"));
+            if (column == null) {
+                if (type == StringColumnBuilder.class) {
+                    column = new StringColumnBuilder();
+                } else if (type == IntegerColumnBuilder.class) {
+                    column = new IntegerColumnBuilder();
+                } else {
+                    column = new TimestampColumnBuilder();
+                }
+                columns.put(attribute, column);
+            } else if (column.getClass() != type) {
+                throw new IllegalStateException("Attribute " + attribute + " has values of other type");
+            }
+            return column;
+        }
+    }
+
+    private abstract static class Column {
+
+        abstract boolean isNull(int row);
+
+        abstract Object get(int row);
+    }
+
+    private abstract static class ColumnBuilder {
+
+        //Initial capacity of the column.
+        static final int INITIAL_CAPACITY = 16;
+
+        abstract Column build(int rowCount);
+
+        static int grow(int length, int row) {
+            return Math.max(length * 2, row + 1);
+        }
+    }
+
+    /**
+     * Dictionary-encoded column: codes of the rows are indexes of the values in the dictionary, shifted by one, so
+     * zero code stands for null.
+     */
+    private static final class StringColumn extends Column {
+
+        private final String[] dictionary;
+        private final int[] codes;
+
+        private StringColumn(String[] dictionary, int[] codes) {
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return codes[row] == 0;
+        }
+
+        @Override
+        Object get(int row) {
+            int code = codes[row];
+            return code != 0 ? dictionary[code - 1] : null;
+        }
+
+        @Override
+        public String toString() {
+            return "string[" + dictionary.length + " distinct]";
+        }
+    }
+
+    /**
+     * Column of mostly unique values, i.e. ids, for which dictionary is not worth it.
+     */
+    private static final class PlainStringColumn extends Column {
+
+        private final String[] values;
+
+        private PlainStringColumn(String[] values) {
+            this.values = values;
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return values[row] == null;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        public String toString() {
+            return "string";
+        }
+    }
+
+    private static final class StringColumnBuilder extends ColumnBuilder {
+
+        //Dictionary is dropped, if the column has more distinct values than this part of the rows.
+        private static final int MIN_ROWS_TO_CHECK = 1024;
+        private static final double MAX_DISTINCT_PART = 0.5;
+
+        private Map<String, Integer> dictionary = Maps.newHashMap();
+        private int[] codes = new int[INITIAL_CAPACITY];
+        private String[] values;
+
+        private void put(int row, String value) {
+            if (values != null) {
+                if (row >= values.length) {
+                    values = Arrays.copyOf(values, grow(values.length, row));
+                }
+                values[row] = value;
+                return;
+            }
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                code = dictionary.size() + 1;
+                dictionary.put(value, code);
+            }
+            if (row >= codes.length) {
+                codes = Arrays.copyOf(codes, grow(codes.length, row));
+                if (row >= MIN_ROWS_TO_CHECK && dictionary.size() > row * MAX_DISTINCT_PART) {
+                    values = decode(row + 1);
+                    codes = null;
+                    dictionary = null;
+                    put(row, value);
+                    return;
+                }
+            }
+            codes[row] = code;
+        }
+
+        private String[] decode(int capacity) {
+            String[] dictionaryValues = getDictionaryValues();
+            String[] decoded = new String[Math.max(capacity, codes.length)];
+            for (int row = 0; row < capacity - 1; row++) {
+                decoded[row] = codes[row] != 0 ? dictionaryValues[codes[row] - 1] : null;
+            }
+            return decoded;
+        }
+
+        private String[] getDictionaryValues() {
+            String[] dictionaryValues = new String[dictionary.size()];
+            for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+                dictionaryValues[entry.getValue() - 1] = entry.getKey();
+            }
+            return dictionaryValues;
+        }
+
+        @Override
+        Column build(int rowCount) {
+            if (values != null) {
+                return new PlainStringColumn(Arrays.copyOf(values, rowCount));
+            }
+            return new StringColumn(getDictionaryValues(), Arrays.copyOf(codes, rowCount));
+        }
+    }
+
+    private static final class IntegerColumn extends Column {
+
+        private final int[] values;
+        private final BitSet present;
+
+        private IntegerColumn(int[] values, BitSet present) {
+            this.values = values;
+            this.present = present;
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return !present.get(row);
+        }
+
+        @Override
+        Object get(int row) {
+            return present.get(row) ? values[row] : null;
+        }
+
+        @Override
+        public String toString() {
+            return "integer";
+        }
+    }
+
+    private static final class IntegerColumnBuilder extends ColumnBuilder {
+
+        private final BitSet present = new BitSet();
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        private void put(int row, int value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = value;
+            present.set(row);
+        }
+
+        @Override
+        Column build(int rowCount) {
+            return new IntegerColumn(Arrays.copyOf(values, rowCount), present);
+        }
+    }
+
+    private static final class TimestampColumn extends Column {
+
+        private final long[] values;
+        private final BitSet present;
+
+        private TimestampColumn(long[] values, BitSet present) {
+            this.values = values;
+            this.present = present;
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return !present.get(row);
+        }
+
+        @Override
+        Object get(int row) {
+            return present.get(row) ? values[row] : null;
+        }
+
+        @Override
+        public String toString() {
+            return "timestamp";
+        }
+    }
+
+    private static final class TimestampColumnBuilder extends ColumnBuilder {
+
+        private final BitSet present = new BitSet();
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        private void put(int row, long value) {
+            if (row >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length, row));
+            }
+            values[row] = value;
+            present.set(row);
+        }
+
+        @Override
+        Column build(int rowCount) {
+            return new TimestampColumn(Arrays.copyOf(values, rowCount), present);
+        }
+    }
+
+}
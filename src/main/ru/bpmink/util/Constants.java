@@ -45,6 +45,7 @@ public class Constants {
     public static final String PATH_SEPARATOR = System.getProperty("path.separator");
 
     public static final String NULL_STRING = "null";
+    public static final String LAZY_STRING = "<lazy>";
     public static final String EMPTY_STRING = "";
     public static final String SPACE = " ";
     public static final String TAB = "\t";
@@ -0,0 +1,192 @@
+package ru.bpmink.util;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.builder.ToStringExclude;
+
+import ru.bpmink.bpm.model.common.Describable;
+import ru.bpmink.bpm.model.common.LazyValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static ru.bpmink.util.Constants.CLOSE_BRACKET;
+import static ru.bpmink.util.Constants.EQUALS;
+import static ru.bpmink.util.Constants.LAZY_STRING;
+import static ru.bpmink.util.Constants.LINE_SEPARATOR;
+import static ru.bpmink.util.Constants.NULL_STRING;
+import static ru.bpmink.util.Constants.OPEN_BRACKET;
+import static ru.bpmink.util.Constants.SPACE;
+import static ru.bpmink.util.Constants.TAB;
+
+/**
+ * Formats {@link ru.bpmink.bpm.model.common.Describable} entities in the same layout, as
+ * {@link org.apache.commons.lang3.builder.ReflectionToStringBuilder} with {@link ru.bpmink.util.Styles} does,
+ * but fields of every class are resolved and made accessible only once, and the text is built in the single
+ * unsynchronized {@link java.lang.StringBuilder}, so describing large entities, i.e. process details, doesn't
+ * scan class hierarchy and doesn't allocate intermediate builders for every field.
+ */
+public final class Describer {
+
+    private static final String FIELD_NAME_VALUE_SEPARATOR = SPACE + EQUALS + SPACE;
+    private static final String SHORT_CLASS_CONTENT_START = SPACE + OPEN_BRACKET;
+    private static final String SHORT_CLASS_FIELD_SEPARATOR = LINE_SEPARATOR + TAB;
+    private static final String SHORT_CLASS_CONTENT_END = LINE_SEPARATOR + CLOSE_BRACKET;
+    private static final char NEW_LINE = '\n';
+    private static final char SPACE_CHAR = ' ';
+
+    //Described fields and short name of the class, resolved on the first use of the class.
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<Layout>() {
+
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return new Layout(type);
+        }
+    };
+
+    private Describer() {
+    }
+
+    /**
+     * Describes entity in the layout of {@link ru.bpmink.util.Styles#SHORT_CLASS_WITH_LINE_BREAK}: short class name
+     * and every field on its own line.
+     *
+     * @param entity entity to describe.
+     * @return description of the entity.
+     */
+    public static String describe(Object entity) {
+        Layout layout = LAYOUTS.get(entity.getClass());
+        StringBuilder builder = new StringBuilder(layout.expectedLength);
+        builder.append(LINE_SEPARATOR).append(layout.shortClassName).append(SHORT_CLASS_CONTENT_START)
+                .append(SHORT_CLASS_FIELD_SEPARATOR);
+        appendFields(builder, entity, layout, SHORT_CLASS_FIELD_SEPARATOR);
+        builder.append(SHORT_CLASS_CONTENT_END);
+        layout.expectedLength = builder.length();
+        return builder.toString();
+    }
+
+    /**
+     * Describes entity in the layout of {@link ru.bpmink.util.Styles.NoClassNameWithLineBreakToStringStyle}:
+     * every field on its own line, which starts with given prefix. Used for nested entities.
+     *
+     * @param entity     entity to describe.
+     * @param linePrefix prefix of every line.
+     * @return description of the entity.
+     * @throws IllegalArgumentException if linePrefix is null.
+     */
+    public static String describe(Object entity, String linePrefix) {
+        if (linePrefix == null) {
+            throw new IllegalArgumentException("LinePrefix can't be null!");
+        }
+        Layout layout = LAYOUTS.get(entity.getClass());
+        StringBuilder builder = new StringBuilder(layout.expectedLength);
+        builder.append(OPEN_BRACKET).append(linePrefix);
+        appendFields(builder, entity, layout, linePrefix);
+        builder.append(linePrefix, 0, linePrefix.length() - 1).append(CLOSE_BRACKET);
+        return builder.toString();
+    }
+
+    /**
+     * Appends every field followed by the separator, and then removes trailing separator, as
+     * {@link org.apache.commons.lang3.builder.ToStringStyle} does.
+     */
+    private static void appendFields(StringBuilder builder, Object entity, Layout layout, String separator) {
+        String nestedPrefix = separator + TAB;
+        for (Field field : layout.fields) {
+            builder.append(field.getName()).append(FIELD_NAME_VALUE_SEPARATOR);
+            appendValue(builder, getValue(field, entity), nestedPrefix);
+            builder.append(separator);
+        }
+        int length = builder.length() - separator.length();
+        if (length >= 0 && builder.indexOf(separator, length) == length) {
+            builder.setLength(length);
+        }
+    }
+
+    /**
+     * Value of {@link ru.bpmink.bpm.model.common.LazyValue} is described as the value itself, if it's already
+     * deserialized, or as {@link ru.bpmink.util.Constants#LAZY_STRING} otherwise, so describing never forces
+     * deserialization.
+     */
+    private static void appendValue(StringBuilder builder, Object field, String nestedPrefix) {
+        Object value = field;
+        if (field instanceof LazyValue) {
+            LazyValue<?> lazyValue = (LazyValue<?>) field;
+            if (lazyValue.getRawJson() != null) {
+                builder.append(LAZY_STRING);
+                return;
+            }
+            value = lazyValue.get();
+        }
+        if (value == null) {
+            builder.append(NULL_STRING);
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            if (collection.isEmpty() || !(collection.iterator().next() instanceof Describable)) {
+                builder.append(collection);
+            } else {
+                for (Object element : collection) {
+                    appendDetail(builder, element, nestedPrefix);
+                }
+            }
+        } else if (value.getClass().isArray()) {
+            builder.append(ArrayUtils.toString(value));
+        } else {
+            appendDetail(builder, value, nestedPrefix);
+        }
+    }
+
+    private static void appendDetail(StringBuilder builder, Object value, String nestedPrefix) {
+        if (value instanceof Describable) {
+            builder.append(((Describable) value).describe(nestedPrefix));
+        } else if (value instanceof String) {
+            builder.append(((String) value).replace(NEW_LINE, SPACE_CHAR));
+        } else {
+            builder.append(value);
+        }
+    }
+
+    private static Object getValue(Field field, Object entity) {
+        try {
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't read field " + field.getName() + " of " + entity.getClass(), e);
+        }
+    }
+
+    /**
+     * Fields of the class, which are described, in the order of
+     * {@link org.apache.commons.lang3.builder.ReflectionToStringBuilder}: declared fields of the class first, and then
+     * fields of its super classes. Static, transient, synthetic and excluded fields are skipped.
+     */
+    private static final class Layout {
+
+        private final String shortClassName;
+        private final Field[] fields;
+        //Length of the last description, so the builder is allocated at once. Races are harmless.
+        private int expectedLength = 256;
+
+        private Layout(Class<?> type) {
+            this.shortClassName = ClassUtils.getShortClassName(type);
+            List<Field> described = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class;
+                    current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (field.getName().indexOf(ClassUtils.INNER_CLASS_SEPARATOR_CHAR) >= 0
+                            || Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+                            || field.isAnnotationPresent(ToStringExclude.class)) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    described.add(field);
+                }
+            }
+            this.fields = described.toArray(new Field[described.size()]);
+        }
+    }
+
+}
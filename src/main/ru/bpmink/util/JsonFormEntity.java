@@ -0,0 +1,153 @@
+package ru.bpmink.util;
+
+import org.apache.http.Consts;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.Args;
+
+import ru.bpmink.adapters.SerializationEngine;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * {@literal application/x-www-form-urlencoded} request entity with single parameter, which value is a json
+ * representation of given object.
+ * <p>Json is written by {@link ru.bpmink.adapters.SerializationEngine} directly in to the request body and
+ * url-encoded on the fly, so neither json string, nor it's encoded copy are materialized. Entity is repeatable,
+ * so the request may be retried (i.e. after authentication challenge).</p>
+ */
+@Immutable
+public final class JsonFormEntity extends AbstractHttpEntity {
+
+    private static final ContentType FORM_URL_ENCODED = ContentType.APPLICATION_FORM_URLENCODED
+            .withCharset(Consts.UTF_8);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(Consts.ASCII);
+
+    private final String name;
+    private final Object value;
+    private final SerializationEngine serializationEngine;
+
+    /**
+     * Creates entity with single form parameter.
+     *
+     * @param name                form parameter name, must contain only unreserved characters.
+     * @param value               object, which json representation is a form parameter value.
+     * @param serializationEngine engine, which serializes value in to json.
+     * @throws IllegalArgumentException if name or serializationEngine is null.
+     */
+    public JsonFormEntity(@Nonnull String name, @Nullable Object value,
+                          @Nonnull SerializationEngine serializationEngine) {
+        this.name = Args.notNull(name, "Parameter name (name)");
+        this.value = value;
+        this.serializationEngine = Args.notNull(serializationEngine, "Serialization engine (serializationEngine)");
+        setContentType(FORM_URL_ENCODED.toString());
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        //Unknown until serialized, so request is sent with chunked transfer encoding.
+        return -1;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        writeTo(buffer);
+        return new ByteArrayInputStream(buffer.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        Args.notNull(outStream, "Output stream");
+        outStream.write(name.getBytes(Consts.ASCII));
+        outStream.write('=');
+        Writer writer = new OutputStreamWriter(new FormEncodingOutputStream(outStream), Consts.UTF_8);
+        serializationEngine.toJson(value, writer);
+        //Don't close writer, because it closes the target stream, which is owned by the connection.
+        writer.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Encodes bytes of {@literal UTF-8} text according to {@literal application/x-www-form-urlencoded} rules.
+     */
+    private static class FormEncodingOutputStream extends FilterOutputStream {
+
+        private static final int BUFFER_SIZE = 4096;
+        private static final int ESCAPED_LENGTH = 3;
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+
+        FormEncodingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int source) throws IOException {
+            if (position > BUFFER_SIZE - ESCAPED_LENGTH) {
+                flushBuffer();
+            }
+            int octet = source & 0xFF;
+            if (isUnreserved(octet)) {
+                buffer[position++] = (byte) octet;
+            } else if (octet == ' ') {
+                buffer[position++] = '+';
+            } else {
+                buffer[position++] = '%';
+                buffer[position++] = HEX[octet >> 4];
+                buffer[position++] = HEX[octet & 0x0F];
+            }
+        }
+
+        @Override
+        public void write(@Nonnull byte[] source, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                write(source[i]);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        private void flushBuffer() throws IOException {
+            if (position > 0) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+
+        private static boolean isUnreserved(int octet) {
+            return octet >= 'a' && octet <= 'z' || octet >= 'A' && octet <= 'Z' || octet >= '0' && octet <= '9'
+                    || octet == '-' || octet == '_' || octet == '.' || octet == '*';
+        }
+    }
+
+}
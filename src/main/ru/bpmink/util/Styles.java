@@ -3,11 +3,13 @@ package ru.bpmink.util;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 import ru.bpmink.bpm.model.common.Describable;
+import ru.bpmink.bpm.model.common.LazyValue;
 
 import java.util.Collection;
 
 import static ru.bpmink.util.Constants.CLOSE_BRACKET;
 import static ru.bpmink.util.Constants.EQUALS;
+import static ru.bpmink.util.Constants.LAZY_STRING;
 import static ru.bpmink.util.Constants.LINE_SEPARATOR;
 import static ru.bpmink.util.Constants.NEW_LINE;
 import static ru.bpmink.util.Constants.NULL_STRING;
@@ -22,6 +24,21 @@ public class Styles {
 
     private static class DescribableStyle extends ToStringStyle {
 
+        /**
+         * Appends value of {@link ru.bpmink.bpm.model.common.LazyValue} instead of the holder, if it's already
+         * deserialized, or {@link ru.bpmink.util.Constants#LAZY_STRING} otherwise.
+         */
+        @Override
+        public void append(StringBuffer buffer, String fieldName, Object value, Boolean fullDetail) {
+            if (value instanceof LazyValue) {
+                LazyValue<?> lazyValue = (LazyValue<?>) value;
+                super.append(buffer, fieldName, lazyValue.getRawJson() != null ? LAZY_STRING : lazyValue.get(),
+                        fullDetail);
+            } else {
+                super.append(buffer, fieldName, value, fullDetail);
+            }
+        }
+
         @Override
         @SuppressWarnings("unchecked")
         protected void appendDetail(StringBuffer buffer, String fieldName, Collection<?> coll) {
@@ -0,0 +1,69 @@
+package ru.bpmink.bpm.api.cache;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import ru.bpmink.bpm.model.common.RestRootEntity;
+
+public class LruResponseStoreTest {
+
+    @Test
+    public void testLeastRecentlyUsedResponseIsEvicted() {
+        LruResponseStore store = new LruResponseStore(2);
+        CachedResponse first = response("\"1\"");
+        CachedResponse second = response("\"2\"");
+        store.put("first", first);
+        store.put("second", second);
+
+        //Access makes the first response the most recently used one.
+        Assert.assertSame(store.get("first"), first);
+        store.put("third", response("\"3\""));
+
+        Assert.assertEquals(store.size(), 2);
+        Assert.assertSame(store.get("first"), first);
+        Assert.assertNull(store.get("second"));
+        Assert.assertNotNull(store.get("third"));
+    }
+
+    @Test
+    public void testResponseIsReplacedAndRemoved() {
+        LruResponseStore store = new LruResponseStore(2);
+        CachedResponse replacement = response("\"2\"");
+        store.put("key", response("\"1\""));
+        store.put("key", replacement);
+
+        Assert.assertEquals(store.size(), 1);
+        Assert.assertSame(store.get("key"), replacement);
+
+        store.remove("key");
+        store.remove("unknown");
+        Assert.assertNull(store.get("key"));
+        Assert.assertEquals(store.size(), 0);
+    }
+
+    @Test
+    public void testClear() {
+        LruResponseStore store = new LruResponseStore(10);
+        store.put("first", response("\"1\""));
+        store.put("second", response("\"2\""));
+        store.clear();
+
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertNull(store.get("first"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNotPositiveMaxSizeIsRejected() {
+        new LruResponseStore(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testResponseWithoutValidatorsIsRejected() {
+        new CachedResponse(null, null, new RestRootEntity<>());
+    }
+
+    private static CachedResponse response(String entityTag) {
+        return new CachedResponse(entityTag, null, new RestRootEntity<>());
+    }
+
+}
@@ -0,0 +1,340 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.cache.LruResponseStore;
+import ru.bpmink.bpm.api.client.BpmClientConfig;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BaseClientTest {
+
+    private static final TypeToken<RestRootEntity<QueryResultSet>> QUERY_RESULT_SET_TYPE =
+            new TypeToken<RestRootEntity<QueryResultSet>>() {};
+    private static final String QUERY = "IBM.DEFAULTALLTASKSLIST_75";
+    private static final int RESULT_COUNT = 2000;
+    private static final int WAITERS = 4;
+    //Time, in which waiting callers send their requests.
+    private static final long WAIT_PERIOD = 300;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile CountDownLatch requestReceived;
+    private volatile CountDownLatch responseReleased;
+    private volatile String responseBody;
+    private volatile int responseStatus;
+    private volatile String entityTag;
+    private volatile String lastModified;
+    private volatile Headers requestHeaders;
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void startServer() throws IOException {
+        requests.set(0);
+        requestReceived = new CountDownLatch(1);
+        responseReleased = new CountDownLatch(0);
+        responseBody = createResultSet();
+        responseStatus = HttpURLConnection.HTTP_OK;
+        entityTag = null;
+        lastModified = null;
+        requestHeaders = null;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", new StubHandler());
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        httpClient = HttpClients.createDefault();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterMethod
+    public void stopServer() throws IOException {
+        responseReleased.countDown();
+        executor.shutdownNow();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testCoalescedCallersGetSnapshotOfResponse() throws Exception {
+        final StubClient client = new StubClient(BpmClientConfig.custom().setRequestCoalescing(true).build());
+        responseReleased = new CountDownLatch(1);
+        Future<QueryResultSet> leader = executor.submit(new Callable<QueryResultSet>() {
+
+            @Override
+            public QueryResultSet call() {
+                QueryResultSet resultSet = client.get().getPayload();
+                //Caller owns returned entity, and modifies it while waiters copy the response.
+                resultSet.setQuery("Modified");
+                resultSet.getQueryResults().clear();
+                return resultSet;
+            }
+        });
+        Assert.assertTrue(requestReceived.await(5, TimeUnit.SECONDS), "Request is not sent");
+        List<Future<QueryResultSet>> waiters = submitWaiters(client);
+        Thread.sleep(WAIT_PERIOD);
+        responseReleased.countDown();
+
+        Assert.assertTrue(leader.get().getQueryResults().isEmpty());
+        for (Future<QueryResultSet> waiter : waiters) {
+            QueryResultSet resultSet = waiter.get();
+            Assert.assertEquals(resultSet.getQuery(), QUERY);
+            Assert.assertEquals(resultSet.getQueryResults().size(), RESULT_COUNT);
+        }
+        Assert.assertEquals(requests.get(), 1);
+    }
+
+    @Test
+    public void testCoalescedCallersGetFailureAsIs() throws Exception {
+        final StubClient client = new StubClient(BpmClientConfig.custom().setRequestCoalescing(true).build());
+        responseReleased = new CountDownLatch(1);
+        responseBody = "{\"status\":\"200\",\"data\":\"Not a result set\"}";
+        Future<QueryResultSet> leader = executor.submit(new Callable<QueryResultSet>() {
+
+            @Override
+            public QueryResultSet call() {
+                return client.get().getPayload();
+            }
+        });
+        Assert.assertTrue(requestReceived.await(5, TimeUnit.SECONDS), "Request is not sent");
+        List<Future<QueryResultSet>> waiters = submitWaiters(client);
+        Thread.sleep(WAIT_PERIOD);
+        responseReleased.countDown();
+
+        Throwable failure = getFailure(leader);
+        Assert.assertTrue(failure instanceof JsonSyntaxException, String.valueOf(failure));
+        for (Future<QueryResultSet> waiter : waiters) {
+            Assert.assertSame(getFailure(waiter), failure);
+        }
+        Assert.assertEquals(requests.get(), 1);
+    }
+
+    @Test
+    public void testRequestsAreNotCoalescedByDefault() throws Exception {
+        StubClient client = new StubClient(BpmClientConfig.DEFAULT);
+
+        Assert.assertEquals(client.get().getPayload().getQueryResults().size(), RESULT_COUNT);
+        Assert.assertEquals(client.get().getPayload().getQueryResults().size(), RESULT_COUNT);
+        Assert.assertEquals(requests.get(), 2);
+    }
+
+    @Test
+    public void testNotModifiedResponseIsServedFromCache() {
+        LruResponseStore responseStore = new LruResponseStore(10);
+        StubClient client = new StubClient(BpmClientConfig.custom().setResponseStore(responseStore).build());
+        entityTag = "\"v1\"";
+
+        QueryResultSet first = client.get().getPayload();
+        Assert.assertNull(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH));
+        Assert.assertEquals(responseStore.size(), 1);
+        //Caller owns returned entity, so its modification doesn't affect the cached one.
+        first.getQueryResults().clear();
+
+        RestRootEntity<QueryResultSet> second = client.get();
+        Assert.assertEquals(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH), entityTag);
+        Assert.assertEquals(second.getStatus(), "200");
+        Assert.assertEquals(second.getPayload().getQuery(), QUERY);
+        Assert.assertEquals(second.getPayload().getQueryResults().size(), RESULT_COUNT);
+        Assert.assertNotSame(client.get().getPayload(), second.getPayload());
+        Assert.assertEquals(requests.get(), 3);
+    }
+
+    @Test
+    public void testLastModifiedIsSentBack() {
+        LruResponseStore responseStore = new LruResponseStore(10);
+        StubClient client = new StubClient(BpmClientConfig.custom().setResponseStore(responseStore).build());
+        lastModified = "Sat, 17 Oct 2026 10:00:00 GMT";
+
+        client.get();
+        QueryResultSet cached = client.get().getPayload();
+
+        Assert.assertEquals(requestHeaders.getFirst(HttpHeaders.IF_MODIFIED_SINCE), lastModified);
+        Assert.assertNull(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH));
+        Assert.assertEquals(cached.getQueryResults().size(), RESULT_COUNT);
+    }
+
+    @Test
+    public void testModifiedResponseReplacesCached() {
+        LruResponseStore responseStore = new LruResponseStore(10);
+        StubClient client = new StubClient(BpmClientConfig.custom().setResponseStore(responseStore).build());
+        entityTag = "\"v1\"";
+        client.get();
+
+        entityTag = "\"v2\"";
+        responseBody = responseBody.replace(QUERY, "Modified");
+        Assert.assertEquals(client.get().getPayload().getQuery(), "Modified");
+        Assert.assertEquals(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH), "\"v1\"");
+
+        Assert.assertEquals(client.get().getPayload().getQuery(), "Modified");
+        Assert.assertEquals(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH), entityTag);
+        Assert.assertEquals(responseStore.size(), 1);
+    }
+
+    @Test
+    public void testResponseWithoutValidatorsIsRemoved() {
+        LruResponseStore responseStore = new LruResponseStore(10);
+        StubClient client = new StubClient(BpmClientConfig.custom().setResponseStore(responseStore).build());
+        entityTag = "\"v1\"";
+        client.get();
+
+        entityTag = null;
+        client.get();
+        Assert.assertEquals(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH), "\"v1\"");
+        Assert.assertEquals(responseStore.size(), 0);
+
+        client.get();
+        Assert.assertNull(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    public void testUnsuccessfulResponseIsNotCached() {
+        LruResponseStore responseStore = new LruResponseStore(10);
+        StubClient client = new StubClient(BpmClientConfig.custom().setResponseStore(responseStore).build());
+        entityTag = "\"v1\"";
+        responseStatus = HttpURLConnection.HTTP_NOT_FOUND;
+        responseBody = "{\"status\":\"error\"}";
+
+        Assert.assertEquals(client.get().getStatus(), "404");
+        Assert.assertEquals(responseStore.size(), 0);
+    }
+
+    private List<Future<QueryResultSet>> submitWaiters(final StubClient client) {
+        List<Future<QueryResultSet>> waiters = Lists.newArrayList();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(executor.submit(new Callable<QueryResultSet>() {
+
+                @Override
+                public QueryResultSet call() {
+                    return client.get().getPayload();
+                }
+            }));
+        }
+        return waiters;
+    }
+
+    private static Throwable getFailure(Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("Call is expected to fail");
+    }
+
+    private static String createResultSet() {
+        JsonArray items = new JsonArray();
+        for (int i = 0; i < RESULT_COUNT; i++) {
+            JsonObject item = new JsonObject();
+            item.addProperty("TKIID", String.valueOf(i));
+            item.addProperty("NAME", "Step " + i);
+            items.add(item);
+        }
+        JsonObject resultSet = new JsonObject();
+        resultSet.addProperty("query", QUERY);
+        resultSet.add("items", items);
+        JsonObject root = new JsonObject();
+        root.addProperty("status", "200");
+        root.add("data", resultSet);
+        return root.toString();
+    }
+
+    /**
+     * Client, which gets the query result set from the stub server.
+     */
+    private final class StubClient extends BaseClient {
+
+        private final URI uri = URI.create("http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + "/rest/bpm/wle/v1/tasks/query/" + QUERY);
+
+        private StubClient(BpmClientConfig config) {
+            super(new SerializationEngine(), config);
+        }
+
+        private RestRootEntity<QueryResultSet> get() {
+            return makeGet((HttpClient) httpClient, null, uri, QUERY_RESULT_SET_TYPE);
+        }
+    }
+
+    /**
+     * Counts requests, and answers them with {@link #responseBody} and validators, once {@link #responseReleased}
+     * is opened. Request with current {@link #entityTag} or {@link #lastModified} is answered by
+     * {@literal 304 - Not Modified}.
+     */
+    private final class StubHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            requestHeaders = exchange.getRequestHeaders();
+            requestReceived.countDown();
+            try {
+                responseReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String currentEntityTag = entityTag;
+            String currentLastModified = lastModified;
+            if (currentEntityTag != null) {
+                exchange.getResponseHeaders().set(HttpHeaders.ETAG, currentEntityTag);
+            }
+            if (currentLastModified != null) {
+                exchange.getResponseHeaders().set(HttpHeaders.LAST_MODIFIED, currentLastModified);
+            }
+            if (isNotModified(currentEntityTag, currentLastModified)) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(body);
+            }
+        }
+
+        private boolean isNotModified(String currentEntityTag, String currentLastModified) {
+            if (currentEntityTag != null) {
+                return currentEntityTag.equals(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH));
+            }
+            return currentLastModified != null
+                    && currentLastModified.equals(requestHeaders.getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.model.other.exposed.Item;
+import ru.bpmink.bpm.model.other.exposed.ItemType;
+
+import java.util.List;
+
+public class ExposedItemsCatalogTest {
+
+    private static final TypeToken<List<Item>> ITEMS_TYPE = new TypeToken<List<Item>>() {};
+
+    private final SerializationEngine serializationEngine = new SerializationEngine();
+    private List<Item> items;
+    private ExposedItemsCatalog catalog;
+
+    @BeforeClass
+    public void createCatalog() {
+        JsonArray source = new JsonArray();
+        source.add(item("0", "process", "Hiring Request", "25.hiring", "HR"));
+        source.add(item("1", "service", "Hiring Request", "1.hiring", "HR"));
+        source.add(item("2", "process", "HIRING request", "25.hiring-copy", "HR2"));
+        source.add(item("3", "scoreboard", "Dashboard", "1.dashboard", "HR"));
+        source.add(item("4", "service", "Approve", "1.approve", null));
+        source.add(item("5", "report", null, null, "HR2"));
+        source.add(item("6", "process", "Approve", "25.hiring", "HR"));
+        items = serializationEngine.fromJson(source.toString(), ITEMS_TYPE);
+        catalog = new ExposedItemsCatalog(items);
+    }
+
+    @Test
+    public void testNameIsComparedCaseInsensitive() {
+        Assert.assertEquals(catalog.getByName(null, "hiring REQUEST").getId(), "0");
+        Assert.assertEquals(catalog.getByName(ItemType.PROCESS, "HIRING REQUEST").getId(), "0");
+    }
+
+    @Test
+    public void testNameIsLookedUpWithinType() {
+        Assert.assertEquals(catalog.getByName(ItemType.SERVICE, "Hiring Request").getId(), "1");
+        Assert.assertEquals(catalog.getByName(ItemType.SERVICE, "Approve").getId(), "4");
+        Assert.assertEquals(catalog.getByName(ItemType.PROCESS, "Approve").getId(), "6");
+        Assert.assertEquals(catalog.getByName(null, "Approve").getId(), "4");
+        Assert.assertNull(catalog.getByName(ItemType.PROCESS, "Unknown"));
+    }
+
+    @Test
+    public void testOnlyProcessesAndServicesAreSearchableByName() {
+        Assert.assertNull(catalog.getByName(null, "Dashboard"));
+        Assert.assertNull(catalog.getByName(ItemType.SCOREBOARD, "Dashboard"));
+        Assert.assertNull(catalog.getByName(ItemType.REPORT, "Dashboard"));
+    }
+
+    @Test
+    public void testFirstItemWinsAsLinearSearchDoes() {
+        for (String name : new String[] {"Hiring Request", "Approve", "Dashboard", "Unknown"}) {
+            for (ItemType type : new ItemType[] {null, ItemType.PROCESS, ItemType.SERVICE}) {
+                Assert.assertSame(catalog.getByName(type, name), findByName(type, name), type + " " + name);
+            }
+        }
+        Assert.assertEquals(catalog.getById("25.hiring").getId(), "0");
+    }
+
+    @Test
+    public void testItemsAreIndexedByIdAndAcronym() {
+        Assert.assertEquals(catalog.getById("1.dashboard").getId(), "3");
+        Assert.assertNull(catalog.getById("unknown"));
+        Assert.assertEquals(getIds(catalog.getByProcessAppAcronym("HR")), Lists.newArrayList("0", "1", "3", "6"));
+        Assert.assertEquals(getIds(catalog.getByProcessAppAcronym("HR2")), Lists.newArrayList("2", "5"));
+        Assert.assertTrue(catalog.getByProcessAppAcronym("unknown").isEmpty());
+    }
+
+    @Test
+    public void testItemsAreSnapshot() {
+        List<Item> source = Lists.newArrayList(items);
+        ExposedItemsCatalog snapshot = new ExposedItemsCatalog(source);
+        source.clear();
+
+        Assert.assertEquals(snapshot.getItems(), items);
+        Assert.assertEquals(snapshot.getByName(null, "Approve").getId(), "4");
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testItemsAreImmutable() {
+        catalog.getItems().clear();
+    }
+
+    /**
+     * Linear search, which is replaced by the catalog.
+     */
+    private Item findByName(ItemType type, String name) {
+        for (Item item : items) {
+            boolean searchable = item.getItemType() == ItemType.PROCESS || item.getItemType() == ItemType.SERVICE;
+            if (searchable && (type == null || type == item.getItemType()) && name.equalsIgnoreCase(item.getName())) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private static JsonObject item(String id, String type, String name, String itemId, String acronym) {
+        JsonObject item = new JsonObject();
+        item.addProperty("ID", id);
+        item.addProperty("type", type);
+        item.addProperty("display", name);
+        item.addProperty("itemID", itemId);
+        item.addProperty("processAppAcronym", acronym);
+        return item;
+    }
+
+    private static List<String> getIds(List<Item> items) {
+        List<String> ids = Lists.newArrayList();
+        for (Item item : items) {
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,179 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.base.Strings;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.model.process.ExecutionState;
+import ru.bpmink.bpm.model.process.ProcessState;
+import ru.bpmink.bpm.model.query.QueryResult;
+import ru.bpmink.bpm.model.task.TaskKind;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+public class MappedQueryResultStoreTest {
+
+    private static final TypeToken<QueryResult> QUERY_RESULT_TYPE = new TypeToken<QueryResult>() {};
+    private static final String IDENTIFIER = "TKIID";
+    //Small segments, so rows and index slots of the test are spread over many segments.
+    private static final int DATA_SEGMENT_SIZE = 256;
+    private static final int OFFSETS_SEGMENT_SIZE = 64;
+    private static final int INDEX_SEGMENT_SIZE = 128;
+    //Number of results, which is enough to rebuild the index of minimal capacity several times.
+    private static final int RESULT_COUNT = 3000;
+
+    private final SerializationEngine serializationEngine = new SerializationEngine();
+    private File directory;
+    private MappedQueryResultStore store;
+
+    @BeforeMethod
+    public void createStore() throws IOException {
+        directory = Files.createTempDirectory("bpm-query-store-test").toFile();
+        store = new MappedQueryResultStore(directory, IDENTIFIER, DATA_SEGMENT_SIZE, OFFSETS_SEGMENT_SIZE,
+                INDEX_SEGMENT_SIZE);
+    }
+
+    @AfterMethod
+    public void closeStore() {
+        store.close();
+        //Temporary files are deleted by the store, or on exit, if they're still mapped on some platforms.
+        if (!directory.delete()) {
+            directory.deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testResultsAreDecodedAsStored() {
+        QueryResult full = createResult(0);
+        QueryResult sparse = parse(new JsonObject());
+        JsonObject unicode = new JsonObject();
+        //Cyrillic name, followed by the character out of the basic multilingual plane.
+        unicode.addProperty("NAME", "\u0417\u0430\u0434\u0430\u0447\u0430 \uD83D\uDE00");
+
+        store.accept(0, full);
+        store.accept(1, sparse);
+        store.accept(2, parse(unicode));
+
+        Assert.assertEquals(store.size(), 3);
+        Assert.assertEquals(toJson(store.get(0)), toJson(full));
+        Assert.assertEquals(toJson(store.get(1)), toJson(sparse));
+        Assert.assertEquals(store.get(2).getName(), unicode.get("NAME").getAsString());
+        Assert.assertEquals(store.get(0).getState(), ProcessState.STATE_RUNNING);
+        Assert.assertEquals(store.get(0).getStatus(), ExecutionState.ACTIVE);
+        Assert.assertEquals(store.get(0).getKind(), TaskKind.KIND_PARTICIPATING);
+    }
+
+    @Test
+    public void testRowsAreReadAcrossSegmentBoundaries() {
+        for (int i = 0; i < RESULT_COUNT; i++) {
+            store.accept(i, createResult(i));
+        }
+
+        List<QueryResult> results = store.getResults();
+        Assert.assertEquals(results.size(), RESULT_COUNT);
+        for (int i = 0; i < RESULT_COUNT; i++) {
+            Assert.assertEquals(toJson(results.get(i)), toJson(createResult(i)), "Result " + i + " is corrupted");
+        }
+    }
+
+    @Test
+    public void testResultsAreFoundWhileIndexIsRebuilt() {
+        int indexed = 0;
+        for (int count : new int[] {1, 10, 600, 1100, RESULT_COUNT}) {
+            for (; indexed < count; indexed++) {
+                store.accept(indexed, createResult(indexed));
+            }
+            for (int i = 0; i < count; i++) {
+                Assert.assertEquals(store.indexOf(getId(i)), i, "Result " + i + " of " + count + " is not found");
+            }
+            Assert.assertEquals(store.indexOf(getId(count)), -1);
+        }
+        Assert.assertEquals(store.getById(getId(42)).getTkiid(), getId(42));
+        Assert.assertNull(store.getById(null));
+    }
+
+    @Test
+    public void testFirstOfDuplicatesIsFound() {
+        store.accept(0, createResult(7));
+        store.accept(1, parse(new JsonObject()));
+        store.accept(2, createResult(7));
+
+        Assert.assertEquals(store.indexOf(getId(7)), 0);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testRowLargerThanSegmentIsRejected() {
+        JsonObject large = new JsonObject();
+        large.addProperty("NAME", Strings.repeat("x", DATA_SEGMENT_SIZE));
+        store.accept(0, parse(large));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testGapInOffsetsIsRejected() {
+        store.accept(0, createResult(0));
+        store.accept(2, createResult(2));
+    }
+
+    @Test
+    public void testTemporaryFilesAreDeletedOnClose() {
+        store.accept(0, createResult(0));
+        Assert.assertEquals(directory.list().length, 3);
+
+        store.close();
+        Assert.assertEquals(directory.list().length, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNotStringIdentifierIsRejected() {
+        new MappedQueryResultStore(directory, "PRIORITY");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownIdentifierIsRejected() {
+        new MappedQueryResultStore(directory, "UNKNOWN");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testClosedStoreIsNotUsable() {
+        store.accept(0, createResult(0));
+        store.close();
+        store.get(0);
+    }
+
+    private static String getId(int index) {
+        return "2078." + index;
+    }
+
+    private QueryResult createResult(int index) {
+        JsonObject result = new JsonObject();
+        result.addProperty(IDENTIFIER, getId(index));
+        result.addProperty("NAME", "Step " + index % 20);
+        result.addProperty("PRIORITY", index % 50);
+        result.addProperty("DUE", "2026-10-17T10:00:00Z");
+        result.addProperty("PI_STATE", "STATE_RUNNING");
+        result.addProperty("PI_STATUS", "Active");
+        result.addProperty("KIND", "KIND_PARTICIPATING");
+        if (index % 3 == 0) {
+            result.addProperty("OWNER", "user" + index);
+        }
+        return parse(result);
+    }
+
+    private QueryResult parse(JsonObject result) {
+        return serializationEngine.fromJson(result.toString(), QUERY_RESULT_TYPE);
+    }
+
+    private String toJson(QueryResult result) {
+        return serializationEngine.toJson(result);
+    }
+
+}
@@ -0,0 +1,143 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.QueryClient;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.query.QueryResult;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.List;
+
+public class PagingQueryIteratorTest {
+
+    private static final TypeToken<QueryResultSet> QUERY_RESULT_SET_TYPE = new TypeToken<QueryResultSet>() {};
+    private static final int PAGE_SIZE = 10;
+    //Index of the offset and size parameters of the paged QueryClient#queryEntities method.
+    private static final int OFFSET_PARAMETER = 5;
+    private static final int SIZE_PARAMETER = 6;
+
+    private final SerializationEngine serializationEngine = new SerializationEngine();
+
+    @Test
+    public void testShortPagesAreFollowedWhenTotalCountIsKnown() {
+        List<String> ids = readAll(new StubQueryServer(25, 4, false));
+
+        Assert.assertEquals(ids.size(), 25);
+        Assert.assertEquals(ids.get(0), "0");
+        Assert.assertEquals(ids.get(24), "24");
+    }
+
+    @Test
+    public void testFullPagesAreNotFollowedBeyondTotalCount() {
+        StubQueryServer server = new StubQueryServer(20, PAGE_SIZE, false);
+
+        Assert.assertEquals(readAll(server).size(), 20);
+        Assert.assertEquals(server.requests, 2);
+    }
+
+    @Test
+    public void testShortPageEndsDataWhenTotalCountIsUnknown() {
+        StubQueryServer server = new StubQueryServer(25, 4, true);
+
+        Assert.assertEquals(readAll(server).size(), 4);
+        Assert.assertEquals(server.requests, 1);
+    }
+
+    @Test
+    public void testFullPagesAreFollowedWhenTotalCountIsUnknown() {
+        StubQueryServer server = new StubQueryServer(25, PAGE_SIZE, true);
+
+        Assert.assertEquals(readAll(server).size(), 25);
+        Assert.assertEquals(server.requests, 3);
+    }
+
+    @Test
+    public void testEmptyPageEndsData() {
+        //Total count is more, than the number of results, which server actually returns.
+        StubQueryServer server = new StubQueryServer(5, PAGE_SIZE, false);
+        server.totalCount = 50;
+
+        Assert.assertEquals(readAll(server).size(), 5);
+        Assert.assertEquals(server.requests, 2);
+    }
+
+    private List<String> readAll(StubQueryServer server) {
+        QueryClient queryClient = (QueryClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {QueryClient.class}, server);
+        Iterator<QueryResult> iterator = new PagingQueryIterator(queryClient, null, null, null, null, null, PAGE_SIZE,
+                null, null);
+        List<String> ids = Lists.newArrayList();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next().getTkiid());
+        }
+        return ids;
+    }
+
+    /**
+     * Serves pages of the query with given number of results, but returns no more than limit results per page.
+     * Only paged {@link ru.bpmink.bpm.api.client.QueryClient#queryEntities} method is called by the iterator.
+     */
+    private final class StubQueryServer implements InvocationHandler {
+
+        private final int resultCount;
+        private final int limit;
+        private final boolean countLimitExceeded;
+        private int totalCount;
+        private int requests;
+
+        private StubQueryServer(int resultCount, int limit, boolean countLimitExceeded) {
+            this.resultCount = resultCount;
+            this.limit = limit;
+            this.countLimitExceeded = countLimitExceeded;
+            this.totalCount = resultCount;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws ReflectiveOperationException {
+            Assert.assertEquals(method.getName(), "queryEntities");
+            requests++;
+            int offset = (Integer) args[OFFSET_PARAMETER];
+            int size = Math.min((Integer) args[SIZE_PARAMETER], limit);
+
+            JsonArray items = new JsonArray();
+            for (int i = offset; i < Math.min(offset + size, resultCount); i++) {
+                JsonObject item = new JsonObject();
+                item.addProperty("TKIID", String.valueOf(i));
+                items.add(item);
+            }
+            JsonObject page = new JsonObject();
+            page.addProperty("offset", offset);
+            page.addProperty("size", items.size());
+            page.addProperty("totalCount", totalCount);
+            page.addProperty("countLimitExceeded", countLimitExceeded);
+            page.add("items", items);
+            return wrap(serializationEngine.fromJson(page.toString(), QUERY_RESULT_SET_TYPE));
+        }
+    }
+
+    /**
+     * Root entity is not parsed, as {@link ru.bpmink.bpm.model.common.RestException} can't be made accessible
+     * to Gson on every supported jdk.
+     */
+    private static RestRootEntity<QueryResultSet> wrap(QueryResultSet resultSet) throws ReflectiveOperationException {
+        RestRootEntity<QueryResultSet> entity = new RestRootEntity<>();
+        Field payload = RestRootEntity.class.getDeclaredField("payload");
+        payload.setAccessible(true);
+        payload.set(entity, resultSet);
+        return entity;
+    }
+
+}
@@ -0,0 +1,161 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.QueryClient;
+import ru.bpmink.bpm.api.client.QueryResultSink;
+import ru.bpmink.bpm.model.common.Describable;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.query.Query;
+import ru.bpmink.bpm.model.query.QueryResult;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+import ru.bpmink.bpm.model.query.QueryResultSetCount;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelQueryExporterTest {
+
+    private static final TypeToken<QueryResultSet> QUERY_RESULT_SET_TYPE = new TypeToken<QueryResultSet>() {};
+    private static final TypeToken<QueryResultSetCount> QUERY_RESULT_SET_COUNT_TYPE =
+            new TypeToken<QueryResultSetCount>() {};
+    private static final int PAGE_SIZE = 10;
+    private static final int PARALLELISM = 3;
+    //Index of the offset and size parameters of the paged QueryClient#queryEntities method.
+    private static final int OFFSET_PARAMETER = 5;
+    private static final int SIZE_PARAMETER = 6;
+
+    private final SerializationEngine serializationEngine = new SerializationEngine();
+
+    @Test
+    public void testFullPagesAreExported() {
+        StubQueryServer server = new StubQueryServer(25, 25, PAGE_SIZE);
+        RecordingSink sink = new RecordingSink();
+
+        Assert.assertEquals(export(server, sink), 25);
+        assertExportedInOrder(sink, 25);
+        Assert.assertEquals(server.requests.get(), 3);
+    }
+
+    @Test
+    public void testShortPagesAreCompleted() {
+        //Server limits page size, so every page is returned by several requests.
+        StubQueryServer server = new StubQueryServer(25, 25, 4);
+        RecordingSink sink = new RecordingSink();
+
+        Assert.assertEquals(export(server, sink), 25);
+        assertExportedInOrder(sink, 25);
+        //Pages of 10, 10 and 5 results are returned by 3, 3 and 2 requests.
+        Assert.assertEquals(server.requests.get(), 8);
+    }
+
+    @Test
+    public void testEmptyResultSetIsNotRequested() {
+        StubQueryServer server = new StubQueryServer(0, 0, PAGE_SIZE);
+
+        Assert.assertEquals(export(server, new RecordingSink()), 0);
+        Assert.assertEquals(server.requests.get(), 0);
+    }
+
+    @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = ".*ended at offset: 20.*")
+    public void testResultSetEndedBeforeCountIsRejected() {
+        //Results were removed after the count was obtained.
+        export(new StubQueryServer(20, 30, PAGE_SIZE), new RecordingSink());
+    }
+
+    private int export(StubQueryServer server, QueryResultSink sink) {
+        QueryClient queryClient = (QueryClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {QueryClient.class}, server);
+        Query query = new Query();
+        query.setName("IBM.DEFAULTALLTASKSLIST_75");
+        return new ParallelQueryExporter(queryClient, query, null, null, null, null, null, PAGE_SIZE, PARALLELISM)
+                .export(sink);
+    }
+
+    private static void assertExportedInOrder(RecordingSink sink, int count) {
+        Assert.assertEquals(sink.ids.size(), count);
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals((int) sink.offsets.get(i), i);
+            Assert.assertEquals(sink.ids.get(i), String.valueOf(i), "Result at offset " + i + " is wrong");
+        }
+    }
+
+    private static final class RecordingSink implements QueryResultSink {
+
+        private final List<Integer> offsets = Lists.newArrayList();
+        private final List<String> ids = Lists.newArrayList();
+
+        @Override
+        public void accept(int offset, QueryResult queryResult) {
+            offsets.add(offset);
+            ids.add(queryResult.getTkiid());
+        }
+    }
+
+    /**
+     * Serves the query with given number of results, but returns no more than limit results per page.
+     * The count is reported separately, so the result set may end before it. Pages are requested concurrently.
+     */
+    private final class StubQueryServer implements InvocationHandler {
+
+        private final int resultCount;
+        private final int count;
+        private final int limit;
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private StubQueryServer(int resultCount, int count, int limit) {
+            this.resultCount = resultCount;
+            this.count = count;
+            this.limit = limit;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws ReflectiveOperationException {
+            if (method.getName().equals("queryEntitiesCount")) {
+                JsonObject resultSetCount = new JsonObject();
+                resultSetCount.addProperty("count", count);
+                return wrap(serializationEngine.fromJson(resultSetCount.toString(), QUERY_RESULT_SET_COUNT_TYPE));
+            }
+            Assert.assertEquals(method.getName(), "queryEntities");
+            requests.incrementAndGet();
+            int offset = (Integer) args[OFFSET_PARAMETER];
+            int size = Math.min((Integer) args[SIZE_PARAMETER], limit);
+
+            JsonArray items = new JsonArray();
+            for (int i = offset; i < Math.min(offset + size, resultCount); i++) {
+                JsonObject item = new JsonObject();
+                item.addProperty("TKIID", String.valueOf(i));
+                items.add(item);
+            }
+            JsonObject page = new JsonObject();
+            page.addProperty("offset", offset);
+            page.addProperty("size", items.size());
+            page.add("items", items);
+            return wrap(serializationEngine.fromJson(page.toString(), QUERY_RESULT_SET_TYPE));
+        }
+    }
+
+    /**
+     * Root entity is not parsed, as {@link ru.bpmink.bpm.model.common.RestException} can't be made accessible
+     * to Gson on every supported jdk.
+     */
+    private static <T extends Describable> RestRootEntity<T> wrap(T payload) throws ReflectiveOperationException {
+        RestRootEntity<T> entity = new RestRootEntity<>();
+        Field field = RestRootEntity.class.getDeclaredField("payload");
+        field.setAccessible(true);
+        field.set(entity, payload);
+        return entity;
+    }
+
+}
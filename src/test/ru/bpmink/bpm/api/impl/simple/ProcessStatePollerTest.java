@@ -0,0 +1,150 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.gson.reflect.TypeToken;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.ProcessClient;
+import ru.bpmink.bpm.model.common.RestRootEntity;
+import ru.bpmink.bpm.model.process.ProcessStatus;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProcessStatePollerTest {
+
+    private static final String PIID = "2078.1";
+    private static final List<String> PIIDS = Collections.singletonList(PIID);
+    private static final TypeToken<ProcessStatus> PROCESS_STATUS_TYPE = new TypeToken<ProcessStatus>() {};
+    private static final String RUNNING_STATUS = "{\"piid\":\"" + PIID + "\",\"state\":\"STATE_RUNNING\"}";
+    //Time, in which the second poll chain would have polled the instance.
+    private static final long QUIET_PERIOD = 500;
+
+    private final SerializationEngine serializationEngine = new SerializationEngine();
+    private final AtomicInteger polls = new AtomicInteger();
+    private final AtomicInteger concurrentPolls = new AtomicInteger();
+    private final AtomicInteger maxConcurrentPolls = new AtomicInteger();
+    private volatile CountDownLatch pollStarted;
+    private volatile CountDownLatch pollReleased;
+    private ProcessStatePoller poller;
+
+    @BeforeMethod
+    public void createPoller() {
+        polls.set(0);
+        maxConcurrentPolls.set(0);
+        pollStarted = new CountDownLatch(1);
+        pollReleased = new CountDownLatch(0);
+        //Interval is long enough, so the instance is polled only on demand during the test.
+        poller = new ProcessStatePoller(stubProcessClient(), 1, TimeUnit.HOURS, 4);
+    }
+
+    @AfterMethod
+    public void closePoller() {
+        pollReleased.countDown();
+        poller.close();
+    }
+
+    @Test
+    public void testPollNowDuringPollPollsOnceAfterIt() throws InterruptedException {
+        pollReleased = new CountDownLatch(1);
+        poller.watch(PIIDS);
+        poller.pollNow(PIIDS);
+        Assert.assertTrue(pollStarted.await(5, TimeUnit.SECONDS), "Instance is not polled on demand");
+
+        poller.pollNow(PIIDS);
+        poller.pollNow(PIIDS);
+        pollReleased.countDown();
+        Thread.sleep(QUIET_PERIOD);
+
+        //Requested poll follows the current one, and doesn't start the second chain.
+        Assert.assertEquals(polls.get(), 2);
+        Assert.assertEquals(maxConcurrentPolls.get(), 1);
+        Assert.assertNotNull(poller.getLastStatus(PIID));
+    }
+
+    @Test
+    public void testPollNowAfterPollPollsAgain() throws InterruptedException {
+        poller.watch(PIIDS);
+        poller.pollNow(PIIDS);
+        Assert.assertTrue(pollStarted.await(5, TimeUnit.SECONDS), "Instance is not polled on demand");
+        waitForStatus();
+
+        pollStarted = new CountDownLatch(1);
+        poller.pollNow(PIIDS);
+        Assert.assertTrue(pollStarted.await(5, TimeUnit.SECONDS), "Instance is not polled on demand again");
+        Thread.sleep(QUIET_PERIOD);
+
+        Assert.assertEquals(polls.get(), 2);
+        Assert.assertEquals(maxConcurrentPolls.get(), 1);
+    }
+
+    @Test
+    public void testUnwatchedInstanceIsNotPolled() throws InterruptedException {
+        poller.watch(PIIDS);
+        poller.unwatch(PIIDS);
+        poller.pollNow(PIIDS);
+        Thread.sleep(QUIET_PERIOD);
+
+        Assert.assertEquals(polls.get(), 0);
+        Assert.assertTrue(poller.getWatched().isEmpty());
+    }
+
+    private void waitForStatus() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (poller.getLastStatus(PIID) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertNotNull(poller.getLastStatus(PIID), "Status of the instance is not received");
+    }
+
+    /**
+     * Root entity is not parsed, as {@link ru.bpmink.bpm.model.common.RestException} can't be made accessible
+     * to Gson on every supported jdk.
+     */
+    private static RestRootEntity<ProcessStatus> wrap(ProcessStatus status) throws ReflectiveOperationException {
+        RestRootEntity<ProcessStatus> entity = new RestRootEntity<>();
+        Field payload = RestRootEntity.class.getDeclaredField("payload");
+        payload.setAccessible(true);
+        payload.set(entity, status);
+        return entity;
+    }
+
+    /**
+     * Only {@link ProcessClient#currentStatus(String)} is called by the poller. It counts the polls, and blocks
+     * until {@link #pollReleased} is opened.
+     */
+    private ProcessClient stubProcessClient() {
+        return (ProcessClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ProcessClient.class},
+                new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
+                        Assert.assertEquals(method.getName(), "currentStatus");
+                        int concurrent = concurrentPolls.incrementAndGet();
+                        try {
+                            if (concurrent > maxConcurrentPolls.get()) {
+                                maxConcurrentPolls.set(concurrent);
+                            }
+                            polls.incrementAndGet();
+                            pollStarted.countDown();
+                            pollReleased.await(5, TimeUnit.SECONDS);
+                            return wrap(serializationEngine.fromJson(RUNNING_STATUS, PROCESS_STATUS_TYPE));
+                        } finally {
+                            concurrentPolls.decrementAndGet();
+                        }
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,150 @@
+package ru.bpmink.bpm.api.impl.simple;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.api.client.QueryClient;
+import ru.bpmink.bpm.api.client.QueryResultDelta;
+import ru.bpmink.bpm.model.query.Query;
+import ru.bpmink.bpm.model.query.QueryResult;
+import ru.bpmink.bpm.model.query.QueryResultSet;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+public class QueryResultWatcherTest {
+
+    private static final TypeToken<QueryResultSet> QUERY_RESULT_SET_TYPE = new TypeToken<QueryResultSet>() {};
+    private static final String IDENTIFIER = "TKIID";
+
+    private final SerializationEngine serializationEngine = new SerializationEngine();
+    private QueryResultWatcher watcher;
+
+    @BeforeMethod
+    public void createWatcher() {
+        //Result sets are passed to the watcher directly, so the client is never called.
+        QueryClient queryClient = (QueryClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {QueryClient.class}, new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        watcher = new QueryResultWatcher(queryClient, new Query(), null, null, null, null, null, null);
+    }
+
+    @Test
+    public void testFirstUpdateReportsAllResultsAsAdded() {
+        QueryResultDelta delta = watcher.update(resultSet(task("1", 10), task("2", 20)));
+
+        Assert.assertEquals(getIds(delta.getAdded()), Lists.newArrayList("1", "2"));
+        Assert.assertTrue(delta.getRemoved().isEmpty());
+        Assert.assertTrue(delta.getChanged().isEmpty());
+        Assert.assertFalse(delta.isEmpty());
+    }
+
+    @Test
+    public void testSameResultsGiveEmptyDelta() {
+        watcher.update(resultSet(task("1", 10), task("2", 20)));
+
+        QueryResultDelta delta = watcher.update(resultSet(task("2", 20), task("1", 10)));
+
+        Assert.assertTrue(delta.isEmpty());
+    }
+
+    @Test
+    public void testAddedRemovedAndChangedResultsAreDetected() {
+        watcher.update(resultSet(task("1", 10), task("2", 20), task("3", 30)));
+
+        JsonObject renamed = task("3", 30);
+        renamed.addProperty("NAME", "Renamed");
+        QueryResultDelta delta = watcher.update(resultSet(task("2", 25), renamed, task("4", 40)));
+
+        Assert.assertEquals(getIds(delta.getAdded()), Lists.newArrayList("4"));
+        Assert.assertEquals(getIds(delta.getRemoved()), Lists.newArrayList("1"));
+        Assert.assertEquals(getIds(delta.getChanged()), Lists.newArrayList("2", "3"));
+        Assert.assertEquals(delta.getChangedAttributes("2"), ImmutableSet.of("PRIORITY"));
+        Assert.assertEquals(delta.getChangedAttributes("3"), ImmutableSet.of("NAME"));
+        Assert.assertTrue(delta.getChangedAttributes("4").isEmpty());
+        Assert.assertEquals((int) delta.getChanged().get(0).getPriority(), 25);
+    }
+
+    @Test
+    public void testAttributeBecomingNullIsChange() {
+        JsonObject owned = task("1", 10);
+        owned.addProperty("OWNER", "user");
+        watcher.update(resultSet(owned));
+
+        QueryResultDelta delta = watcher.update(resultSet(task("1", 10)));
+
+        Assert.assertEquals(delta.getChangedAttributes("1"), ImmutableSet.of("OWNER"));
+    }
+
+    @Test
+    public void testDuplicatesAndResultsWithoutIdentifierAreIgnored() {
+        JsonObject anonymous = new JsonObject();
+        anonymous.addProperty("NAME", "Anonymous");
+
+        QueryResultDelta delta = watcher.update(resultSet(task("1", 10), anonymous, task("1", 99)));
+
+        Assert.assertEquals(getIds(delta.getAdded()), Lists.newArrayList("1"));
+        Assert.assertEquals((int) delta.getAdded().get(0).getPriority(), 10);
+    }
+
+    @Test
+    public void testResetReportsAllResultsAsAddedAgain() {
+        watcher.update(resultSet(task("1", 10)));
+        watcher.reset();
+
+        QueryResultDelta delta = watcher.update(resultSet(task("1", 10)));
+
+        Assert.assertEquals(getIds(delta.getAdded()), Lists.newArrayList("1"));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testUnknownIdentifierIsRejected() {
+        JsonObject resultSet = new JsonObject();
+        resultSet.addProperty("identifier", "UNKNOWN");
+        watcher.update(serializationEngine.fromJson(resultSet.toString(), QUERY_RESULT_SET_TYPE));
+    }
+
+    private static JsonObject task(String tkiid, int priority) {
+        JsonObject task = new JsonObject();
+        task.addProperty(IDENTIFIER, tkiid);
+        task.addProperty("NAME", "Task " + tkiid);
+        task.addProperty("PRIORITY", priority);
+        task.addProperty("DUE", "2026-10-17T10:00:00Z");
+        return task;
+    }
+
+    private QueryResultSet resultSet(JsonObject... results) {
+        JsonArray items = new JsonArray();
+        for (JsonObject result : results) {
+            items.add(result);
+        }
+        JsonObject resultSet = new JsonObject();
+        resultSet.addProperty("identifier", IDENTIFIER);
+        resultSet.add("items", items);
+        return serializationEngine.fromJson(resultSet.toString(), QUERY_RESULT_SET_TYPE);
+    }
+
+    private static List<String> getIds(List<QueryResult> results) {
+        List<String> ids = Lists.newArrayList();
+        for (QueryResult result : results) {
+            ids.add(result.getTkiid());
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,90 @@
+package ru.bpmink.bpm.api.metrics;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.pool.PoolStats;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class HistogramClientMetricsTest {
+
+    private static final String TASK_ENDPOINT = "/rest/bpm/wle/v1/task/{id}";
+    private static final String PROCESS_ENDPOINT = "/rest/bpm/wle/v1/process/{id}";
+
+    @Test
+    public void testCallsAreAggregatedByOperation() {
+        HistogramClientMetrics metrics = new HistogramClientMetrics();
+        metrics.requestCompleted(RequestMetrics.builder("GET", TASK_ENDPOINT).setStatusCode(200)
+                .setRequestBuildNanos(1).setConnectionLeaseNanos(2).setServerNanos(3).setDeserializationNanos(4)
+                .build());
+        metrics.requestCompleted(RequestMetrics.builder("GET", TASK_ENDPOINT).setStatusCode(404)
+                .setServerNanos(6).build());
+        metrics.requestCompleted(RequestMetrics.builder("PUT", TASK_ENDPOINT).setStatusCode(200).build());
+        metrics.requestCompleted(RequestMetrics.builder("GET", PROCESS_ENDPOINT).setStatusCode(200).build());
+
+        Assert.assertEquals(metrics.getOperations().keySet().toString(),
+                "[GET " + PROCESS_ENDPOINT + ", GET " + TASK_ENDPOINT + ", PUT " + TASK_ENDPOINT + "]");
+        HistogramClientMetrics.OperationStats stats = metrics.getOperation("GET", TASK_ENDPOINT);
+        Assert.assertNotNull(stats);
+        Assert.assertEquals(stats.getTotal().getCount(), 2);
+        Assert.assertEquals(stats.getTotal().getMax(), 10);
+        Assert.assertEquals(stats.getServer().getSum(), 9);
+        //Unknown measurements are not recorded.
+        Assert.assertEquals(stats.getRequestBuild().getCount(), 1);
+        Assert.assertEquals(stats.getStatusCodes(), ImmutableMap.of(200, 1L, 404, 1L));
+        Assert.assertNull(metrics.getOperation("DELETE", TASK_ENDPOINT));
+    }
+
+    @Test
+    public void testFailuresAndPoolTimeoutsAreCounted() {
+        HistogramClientMetrics metrics = new HistogramClientMetrics();
+        metrics.requestCompleted(RequestMetrics.builder("GET", TASK_ENDPOINT)
+                .setFailure(new ConnectionPoolTimeoutException()).build());
+        metrics.requestCompleted(RequestMetrics.builder("GET", TASK_ENDPOINT)
+                .setFailure(new IllegalStateException()).build());
+
+        HistogramClientMetrics.OperationStats stats = metrics.getOperation("GET", TASK_ENDPOINT);
+        Assert.assertEquals(stats.getFailures(), 2);
+        Assert.assertEquals(stats.getPoolTimeouts(), 1);
+        Assert.assertTrue(stats.getStatusCodes().isEmpty());
+    }
+
+    @Test
+    public void testCompressionRatio() {
+        HistogramClientMetrics metrics = new HistogramClientMetrics();
+        Assert.assertEquals(metrics.getCompressionRatio(), 1.0);
+
+        metrics.requestCompleted(RequestMetrics.builder("GET", TASK_ENDPOINT).setResponseBytes(100)
+                .setDecodedResponseBytes(400).setContentEncoding("gzip").build());
+        metrics.requestCompleted(RequestMetrics.builder("GET", PROCESS_ENDPOINT).setResponseBytes(100)
+                .setDecodedResponseBytes(100).build());
+        //Response of unknown size doesn't affect the ratio.
+        metrics.requestCompleted(RequestMetrics.builder("GET", PROCESS_ENDPOINT).setDecodedResponseBytes(100)
+                .build());
+
+        Assert.assertEquals(metrics.getOperation("GET", TASK_ENDPOINT).getCompressionRatio(), 4.0);
+        Assert.assertEquals(metrics.getOperation("GET", TASK_ENDPOINT).getEncodedResponses(), 1);
+        Assert.assertEquals(metrics.getOperation("GET", PROCESS_ENDPOINT).getCompressionRatio(), 1.0);
+        Assert.assertEquals(metrics.getCompressionRatio(), 2.5);
+    }
+
+    @Test
+    public void testPoolStatsAndReset() {
+        HistogramClientMetrics metrics = new HistogramClientMetrics();
+        PoolStats busy = new PoolStats(10, 3, 0, 10);
+        PoolStats idle = new PoolStats(1, 0, 9, 10);
+        metrics.requestCompleted(RequestMetrics.builder("GET", TASK_ENDPOINT).setPoolStats(busy).build());
+        metrics.requestCompleted(RequestMetrics.builder("GET", TASK_ENDPOINT).setPoolStats(idle).build());
+
+        Assert.assertSame(metrics.getLastPoolStats(), idle);
+        Assert.assertEquals(metrics.getMaxLeased(), 10);
+        Assert.assertEquals(metrics.getMaxPending(), 3);
+
+        metrics.reset();
+        Assert.assertTrue(metrics.getOperations().isEmpty());
+        Assert.assertNull(metrics.getLastPoolStats());
+        Assert.assertEquals(metrics.getMaxLeased(), 0);
+    }
+
+}
@@ -0,0 +1,155 @@
+package ru.bpmink.bpm.api.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HistogramTest {
+
+    //Every power of two is divided into 8 buckets.
+    private static final double MAX_RELATIVE_ERROR = 0.125;
+
+    @Test
+    public void testEmptyHistogram() {
+        Histogram histogram = new Histogram();
+
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getSum(), 0);
+        Assert.assertEquals(histogram.getMin(), 0);
+        Assert.assertEquals(histogram.getMax(), 0);
+        Assert.assertEquals(histogram.getMean(), 0.0);
+        Assert.assertEquals(histogram.getPercentile(99), 0);
+    }
+
+    @Test
+    public void testSmallValuesAreCountedExactly() {
+        Histogram histogram = new Histogram();
+        for (long value = 0; value < 16; value++) {
+            histogram.record(value);
+        }
+
+        for (int rank = 1; rank <= 16; rank++) {
+            Assert.assertEquals(histogram.getPercentile(rank * 100.0 / 16), rank - 1, "Rank " + rank);
+        }
+        Assert.assertEquals(histogram.getPercentile(0), 0);
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        //Values 8..15 have their own buckets, 16..31 are counted by two, and so on.
+        assertSingleValuePercentile(8, 8);
+        assertSingleValuePercentile(16, 17);
+        assertSingleValuePercentile(17, 17);
+        assertSingleValuePercentile(1000, 1023);
+        assertSingleValuePercentile(1024, 1151);
+    }
+
+    @Test
+    public void testPercentilesAreUpperBoundsWithinRelativeError() {
+        Histogram histogram = new Histogram();
+        int count = 100000;
+        for (int value = 1; value <= count; value++) {
+            histogram.record(value * 1000L);
+        }
+
+        for (double percentile : new double[] {1, 25, 50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(count * percentile / 100) * 1000L;
+            long estimated = histogram.getPercentile(percentile);
+            Assert.assertTrue(estimated >= exact, "p" + percentile + ": " + estimated + " < " + exact);
+            Assert.assertTrue(estimated <= exact * (1 + MAX_RELATIVE_ERROR),
+                    "p" + percentile + ": " + estimated + " is too far from " + exact);
+        }
+        Assert.assertEquals(histogram.getPercentile(100), count * 1000L);
+    }
+
+    @Test
+    public void testPercentileNeverExceedsMax() {
+        Histogram histogram = new Histogram();
+        histogram.record(1000);
+
+        Assert.assertEquals(histogram.getPercentile(50), 1000);
+        Assert.assertEquals(histogram.getPercentile(100), 1000);
+    }
+
+    @Test
+    public void testLargestValue() {
+        Histogram histogram = new Histogram();
+        histogram.record(Long.MAX_VALUE);
+
+        Assert.assertEquals(histogram.getPercentile(100), Long.MAX_VALUE);
+        Assert.assertEquals(histogram.getMax(), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testSummaryStatistics() {
+        Histogram histogram = new Histogram();
+        histogram.record(10);
+        histogram.record(30);
+        histogram.record(-1);
+        histogram.record(20);
+
+        Assert.assertEquals(histogram.getCount(), 3);
+        Assert.assertEquals(histogram.getSum(), 60);
+        Assert.assertEquals(histogram.getMin(), 10);
+        Assert.assertEquals(histogram.getMax(), 30);
+        Assert.assertEquals(histogram.getMean(), 20.0);
+    }
+
+    @Test
+    public void testReset() {
+        Histogram histogram = new Histogram();
+        histogram.record(10);
+        histogram.reset();
+
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getMin(), 0);
+        Assert.assertEquals(histogram.getMax(), 0);
+        Assert.assertEquals(histogram.getPercentile(50), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPercentileOutOfRangeIsRejected() {
+        new Histogram().getPercentile(100.1);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        final Histogram histogram = new Histogram();
+        final int threads = 4;
+        final int values = 10000;
+        List<Thread> recorders = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread recorder = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (int value = 1; value <= values; value++) {
+                        histogram.record(value);
+                    }
+                }
+            });
+            recorder.start();
+            recorders.add(recorder);
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+
+        Assert.assertEquals(histogram.getCount(), threads * values);
+        Assert.assertEquals(histogram.getSum(), threads * (long) values * (values + 1) / 2);
+        Assert.assertEquals(histogram.getMin(), 1);
+        Assert.assertEquals(histogram.getMax(), values);
+    }
+
+    private static void assertSingleValuePercentile(long value, long expectedUpperBound) {
+        Histogram histogram = new Histogram();
+        histogram.record(value);
+        //Bucket upper bound is reported, if it doesn't exceed the max, so the max is recorded separately.
+        histogram.record(Long.MAX_VALUE);
+
+        Assert.assertEquals(histogram.getPercentile(50), expectedUpperBound, "Value " + value);
+    }
+
+}
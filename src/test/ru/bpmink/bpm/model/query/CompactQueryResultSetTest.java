@@ -0,0 +1,144 @@
+package ru.bpmink.bpm.model.query;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+import ru.bpmink.bpm.model.process.ExecutionState;
+import ru.bpmink.bpm.model.process.ProcessState;
+import ru.bpmink.bpm.model.task.TaskKind;
+
+import java.io.IOException;
+import java.util.List;
+
+public class CompactQueryResultSetTest {
+
+    private static final TypeToken<QueryResultSet> QUERY_RESULT_SET_TYPE = new TypeToken<QueryResultSet>() {};
+    private static final TypeToken<CompactQueryResultSet> COMPACT_QUERY_RESULT_SET_TYPE =
+            new TypeToken<CompactQueryResultSet>() {};
+    //Number of rows, which is enough for the column of mostly distinct values to drop its dictionary.
+    private static final int PLAIN_COLUMN_ROWS = 3000;
+
+    private final SerializationEngine serializationEngine = new SerializationEngine();
+    private QueryResultSet queryResultSet;
+    private CompactQueryResultSet compactQueryResultSet;
+
+    @BeforeClass
+    public void parseFixture() throws IOException {
+        String response = Resources.toString(Resources.getResource("fixtures/query-result-set.json"), Charsets.UTF_8);
+        //Only payload is parsed, so the test doesn't depend on the parsing of the root entity.
+        String data = new JsonParser().parse(response).getAsJsonObject().get("data").toString();
+        queryResultSet = serializationEngine.fromJson(data, QUERY_RESULT_SET_TYPE);
+        compactQueryResultSet = serializationEngine.fromJson(data, COMPACT_QUERY_RESULT_SET_TYPE);
+    }
+
+    @Test
+    public void testDecodedResultsMatchGsonResults() {
+        assertResultsMatch(compactQueryResultSet, queryResultSet);
+    }
+
+    @Test
+    public void testEnumsAreDecodedBySerializedNames() {
+        QueryResult running = compactQueryResultSet.getRow(0).toQueryResult();
+        Assert.assertEquals(running.getStatus(), ExecutionState.ACTIVE);
+        Assert.assertEquals(running.getState(), ProcessState.STATE_RUNNING);
+        Assert.assertEquals(running.getKind(), TaskKind.KIND_PARTICIPATING);
+
+        QueryResult finished = compactQueryResultSet.getRow(1).toQueryResult();
+        Assert.assertEquals(finished.getStatus(), ExecutionState.COMPLETED);
+        Assert.assertEquals(finished.getState(), ProcessState.STATE_FINISHED);
+        Assert.assertEquals(finished.getKind(), TaskKind.KIND_ADMINISTRATIVE);
+
+        //Unknown constants are decoded as null, as Gson does.
+        CompactQueryResultSet.Row unknown = compactQueryResultSet.getRow(3);
+        Assert.assertEquals(unknown.getString("PI_STATE"), "STATE_UNKNOWN");
+        Assert.assertNull(unknown.get("PI_STATE"));
+        Assert.assertNull(unknown.toQueryResult().getStatus());
+    }
+
+    @Test
+    public void testValuesAreStoredByAttributeType() {
+        CompactQueryResultSet.Row row = compactQueryResultSet.getRow(0);
+
+        Assert.assertEquals(row.getInteger("PRIORITY"), Integer.valueOf(30));
+        Assert.assertEquals(row.getDate("DUE"), queryResultSet.getQueryResults().get(0).getDue());
+        Assert.assertEquals(row.getTimestamp("DUE", -1), row.getDate("DUE").getTime());
+        Assert.assertEquals(row.get("ACTIVATED"), queryResultSet.getQueryResults().get(0).getActivated());
+        Assert.assertEquals(row.get("NAME"), "Submit position request");
+        //Unknown attributes are kept as strings, arrays as json.
+        Assert.assertEquals(CompactQueryResultSet.getAttributeType("IS_AT_RISK"), String.class);
+        Assert.assertEquals(row.get("IS_AT_RISK"), "true");
+        Assert.assertEquals(row.getString("TAGS"), "[\"hr\",\"urgent\"]");
+    }
+
+    @Test
+    public void testNullsAndMissingAttributes() {
+        CompactQueryResultSet.Row sparse = compactQueryResultSet.getRow(2);
+        for (String attribute : new String[] {"NAME", "PRIORITY", "DUE", "PI_STATE", "OWNER", "ASSIGNED_TO_ROLE",
+                "UNKNOWN"}) {
+            Assert.assertTrue(sparse.isNull(attribute), attribute);
+            Assert.assertNull(sparse.get(attribute), attribute);
+        }
+        Assert.assertEquals(sparse.getTimestamp("DUE", -1), -1);
+        Assert.assertNull(sparse.getInteger("PRIORITY"));
+        Assert.assertNull(sparse.getDate("DUE"));
+        //Attribute, which is null in every row, has no column.
+        Assert.assertFalse(compactQueryResultSet.getColumnNames().contains("ASSIGNED_TO_ROLE"));
+    }
+
+    @Test
+    public void testPagingAttributesMatchGsonResults() {
+        Assert.assertEquals(compactQueryResultSet.getIdentifier(), queryResultSet.getIdentifier());
+        Assert.assertEquals(compactQueryResultSet.getTotalCount(), queryResultSet.getTotalCount());
+        Assert.assertEquals(compactQueryResultSet.getOffset(), queryResultSet.getOffset());
+        Assert.assertEquals(compactQueryResultSet.getSize(), queryResultSet.getSize());
+        Assert.assertEquals(compactQueryResultSet.getRowCount(), queryResultSet.getQueryResults().size());
+        Assert.assertEquals(compactQueryResultSet.getAttributes().size(), 1);
+    }
+
+    @Test
+    public void testMostlyDistinctValuesAreStoredWithoutDictionary() {
+        JsonArray items = new JsonArray();
+        for (int i = 0; i < PLAIN_COLUMN_ROWS; i++) {
+            JsonObject item = new JsonObject();
+            //Some ids are missing, so nulls are kept, when the dictionary is dropped.
+            if (i % 7 != 3) {
+                item.addProperty("TKIID", "2078." + i);
+            }
+            item.addProperty("NAME", "Step " + i % 20);
+            items.add(item);
+        }
+        JsonObject resultSet = new JsonObject();
+        resultSet.add("items", items);
+        String data = resultSet.toString();
+
+        CompactQueryResultSet compact = serializationEngine.fromJson(data, COMPACT_QUERY_RESULT_SET_TYPE);
+
+        Assert.assertTrue(compact.toString().contains("columns=[string, string[20 distinct]]"), compact.toString());
+        assertResultsMatch(compact, serializationEngine.fromJson(data, QUERY_RESULT_SET_TYPE));
+        Assert.assertTrue(compact.getRow(PLAIN_COLUMN_ROWS - 1).isNull("TKIID"));
+        Assert.assertEquals(compact.getRow(PLAIN_COLUMN_ROWS - 2).getString("TKIID"),
+                "2078." + (PLAIN_COLUMN_ROWS - 2));
+    }
+
+    private void assertResultsMatch(CompactQueryResultSet compact, QueryResultSet resultSet) {
+        List<QueryResult> expected = resultSet.getQueryResults();
+        List<QueryResult> actual = compact.getQueryResults();
+
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(serializationEngine.toJson(actual.get(i)), serializationEngine.toJson(expected.get(i)),
+                    "Row " + i + " is decoded differently");
+        }
+    }
+
+}
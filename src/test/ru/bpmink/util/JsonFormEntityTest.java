@@ -0,0 +1,94 @@
+package ru.bpmink.util;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+import org.apache.http.Consts;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import ru.bpmink.adapters.SerializationEngine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class JsonFormEntityTest {
+
+    private static final String PARAMETER = "params";
+
+    private final SerializationEngine serializationEngine = new SerializationEngine();
+
+    @Test
+    public void testValueIsEncodedAsHttpClientDoes() throws IOException {
+        Map<String, Object> value = ImmutableMap.<String, Object>of(
+                "comment", "Needs review & approval: 100% = done?",
+                //Cyrillic text, followed by the character out of the basic multilingual plane.
+                "name", "\u0417\u0430\u0434\u0430\u0447\u0430 \uD83D\uDE00",
+                "safe", "az-AZ_09.*~",
+                "priority", 30);
+
+        Assert.assertEquals(write(new JsonFormEntity(PARAMETER, value, serializationEngine)), encode(value));
+    }
+
+    @Test
+    public void testValueLargerThanBufferIsEncoded() throws IOException {
+        //Escaped characters are written across the buffer boundary.
+        String value = Strings.repeat("a \"b\" ", 2000) + "\u0436";
+
+        Assert.assertEquals(write(new JsonFormEntity(PARAMETER, value, serializationEngine)), encode(value));
+    }
+
+    @Test
+    public void testEncodedValueIsDecodedToJson() throws IOException {
+        Map<String, Object> value = ImmutableMap.<String, Object>of("key", "value with spaces+plus");
+        JsonFormEntity entity = new JsonFormEntity(PARAMETER, value, serializationEngine);
+
+        List<NameValuePair> parameters = URLEncodedUtils.parse(entity);
+        Assert.assertEquals(parameters.size(), 1);
+        Assert.assertEquals(parameters.get(0).getName(), PARAMETER);
+        Assert.assertEquals(parameters.get(0).getValue(), serializationEngine.toJson(value));
+    }
+
+    @Test
+    public void testNullValueIsEncodedAsJsonNull() throws IOException {
+        Assert.assertEquals(write(new JsonFormEntity(PARAMETER, null, serializationEngine)), PARAMETER + "=null");
+    }
+
+    @Test
+    public void testEntityIsRepeatable() throws IOException {
+        JsonFormEntity entity = new JsonFormEntity(PARAMETER, Lists.newArrayList("a", "b"), serializationEngine);
+
+        Assert.assertTrue(entity.isRepeatable());
+        Assert.assertFalse(entity.isStreaming());
+        Assert.assertEquals(entity.getContentLength(), -1);
+        Assert.assertEquals(entity.getContentType().getValue(), "application/x-www-form-urlencoded; charset=UTF-8");
+        String content = EntityUtils.toString(entity);
+        Assert.assertEquals(EntityUtils.toString(entity), content);
+        Assert.assertEquals(write(entity), content);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNullNameIsRejected() {
+        new JsonFormEntity(null, "value", serializationEngine);
+    }
+
+    private static String write(JsonFormEntity entity) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        entity.writeTo(body);
+        return new String(body.toByteArray(), Consts.ASCII);
+    }
+
+    private String encode(Object value) {
+        List<NameValuePair> parameters = Lists.<NameValuePair>newArrayList(
+                new BasicNameValuePair(PARAMETER, serializationEngine.toJson(value)));
+        return URLEncodedUtils.format(parameters, Consts.UTF_8);
+    }
+
+}